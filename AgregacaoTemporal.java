@@ -0,0 +1,461 @@
+package br.edu.icev.aed.forense.extended;
+
+import br.edu.icev.aed.forense.LogEntry;
+import br.edu.icev.aed.forense.util.CSVReader;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Agregação temporal pré-calculada de um conjunto de logs.
+ *
+ * Os eventos são somados uma única vez em buckets de minuto, hora e dia
+ * (arrays primitivos indexados pelo deslocamento a partir do primeiro bucket).
+ * Para cada bucket guarda:
+ * - número de eventos
+ * - número de sessões inválidas iniciadas no bucket
+ * - total de BYTES_TRANSFERRED
+ * - maior SEVERITY_LEVEL
+ *
+ * Qualquer janela múltipla de 60 segundos é respondida juntando buckets do
+ * nível mais grosso que a divide, sem reler o arquivo. Assim é possível
+ * alternar entre janelas de 1 minuto e de 1 hora sobre o mesmo objeto.
+ *
+ * Se os timestamps cobrem um período longo demais para um array por minuto
+ * (ex.: um timestamp fora da faixa real), os níveis passam a guardar só os
+ * buckets com dados, como o histograma de
+ * {@link SessoesInvalidasExtended#padraoTemporalInvalidas}.
+ *
+ * As janelas são alinhadas com Math.floorDiv, como no padraoTemporalInvalidas.
+ *
+ * USO OPCIONAL: Para análises exploratórias repetidas sobre o mesmo arquivo.
+ */
+public class AgregacaoTemporal {
+
+    public static final long MINUTO = 60;
+    public static final long HORA = 60 * MINUTO;
+    public static final long DIA = 24 * HORA;
+
+    // Maior número de buckets de minuto para o qual o array denso compensa
+    // (2^20 minutos são quase dois anos)
+    private static final int LIMITE_BUCKETS = 1 << 20;
+
+    /**
+     * Agregado de uma janela de tempo
+     */
+    public static class Janela {
+        private final long inicio;
+        private final long duracao;
+        private final long eventos;
+        private final long sessoesInvalidas;
+        private final long bytesTransferidos;
+        private final int severidadeMaxima;
+
+        public Janela(long inicio, long duracao, long eventos, long sessoesInvalidas,
+                      long bytesTransferidos, int severidadeMaxima) {
+            this.inicio = inicio;
+            this.duracao = duracao;
+            this.eventos = eventos;
+            this.sessoesInvalidas = sessoesInvalidas;
+            this.bytesTransferidos = bytesTransferidos;
+            this.severidadeMaxima = severidadeMaxima;
+        }
+
+        // Getters
+        public long getInicio() { return inicio; }
+        public long getFim() { return inicio + duracao; }
+        public long getDuracao() { return duracao; }
+        public long getEventos() { return eventos; }
+        public long getSessoesInvalidas() { return sessoesInvalidas; }
+        public long getBytesTransferidos() { return bytesTransferidos; }
+        public int getSeveridadeMaxima() { return severidadeMaxima; }
+
+        @Override
+        public String toString() {
+            return String.format("Janela{inicio=%d, duração=%ds, eventos=%d, invalidas=%d, " +
+                               "bytes=%d, severidade_max=%d}",
+                               inicio, duracao, eventos, sessoesInvalidas,
+                               bytesTransferidos, severidadeMaxima);
+        }
+    }
+
+    /**
+     * Um nível de resolução: buckets de tamanho fixo a partir da origem.
+     *
+     * No modo denso (chaves == null) a posição nos arrays é o próprio índice
+     * do bucket. No modo esparso, usado quando os timestamps cobrem um período
+     * longo demais para um array por minuto, só existem os buckets com dados:
+     * chaves[p] é o índice do bucket da posição p, em ordem crescente.
+     */
+    private static final class Nivel {
+        final long tamanho;
+        final long origem;
+        final long[] chaves;
+        final int[] eventos;
+        final int[] invalidas;
+        final long[] bytes;
+        final byte[] severidadeMax;
+
+        Nivel(long tamanho, long origem, int buckets) {
+            this(tamanho, origem, null, buckets);
+        }
+
+        Nivel(long tamanho, long origem, long[] chaves) {
+            this(tamanho, origem, chaves, chaves.length);
+        }
+
+        private Nivel(long tamanho, long origem, long[] chaves, int posicoes) {
+            this.tamanho = tamanho;
+            this.origem = origem;
+            this.chaves = chaves;
+            this.eventos = new int[posicoes];
+            this.invalidas = new int[posicoes];
+            this.bytes = new long[posicoes];
+            this.severidadeMax = new byte[posicoes];
+        }
+
+        int posicoes() {
+            return eventos.length;
+        }
+
+        /**
+         * Buckets cobertos, do primeiro até o último com dados
+         */
+        long extensao() {
+            if (chaves == null) {
+                return eventos.length;
+            }
+            return chaves.length == 0 ? 0 : chaves[chaves.length - 1] + 1;
+        }
+
+        /**
+         * Índice do bucket que contém o timestamp (pode estar fora dos limites).
+         * A origem é múltipla do tamanho, então a subtração não perde nada e
+         * não transborda nem para timestamps extremos.
+         */
+        long indice(long timestamp) {
+            return Math.floorDiv(timestamp, tamanho) - origem / tamanho;
+        }
+
+        /**
+         * Índice do bucket da posição
+         */
+        long chave(int posicao) {
+            return chaves == null ? posicao : chaves[posicao];
+        }
+
+        /**
+         * Posição do bucket, ou -1 se ele não existe neste nível
+         */
+        int posicao(long indice) {
+            if (chaves == null) {
+                return indice >= 0 && indice < eventos.length ? (int) indice : -1;
+            }
+            int p = Arrays.binarySearch(chaves, indice);
+            return p >= 0 ? p : -1;
+        }
+
+        /**
+         * Primeira posição cujo bucket tem índice >= indice
+         */
+        int primeiraPosicao(long indice) {
+            if (chaves == null) {
+                return (int) Math.min(Math.max(0, indice), eventos.length);
+            }
+            int p = Arrays.binarySearch(chaves, indice);
+            return p >= 0 ? p : -p - 1;
+        }
+
+        /**
+         * Soma o bucket da posição i de outro nível na posição p deste
+         */
+        void acumular(int p, Nivel outro, int i) {
+            eventos[p] += outro.eventos[i];
+            invalidas[p] += outro.invalidas[i];
+            bytes[p] += outro.bytes[i];
+            if (outro.severidadeMax[i] > severidadeMax[p]) {
+                severidadeMax[p] = outro.severidadeMax[i];
+            }
+        }
+
+        /**
+         * Constrói um nível mais grosso somando os buckets deste nível
+         * (esparso se este for esparso)
+         */
+        Nivel agrupar(long novoTamanho) {
+            long novaOrigem = Math.floorDiv(origem, novoTamanho) * novoTamanho;
+
+            if (chaves != null) {
+                // Chaves crescentes: as que caem no mesmo bucket novo são vizinhas
+                long[] novasChaves = new long[chaves.length];
+                int distintas = 0;
+                for (long chave : chaves) {
+                    long j = Math.floorDiv(origem + chave * tamanho, novoTamanho) - novaOrigem / novoTamanho;
+                    if (distintas == 0 || novasChaves[distintas - 1] != j) {
+                        novasChaves[distintas++] = j;
+                    }
+                }
+                Nivel nivel = new Nivel(novoTamanho, novaOrigem, Arrays.copyOf(novasChaves, distintas));
+                int p = 0;
+                for (int i = 0; i < chaves.length; i++) {
+                    long j = nivel.indice(origem + chaves[i] * tamanho);
+                    while (nivel.chaves[p] != j) {
+                        p++;
+                    }
+                    nivel.acumular(p, this, i);
+                }
+                return nivel;
+            }
+
+            long fim = origem + posicoes() * tamanho;
+            int novosBuckets = (int) Math.max(1, Math.floorDiv(fim - 1 - novaOrigem, novoTamanho) + 1);
+
+            Nivel nivel = new Nivel(novoTamanho, novaOrigem, novosBuckets);
+            for (int i = 0; i < posicoes(); i++) {
+                if (eventos[i] == 0 && invalidas[i] == 0) {
+                    continue;
+                }
+                nivel.acumular((int) nivel.indice(origem + i * tamanho), this, i);
+            }
+            return nivel;
+        }
+    }
+
+    private final Nivel minutos;
+    private final Nivel horas;
+    private final Nivel dias;
+
+    private AgregacaoTemporal(Nivel minutos) {
+        this.minutos = minutos;
+        this.horas = minutos.agrupar(HORA);
+        this.dias = horas.agrupar(DIA);
+    }
+
+    /**
+     * Lê o arquivo uma vez e constrói a agregação.
+     *
+     * @param caminhoArquivoCsv Caminho para o arquivo de logs
+     * @return Agregação pronta para consultas
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static AgregacaoTemporal construir(String caminhoArquivoCsv) throws IOException {
+        return construir(CSVReader.lerTodosOsLogs(caminhoArquivoCsv));
+    }
+
+    /**
+     * Constrói a agregação a partir de logs já carregados.
+     * Sessões inválidas são contadas no bucket do seu primeiro timestamp,
+     * como em {@link SessoesInvalidasExtended#padraoTemporalInvalidas}.
+     *
+     * Complexidade: O(n + m) onde m é o número de minutos cobertos pelo log;
+     * se m passar de max(2^20, 4n), O(n log n) guardando só os minutos com eventos
+     */
+    public static AgregacaoTemporal construir(List<LogEntry> logs) {
+        SessoesInvalidasExtended.PassagemSessoes passagem =
+            SessoesInvalidasExtended.PassagemSessoes.executar(logs);
+
+        if (logs.isEmpty()) {
+            return new AgregacaoTemporal(new Nivel(MINUTO, 0, 0));
+        }
+
+        long menor = Long.MAX_VALUE;
+        long maior = Long.MIN_VALUE;
+        for (LogEntry log : logs) {
+            menor = Math.min(menor, log.getTimestamp());
+            maior = Math.max(maior, log.getTimestamp());
+        }
+
+        long origem = Math.floorDiv(menor, MINUTO) * MINUTO;
+        long buckets = Math.floorDiv(maior, MINUTO) - origem / MINUTO + 1;
+
+        Nivel nivel;
+        if (buckets <= Math.min(Integer.MAX_VALUE - 8, Math.max(LIMITE_BUCKETS, 4L * logs.size()))) {
+            // Buckets densos
+            nivel = new Nivel(MINUTO, origem, (int) buckets);
+        } else {
+            // Minutos esparsos: ordenar os minutos com eventos e manter os distintos
+            long[] chaves = new long[logs.size()];
+            for (int i = 0; i < chaves.length; i++) {
+                chaves[i] = Math.floorDiv(logs.get(i).getTimestamp(), MINUTO) - origem / MINUTO;
+            }
+            Arrays.sort(chaves);
+            int distintas = 0;
+            for (long chave : chaves) {
+                if (distintas == 0 || chaves[distintas - 1] != chave) {
+                    chaves[distintas++] = chave;
+                }
+            }
+            nivel = new Nivel(MINUTO, origem, Arrays.copyOf(chaves, distintas));
+        }
+
+        for (LogEntry log : logs) {
+            int i = nivel.posicao(nivel.indice(log.getTimestamp()));
+            nivel.eventos[i]++;
+            nivel.bytes[i] += log.getBytesTransferred();
+            byte severidade = (byte) Math.min(Byte.MAX_VALUE, Math.max(0, log.getSeverityLevel()));
+            if (severidade > nivel.severidadeMax[i]) {
+                nivel.severidadeMax[i] = severidade;
+            }
+        }
+        for (String sessionId : passagem.sessoesInvalidas) {
+            nivel.invalidas[nivel.posicao(nivel.indice(passagem.inicioPorSessao.get(sessionId)))]++;
+        }
+
+        return new AgregacaoTemporal(nivel);
+    }
+
+    /**
+     * Primeiro timestamp coberto pela agregação (alinhado ao minuto)
+     */
+    public long getInicio() {
+        return minutos.origem;
+    }
+
+    /**
+     * Timestamp final (exclusivo) coberto pela agregação
+     */
+    public long getFim() {
+        return minutos.origem + minutos.extensao() * MINUTO;
+    }
+
+    /**
+     * Agrega todo o período em janelas do tamanho informado.
+     *
+     * @param janelaSegundos Tamanho da janela, múltiplo de 60 segundos
+     * @return Janelas não vazias em ordem cronológica
+     */
+    public List<Janela> consultar(long janelaSegundos) {
+        return consultar(getInicio(), getFim(), janelaSegundos);
+    }
+
+    /**
+     * Agrega o intervalo [inicio, fim) em janelas do tamanho informado.
+     * As janelas são alinhadas a múltiplos de janelaSegundos desde a época,
+     * e apenas janelas com eventos ou sessões inválidas são retornadas.
+     *
+     * Complexidade: O(buckets do nível escolhido dentro do intervalo)
+     *
+     * @param inicio Timestamp inicial (inclusivo)
+     * @param fim Timestamp final (exclusivo)
+     * @param janelaSegundos Tamanho da janela, múltiplo de 60 segundos
+     * @return Janelas não vazias em ordem cronológica
+     */
+    public List<Janela> consultar(long inicio, long fim, long janelaSegundos) {
+        if (janelaSegundos <= 0 || janelaSegundos % MINUTO != 0) {
+            throw new IllegalArgumentException("Janela deve ser um múltiplo positivo de 60 segundos");
+        }
+
+        // Nível mais grosso que divide a janela
+        Nivel nivel = janelaSegundos % DIA == 0 ? dias
+                    : janelaSegundos % HORA == 0 ? horas
+                    : minutos;
+
+        List<Janela> resultado = new ArrayList<>();
+        if (nivel.posicoes() == 0 || fim <= inicio) {
+            return resultado;
+        }
+
+        int primeiro = nivel.primeiraPosicao(nivel.indice(Math.max(inicio, nivel.origem)));
+        long ultimo = nivel.indice(fim - 1);
+
+        long janelaAtual = Long.MIN_VALUE;
+        long eventos = 0, invalidas = 0, bytes = 0;
+        int severidade = 0;
+
+        for (int b = primeiro; b < nivel.posicoes() && nivel.chave(b) <= ultimo; b++) {
+            if (nivel.eventos[b] == 0 && nivel.invalidas[b] == 0) {
+                continue;
+            }
+            long janela = Math.floorDiv(nivel.origem + nivel.chave(b) * nivel.tamanho, janelaSegundos) * janelaSegundos;
+            if (janela != janelaAtual) {
+                if (janelaAtual != Long.MIN_VALUE) {
+                    resultado.add(new Janela(janelaAtual, janelaSegundos, eventos, invalidas, bytes, severidade));
+                }
+                janelaAtual = janela;
+                eventos = invalidas = bytes = 0;
+                severidade = 0;
+            }
+            eventos += nivel.eventos[b];
+            invalidas += nivel.invalidas[b];
+            bytes += nivel.bytes[b];
+            severidade = Math.max(severidade, nivel.severidadeMax[b]);
+        }
+        if (janelaAtual != Long.MIN_VALUE) {
+            resultado.add(new Janela(janelaAtual, janelaSegundos, eventos, invalidas, bytes, severidade));
+        }
+
+        return resultado;
+    }
+
+    /**
+     * Agrega todo o intervalo [inicio, fim) em um único resultado.
+     * Usa buckets de dia no miolo do intervalo e buckets de hora/minuto
+     * apenas nas bordas. Os limites são arredondados para o minuto.
+     *
+     * Complexidade: O(dias + 24 + 60) no pior caso; com níveis esparsos,
+     * O(log m + minutos com eventos no intervalo)
+     */
+    public Janela agregar(long inicio, long fim) {
+        long t = Math.floorDiv(inicio, MINUTO) * MINUTO;
+        long limite = Math.floorDiv(fim + MINUTO - 1, MINUTO) * MINUTO;
+
+        // Não há dados fora do período coberto
+        t = Math.max(t, getInicio());
+        limite = Math.min(limite, getFim());
+
+        long eventos = 0, invalidas = 0, bytes = 0;
+        int severidade = 0;
+
+        if (minutos.chaves != null) {
+            // Níveis esparsos: somar os minutos com eventos do intervalo
+            long ultimo = minutos.indice(limite - 1);
+            for (int b = minutos.primeiraPosicao(minutos.indice(t));
+                 b < minutos.posicoes() && minutos.chave(b) <= ultimo; b++) {
+                eventos += minutos.eventos[b];
+                invalidas += minutos.invalidas[b];
+                bytes += minutos.bytes[b];
+                severidade = Math.max(severidade, minutos.severidadeMax[b]);
+            }
+            return new Janela(inicio, fim - inicio, eventos, invalidas, bytes, severidade);
+        }
+
+        while (t < limite) {
+            Nivel nivel;
+            if (Math.floorMod(t, DIA) == 0 && t + DIA <= limite && t >= dias.origem) {
+                nivel = dias;
+            } else if (Math.floorMod(t, HORA) == 0 && t + HORA <= limite && t >= horas.origem) {
+                nivel = horas;
+            } else {
+                nivel = minutos;
+            }
+
+            int b = nivel.posicao(nivel.indice(t));
+            if (b >= 0) {
+                eventos += nivel.eventos[b];
+                invalidas += nivel.invalidas[b];
+                bytes += nivel.bytes[b];
+                severidade = Math.max(severidade, nivel.severidadeMax[b]);
+            }
+            t += nivel.tamanho;
+        }
+
+        return new Janela(inicio, fim - inicio, eventos, invalidas, bytes, severidade);
+    }
+
+    /**
+     * Mesmo formato de {@link SessoesInvalidasExtended#padraoTemporalInvalidas},
+     * porém respondido a partir da agregação.
+     *
+     * @param janelaSegundos Tamanho da janela, múltiplo de 60 segundos
+     * @return Map com timestamp inicial da janela e contagem de inválidas
+     */
+    public Map<Long, Integer> invalidasPorJanela(long janelaSegundos) {
+        Map<Long, Integer> contagemPorJanela = new TreeMap<>();
+        for (Janela janela : consultar(janelaSegundos)) {
+            if (janela.getSessoesInvalidas() > 0) {
+                contagemPorJanela.put(janela.getInicio(), (int) janela.getSessoesInvalidas());
+            }
+        }
+        return contagemPorJanela;
+    }
+}
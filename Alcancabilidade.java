@@ -0,0 +1,337 @@
+package br.edu.icev.aed.forense.extended;
+
+import br.edu.icev.aed.forense.util.DicionarioRecursos;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Consultas de alcançabilidade ("raio de impacto") sobre o grafo de recursos.
+ *
+ * Responde, após uma construção única:
+ * - tudo que é alcançável a partir de um recurso (ex.: /usr/bin/telnetd)
+ * - tudo que consegue alcançar um recurso (ex.: /var/secrets/key.dat)
+ * - se A alcança B
+ *
+ * Algoritmo:
+ * 1. Componentes fortemente conexas (Tarjan iterativo): recursos de um mesmo
+ *    ciclo alcançam exatamente os mesmos recursos
+ * 2. Condensação: um DAG com uma aresta por par de componentes ligadas
+ * 3. Fecho transitivo em bitsets (long[] por componente), calculado das
+ *    componentes sumidouro para as fontes: alc[c] = {c} ∪ alc[sucessores]
+ *
+ * O fecho completo custa C²/8 bytes para C componentes, então só é
+ * materializado até LIMITE_FECHAMENTO componentes. Acima disso cada consulta
+ * faz uma busca sobre o DAG condensado com um bitset de visitados.
+ *
+ * USO OPCIONAL: Para contenção de incidentes além do Desafio 5.
+ */
+public class Alcancabilidade {
+
+    // Maior número de componentes para o qual o fecho completo é pré-calculado
+    private static final int LIMITE_FECHAMENTO = 1 << 14;
+
+    private final GrafoRecursos grafo;
+
+    // Componente de cada recurso e recursos de cada componente (CSR)
+    private final int[] componente;
+    private final int[] inicioMembros;
+    private final int[] membros;
+
+    // DAG condensado e seu transposto
+    private final GrafoRecursos dag;
+    private final GrafoRecursos dagTransposto;
+
+    // fecho[c] = bitset das componentes alcançáveis a partir de c (inclui c), ou null
+    private final long[][] fecho;
+
+    private Alcancabilidade(GrafoRecursos grafo) {
+        this.grafo = grafo;
+        int vertices = grafo.vertices();
+
+        // FASE 1: componentes fortemente conexas (em ordem topológica reversa)
+        this.componente = new int[vertices];
+        int totalComponentes = tarjan(grafo, componente);
+
+        // Membros de cada componente
+        this.inicioMembros = new int[totalComponentes + 1];
+        this.membros = new int[vertices];
+        for (int v = 0; v < vertices; v++) {
+            inicioMembros[componente[v] + 1]++;
+        }
+        for (int c = 0; c < totalComponentes; c++) {
+            inicioMembros[c + 1] += inicioMembros[c];
+        }
+        int[] posicao = Arrays.copyOf(inicioMembros, totalComponentes);
+        for (int v = 0; v < vertices; v++) {
+            membros[posicao[componente[v]]++] = v;
+        }
+
+        // FASE 2: condensação (arestas entre componentes distintas, sem duplicatas)
+        long[] chaves = new long[grafo.arestas()];
+        int quantidade = 0;
+        for (int v = 0; v < vertices; v++) {
+            for (int e = grafo.inicioVizinhos(v); e < grafo.fimVizinhos(v); e++) {
+                int cOrigem = componente[v];
+                int cDestino = componente[grafo.destino(e)];
+                if (cOrigem != cDestino) {
+                    chaves[quantidade++] = GrafoRecursos.empacotar(cOrigem, cDestino);
+                }
+            }
+        }
+        long[] arestasDag = Arrays.copyOf(chaves, quantidade);
+        Arrays.sort(arestasDag);
+        int distintas = GrafoRecursos.removerDuplicatas(arestasDag);
+
+        this.dag = GrafoRecursos.deChavesOrdenadas(null, totalComponentes, arestasDag, distintas);
+        this.dagTransposto = dag.transposto();
+
+        // FASE 3: fecho transitivo em bitsets, se couber
+        this.fecho = totalComponentes <= LIMITE_FECHAMENTO ? calcularFecho(dag) : null;
+    }
+
+    /**
+     * Lê o arquivo e constrói a estrutura de alcançabilidade.
+     *
+     * @param caminhoArquivoCsv Caminho para o arquivo de logs
+     * @return Estrutura pronta para consultas
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static Alcancabilidade construir(String caminhoArquivoCsv) throws IOException {
+        return construir(GrafoRecursos.construir(caminhoArquivoCsv));
+    }
+
+    /**
+     * Constrói a estrutura sobre um grafo já montado.
+     *
+     * Complexidade: O(V + E) + O(C · E_dag / 64) para o fecho
+     */
+    public static Alcancabilidade construir(GrafoRecursos grafo) {
+        return new Alcancabilidade(grafo);
+    }
+
+    /**
+     * Número de componentes fortemente conexas
+     */
+    public int totalComponentes() {
+        return inicioMembros.length - 1;
+    }
+
+    /**
+     * Recursos alcançáveis a partir do recurso informado por um caminho de
+     * um ou mais saltos (o próprio recurso não é incluído).
+     *
+     * @param recurso Recurso de origem
+     * @return Recursos alcançáveis (vazio se o recurso não existir)
+     */
+    public Set<String> alcancaveisAPartirDe(String recurso) {
+        int v = grafo.getDicionario().id(recurso);
+        if (v < 0) {
+            return new LinkedHashSet<>();
+        }
+        long[] componentes = fecho != null ? fecho[componente[v]] : buscar(dag, componente[v]);
+        return expandir(componentes, v);
+    }
+
+    /**
+     * Recursos que conseguem alcançar o recurso informado por um caminho de
+     * um ou mais saltos (o próprio recurso não é incluído).
+     *
+     * @param recurso Recurso de destino
+     * @return Recursos de origem possíveis (vazio se o recurso não existir)
+     */
+    public Set<String> quePodemAlcancar(String recurso) {
+        int v = grafo.getDicionario().id(recurso);
+        if (v < 0) {
+            return new LinkedHashSet<>();
+        }
+        int alvo = componente[v];
+        long[] componentes;
+        if (fecho != null) {
+            // Com o fecho pronto basta testar um bit por componente
+            componentes = new long[palavras(totalComponentes())];
+            for (int c = 0; c < totalComponentes(); c++) {
+                if (contem(fecho[c], alvo)) {
+                    componentes[c >>> 6] |= 1L << c;
+                }
+            }
+        } else {
+            componentes = buscar(dagTransposto, alvo);
+        }
+        return expandir(componentes, v);
+    }
+
+    /**
+     * Verifica se existe caminho (zero ou mais saltos) de origem até destino.
+     *
+     * Complexidade: O(1) com o fecho pré-calculado; O(C + E_dag) sem ele
+     */
+    public boolean alcanca(String origem, String destino) {
+        DicionarioRecursos dicionario = grafo.getDicionario();
+        int a = dicionario.id(origem);
+        int b = dicionario.id(destino);
+        if (a < 0 || b < 0) {
+            return false;
+        }
+        long[] componentes = fecho != null ? fecho[componente[a]] : buscar(dag, componente[a]);
+        return contem(componentes, componente[b]);
+    }
+
+    /**
+     * Converte um bitset de componentes em nomes de recursos.
+     * A componente do próprio recurso só entra se tiver outros membros
+     * (ciclo), e nesse caso o recurso em si continua de fora.
+     */
+    private Set<String> expandir(long[] componentes, int recurso) {
+        DicionarioRecursos dicionario = grafo.getDicionario();
+        Set<String> resultado = new LinkedHashSet<>();
+        for (int w = 0; w < componentes.length; w++) {
+            long palavra = componentes[w];
+            while (palavra != 0) {
+                int c = (w << 6) + Long.numberOfTrailingZeros(palavra);
+                palavra &= palavra - 1;
+                for (int i = inicioMembros[c]; i < inicioMembros[c + 1]; i++) {
+                    if (membros[i] != recurso) {
+                        resultado.add(dicionario.nome(membros[i]));
+                    }
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Busca em profundidade sobre o DAG condensado com bitset de visitados
+     */
+    private long[] buscar(GrafoRecursos g, int origem) {
+        long[] visitados = new long[palavras(g.vertices())];
+        int[] pilha = new int[g.vertices()];
+        int topo = 0;
+        pilha[topo++] = origem;
+        visitados[origem >>> 6] |= 1L << origem;
+
+        while (topo > 0) {
+            int c = pilha[--topo];
+            for (int e = g.inicioVizinhos(c); e < g.fimVizinhos(c); e++) {
+                int d = g.destino(e);
+                if (!contem(visitados, d)) {
+                    visitados[d >>> 6] |= 1L << d;
+                    pilha[topo++] = d;
+                }
+            }
+        }
+        return visitados;
+    }
+
+    /**
+     * Fecho transitivo do DAG. Os ids das componentes do Tarjan já estão em
+     * ordem topológica reversa (sumidouros primeiro), então basta processar
+     * as componentes em ordem crescente de id.
+     */
+    private static long[][] calcularFecho(GrafoRecursos dag) {
+        int total = dag.vertices();
+        int palavras = palavras(total);
+        long[][] fecho = new long[total][];
+
+        for (int c = 0; c < total; c++) {
+            long[] bits = new long[palavras];
+            bits[c >>> 6] |= 1L << c;
+            for (int e = dag.inicioVizinhos(c); e < dag.fimVizinhos(c); e++) {
+                long[] sucessor = fecho[dag.destino(e)];
+                for (int w = 0; w < palavras; w++) {
+                    bits[w] |= sucessor[w];
+                }
+            }
+            fecho[c] = bits;
+        }
+        return fecho;
+    }
+
+    /**
+     * Tarjan iterativo (sem recursão, para grafos com milhões de vértices).
+     * As componentes recebem ids na ordem em que são fechadas, que é uma
+     * ordem topológica reversa do DAG condensado.
+     *
+     * @return Número de componentes
+     */
+    private static int tarjan(GrafoRecursos grafo, int[] componente) {
+        int vertices = grafo.vertices();
+        int[] indice = new int[vertices];
+        int[] menor = new int[vertices];
+        boolean[] naPilha = new boolean[vertices];
+        Arrays.fill(indice, -1);
+
+        int[] pilha = new int[vertices];
+        int topoPilha = 0;
+
+        // Pilha de chamadas: vértice e próxima aresta a explorar
+        int[] chamadas = new int[vertices];
+        int[] proximaAresta = new int[vertices];
+        int topoChamadas = 0;
+
+        int contador = 0;
+        int componentes = 0;
+
+        for (int raiz = 0; raiz < vertices; raiz++) {
+            if (indice[raiz] >= 0) {
+                continue;
+            }
+
+            chamadas[topoChamadas] = raiz;
+            proximaAresta[topoChamadas] = grafo.inicioVizinhos(raiz);
+            topoChamadas++;
+            indice[raiz] = menor[raiz] = contador++;
+            pilha[topoPilha++] = raiz;
+            naPilha[raiz] = true;
+
+            while (topoChamadas > 0) {
+                int v = chamadas[topoChamadas - 1];
+                int e = proximaAresta[topoChamadas - 1];
+
+                if (e < grafo.fimVizinhos(v)) {
+                    proximaAresta[topoChamadas - 1]++;
+                    int w = grafo.destino(e);
+                    if (indice[w] < 0) {
+                        // "Chamada recursiva" para w
+                        indice[w] = menor[w] = contador++;
+                        pilha[topoPilha++] = w;
+                        naPilha[w] = true;
+                        chamadas[topoChamadas] = w;
+                        proximaAresta[topoChamadas] = grafo.inicioVizinhos(w);
+                        topoChamadas++;
+                    } else if (naPilha[w]) {
+                        menor[v] = Math.min(menor[v], indice[w]);
+                    }
+                    continue;
+                }
+
+                // Todas as arestas de v exploradas: fechar componente se v for raiz
+                if (menor[v] == indice[v]) {
+                    int w;
+                    do {
+                        w = pilha[--topoPilha];
+                        naPilha[w] = false;
+                        componente[w] = componentes;
+                    } while (w != v);
+                    componentes++;
+                }
+
+                // "Retorno" para o chamador
+                topoChamadas--;
+                if (topoChamadas > 0) {
+                    int pai = chamadas[topoChamadas - 1];
+                    menor[pai] = Math.min(menor[pai], menor[v]);
+                }
+            }
+        }
+        return componentes;
+    }
+
+    private static int palavras(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private static boolean contem(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+}
@@ -0,0 +1,293 @@
+package br.edu.icev.aed.forense.extended;
+
+import br.edu.icev.aed.forense.Alerta;
+import br.edu.icev.aed.forense.AnaliseForenseAvancada;
+import br.edu.icev.aed.forense.SolucaoForenseImpl;
+import br.edu.icev.aed.forense.util.LeitorMultiplosArquivos;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+/**
+ * Decorador de AnaliseForenseAvancada com cache dos resultados dos Desafios
+ * 2, 3 e 5, para quem repete as mesmas consultas sobre o mesmo arquivo (ex.:
+ * a mesma linha do tempo várias vezes enquanto escreve um relatório).
+ *
+ * Chave: identidade do arquivo (LeitorMultiplosArquivos.identidade: caminho,
+ * tamanho e data de modificação de cada arquivo, também para diretórios e
+ * globs) + desafio + parâmetros. Quando algum arquivo muda, as entradas da
+ * identidade anterior são descartadas na próxima consulta ao caminho.
+ *
+ * Remoção: LRU (LinkedHashMap em ordem de acesso) limitada pelo tamanho
+ * estimado dos resultados em bytes, não pelo número de entradas: uma linha do
+ * tempo com milhares de ações pesa mais que um caminho de três recursos.
+ * Resultados maiores que a capacidade inteira não são guardados.
+ *
+ * Os resultados guardados nunca são entregues diretamente: cada chamada
+ * recebe listas (e Alertas) novos, então o chamador pode alterá-los.
+ * Desafios 1 e 4 são repassados sem cache.
+ *
+ * Seguro para uso por várias threads (o cache é protegido pelo monitor do
+ * objeto; o cálculo em si roda fora dele).
+ *
+ * USO OPCIONAL: Para consultas repetidas sobre o mesmo log.
+ */
+public class AnaliseComCache implements AnaliseForenseAvancada {
+
+    // Capacidade padrão do cache em bytes estimados
+    public static final long CAPACIDADE_PADRAO = 64L << 20;
+
+    // Custo fixo estimado de uma entrada (nó do mapa, chave e embrulho)
+    private static final long CUSTO_ENTRADA = 160;
+
+    /**
+     * Cálculo de um resultado que pode ler o arquivo
+     */
+    private interface Calculo<T> {
+        T calcular() throws IOException;
+    }
+
+    private static class Entrada {
+        private final Object valor;
+        private final long bytes;
+
+        Entrada(Object valor, long bytes) {
+            this.valor = valor;
+            this.bytes = bytes;
+        }
+    }
+
+    private final AnaliseForenseAvancada analise;
+    private final long capacidadeBytes;
+
+    // Chave -> resultado, da entrada menos usada recentemente para a mais usada
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Caminho absoluto (ou glob) -> última identidade vista
+    private final Map<String, String> identidadePorArquivo = new HashMap<>();
+
+    private long bytesEmUso = 0;
+    private long acertos = 0;
+    private long falhas = 0;
+    private long remocoes = 0;
+    private long invalidacoes = 0;
+
+    /**
+     * Cache de CAPACIDADE_PADRAO bytes na frente da SolucaoForenseImpl
+     */
+    public AnaliseComCache() {
+        this(new SolucaoForenseImpl(), CAPACIDADE_PADRAO);
+    }
+
+    /**
+     * @param analise Implementação que calcula os resultados
+     * @param capacidadeBytes Tamanho estimado máximo dos resultados guardados
+     */
+    public AnaliseComCache(AnaliseForenseAvancada analise, long capacidadeBytes) {
+        if (capacidadeBytes <= 0) {
+            throw new IllegalArgumentException("Capacidade do cache deve ser positiva: " + capacidadeBytes);
+        }
+        this.analise = analise;
+        this.capacidadeBytes = capacidadeBytes;
+    }
+
+    @Override
+    public Set<String> desafio1_encontrarSessoesInvalidas(String caminhoArquivoCsv) throws IOException {
+        return analise.desafio1_encontrarSessoesInvalidas(caminhoArquivoCsv);
+    }
+
+    @Override
+    public List<String> desafio2_reconstruirLinhaDoTempo(String caminhoArquivoCsv,
+                                                          String sessionId) throws IOException {
+        List<String> linhaTempo = consultar(caminhoArquivoCsv, "desafio2\u0000" + sessionId,
+            () -> new ArrayList<>(analise.desafio2_reconstruirLinhaDoTempo(caminhoArquivoCsv, sessionId)),
+            AnaliseComCache::estimarTextos);
+        return new ArrayList<>(linhaTempo);
+    }
+
+    @Override
+    public List<Alerta> desafio3_priorizarAlertas(String caminhoArquivoCsv, int n) throws IOException {
+        List<Alerta> alertas = consultar(caminhoArquivoCsv, "desafio3\u0000" + n,
+            () -> copiar(analise.desafio3_priorizarAlertas(caminhoArquivoCsv, n)),
+            AnaliseComCache::estimarAlertas);
+        return copiar(alertas);
+    }
+
+    @Override
+    public Map<Long, Long> desafio4_encontrarPicosDeTransferencia(String caminhoArquivoCsv) throws IOException {
+        return analise.desafio4_encontrarPicosDeTransferencia(caminhoArquivoCsv);
+    }
+
+    @Override
+    public Optional<List<String>> desafio5_rastrearContaminacao(String caminhoArquivoCsv,
+                                                                 String recursoInicial,
+                                                                 String recursoAlvo) throws IOException {
+        Optional<List<String>> caminho = consultar(caminhoArquivoCsv,
+            "desafio5\u0000" + recursoInicial + "\u0000" + recursoAlvo,
+            () -> analise.desafio5_rastrearContaminacao(caminhoArquivoCsv, recursoInicial, recursoAlvo)
+                         .map(ArrayList::new),
+            resultado -> resultado.map(AnaliseComCache::estimarTextos).orElse(0L));
+        return caminho.map(ArrayList::new);
+    }
+
+    /**
+     * Consultas atendidas pelo cache
+     */
+    public synchronized long getAcertos() {
+        return acertos;
+    }
+
+    /**
+     * Consultas que precisaram calcular o resultado
+     */
+    public synchronized long getFalhas() {
+        return falhas;
+    }
+
+    /**
+     * Entradas removidas para respeitar a capacidade (LRU)
+     */
+    public synchronized long getRemocoes() {
+        return remocoes;
+    }
+
+    /**
+     * Entradas descartadas porque o arquivo mudou
+     */
+    public synchronized long getInvalidacoes() {
+        return invalidacoes;
+    }
+
+    /**
+     * Tamanho estimado, em bytes, dos resultados guardados
+     */
+    public synchronized long getBytesEmUso() {
+        return bytesEmUso;
+    }
+
+    /**
+     * Número de resultados guardados
+     */
+    public synchronized int getEntradas() {
+        return entradas.size();
+    }
+
+    /**
+     * Descarta todos os resultados guardados
+     */
+    public synchronized void limpar() {
+        entradas.clear();
+        identidadePorArquivo.clear();
+        bytesEmUso = 0;
+    }
+
+    /**
+     * Busca o resultado no cache ou calcula e guarda.
+     * Duas threads com a mesma consulta ausente podem calcular ao mesmo tempo;
+     * a última a terminar substitui a entrada.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T consultar(String caminhoArquivoCsv, String consulta, Calculo<T> calculo,
+                            ToLongFunction<T> estimativa) throws IOException {
+        String caminho = LeitorMultiplosArquivos.absoluto(caminhoArquivoCsv);
+        String identidade = identidade(caminho, caminhoArquivoCsv);
+        String chave = identidade + "\u0000" + consulta;
+
+        synchronized (this) {
+            Entrada entrada = entradas.get(chave);
+            if (entrada != null) {
+                acertos++;
+                return (T) entrada.valor;
+            }
+            falhas++;
+        }
+
+        T valor = calculo.calcular();
+        long bytes = CUSTO_ENTRADA + 2L * chave.length() + estimativa.applyAsLong(valor);
+        guardar(caminho, identidade, chave, valor, bytes);
+        return valor;
+    }
+
+    /**
+     * Guarda o resultado, a menos que o arquivo tenha mudado durante o cálculo
+     * (outra consulta já viu uma identidade nova): a entrada ficaria órfã,
+     * ocupando espaço até sair pelo LRU.
+     */
+    private synchronized void guardar(String caminho, String identidade, String chave, Object valor,
+                                      long bytes) {
+        if (bytes > capacidadeBytes || !identidade.equals(identidadePorArquivo.get(caminho))) {
+            return;
+        }
+        Entrada anterior = entradas.put(chave, new Entrada(valor, bytes));
+        if (anterior != null) {
+            bytesEmUso -= anterior.bytes;
+        }
+        bytesEmUso += bytes;
+
+        // Remover as menos usadas recentemente até caber
+        Iterator<Entrada> iterador = entradas.values().iterator();
+        while (bytesEmUso > capacidadeBytes && iterador.hasNext()) {
+            bytesEmUso -= iterador.next().bytes;
+            iterador.remove();
+            remocoes++;
+        }
+    }
+
+    /**
+     * Identidade atual do caminho. Se mudou desde a última consulta, descarta
+     * as entradas da anterior.
+     */
+    private String identidade(String caminho, String caminhoArquivoCsv) throws IOException {
+        String identidade = LeitorMultiplosArquivos.identidade(caminhoArquivoCsv);
+
+        synchronized (this) {
+            String anterior = identidadePorArquivo.put(caminho, identidade);
+            if (anterior != null && !anterior.equals(identidade)) {
+                String prefixo = anterior + "\u0000";
+                Iterator<Map.Entry<String, Entrada>> iterador = entradas.entrySet().iterator();
+                while (iterador.hasNext()) {
+                    Map.Entry<String, Entrada> entrada = iterador.next();
+                    if (entrada.getKey().startsWith(prefixo)) {
+                        bytesEmUso -= entrada.getValue().bytes;
+                        iterador.remove();
+                        invalidacoes++;
+                    }
+                }
+            }
+        }
+        return identidade;
+    }
+
+    private static List<Alerta> copiar(List<Alerta> alertas) {
+        List<Alerta> copia = new ArrayList<>(alertas.size());
+        for (Alerta a : alertas) {
+            copia.add(new Alerta(a.getTimestamp(), a.getUserId(), a.getSessionId(), a.getActionType(),
+                                 a.getTargetResource(), a.getSeverityLevel(), a.getBytesTransferred()));
+        }
+        return copia;
+    }
+
+    // Estimativas de memória: cabeçalho de objeto + referência + 2 bytes por caractere
+
+    private static long estimarTexto(String texto) {
+        return 48 + 2L * texto.length();
+    }
+
+    private static long estimarTextos(List<String> textos) {
+        long bytes = 24 + 8L * textos.size();
+        for (String texto : textos) {
+            bytes += estimarTexto(texto);
+        }
+        return bytes;
+    }
+
+    private static long estimarAlertas(List<Alerta> alertas) {
+        long bytes = 24 + 8L * alertas.size();
+        for (Alerta a : alertas) {
+            bytes += 56 + estimarTexto(a.getUserId()) + estimarTexto(a.getSessionId()) +
+                     estimarTexto(a.getActionType()) + estimarTexto(a.getTargetResource());
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,134 @@
+package br.edu.icev.aed.forense.test;
+
+import br.edu.icev.aed.forense.LogEntry;
+import br.edu.icev.aed.forense.extended.DatasetForense;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Benchmark de leitura concorrente do DatasetForense.
+ *
+ * Carrega um log (o arquivo informado ou um log sintético) uma vez e roda a
+ * mesma carga de consultas mistas (linha do tempo, alertas, picos e caminhos)
+ * por thread com 1, 2, 4, ... threads até o número de núcleos e mostra a
+ * vazão e a aceleração em relação a uma thread. As consultas não usam locks,
+ * mas dividem cache e banda de memória (e o pool comum, na BFS do caminho),
+ * então a aceleração real depende da máquina: meça antes de contar com ela.
+ *
+ * Uso: java ... BenchmarkDatasetForense [arquivo.csv] [consultasPorThread]
+ */
+public class BenchmarkDatasetForense {
+
+    private static final String[] ACOES = {"LOGIN", "LOGOUT", "FILE_ACCESS", "DATA_TRANSFER"};
+
+    public static void main(String[] args) throws Exception {
+        int consultasPorThread = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        DatasetForense dataset = args.length > 0
+                ? DatasetForense.carregar(args[0])
+                : DatasetForense.carregar(gerarLogs(200_000, 42));
+
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        System.out.println("=== BENCHMARK DATASETFORENSE ===");
+        System.out.println("Linhas: " + dataset.tamanho() + " | núcleos: " + nucleos +
+                           " | consultas por thread: " + consultasPorThread);
+        System.out.println();
+
+        // Aquecimento (JIT)
+        executar(dataset, 1, consultasPorThread);
+
+        double vazaoBase = 0;
+        System.out.printf("%8s %14s %12s%n", "threads", "consultas/s", "aceleração");
+        for (int threads = 1; threads <= nucleos; threads = proximo(threads, nucleos)) {
+            double vazao = executar(dataset, threads, consultasPorThread);
+            if (threads == 1) {
+                vazaoBase = vazao;
+            }
+            System.out.printf("%8d %14.0f %11.2fx%n", threads, vazao, vazao / vazaoBase);
+            if (threads == nucleos) {
+                break;
+            }
+        }
+    }
+
+    private static int proximo(int threads, int nucleos) {
+        return Math.min(threads * 2, nucleos);
+    }
+
+    /**
+     * Roda consultasPorThread consultas em cada thread, todas largando juntas
+     *
+     * @return Vazão total em consultas por segundo
+     */
+    private static double executar(DatasetForense dataset, int threads, int consultasPorThread) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<Long>> tarefas = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long semente = t;
+                tarefas.add(pool.submit(() -> {
+                    largada.await();
+                    return consultar(dataset, consultasPorThread, new Random(semente));
+                }));
+            }
+
+            long inicio = System.nanoTime();
+            largada.countDown();
+            long verificacao = 0;
+            for (Future<Long> tarefa : tarefas) {
+                verificacao += tarefa.get();
+            }
+            long duracao = System.nanoTime() - inicio;
+
+            if (verificacao == Long.MIN_VALUE) {
+                System.out.println("(nunca impresso: evita que as consultas sejam eliminadas)");
+            }
+            return threads * (double) consultasPorThread * 1e9 / duracao;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Consultas mistas; devolve uma soma dos tamanhos dos resultados
+     */
+    private static long consultar(DatasetForense dataset, int consultas, Random random) {
+        long soma = 0;
+        for (int i = 0; i < consultas; i++) {
+            switch (i & 3) {
+                case 0:
+                    soma += dataset.linhaDoTempo("sessão-" + random.nextInt(2_000)).size();
+                    break;
+                case 1:
+                    soma += dataset.alertas(10).size();
+                    break;
+                case 2:
+                    Long proximo = dataset.picosDeTransferencia().get(1_000L + random.nextInt(dataset.tamanho()));
+                    soma += proximo == null ? 0 : 1;
+                    break;
+                default:
+                    soma += dataset.caminho("/dados/r" + random.nextInt(500), "/dados/r" + random.nextInt(500))
+                                   .map(List::size).orElse(0);
+                    break;
+            }
+        }
+        return soma;
+    }
+
+    private static List<LogEntry> gerarLogs(int linhas, long semente) {
+        Random random = new Random(semente);
+        List<LogEntry> logs = new ArrayList<>(linhas);
+        for (int i = 0; i < linhas; i++) {
+            logs.add(new LogEntry(1_000 + i, "usuário-" + random.nextInt(200), "sessão-" + random.nextInt(2_000),
+                                  ACOES[random.nextInt(ACOES.length)], "/dados/r" + random.nextInt(500),
+                                  1 + random.nextInt(10), random.nextInt(1_000_000)));
+        }
+        return logs;
+    }
+}
@@ -0,0 +1,318 @@
+package br.edu.icev.aed.forense.extended;
+
+import br.edu.icev.aed.forense.util.DicionarioRecursos;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * BFS paralela por níveis (level-synchronous) para o Desafio 5 em grafos
+ * muito grandes, sobre o grafo CSR de GrafoRecursos.
+ *
+ * A cada nível a fronteira (int[]) é dividida em blocos processados por
+ * tarefas ForkJoin, em uma de duas direções (direction-optimizing BFS):
+ * - top-down: cada vértice da fronteira percorre seus vizinhos de saída e
+ *   reivindica os não visitados com CAS no bitset de visitados
+ * - bottom-up: cada vértice ainda não visitado procura, entre seus vizinhos de
+ *   entrada (grafo transposto), algum que esteja na fronteira; para no primeiro
+ *
+ * O top-down é melhor com fronteiras pequenas; o bottom-up, quando a fronteira
+ * cobre boa parte do grafo (evita testar milhões de arestas já visitadas). A
+ * troca segue a heurística usual:
+ * - top-down -> bottom-up quando arestas da fronteira > arestas não exploradas / ALFA
+ * - bottom-up -> top-down quando vértices da fronteira < vértices / BETA
+ *
+ * O vértice que ganha o CAS grava o pai, então cada vértice tem um único pai
+ * de um nível anterior e o caminho reconstruído tem o mesmo número de saltos
+ * da BFS sequencial (o caminho em si pode ser outro de mesmo tamanho).
+ *
+ * Complexidade: O(V + E) de trabalho total, dividido entre os núcleos por nível
+ *
+ * USO OPCIONAL: Para grafos de recursos com dezenas de milhões de arestas.
+ */
+public class BuscaLarguraParalela {
+
+    // Vértices por tarefa: abaixo disso não compensa dividir
+    private static final int BLOCO_MINIMO = 1 << 12;
+
+    private static final int ALFA = 14;
+    private static final int BETA = 24;
+
+    private final GrafoRecursos grafo;
+    private final GrafoRecursos transposto;
+    private final ForkJoinPool pool;
+    private final int bloco;
+
+    // Estado da busca
+    private final AtomicLongArray visitados;
+    private final int[] pai;
+    private final long[] bitsFronteira;
+
+    private BuscaLarguraParalela(GrafoRecursos grafo, ForkJoinPool pool) {
+        this.grafo = grafo;
+        this.transposto = grafo.transposto();
+        this.pool = pool;
+        int vertices = grafo.vertices();
+        int porNucleo = vertices / (4 * pool.getParallelism()) + 1;
+        this.bloco = Math.max(BLOCO_MINIMO, porNucleo);
+        this.visitados = new AtomicLongArray((vertices + 63) >>> 6);
+        this.pai = new int[vertices];
+        this.bitsFronteira = new long[(vertices + 63) >>> 6];
+    }
+
+    /**
+     * Lê o arquivo, monta o grafo CSR e busca o caminho mais curto.
+     *
+     * @param caminhoArquivoCsv Caminho para o arquivo de logs
+     * @param recursoInicial O ponto de entrada do ataque
+     * @param recursoAlvo O alvo final do ataque
+     * @return Sequência de recursos, ou Optional.empty() se não houver caminho
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static Optional<List<String>> rastrear(String caminhoArquivoCsv, String recursoInicial,
+                                                  String recursoAlvo) throws IOException {
+        return rastrear(GrafoRecursos.construir(caminhoArquivoCsv), recursoInicial, recursoAlvo);
+    }
+
+    /**
+     * Caminho mais curto sobre um grafo já montado, usando o pool comum.
+     */
+    public static Optional<List<String>> rastrear(GrafoRecursos grafo, String recursoInicial,
+                                                  String recursoAlvo) {
+        return rastrear(grafo, recursoInicial, recursoAlvo, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Caminho mais curto sobre um grafo já montado, usando o pool informado.
+     */
+    public static Optional<List<String>> rastrear(GrafoRecursos grafo, String recursoInicial,
+                                                  String recursoAlvo, ForkJoinPool pool) {
+        DicionarioRecursos dicionario = grafo.getDicionario();
+        int inicial = dicionario.id(recursoInicial);
+        int alvo = dicionario.id(recursoAlvo);
+        if (inicial < 0 || alvo < 0) {
+            return Optional.empty();
+        }
+
+        int[] vertices = caminhoMaisCurto(grafo, inicial, alvo, pool);
+        if (vertices == null) {
+            return Optional.empty();
+        }
+        List<String> caminho = new ArrayList<>(vertices.length);
+        for (int v : vertices) {
+            caminho.add(dicionario.nome(v));
+        }
+        return Optional.of(caminho);
+    }
+
+    /**
+     * Caminho mais curto entre dois ids de recurso.
+     *
+     * @return Ids do caminho (origem ... alvo), ou null se não houver caminho
+     */
+    public static int[] caminhoMaisCurto(GrafoRecursos grafo, int origem, int alvo, ForkJoinPool pool) {
+        if (origem == alvo) {
+            return new int[] {origem};
+        }
+        return new BuscaLarguraParalela(grafo, pool).buscar(origem, alvo);
+    }
+
+    private int[] buscar(int origem, int alvo) {
+        int vertices = grafo.vertices();
+        marcar(origem);
+        pai[origem] = -1;
+
+        Fronteira fronteira = new Fronteira(1);
+        fronteira.adicionar(origem, grafo.grauSaida(origem));
+
+        long arestasNaoExploradas = grafo.arestas() - (long) grafo.grauSaida(origem);
+        boolean bottomUp = false;
+
+        while (fronteira.tamanho > 0 && !visitado(alvo)) {
+            if (!bottomUp && fronteira.arestas > arestasNaoExploradas / ALFA) {
+                bottomUp = true;
+            } else if (bottomUp && fronteira.tamanho < vertices / BETA) {
+                bottomUp = false;
+            }
+
+            Fronteira proxima;
+            if (bottomUp) {
+                Arrays.fill(bitsFronteira, 0L);
+                for (int i = 0; i < fronteira.tamanho; i++) {
+                    int v = fronteira.itens[i];
+                    bitsFronteira[v >>> 6] |= 1L << v;
+                }
+                proxima = pool.invoke(new TarefaBottomUp(0, vertices));
+            } else {
+                proxima = pool.invoke(new TarefaTopDown(fronteira, 0, fronteira.tamanho));
+            }
+
+            arestasNaoExploradas -= proxima.arestas;
+            fronteira = proxima;
+        }
+
+        if (!visitado(alvo)) {
+            return null;
+        }
+
+        int saltos = 0;
+        for (int v = alvo; v != origem; v = pai[v]) {
+            saltos++;
+        }
+        int[] caminho = new int[saltos + 1];
+        for (int v = alvo, i = saltos; i >= 0; v = pai[v], i--) {
+            caminho[i] = v;
+        }
+        return caminho;
+    }
+
+    /**
+     * Lista de vértices de um nível, com a soma dos graus de saída
+     */
+    private static final class Fronteira {
+        int[] itens;
+        int tamanho;
+        long arestas;
+
+        Fronteira(int capacidade) {
+            this.itens = new int[Math.max(1, capacidade)];
+        }
+
+        void adicionar(int v, int grau) {
+            if (tamanho == itens.length) {
+                itens = Arrays.copyOf(itens, 2 * itens.length);
+            }
+            itens[tamanho++] = v;
+            arestas += grau;
+        }
+
+        /**
+         * Concatena outra fronteira a esta
+         */
+        Fronteira juntar(Fronteira outra) {
+            if (outra.tamanho == 0) {
+                return this;
+            }
+            if (tamanho + outra.tamanho > itens.length) {
+                itens = Arrays.copyOf(itens, tamanho + outra.tamanho);
+            }
+            System.arraycopy(outra.itens, 0, itens, tamanho, outra.tamanho);
+            tamanho += outra.tamanho;
+            arestas += outra.arestas;
+            return this;
+        }
+    }
+
+    /**
+     * Expande fronteira[inicio, fim) pelas arestas de saída
+     */
+    private final class TarefaTopDown extends RecursiveTask<Fronteira> {
+        private final Fronteira fronteira;
+        private final int inicio;
+        private final int fim;
+
+        TarefaTopDown(Fronteira fronteira, int inicio, int fim) {
+            this.fronteira = fronteira;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected Fronteira compute() {
+            if (fim - inicio <= bloco) {
+                Fronteira proxima = new Fronteira(fim - inicio);
+                for (int i = inicio; i < fim; i++) {
+                    int v = fronteira.itens[i];
+                    for (int e = grafo.inicioVizinhos(v); e < grafo.fimVizinhos(v); e++) {
+                        int w = grafo.destino(e);
+                        if (!visitado(w) && marcar(w)) {
+                            pai[w] = v;
+                            proxima.adicionar(w, grafo.grauSaida(w));
+                        }
+                    }
+                }
+                return proxima;
+            }
+
+            int meio = (inicio + fim) >>> 1;
+            TarefaTopDown esquerda = new TarefaTopDown(fronteira, inicio, meio);
+            TarefaTopDown direita = new TarefaTopDown(fronteira, meio, fim);
+            esquerda.fork();
+            Fronteira resultadoDireita = direita.compute();
+            return esquerda.join().juntar(resultadoDireita);
+        }
+    }
+
+    /**
+     * Procura pais na fronteira para os vértices não visitados de [inicio, fim).
+     * Os blocos são alinhados em 64 vértices, então cada palavra do bitset de
+     * visitados é escrita por uma única tarefa neste passo.
+     */
+    private final class TarefaBottomUp extends RecursiveTask<Fronteira> {
+        private final int inicio;
+        private final int fim;
+
+        TarefaBottomUp(int inicio, int fim) {
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected Fronteira compute() {
+            if (fim - inicio <= bloco) {
+                Fronteira proxima = new Fronteira(16);
+                for (int v = inicio; v < fim; v++) {
+                    if (visitado(v)) {
+                        continue;
+                    }
+                    for (int e = transposto.inicioVizinhos(v); e < transposto.fimVizinhos(v); e++) {
+                        int u = transposto.destino(e);
+                        if ((bitsFronteira[u >>> 6] & (1L << u)) != 0) {
+                            marcar(v);
+                            pai[v] = u;
+                            proxima.adicionar(v, grafo.grauSaida(v));
+                            break;
+                        }
+                    }
+                }
+                return proxima;
+            }
+
+            int meio = ((inicio + fim) >>> 1) & ~63;
+            if (meio <= inicio) {
+                meio = Math.min(fim, inicio + 64);
+            }
+            TarefaBottomUp esquerda = new TarefaBottomUp(inicio, meio);
+            TarefaBottomUp direita = new TarefaBottomUp(meio, fim);
+            esquerda.fork();
+            Fronteira resultadoDireita = direita.compute();
+            return esquerda.join().juntar(resultadoDireita);
+        }
+    }
+
+    private boolean visitado(int v) {
+        return (visitados.get(v >>> 6) & (1L << v)) != 0;
+    }
+
+    /**
+     * Marca v como visitado
+     *
+     * @return true se esta chamada fez a marcação (v ainda não estava marcado)
+     */
+    private boolean marcar(int v) {
+        int palavra = v >>> 6;
+        long bit = 1L << v;
+        while (true) {
+            long atual = visitados.get(palavra);
+            if ((atual & bit) != 0) {
+                return false;
+            }
+            if (visitados.compareAndSet(palavra, atual, atual | bit)) {
+                return true;
+            }
+        }
+    }
+}
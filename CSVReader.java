@@ -3,10 +3,16 @@ package br.edu.icev.aed.forense.util;
 import br.edu.icev.aed.forense.LogEntry;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Classe utilitária para leitura eficiente de arquivos CSV de logs.
@@ -14,17 +20,14 @@ import java.util.List;
  */
 public class CSVReader {
     
-    // Índices das colunas no CSV
-    private static final int TIMESTAMP_INDEX = 0;
-    private static final int USER_ID_INDEX = 1;
-    private static final int SESSION_ID_INDEX = 2;
-    private static final int ACTION_TYPE_INDEX = 3;
-    private static final int TARGET_RESOURCE_INDEX = 4;
-    private static final int SEVERITY_LEVEL_INDEX = 5;
-    private static final int BYTES_TRANSFERRED_INDEX = 6;
+    // Propriedade que ativa a ordenação por TIMESTAMP antes da leitura
+    public static final String PROPRIEDADE_ORDENAR = "forense.ordenar";
     
-    // Separador CSV
-    private static final String CSV_SEPARATOR = ",";
+    // Buffer de caracteres do leitor devolvido por abrir
+    private static final int BUFFER_LEITURA = 1 << 16;
+    
+    // Tamanho a partir do qual o arquivo é lido pelo pipeline de ingestão
+    private static final long LIMIAR_PIPELINE = 32L << 20;
 
     /**
      * Lê todas as entradas de log de um arquivo CSV
@@ -35,66 +38,201 @@ public class CSVReader {
      */
     public static List<LogEntry> lerTodosOsLogs(String caminhoArquivo) throws IOException {
         List<LogEntry> logs = new ArrayList<>();
+        lerLogs(caminhoArquivo, logs::add);
+        return logs;
+    }
+
+    /**
+     * Lê todas as entradas de log, registrando as linhas rejeitadas no
+     * relatório informado (sem nada impresso em System.err)
+     * 
+     * @param caminhoArquivo Caminho para o arquivo CSV
+     * @param relatorio Recebe as contagens e exemplos de linhas rejeitadas
+     * @return Lista de objetos LogEntry contendo todos os logs válidos
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static List<LogEntry> lerTodosOsLogs(String caminhoArquivo,
+                                                RelatorioErrosParse relatorio) throws IOException {
+        List<LogEntry> logs = new ArrayList<>();
+        lerLogs(caminhoArquivo, logs::add, relatorio);
+        return logs;
+    }
+
+    /**
+     * Lê as entradas de log de um arquivo CSV, entregando cada uma ao
+     * consumidor na ordem do arquivo, sem acumular a lista inteira no heap.
+     * 
+     * Linhas malformadas são ignoradas; se houver alguma, um resumo de uma
+     * linha (contagem por categoria) é impresso em System.err no final.
+     * 
+     * @param caminhoArquivo Caminho para o arquivo CSV, diretório ou glob
+     * @param destino Recebe cada LogEntry válido
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static void lerLogs(String caminhoArquivo, Consumer<LogEntry> destino) throws IOException {
+        RelatorioErrosParse relatorio = new RelatorioErrosParse();
+        lerLogs(caminhoArquivo, destino, relatorio);
+        if (relatorio.getTotalRejeitadas() > 0) {
+            System.err.println("Aviso: " + caminhoArquivo + ": " + relatorio.resumo());
+        }
+    }
+
+    /**
+     * Lê as entradas de log de um arquivo CSV, entregando cada uma ao
+     * consumidor na ordem do arquivo, sem acumular a lista inteira no heap.
+     * 
+     * O caminho também pode ser um diretório ou um glob de arquivos
+     * rotacionados (ex.: logs/acessos-*.csv): os arquivos são lidos em
+     * paralelo e entregues como um único log, mesclados por TIMESTAMP.
+     * 
+     * Arquivos no FormatoColunar (reconhecidos pelos bytes iniciais) são lidos
+     * direto das colunas, sem parse de texto.
+     * 
+     * Com -Dforense.ordenar=true, arquivos CSV fora de ordem cronológica são
+     * ordenados por TIMESTAMP (ordenação externa) antes da leitura.
+     * 
+     * Arquivos grandes (a partir de LIMIAR_PIPELINE bytes) são lidos pelo
+     * PipelineIngestao em máquinas com mais de um núcleo: E/S e parse rodam
+     * em outras threads enquanto o consumidor analisa, na mesma ordem.
+     * 
+     * O parse não lança exceções por linha (ParserLogs): linhas malformadas
+     * são contadas no relatório, com exemplos, e a leitura segue sem custo extra.
+     * Os delimitadores são localizados em blocos de bytes pelo ParserBlocos
+     * (com a Vector API quando disponível, ver VarreduraDelimitadores).
+     * 
+     * @param caminhoArquivo Caminho para o arquivo CSV, diretório ou glob
+     * @param destino Recebe cada LogEntry válido
+     * @param relatorio Recebe as contagens e exemplos de linhas rejeitadas
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static void lerLogs(String caminhoArquivo, Consumer<LogEntry> destino,
+                               RelatorioErrosParse relatorio) throws IOException {
+        if (LeitorMultiplosArquivos.ehMultiplo(caminhoArquivo)) {
+            LeitorMultiplosArquivos.ler(caminhoArquivo, destino, relatorio);
+            return;
+        }
         
-        // try-with-resources garante o fechamento automático do arquivo
-        try (BufferedReader reader = new BufferedReader(new FileReader(caminhoArquivo))) {
-            String linha;
-            boolean primeiraLinha = true;
-            
-            while ((linha = reader.readLine()) != null) {
-                // Pular o cabeçalho
-                if (primeiraLinha) {
-                    primeiraLinha = false;
-                    continue;
-                }
-                
-                // Ignorar linhas vazias
-                if (linha.trim().isEmpty()) {
-                    continue;
-                }
-                
+        // Logs já convertidos para o formato colunar: sem parse de texto
+        Path arquivo = Paths.get(caminhoArquivo);
+        if (FormatoColunar.ehColunar(arquivo)) {
+            FormatoColunar.ler(arquivo, log -> {
+                relatorio.registrarAceita();
+                destino.accept(log);
+            });
+            return;
+        }
+        
+        // Opcional: garantir ordem cronológica com ordenação externa. A cópia
+        // ordenada (se houver) é apagada assim que a leitura termina.
+        if (Boolean.getBoolean(PROPRIEDADE_ORDENAR)) {
+            String ordenado = OrdenacaoExterna.garantirOrdem(caminhoArquivo);
+            if (!ordenado.equals(caminhoArquivo)) {
                 try {
-                    LogEntry entry = parsearLinha(linha);
-                    logs.add(entry);
-                } catch (Exception e) {
-                    // Log de erro (pode ser substituído por logging adequado)
-                    System.err.println("Erro ao parsear linha: " + linha);
-                    System.err.println("Erro: " + e.getMessage());
+                    lerArquivo(ordenado, destino, relatorio);
+                } finally {
+                    Files.deleteIfExists(Paths.get(ordenado));
                 }
+                return;
             }
         }
         
-        return logs;
+        lerArquivo(caminhoArquivo, destino, relatorio);
     }
 
     /**
-     * Converte uma linha CSV em um objeto LogEntry
-     * 
-     * @param linha Linha do CSV
-     * @return Objeto LogEntry com os dados parseados
-     * @throws IllegalArgumentException Se a linha não tiver o formato esperado
+     * Lê um único arquivo CSV (texto ou gzip), pelo pipeline se for grande
      */
-    private static LogEntry parsearLinha(String linha) {
-        String[] campos = linha.split(CSV_SEPARATOR);
-        
-        if (campos.length < 7) {
-            throw new IllegalArgumentException("Linha CSV inválida: número insuficiente de campos");
+    private static void lerArquivo(String caminhoArquivo, Consumer<LogEntry> destino,
+                                   RelatorioErrosParse relatorio) throws IOException {
+        Path arquivo = Paths.get(caminhoArquivo);
+        int parsers = PipelineIngestao.parsersPadrao();
+        if (parsers > 1 && Files.isRegularFile(arquivo) && Files.size(arquivo) >= LIMIAR_PIPELINE) {
+            PipelineIngestao.ler(arquivo, parsers, destino, relatorio);
+            return;
         }
         
-        try {
-            long timestamp = Long.parseLong(campos[TIMESTAMP_INDEX].trim());
-            String userId = campos[USER_ID_INDEX].trim();
-            String sessionId = campos[SESSION_ID_INDEX].trim();
-            String actionType = campos[ACTION_TYPE_INDEX].trim();
-            String targetResource = campos[TARGET_RESOURCE_INDEX].trim();
-            int severityLevel = Integer.parseInt(campos[SEVERITY_LEVEL_INDEX].trim());
-            long bytesTransferred = Long.parseLong(campos[BYTES_TRANSFERRED_INDEX].trim());
+        // try-with-resources garante o fechamento automático do arquivo
+        try (InputStream entrada = abrirBytes(caminhoArquivo)) {
+            Charset charset = Charset.defaultCharset();
+            if (ParserBlocos.suporta(charset)) {
+                new ParserBlocos(charset).ler(entrada, destino, relatorio);
+                return;
+            }
             
-            return new LogEntry(timestamp, userId, sessionId, actionType, 
-                              targetResource, severityLevel, bytesTransferred);
-        } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Erro ao converter valores numéricos: " + e.getMessage());
+            LeitorLinhas leitor = new LeitorLinhas(entrada, Charset.defaultCharset());
+            ParserLogs parser = new ParserLogs();
+            
+            // Pular o cabeçalho
+            leitor.proximaLinha();
+            
+            String linha;
+            while ((linha = leitor.proximaLinha()) != null) {
+                int status = parser.parsear(linha);
+                if (status == ParserLogs.OK) {
+                    relatorio.registrarAceita();
+                    destino.accept(parser.resultado());
+                } else if (status != ParserLogs.LINHA_VAZIA) {
+                    relatorio.registrar(status, linha, leitor.getNumeroLinha(), leitor.getOffsetLinha());
+                }
+            }
+        }
+    }
+
+    /**
+     * Lê só os logs com inicio <= TIMESTAMP <= fim, na ordem do arquivo.
+     * 
+     * Em arquivos no FormatoColunar, os blocos cujo intervalo de TIMESTAMP não
+     * cruza o pedido são pulados sem ler as colunas; nos demais, todas as
+     * linhas são lidas e filtradas.
+     * 
+     * @param caminhoArquivo Caminho para o arquivo CSV ou colunar, diretório ou glob
+     * @param inicio Menor TIMESTAMP entregue
+     * @param fim Maior TIMESTAMP entregue
+     * @param destino Recebe cada LogEntry do intervalo
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static void lerLogsNoIntervalo(String caminhoArquivo, long inicio, long fim,
+                                          Consumer<LogEntry> destino) throws IOException {
+        if (!LeitorMultiplosArquivos.ehMultiplo(caminhoArquivo) &&
+            FormatoColunar.ehColunar(Paths.get(caminhoArquivo))) {
+            FormatoColunar.ler(Paths.get(caminhoArquivo), inicio, fim, destino);
+            return;
+        }
+        lerLogs(caminhoArquivo, log -> {
+            if (log.getTimestamp() >= inicio && log.getTimestamp() <= fim) {
+                destino.accept(log);
+            }
+        });
+    }
+
+    /**
+     * Abre o arquivo para leitura de linhas. Arquivos gzip (detectados pelos
+     * bytes iniciais, ex.: logs.csv.gz) são descomprimidos em uma thread
+     * separada, em paralelo com o parse.
+     * 
+     * @param caminhoArquivo Caminho do arquivo CSV, comprimido ou não
+     * @return Leitor de linhas
+     * @throws IOException Se o arquivo não puder ser aberto
+     */
+    public static BufferedReader abrir(String caminhoArquivo) throws IOException {
+        return new BufferedReader(new InputStreamReader(abrirBytes(caminhoArquivo),
+                                                        Charset.defaultCharset()), BUFFER_LEITURA);
+    }
+
+    /**
+     * Abre o arquivo para leitura de bytes, descomprimindo arquivos gzip em
+     * uma thread separada (como em abrir).
+     * 
+     * @param caminhoArquivo Caminho do arquivo CSV, comprimido ou não
+     * @return Bytes do CSV
+     * @throws IOException Se o arquivo não puder ser aberto
+     */
+    public static InputStream abrirBytes(String caminhoArquivo) throws IOException {
+        Path arquivo = Paths.get(caminhoArquivo);
+        if (EntradaGzipPipeline.ehGzip(arquivo)) {
+            return new EntradaGzipPipeline(arquivo);
         }
+        return Files.newInputStream(arquivo);
     }
 
     /**
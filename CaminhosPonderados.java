@@ -0,0 +1,354 @@
+package br.edu.icev.aed.forense.extended;
+
+import br.edu.icev.aed.forense.util.DicionarioRecursos;
+import br.edu.icev.aed.forense.util.HeapIndexado;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Modo ponderado do Desafio 5: o caminho de contaminação "mais suspeito".
+ *
+ * A BFS do Desafio 5 devolve o caminho com menos saltos. Aqui cada aresta do
+ * grafo de recursos tem um custo derivado das transições que a formaram
+ * (severidade máxima e bytes somados do evento de destino), e a busca procura
+ * o caminho de menor custo total:
+ *
+ *   custo = 1 + (SEVERIDADE_MAXIMA - severidade) + 1 / (1 + log2(1 + bytes))
+ *
+ * - cada salto custa pelo menos 1 (caminhos curtos continuam preferidos)
+ * - severidade alta barateia a aresta (é a parcela dominante)
+ * - transferências grandes desempatam entre arestas de mesma severidade
+ *
+ * Algoritmos:
+ * - Dijkstra com heap binário indexado sobre ids inteiros (HeapIndexado),
+ *   com diminuição de prioridade em vez de entradas duplicadas
+ * - k caminhos de menor custo sem ciclos (algoritmo de Yen): cada novo caminho
+ *   é derivado dos anteriores bloqueando a próxima aresta já usada a partir de
+ *   cada prefixo e buscando um desvio com Dijkstra
+ *
+ * Complexidade: O((V + E) log V) por Dijkstra; O(k · L · (V + E) log V) para
+ * k caminhos de até L saltos
+ *
+ * USO OPCIONAL: Para priorizar rotas de ataque além do Desafio 5.
+ */
+public class CaminhosPonderados {
+
+    // Severidade considerada máxima na escala dos logs (valores acima são limitados)
+    public static final int SEVERIDADE_MAXIMA = 10;
+
+    /**
+     * Um caminho encontrado: recursos em ordem e custo total
+     */
+    public static class Caminho {
+        private final List<String> recursos;
+        private final double custo;
+
+        public Caminho(List<String> recursos, double custo) {
+            this.recursos = recursos;
+            this.custo = custo;
+        }
+
+        public List<String> getRecursos() { return recursos; }
+        public double getCusto() { return custo; }
+        public int getSaltos() { return recursos.size() - 1; }
+
+        @Override
+        public String toString() {
+            return String.format("%s (custo %.3f)", recursos, custo);
+        }
+    }
+
+    private final GrafoRecursos grafo;
+
+    // Custo de cada aresta (mesma posição de destinos no CSR)
+    private final double[] custos;
+
+    private CaminhosPonderados(GrafoRecursos grafo) {
+        this.grafo = grafo;
+        this.custos = new double[grafo.arestas()];
+        for (int e = 0; e < custos.length; e++) {
+            custos[e] = custoAresta(grafo.severidadeMaxima(e), grafo.bytesTotal(e));
+        }
+    }
+
+    /**
+     * Lê o arquivo e prepara o grafo ponderado.
+     *
+     * @param caminhoArquivoCsv Caminho para o arquivo de logs
+     * @return Estrutura pronta para consultas
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static CaminhosPonderados construir(String caminhoArquivoCsv) throws IOException {
+        return construir(GrafoRecursos.construir(caminhoArquivoCsv));
+    }
+
+    /**
+     * Prepara as consultas sobre um grafo já montado.
+     *
+     * @throws IllegalArgumentException Se o grafo não tiver agregados por aresta
+     */
+    public static CaminhosPonderados construir(GrafoRecursos grafo) {
+        if (!grafo.possuiAgregados()) {
+            throw new IllegalArgumentException("Grafo sem severidade/bytes por aresta");
+        }
+        return new CaminhosPonderados(grafo);
+    }
+
+    /**
+     * Caminho mais suspeito no mesmo formato do Desafio 5.
+     *
+     * @param caminhoArquivoCsv Caminho para o arquivo de logs
+     * @param recursoInicial O ponto de entrada do ataque
+     * @param recursoAlvo O alvo final do ataque
+     * @return Sequência de recursos, ou Optional.empty() se não houver caminho
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static Optional<List<String>> rastrear(String caminhoArquivoCsv, String recursoInicial,
+                                                  String recursoAlvo) throws IOException {
+        return construir(caminhoArquivoCsv).maisSuspeito(recursoInicial, recursoAlvo)
+                .map(Caminho::getRecursos);
+    }
+
+    /**
+     * Custo de uma aresta a partir da sua severidade máxima e dos bytes somados.
+     * Sempre no intervalo [1, SEVERIDADE_MAXIMA + 2].
+     */
+    public static double custoAresta(int severidade, long bytes) {
+        int s = Math.max(0, Math.min(SEVERIDADE_MAXIMA, severidade));
+        double log2 = Math.log1p(Math.max(0, bytes)) / Math.log(2);
+        return 1 + (SEVERIDADE_MAXIMA - s) + 1.0 / (1.0 + log2);
+    }
+
+    /**
+     * Caminho de menor custo (mais suspeito) entre dois recursos.
+     *
+     * @return Caminho encontrado, ou Optional.empty() se não houver caminho
+     */
+    public Optional<Caminho> maisSuspeito(String recursoInicial, String recursoAlvo) {
+        List<Caminho> caminhos = maisSuspeitos(recursoInicial, recursoAlvo, 1);
+        return caminhos.isEmpty() ? Optional.empty() : Optional.of(caminhos.get(0));
+    }
+
+    /**
+     * Os k caminhos sem ciclos de menor custo, em ordem crescente de custo.
+     *
+     * @param k Número máximo de caminhos
+     * @return Até k caminhos (vazio se não houver nenhum)
+     */
+    public List<Caminho> maisSuspeitos(String recursoInicial, String recursoAlvo, int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k deve ser positivo: " + k);
+        }
+
+        DicionarioRecursos dicionario = grafo.getDicionario();
+        int inicial = dicionario.id(recursoInicial);
+        int alvo = dicionario.id(recursoAlvo);
+        List<Caminho> resultado = new ArrayList<>();
+        if (inicial < 0 || alvo < 0) {
+            return resultado;
+        }
+        if (inicial == alvo) {
+            resultado.add(new Caminho(Collections.singletonList(recursoInicial), 0));
+            return resultado;
+        }
+
+        Busca busca = new Busca();
+        int[] primeiro = busca.dijkstra(inicial, alvo);
+        if (primeiro == null) {
+            return resultado;
+        }
+
+        List<int[]> aceitos = new ArrayList<>();
+        aceitos.add(primeiro);
+
+        // Candidatos ordenados por custo; o conjunto evita repetir o mesmo caminho
+        PriorityQueue<int[]> candidatos = new PriorityQueue<>(Comparator.comparingDouble(this::custo));
+        Set<List<Integer>> vistos = new HashSet<>();
+        vistos.add(chave(primeiro));
+
+        while (aceitos.size() < k) {
+            int[] anterior = aceitos.get(aceitos.size() - 1);
+            int no = inicial;
+
+            for (int i = 0; i < anterior.length; i++) {
+                // Bloquear a aresta seguinte de todo caminho aceito com o mesmo prefixo
+                for (int[] aceito : aceitos) {
+                    if (aceito.length > i && mesmoPrefixo(aceito, anterior, i)) {
+                        busca.bloquearAresta(aceito[i]);
+                    }
+                }
+
+                int[] desvio = busca.dijkstra(no, alvo);
+                if (desvio != null) {
+                    int[] candidato = Arrays.copyOf(anterior, i + desvio.length);
+                    System.arraycopy(desvio, 0, candidato, i, desvio.length);
+                    if (vistos.add(chave(candidato))) {
+                        candidatos.add(candidato);
+                    }
+                }
+
+                // O nó do prefixo não pode reaparecer nos desvios seguintes
+                busca.desbloquearArestas();
+                busca.bloquearNo(no);
+                no = grafo.destino(anterior[i]);
+            }
+            busca.desbloquearNos();
+
+            if (candidatos.isEmpty()) {
+                break;
+            }
+            aceitos.add(candidatos.poll());
+        }
+
+        for (int[] arestas : aceitos) {
+            resultado.add(paraCaminho(inicial, arestas));
+        }
+        return resultado;
+    }
+
+    private double custo(int[] arestas) {
+        double total = 0;
+        for (int e : arestas) {
+            total += custos[e];
+        }
+        return total;
+    }
+
+    private Caminho paraCaminho(int inicial, int[] arestas) {
+        DicionarioRecursos dicionario = grafo.getDicionario();
+        List<String> recursos = new ArrayList<>(arestas.length + 1);
+        recursos.add(dicionario.nome(inicial));
+        for (int e : arestas) {
+            recursos.add(dicionario.nome(grafo.destino(e)));
+        }
+        return new Caminho(recursos, custo(arestas));
+    }
+
+    private static boolean mesmoPrefixo(int[] a, int[] b, int tamanho) {
+        for (int i = 0; i < tamanho; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Integer> chave(int[] arestas) {
+        List<Integer> chave = new ArrayList<>(arestas.length);
+        for (int e : arestas) {
+            chave.add(e);
+        }
+        return chave;
+    }
+
+    /**
+     * Estado de busca de uma consulta, reaproveitado entre os vários Dijkstra
+     * do algoritmo de Yen. As distâncias valem apenas para vértices marcados
+     * na rodada atual, então não é preciso reinicializar os arrays a cada busca.
+     */
+    private final class Busca {
+        private final double[] distancia;
+        private final int[] arestaAnterior;
+        private final int[] verticeAnterior;
+        private final int[] rodadaDoVertice;
+        private int rodada;
+        private final HeapIndexado heap;
+
+        // Bloqueios do algoritmo de Yen (bitsets) e o que foi bloqueado
+        private final long[] nosBloqueados;
+        private final long[] arestasBloqueadas;
+        private final List<Integer> nosMarcados = new ArrayList<>();
+        private final List<Integer> arestasMarcadas = new ArrayList<>();
+
+        Busca() {
+            int vertices = grafo.vertices();
+            this.distancia = new double[vertices];
+            this.arestaAnterior = new int[vertices];
+            this.verticeAnterior = new int[vertices];
+            this.rodadaDoVertice = new int[vertices];
+            this.heap = new HeapIndexado(vertices);
+            this.nosBloqueados = new long[(vertices + 63) >>> 6];
+            this.arestasBloqueadas = new long[(grafo.arestas() + 63) >>> 6];
+        }
+
+        /**
+         * Dijkstra de origem até alvo, ignorando nós e arestas bloqueados
+         *
+         * @return Arestas do caminho em ordem, ou null se o alvo for inalcançável
+         */
+        int[] dijkstra(int origem, int alvo) {
+            rodada++;
+            heap.limpar();
+            visitar(origem, 0, -1, -1);
+            heap.inserirOuDiminuir(origem, 0);
+
+            while (!heap.vazio()) {
+                int v = heap.extrairMinimo();
+                if (v == alvo) {
+                    return reconstruir(origem, alvo);
+                }
+                double dv = distancia[v];
+                for (int e = grafo.inicioVizinhos(v); e < grafo.fimVizinhos(v); e++) {
+                    int w = grafo.destino(e);
+                    if (contem(arestasBloqueadas, e) || contem(nosBloqueados, w)) {
+                        continue;
+                    }
+                    double nova = dv + custos[e];
+                    if (rodadaDoVertice[w] != rodada || nova < distancia[w]) {
+                        visitar(w, nova, e, v);
+                        heap.inserirOuDiminuir(w, nova);
+                    }
+                }
+            }
+            return null;
+        }
+
+        private void visitar(int v, double d, int aresta, int anterior) {
+            rodadaDoVertice[v] = rodada;
+            distancia[v] = d;
+            arestaAnterior[v] = aresta;
+            verticeAnterior[v] = anterior;
+        }
+
+        private int[] reconstruir(int origem, int alvo) {
+            int saltos = 0;
+            for (int v = alvo; v != origem; v = verticeAnterior[v]) {
+                saltos++;
+            }
+            int[] arestas = new int[saltos];
+            for (int v = alvo; v != origem; v = verticeAnterior[v]) {
+                arestas[--saltos] = arestaAnterior[v];
+            }
+            return arestas;
+        }
+
+        void bloquearNo(int v) {
+            nosBloqueados[v >>> 6] |= 1L << v;
+            nosMarcados.add(v);
+        }
+
+        void bloquearAresta(int e) {
+            arestasBloqueadas[e >>> 6] |= 1L << e;
+            arestasMarcadas.add(e);
+        }
+
+        void desbloquearNos() {
+            for (int v : nosMarcados) {
+                nosBloqueados[v >>> 6] = 0;
+            }
+            nosMarcados.clear();
+        }
+
+        void desbloquearArestas() {
+            for (int e : arestasMarcadas) {
+                arestasBloqueadas[e >>> 6] = 0;
+            }
+            arestasMarcadas.clear();
+        }
+    }
+
+    private static boolean contem(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+}
@@ -0,0 +1,312 @@
+package br.edu.icev.aed.forense.extended;
+
+import br.edu.icev.aed.forense.LogEntry;
+import br.edu.icev.aed.forense.util.CSVReader;
+import br.edu.icev.aed.forense.util.DicionarioRecursos;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Versão temporal do Desafio 5: caminhos de contaminação que respeitam o tempo.
+ *
+ * O grafo do Desafio 5 junta todas as sessões em um conjunto estático de
+ * arestas, então a BFS pode devolver caminhos impossíveis na ordem do tempo
+ * (ex.: usar às 10h uma transição que só ocorreu às 9h). Aqui cada aresta
+ * recursoA -> recursoB guarda o TIMESTAMP em que a transição ocorreu, e um
+ * caminho só é válido se cada salto acontece no mesmo instante ou depois do
+ * salto anterior.
+ *
+ * Algoritmo (chegada mais cedo / earliest arrival):
+ * 1. Monta o fluxo de arestas (origem, destino, instante) ordenado por instante
+ * 2. chegada[inicial] = instante mínimo; demais = infinito
+ * 3. Percorre as arestas uma única vez, em grupos de mesmo instante t: uma
+ *    BFS sobre as arestas do grupo, partindo das origens já alcançadas até t,
+ *    marca os destinos ainda não alcançados como alcançados em t (vários
+ *    saltos encadeados no mesmo instante são permitidos)
+ * 4. O caminho é reconstruído pela aresta que alcançou cada recurso
+ *
+ * Complexidade: O(E log E) para ordenar uma vez + O(V + E) por consulta
+ * (cada grupo de g arestas custa O(g))
+ *
+ * USO OPCIONAL: Para análises forenses que precisam de ordem temporal.
+ */
+public class ContaminacaoTemporal {
+
+    /**
+     * Um passo do caminho: o recurso e o instante em que foi alcançado
+     */
+    public static class Passo {
+        private final String recurso;
+        private final long instante;
+
+        public Passo(String recurso, long instante) {
+            this.recurso = recurso;
+            this.instante = instante;
+        }
+
+        public String getRecurso() { return recurso; }
+        public long getInstante() { return instante; }
+
+        @Override
+        public String toString() {
+            return recurso + "@" + instante;
+        }
+    }
+
+    private final DicionarioRecursos dicionario;
+
+    // Fluxo de arestas ordenado por instante
+    private final int[] origens;
+    private final int[] destinos;
+    private final long[] instantes;
+
+    // Tamanho do maior grupo de arestas com o mesmo instante
+    private final int maiorGrupo;
+
+    private ContaminacaoTemporal(DicionarioRecursos dicionario, int[] origens,
+                                 int[] destinos, long[] instantes) {
+        this.dicionario = dicionario;
+        this.origens = origens;
+        this.destinos = destinos;
+        this.instantes = instantes;
+
+        int maior = 0;
+        for (int inicio = 0, fim = 0; inicio < instantes.length; inicio = fim) {
+            while (fim < instantes.length && instantes[fim] == instantes[inicio]) {
+                fim++;
+            }
+            maior = Math.max(maior, fim - inicio);
+        }
+        this.maiorGrupo = maior;
+    }
+
+    /**
+     * Lê o arquivo e constrói o fluxo temporal de arestas.
+     *
+     * @param caminhoArquivoCsv Caminho para o arquivo de logs
+     * @return Estrutura pronta para consultas
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static ContaminacaoTemporal construir(String caminhoArquivoCsv) throws IOException {
+        return construir(CSVReader.lerTodosOsLogs(caminhoArquivoCsv));
+    }
+
+    /**
+     * Constrói o fluxo temporal de arestas a partir de logs já carregados.
+     * As arestas são as mesmas do Desafio 5 (recursos consecutivos dentro de
+     * uma sessão), cada uma com o instante do evento de destino.
+     */
+    public static ContaminacaoTemporal construir(List<LogEntry> logs) {
+        DicionarioRecursos dicionario = new DicionarioRecursos();
+
+        // Agrupar logs por SESSION_ID
+        Map<String, List<LogEntry>> logsPorSessao = new HashMap<>();
+        for (LogEntry log : logs) {
+            logsPorSessao.computeIfAbsent(log.getSessionId(), s -> new ArrayList<>()).add(log);
+        }
+
+        int totalArestas = 0;
+        for (List<LogEntry> sessao : logsPorSessao.values()) {
+            totalArestas += Math.max(0, sessao.size() - 1);
+        }
+
+        int[] origens = new int[totalArestas];
+        int[] destinos = new int[totalArestas];
+        long[] instantes = new long[totalArestas];
+        int e = 0;
+
+        for (List<LogEntry> sessao : logsPorSessao.values()) {
+            sessao.sort(Comparator.comparingLong(LogEntry::getTimestamp));
+            for (int i = 0; i + 1 < sessao.size(); i++) {
+                origens[e] = dicionario.internar(sessao.get(i).getTargetResource());
+                destinos[e] = dicionario.internar(sessao.get(i + 1).getTargetResource());
+                instantes[e] = sessao.get(i + 1).getTimestamp();
+                e++;
+            }
+        }
+
+        int[] ordem = ordenarPorInstante(instantes);
+        int[] origensOrdenadas = new int[totalArestas];
+        int[] destinosOrdenados = new int[totalArestas];
+        long[] instantesOrdenados = new long[totalArestas];
+        for (int i = 0; i < totalArestas; i++) {
+            origensOrdenadas[i] = origens[ordem[i]];
+            destinosOrdenados[i] = destinos[ordem[i]];
+            instantesOrdenados[i] = instantes[ordem[i]];
+        }
+
+        return new ContaminacaoTemporal(dicionario, origensOrdenadas, destinosOrdenados, instantesOrdenados);
+    }
+
+    /**
+     * Retorna a permutação que ordena os instantes.
+     * Quando a faixa de instantes cabe junto com o índice em um long, ordena
+     * chaves primitivas (instante relativo << bits | índice); senão usa um
+     * Comparator sobre índices.
+     */
+    private static int[] ordenarPorInstante(long[] instantes) {
+        int n = instantes.length;
+        int[] ordem = new int[n];
+        if (n == 0) {
+            return ordem;
+        }
+
+        long menor = Long.MAX_VALUE;
+        long maior = Long.MIN_VALUE;
+        for (long t : instantes) {
+            menor = Math.min(menor, t);
+            maior = Math.max(maior, t);
+        }
+
+        int bitsIndice = 32 - Integer.numberOfLeadingZeros(n);
+        long faixa = maior - menor;
+        if (faixa >= 0 && faixa < (1L << (63 - bitsIndice))) {
+            long[] chaves = new long[n];
+            for (int i = 0; i < n; i++) {
+                chaves[i] = ((instantes[i] - menor) << bitsIndice) | i;
+            }
+            Arrays.sort(chaves);
+            long mascara = (1L << bitsIndice) - 1;
+            for (int i = 0; i < n; i++) {
+                ordem[i] = (int) (chaves[i] & mascara);
+            }
+        } else {
+            Integer[] indices = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                indices[i] = i;
+            }
+            Arrays.sort(indices, Comparator.comparingLong(i -> instantes[i]));
+            for (int i = 0; i < n; i++) {
+                ordem[i] = indices[i];
+            }
+        }
+        return ordem;
+    }
+
+    /**
+     * Caminho de contaminação que respeita o tempo, no mesmo formato do Desafio 5.
+     *
+     * @param caminhoArquivoCsv Caminho para o arquivo de logs
+     * @param recursoInicial O ponto de entrada do ataque
+     * @param recursoAlvo O alvo final do ataque
+     * @return Sequência de recursos, ou Optional.empty() se não houver caminho no tempo
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static Optional<List<String>> rastrear(String caminhoArquivoCsv, String recursoInicial,
+                                                  String recursoAlvo) throws IOException {
+        return construir(caminhoArquivoCsv).rastrear(recursoInicial, recursoAlvo);
+    }
+
+    /**
+     * Caminho que respeita o tempo, partindo a qualquer instante.
+     */
+    public Optional<List<String>> rastrear(String recursoInicial, String recursoAlvo) {
+        return rastrearComInstantes(recursoInicial, recursoAlvo, Long.MIN_VALUE)
+                .map(passos -> {
+                    List<String> recursos = new ArrayList<>(passos.size());
+                    for (Passo passo : passos) {
+                        recursos.add(passo.getRecurso());
+                    }
+                    return recursos;
+                });
+    }
+
+    /**
+     * Caminho que chega mais cedo ao alvo, partindo do recurso inicial no
+     * instante informado ou depois. Cada passo traz o instante em que o
+     * recurso foi alcançado (o primeiro passo traz o instante de partida).
+     *
+     * @param recursoInicial O ponto de entrada do ataque
+     * @param recursoAlvo O alvo final do ataque
+     * @param instanteInicial Instante mínimo do primeiro salto
+     * @return Passos do caminho, ou Optional.empty() se não houver caminho no tempo
+     */
+    public Optional<List<Passo>> rastrearComInstantes(String recursoInicial, String recursoAlvo,
+                                                      long instanteInicial) {
+        int inicial = dicionario.id(recursoInicial);
+        int alvo = dicionario.id(recursoAlvo);
+        if (inicial < 0 || alvo < 0) {
+            return Optional.empty();
+        }
+        if (inicial == alvo) {
+            return Optional.of(Collections.singletonList(new Passo(recursoInicial, instanteInicial)));
+        }
+
+        final long infinito = Long.MAX_VALUE;
+        int totalRecursos = dicionario.tamanho();
+        long[] chegada = new long[totalRecursos];
+        int[] arestaAnterior = new int[totalRecursos];
+        Arrays.fill(chegada, infinito);
+        Arrays.fill(arestaAnterior, -1);
+        chegada[inicial] = instanteInicial;
+
+        // Lista de adjacência do grupo atual (cabeça por recurso, válida só se
+        // grupoCabeca for o grupo atual) e fila da BFS do grupo
+        int[] cabeca = new int[totalRecursos];
+        int[] grupoCabeca = new int[totalRecursos];
+        int[] proxima = new int[maiorGrupo];
+        int[] fila = new int[2 * maiorGrupo];
+        Arrays.fill(grupoCabeca, -1);
+
+        int e = 0;
+        int grupo = 0;
+        while (e < instantes.length && chegada[alvo] == infinito) {
+            long t = instantes[e];
+            int fimGrupo = e;
+            while (fimGrupo < instantes.length && instantes[fimGrupo] == t) {
+                fimGrupo++;
+            }
+
+            // Origens já alcançadas até t entram na fila uma vez cada
+            int tamanhoFila = 0;
+            for (int i = e; i < fimGrupo; i++) {
+                int origem = origens[i];
+                if (grupoCabeca[origem] != grupo) {
+                    grupoCabeca[origem] = grupo;
+                    cabeca[origem] = -1;
+                    if (chegada[origem] <= t) {
+                        fila[tamanhoFila++] = origem;
+                    }
+                }
+                proxima[i - e] = cabeca[origem];
+                cabeca[origem] = i;
+            }
+
+            // BFS no grupo: cada destino é alcançado (e enfileirado) no máximo uma vez
+            for (int frente = 0; frente < tamanhoFila; frente++) {
+                int recurso = fila[frente];
+                if (grupoCabeca[recurso] != grupo) {
+                    continue;
+                }
+                for (int i = cabeca[recurso]; i >= 0; i = proxima[i - e]) {
+                    int destino = destinos[i];
+                    if (t < chegada[destino]) {
+                        chegada[destino] = t;
+                        arestaAnterior[destino] = i;
+                        fila[tamanhoFila++] = destino;
+                    }
+                }
+            }
+
+            e = fimGrupo;
+            grupo++;
+        }
+
+        if (chegada[alvo] == infinito) {
+            return Optional.empty();
+        }
+
+        // Reconstruir de trás para frente pelas arestas de chegada
+        LinkedList<Passo> passos = new LinkedList<>();
+        int atual = alvo;
+        while (atual != inicial) {
+            int aresta = arestaAnterior[atual];
+            passos.addFirst(new Passo(dicionario.nome(atual), instantes[aresta]));
+            atual = origens[aresta];
+        }
+        passos.addFirst(new Passo(recursoInicial, instanteInicial));
+
+        return Optional.of(passos);
+    }
+}
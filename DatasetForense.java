@@ -0,0 +1,152 @@
+package br.edu.icev.aed.forense.extended;
+
+import br.edu.icev.aed.forense.Alerta;
+import br.edu.icev.aed.forense.LogEntry;
+import br.edu.icev.aed.forense.SolucaoForenseImpl;
+import br.edu.icev.aed.forense.util.CSVReader;
+import br.edu.icev.aed.forense.util.TabelaLogs;
+import br.edu.icev.aed.forense.util.TabelaLogsMemoria;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Retrato imutável de um arquivo de logs, com todos os índices construídos
+ * uma única vez, para consultas somente leitura de qualquer número de threads.
+ *
+ * Índices:
+ * - Sessões inválidas e picos de transferência: resultados prontos (Desafios 1 e 4)
+ * - Linha do tempo: SESSION_ID -> ações em ordem do arquivo (Desafio 2)
+ * - Alertas: IndiceSeveridade sobre a tabela (Desafio 3); empates na ordem
+ *   do arquivo
+ * - Caminhos: grafo de recursos em CSR e seu transposto (Desafio 5)
+ *
+ * Segurança entre threads: todos os campos são final e nenhuma estrutura é
+ * alterada depois do construtor, então o objeto pode ser compartilhado
+ * livremente depois de construído (semântica de campos final do Java). As
+ * consultas não usam locks: cada uma só lê os índices e aloca o próprio
+ * espaço de trabalho. Os resultados são visões não modificáveis ou cópias
+ * novas (Alertas), então um chamador não altera o que os outros veem.
+ *
+ * USO OPCIONAL: Para servir muitas consultas concorrentes sobre o mesmo log.
+ */
+public final class DatasetForense {
+
+    private final TabelaLogs tabela;
+    private final Set<String> sessoesInvalidas;
+    private final Map<String, List<String>> linhasDoTempo;
+    private final IndiceSeveridade alertas;
+    private final Map<Long, Long> picos;
+    private final GrafoRecursos grafo;
+    private final SolucaoForenseImpl solucao = new SolucaoForenseImpl();
+
+    private DatasetForense(List<LogEntry> logs) {
+        this.tabela = new TabelaLogsMemoria(logs);
+
+        this.sessoesInvalidas = Collections.unmodifiableSet(solucao.desafio1_encontrarSessoesInvalidas(tabela));
+        this.picos = Collections.unmodifiableMap(solucao.desafio4_encontrarPicosDeTransferencia(tabela));
+        this.linhasDoTempo = indexarLinhasDoTempo(tabela);
+        this.alertas = IndiceSeveridade.construir(tabela);
+        this.grafo = GrafoRecursos.construir(logs);
+
+        // O transposto (usado pela BFS bottom-up) é montado aqui, não na primeira consulta
+        this.grafo.transposto();
+    }
+
+    /**
+     * Lê o arquivo e constrói todos os índices.
+     *
+     * @param caminhoArquivoCsv Caminho para o arquivo de logs
+     * @return Retrato pronto para consultas concorrentes
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static DatasetForense carregar(String caminhoArquivoCsv) throws IOException {
+        return carregar(CSVReader.lerTodosOsLogs(caminhoArquivoCsv));
+    }
+
+    /**
+     * Constrói todos os índices sobre logs já carregados. A lista não deve
+     * ser alterada depois desta chamada.
+     *
+     * Complexidade: O(n log n) uma única vez
+     */
+    public static DatasetForense carregar(List<LogEntry> logs) {
+        return new DatasetForense(logs);
+    }
+
+    /**
+     * Número de linhas de log
+     */
+    public int tamanho() {
+        return tabela.tamanho();
+    }
+
+    /**
+     * Desafio 1: sessões inválidas (conjunto não modificável).
+     *
+     * Complexidade: O(1)
+     */
+    public Set<String> sessoesInvalidas() {
+        return sessoesInvalidas;
+    }
+
+    /**
+     * Desafio 2: ações da sessão em ordem do arquivo (lista não modificável;
+     * vazia se a sessão não existir).
+     *
+     * Complexidade: O(1)
+     */
+    public List<String> linhaDoTempo(String sessionId) {
+        return linhasDoTempo.getOrDefault(sessionId, Collections.emptyList());
+    }
+
+    /**
+     * Desafio 3: os N alertas mais severos, do mais severo para o menos severo.
+     * Os Alertas são criados a cada chamada.
+     *
+     * Complexidade: O(N)
+     */
+    public List<Alerta> alertas(int n) {
+        return alertas.topN(n);
+    }
+
+    /**
+     * Desafio 4: timestamp de cada evento -> timestamp do próximo evento com
+     * mais bytes (mapa não modificável).
+     *
+     * Complexidade: O(1)
+     */
+    public Map<Long, Long> picosDeTransferencia() {
+        return picos;
+    }
+
+    /**
+     * Desafio 5: caminho mais curto (em saltos) entre dois recursos, com o
+     * mesmo contrato e a mesma BFS paralela por níveis (BuscaLarguraParalela)
+     * de SolucaoForenseImpl sobre o grafo CSR: vazio se o recurso inicial não
+     * tiver acessos seguintes; só o recurso inicial se for igual ao alvo.
+     *
+     * Complexidade: O(V + E) por consulta, com arrays próprios da consulta
+     */
+    public Optional<List<String>> caminho(String recursoInicial, String recursoAlvo) {
+        return solucao.desafio5_rastrearContaminacao(grafo, recursoInicial, recursoAlvo)
+                      .map(Collections::unmodifiableList);
+    }
+
+    /**
+     * SESSION_ID -> ações da sessão em ordem do arquivo, em listas não modificáveis
+     */
+    private static Map<String, List<String>> indexarLinhasDoTempo(TabelaLogs tabela) {
+        Map<String, List<String>> acoesPorSessao = new HashMap<>();
+        for (int i = 0; i < tabela.tamanho(); i++) {
+            acoesPorSessao.computeIfAbsent(tabela.getSessionId(i), s -> new ArrayList<>())
+                          .add(tabela.getActionType(i));
+        }
+        Map<String, List<String>> indice = new HashMap<>(acoesPorSessao.size() * 4 / 3 + 1);
+        for (Map.Entry<String, List<String>> sessao : acoesPorSessao.entrySet()) {
+            indice.put(sessao.getKey(), Collections.unmodifiableList(Arrays.asList(
+                sessao.getValue().toArray(new String[0]))));
+        }
+        return Collections.unmodifiableMap(indice);
+    }
+}
@@ -0,0 +1,376 @@
+package br.edu.icev.aed.forense.extended;
+
+import br.edu.icev.aed.forense.LogEntry;
+import br.edu.icev.aed.forense.util.CSVReader;
+import br.edu.icev.aed.forense.util.ParserLogs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Detector de exfiltração por janela deslizante sobre BYTES_TRANSFERRED.
+ *
+ * Complementa o Desafio 4: enquanto o Desafio 4 liga cada evento ao próximo
+ * evento maior, este detector soma as transferências de cada usuário e de cada
+ * recurso de destino dentro de uma janela de tempo (ex.: 10 minutos) e sinaliza
+ * quando a soma ou a maior transferência da janela ultrapassa um limiar.
+ *
+ * Estruturas por chave:
+ * - Fila circular com (timestamp, bytes) dos eventos dentro da janela → soma
+ * - Deque monotônica decrescente de bytes → maior transferência da janela
+ *
+ * Cada evento entra e sai uma única vez de cada estrutura, então o custo é
+ * O(1) amortizado por evento. Chaves sem eventos na janela (todos anteriores
+ * a "último instante visto - janela") são descartadas por uma varredura
+ * periódica, feita a cada tantos eventos quantas chaves houver (também O(1)
+ * amortizado): a memória acompanha as chaves ativas, não todas as já vistas.
+ * Funciona tanto sobre arquivos completos quanto sobre arquivos que continuam
+ * crescendo (acompanhamento "tail").
+ *
+ * USO OPCIONAL: Para monitoramento contínuo além do requisito básico.
+ */
+public class DetectorExfiltracao {
+
+    /**
+     * Agrupamento da janela: por usuário ou por recurso de destino
+     */
+    public enum Escopo {
+        USUARIO,
+        RECURSO
+    }
+
+    /**
+     * Janela que ultrapassou algum limiar
+     */
+    public static class Suspeita {
+        private final Escopo escopo;
+        private final String chave;
+        private final long inicioJanela;
+        private final long fimJanela;
+        private final long bytesNaJanela;
+        private final long maiorTransferencia;
+        private final int eventos;
+
+        public Suspeita(Escopo escopo, String chave, long inicioJanela, long fimJanela,
+                        long bytesNaJanela, long maiorTransferencia, int eventos) {
+            this.escopo = escopo;
+            this.chave = chave;
+            this.inicioJanela = inicioJanela;
+            this.fimJanela = fimJanela;
+            this.bytesNaJanela = bytesNaJanela;
+            this.maiorTransferencia = maiorTransferencia;
+            this.eventos = eventos;
+        }
+
+        // Getters
+        public Escopo getEscopo() { return escopo; }
+        public String getChave() { return chave; }
+        public long getInicioJanela() { return inicioJanela; }
+        public long getFimJanela() { return fimJanela; }
+        public long getBytesNaJanela() { return bytesNaJanela; }
+        public long getMaiorTransferencia() { return maiorTransferencia; }
+        public int getEventos() { return eventos; }
+
+        @Override
+        public String toString() {
+            return String.format("Suspeita{%s=%s, janela=[%d, %d], bytes=%d, maior=%d, eventos=%d}",
+                               escopo, chave, inicioJanela, fimJanela,
+                               bytesNaJanela, maiorTransferencia, eventos);
+        }
+    }
+
+    /**
+     * Fila circular de pares (timestamp, valor) que cresce dobrando a capacidade.
+     * Usada tanto como fila FIFO quanto como deque monotônica.
+     */
+    private static final class FilaCircular {
+        private long[] timestamps = new long[8];
+        private long[] valores = new long[8];
+        private int cabeca = 0;
+        private int tamanho = 0;
+
+        boolean isEmpty() { return tamanho == 0; }
+        int size() { return tamanho; }
+
+        long primeiroTimestamp() { return timestamps[cabeca]; }
+        long primeiroValor() { return valores[cabeca]; }
+        long ultimoValor() { return valores[posicao(tamanho - 1)]; }
+
+        void adicionarNoFim(long timestamp, long valor) {
+            if (tamanho == timestamps.length) {
+                crescer();
+            }
+            int pos = posicao(tamanho);
+            timestamps[pos] = timestamp;
+            valores[pos] = valor;
+            tamanho++;
+        }
+
+        void removerDoInicio() {
+            cabeca = (cabeca + 1) & (timestamps.length - 1);
+            tamanho--;
+        }
+
+        void removerDoFim() {
+            tamanho--;
+        }
+
+        private int posicao(int deslocamento) {
+            // Capacidade é sempre potência de 2
+            return (cabeca + deslocamento) & (timestamps.length - 1);
+        }
+
+        private void crescer() {
+            long[] novosTimestamps = new long[timestamps.length * 2];
+            long[] novosValores = new long[valores.length * 2];
+            for (int i = 0; i < tamanho; i++) {
+                novosTimestamps[i] = timestamps[posicao(i)];
+                novosValores[i] = valores[posicao(i)];
+            }
+            timestamps = novosTimestamps;
+            valores = novosValores;
+            cabeca = 0;
+        }
+    }
+
+    /**
+     * Estado da janela deslizante de uma chave (usuário ou recurso)
+     */
+    private static final class JanelaDeslizante {
+        final FilaCircular eventos = new FilaCircular();
+        final FilaCircular maximos = new FilaCircular();
+        long soma = 0;
+        long ultimoTimestamp = Long.MIN_VALUE;
+        boolean sinalizada = false;
+
+        void adicionar(long timestamp, long bytes, long janelaSegundos) {
+            // Eventos fora de ordem são tratados como simultâneos ao último
+            long ts = Math.max(timestamp, ultimoTimestamp);
+            ultimoTimestamp = ts;
+
+            // Expirar eventos com timestamp <= ts - janela
+            long limite = ts - janelaSegundos;
+            while (!eventos.isEmpty() && eventos.primeiroTimestamp() <= limite) {
+                soma -= eventos.primeiroValor();
+                eventos.removerDoInicio();
+            }
+            while (!maximos.isEmpty() && maximos.primeiroTimestamp() <= limite) {
+                maximos.removerDoInicio();
+            }
+
+            // Deque monotônica: remover do fim os valores <= ao novo
+            while (!maximos.isEmpty() && maximos.ultimoValor() <= bytes) {
+                maximos.removerDoFim();
+            }
+            maximos.adicionarNoFim(ts, bytes);
+
+            eventos.adicionarNoFim(ts, bytes);
+            soma += bytes;
+        }
+
+        long maior() {
+            return maximos.isEmpty() ? 0 : maximos.primeiroValor();
+        }
+    }
+
+    private final long janelaSegundos;
+    private final long limiarBytes;
+    private final long limiarTransferencia;
+
+    private final Map<String, JanelaDeslizante> porUsuario = new HashMap<>();
+    private final Map<String, JanelaDeslizante> porRecurso = new HashMap<>();
+
+    // Eventos entre varreduras de chaves inativas (no mínimo)
+    private static final int EVENTOS_ENTRE_VARREDURAS = 1024;
+
+    // Maior instante registrado e contagem regressiva até a próxima varredura
+    private long ultimoInstante = Long.MIN_VALUE;
+    private long eventosAteVarredura = EVENTOS_ENTRE_VARREDURAS;
+
+    // Parser das linhas do acompanhamento (sem exceções por linha malformada)
+    private final ParserLogs parser = new ParserLogs();
+
+    /**
+     * Cria um detector que sinaliza apenas pela soma de bytes da janela.
+     *
+     * @param janelaSegundos Tamanho da janela deslizante em segundos
+     * @param limiarBytes Soma de bytes na janela que dispara a suspeita
+     */
+    public DetectorExfiltracao(long janelaSegundos, long limiarBytes) {
+        this(janelaSegundos, limiarBytes, Long.MAX_VALUE);
+    }
+
+    /**
+     * Cria um detector com limiar de soma e limiar de transferência individual.
+     *
+     * @param janelaSegundos Tamanho da janela deslizante em segundos
+     * @param limiarBytes Soma de bytes na janela que dispara a suspeita
+     * @param limiarTransferencia Maior transferência única na janela que dispara a suspeita
+     */
+    public DetectorExfiltracao(long janelaSegundos, long limiarBytes, long limiarTransferencia) {
+        if (janelaSegundos <= 0) {
+            throw new IllegalArgumentException("Janela de tempo deve ser positiva");
+        }
+        if (limiarBytes <= 0 || limiarTransferencia <= 0) {
+            throw new IllegalArgumentException("Limiares devem ser positivos");
+        }
+        this.janelaSegundos = janelaSegundos;
+        this.limiarBytes = limiarBytes;
+        this.limiarTransferencia = limiarTransferencia;
+    }
+
+    /**
+     * Registra um evento e retorna as suspeitas que ele disparou.
+     *
+     * Uma chave é sinalizada quando cruza o limiar e só volta a ser sinalizada
+     * depois que a janela cai abaixo dos limiares, evitando um alerta por evento
+     * durante uma mesma rajada.
+     *
+     * Complexidade: O(1) amortizado
+     *
+     * @param log Evento de log (eventos sem bytes transferidos são ignorados)
+     * @return Lista (possivelmente vazia) de suspeitas disparadas por este evento
+     */
+    public List<Suspeita> registrar(LogEntry log) {
+        if (log.getBytesTransferred() <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<Suspeita> suspeitas = new ArrayList<>(0);
+        atualizar(Escopo.USUARIO, log.getUserId(), porUsuario, log, suspeitas);
+        atualizar(Escopo.RECURSO, log.getTargetResource(), porRecurso, log, suspeitas);
+
+        ultimoInstante = Math.max(ultimoInstante, log.getTimestamp());
+        if (--eventosAteVarredura <= 0) {
+            descartarInativas();
+        }
+        return suspeitas;
+    }
+
+    /**
+     * Número de janelas (usuários + recursos) mantidas em memória
+     */
+    public int janelasAtivas() {
+        return porUsuario.size() + porRecurso.size();
+    }
+
+    /**
+     * Remove as chaves cujo último evento já saiu da janela em relação ao
+     * maior instante registrado. Um evento novo dessas chaves começa uma
+     * janela vazia, como aconteceria com a expiração.
+     *
+     * Complexidade: O(chaves), paga pelos eventos até a próxima varredura
+     */
+    private void descartarInativas() {
+        long limite = ultimoInstante - janelaSegundos;
+        porUsuario.values().removeIf(janela -> janela.ultimoTimestamp <= limite);
+        porRecurso.values().removeIf(janela -> janela.ultimoTimestamp <= limite);
+        eventosAteVarredura = Math.max(EVENTOS_ENTRE_VARREDURAS, janelasAtivas());
+    }
+
+    private void atualizar(Escopo escopo, String chave, Map<String, JanelaDeslizante> janelas,
+                           LogEntry log, List<Suspeita> suspeitas) {
+        JanelaDeslizante janela = janelas.computeIfAbsent(chave, k -> new JanelaDeslizante());
+        janela.adicionar(log.getTimestamp(), log.getBytesTransferred(), janelaSegundos);
+
+        boolean acima = janela.soma >= limiarBytes || janela.maior() >= limiarTransferencia;
+        if (acima && !janela.sinalizada) {
+            suspeitas.add(new Suspeita(escopo, chave,
+                                       janela.eventos.primeiroTimestamp(), janela.ultimoTimestamp,
+                                       janela.soma, janela.maior(), janela.eventos.size()));
+        }
+        janela.sinalizada = acima;
+    }
+
+    /**
+     * Analisa um arquivo completo.
+     *
+     * @param caminhoArquivoCsv Caminho para o arquivo de logs
+     * @param janelaSegundos Tamanho da janela deslizante em segundos
+     * @param limiarBytes Soma de bytes na janela que dispara a suspeita
+     * @return Suspeitas na ordem em que foram disparadas
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static List<Suspeita> analisar(String caminhoArquivoCsv, long janelaSegundos,
+                                          long limiarBytes) throws IOException {
+        DetectorExfiltracao detector = new DetectorExfiltracao(janelaSegundos, limiarBytes);
+        List<Suspeita> suspeitas = new ArrayList<>();
+        for (LogEntry log : CSVReader.lerTodosOsLogs(caminhoArquivoCsv)) {
+            suspeitas.addAll(detector.registrar(log));
+        }
+        return suspeitas;
+    }
+
+    /**
+     * Acompanha um arquivo que continua recebendo linhas (como "tail -f"),
+     * entregando cada suspeita ao consumidor assim que é detectada.
+     *
+     * Apenas linhas completas (terminadas em quebra de linha) são processadas;
+     * o restante fica aguardando a próxima leitura. Se o arquivo for truncado
+     * (rotação), a leitura recomeça do início. O método retorna quando a thread
+     * é interrompida.
+     *
+     * @param caminhoArquivoCsv Caminho para o arquivo de logs
+     * @param intervaloMs Intervalo de espera quando não há dados novos
+     * @param consumidor Recebe as suspeitas detectadas
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public void acompanhar(String caminhoArquivoCsv, long intervaloMs,
+                           Consumer<Suspeita> consumidor) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        ByteArrayOutputStream linhaParcial = new ByteArrayOutputStream();
+        long posicao = 0;
+
+        try (RandomAccessFile arquivo = new RandomAccessFile(caminhoArquivoCsv, "r")) {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (arquivo.length() < posicao) {
+                    // Arquivo truncado: recomeçar
+                    posicao = 0;
+                    linhaParcial.reset();
+                }
+                arquivo.seek(posicao);
+                int lidos = arquivo.read(buffer);
+
+                if (lidos <= 0) {
+                    try {
+                        Thread.sleep(intervaloMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    continue;
+                }
+                posicao += lidos;
+
+                int inicio = 0;
+                for (int i = 0; i < lidos; i++) {
+                    if (buffer[i] == '\n') {
+                        linhaParcial.write(buffer, inicio, i - inicio);
+                        processarLinha(linhaParcial.toString(StandardCharsets.UTF_8.name()), consumidor);
+                        linhaParcial.reset();
+                        inicio = i + 1;
+                    }
+                }
+                linhaParcial.write(buffer, inicio, lidos - inicio);
+            }
+        }
+    }
+
+    private void processarLinha(String linha, Consumer<Suspeita> consumidor) {
+        linha = linha.trim();
+        // Cabeçalho e linhas vazias
+        if (linha.isEmpty() || linha.startsWith("TIMESTAMP")) {
+            return;
+        }
+        if (parser.parsear(linha) != ParserLogs.OK) {
+            // Linha malformada: ignorar, como na leitura em lote
+            return;
+        }
+        for (Suspeita suspeita : registrar(parser.resultado())) {
+            consumidor.accept(suspeita);
+        }
+    }
+}
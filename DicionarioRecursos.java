@@ -0,0 +1,56 @@
+package br.edu.icev.aed.forense.util;
+
+import java.util.*;
+
+/**
+ * Dicionário de recursos: associa cada TARGET_RESOURCE distinto a um id
+ * inteiro denso (0, 1, 2, ...), na ordem em que aparece pela primeira vez.
+ *
+ * Permite que os algoritmos de grafo trabalhem com arrays primitivos
+ * indexados por id em vez de mapas de String.
+ */
+public class DicionarioRecursos {
+
+    private final Map<String, Integer> idPorNome;
+    private final List<String> nomes;
+
+    public DicionarioRecursos() {
+        this.idPorNome = new HashMap<>();
+        this.nomes = new ArrayList<>();
+    }
+
+    /**
+     * Retorna o id do recurso, criando um novo id se ainda não existir
+     */
+    public int internar(String recurso) {
+        Integer id = idPorNome.get(recurso);
+        if (id == null) {
+            id = nomes.size();
+            idPorNome.put(recurso, id);
+            nomes.add(recurso);
+        }
+        return id;
+    }
+
+    /**
+     * Retorna o id do recurso, ou -1 se ele não existir
+     */
+    public int id(String recurso) {
+        Integer id = idPorNome.get(recurso);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Nome do recurso com o id informado
+     */
+    public String nome(int id) {
+        return nomes.get(id);
+    }
+
+    /**
+     * Número de recursos distintos
+     */
+    public int tamanho() {
+        return nomes.size();
+    }
+}
@@ -0,0 +1,167 @@
+package br.edu.icev.aed.forense.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * InputStream que descomprime um arquivo gzip em uma thread separada.
+ *
+ * Produtor/consumidor sobre blocos de bytes:
+ * - a thread produtora lê o arquivo com GZIPInputStream (buffer grande) e
+ *   coloca blocos de TAMANHO_BLOCO bytes descomprimidos em uma fila limitada
+ * - o consumidor (a thread que faz o parse das linhas) lê desses blocos
+ *
+ * Assim a descompressão de um bloco acontece enquanto o anterior está sendo
+ * parseado. A fila limitada (BLOCOS_NA_FILA) segura o produtor quando o parse
+ * fica para trás, mantendo a memória constante.
+ *
+ * Erros do produtor são repassados ao consumidor como IOException, em todas
+ * as leituras a partir do erro.
+ */
+public class EntradaGzipPipeline extends InputStream {
+
+    private static final int TAMANHO_BLOCO = 1 << 20;
+    private static final int BUFFER_GZIP = 1 << 16;
+    private static final int BLOCOS_NA_FILA = 4;
+
+    // Marca de fim de arquivo na fila
+    private static final Bloco FIM = new Bloco(new byte[0], 0, null);
+
+    private static final class Bloco {
+        final byte[] dados;
+        final int tamanho;
+        final IOException erro;
+
+        Bloco(byte[] dados, int tamanho, IOException erro) {
+            this.dados = dados;
+            this.tamanho = tamanho;
+            this.erro = erro;
+        }
+    }
+
+    private final BlockingQueue<Bloco> fila = new ArrayBlockingQueue<>(BLOCOS_NA_FILA);
+    private final Thread produtor;
+
+    private Bloco atual;
+    private int posicao;
+    private volatile boolean fechado;
+
+    /**
+     * Abre o arquivo e inicia a thread de descompressão
+     *
+     * @throws IOException Se o arquivo não puder ser aberto ou não for gzip
+     */
+    public EntradaGzipPipeline(Path arquivo) throws IOException {
+        GZIPInputStream entrada = new GZIPInputStream(Files.newInputStream(arquivo), BUFFER_GZIP);
+        this.produtor = new Thread(() -> produzir(entrada), "gzip-" + arquivo.getFileName());
+        this.produtor.setDaemon(true);
+        this.produtor.start();
+    }
+
+    /**
+     * Verifica pelos dois primeiros bytes (0x1f 0x8b) se o arquivo é gzip
+     */
+    public static boolean ehGzip(Path arquivo) throws IOException {
+        try (InputStream entrada = Files.newInputStream(arquivo)) {
+            return entrada.read() == 0x1f && entrada.read() == 0x8b;
+        }
+    }
+
+    private void produzir(GZIPInputStream entrada) {
+        try (GZIPInputStream gzip = entrada) {
+            while (!fechado) {
+                byte[] dados = new byte[TAMANHO_BLOCO];
+                int tamanho = 0;
+                int lidos;
+                while (tamanho < dados.length && (lidos = gzip.read(dados, tamanho, dados.length - tamanho)) > 0) {
+                    tamanho += lidos;
+                }
+                if (tamanho > 0) {
+                    fila.put(new Bloco(dados, tamanho, null));
+                }
+                if (tamanho < dados.length) {
+                    break;
+                }
+            }
+            fila.put(FIM);
+        } catch (IOException e) {
+            entregarErro(e);
+        } catch (InterruptedException e) {
+            // Consumidor fechou o stream
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void entregarErro(IOException e) {
+        try {
+            fila.put(new Bloco(new byte[0], 0, e));
+        } catch (InterruptedException interrompido) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Garante um bloco com bytes restantes
+     *
+     * @return false no fim do arquivo
+     */
+    private boolean proximoBloco() throws IOException {
+        while (atual == null || posicao >= atual.tamanho) {
+            if (atual == FIM) {
+                return false;
+            }
+            // O bloco de erro fica como atual: leituras seguintes repetem o erro
+            // em vez de esperar na fila, onde o produtor não coloca mais nada
+            if (atual != null && atual.erro != null) {
+                throw new IOException("Erro ao descomprimir: " + atual.erro.getMessage(), atual.erro);
+            }
+            try {
+                atual = fila.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Leitura interrompida");
+            }
+            posicao = 0;
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!proximoBloco()) {
+            return -1;
+        }
+        return atual.dados[posicao++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] destino, int deslocamento, int tamanho) throws IOException {
+        if (tamanho == 0) {
+            return 0;
+        }
+        if (!proximoBloco()) {
+            return -1;
+        }
+        int copiar = Math.min(tamanho, atual.tamanho - posicao);
+        System.arraycopy(atual.dados, posicao, destino, deslocamento, copiar);
+        posicao += copiar;
+        return copiar;
+    }
+
+    @Override
+    public int available() {
+        return atual == null ? 0 : atual.tamanho - posicao;
+    }
+
+    @Override
+    public void close() {
+        fechado = true;
+        produtor.interrupt();
+    }
+}
@@ -0,0 +1,407 @@
+package br.edu.icev.aed.forense.util;
+
+import br.edu.icev.aed.forense.LogEntry;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Formato binário colunar para logs já convertidos, para quem recebe o mesmo
+ * log várias vezes e não quer refazer o parse do texto a cada leitura.
+ *
+ * Layout (big-endian):
+ *
+ *   cabeçalho: MAGICO (8 bytes)
+ *   bloco:     int linhas, long timestampMinimo, long timestampMaximo,
+ *              int textosNovos, int bytesDicionario, int bytesColunas
+ *              dicionário: textosNovos × (int tamanho + bytes UTF-8)
+ *              colunas:    long timestamp[linhas], long bytes[linhas],
+ *                          int severidade[linhas], int usuario[linhas],
+ *                          int sessao[linhas], int acao[linhas], int recurso[linhas]
+ *   fim:       int 0, long totalLinhas
+ *
+ * - Colunas numéricas de largura fixa (36 bytes por linha), lidas em bloco
+ *   sem parse
+ * - Textos codificados por dicionário: cada texto distinto é gravado uma vez,
+ *   no bloco em que aparece pela primeira vez, e as linhas guardam o id. Na
+ *   leitura, linhas com o mesmo texto compartilham a mesma String
+ * - Mínimo e máximo de TIMESTAMP por bloco: leituras de um intervalo de tempo
+ *   pulam as colunas dos blocos fora dele (só o dicionário é lido)
+ *
+ * O CSVReader reconhece o formato pelos bytes iniciais, então os Desafios e
+ * as análises estendidas aceitam o arquivo colunar no lugar do CSV.
+ * As linhas ficam na ordem em que foram gravadas.
+ *
+ * USO OPCIONAL: Para logs lidos muitas vezes (converter uma vez, ler sempre).
+ */
+public class FormatoColunar {
+
+    // Identifica o formato (e a versão) nos primeiros bytes do arquivo
+    private static final byte[] MAGICO = {'F', 'O', 'R', 'C', 'O', 'L', '0', '1'};
+
+    // Extensão sugerida para os arquivos convertidos
+    public static final String EXTENSAO = ".fcol";
+
+    // Linhas por bloco (granularidade do descarte por intervalo de tempo)
+    public static final int LINHAS_POR_BLOCO = 1 << 16;
+
+    // Bytes de cada linha nas colunas: 2 longs e 5 ints
+    private static final int BYTES_POR_LINHA = 2 * Long.BYTES + 5 * Integer.BYTES;
+
+    private static final int BUFFER = 1 << 16;
+
+    private FormatoColunar() {
+    }
+
+    /**
+     * Converte um CSV (ou qualquer caminho aceito pelo CSVReader) para o
+     * formato colunar. Linhas inválidas do CSV são descartadas, com o mesmo
+     * aviso do CSVReader.
+     *
+     * @param caminhoCsv Log de origem
+     * @param caminhoColunar Arquivo a criar (substituído se existir)
+     * @return Número de linhas gravadas
+     * @throws IOException Se houver erro na leitura ou na gravação
+     */
+    public static long converter(String caminhoCsv, String caminhoColunar) throws IOException {
+        return gravar(Paths.get(caminhoColunar), escritor -> CSVReader.lerLogs(caminhoCsv, escritor::adicionar));
+    }
+
+    /**
+     * Grava logs já carregados no formato colunar
+     *
+     * @return Número de linhas gravadas
+     */
+    public static long escrever(Iterable<LogEntry> logs, Path destino) throws IOException {
+        return gravar(destino, escritor -> {
+            for (LogEntry log : logs) {
+                escritor.adicionar(log);
+            }
+        });
+    }
+
+    /**
+     * Origem das linhas de uma gravação
+     */
+    private interface Producao {
+        void produzir(Escritor escritor) throws IOException;
+    }
+
+    /**
+     * Grava em um temporário no mesmo diretório e só o move para o destino se
+     * todas as linhas foram gravadas: uma falha no meio (ex.: gzip truncado)
+     * não deixa um arquivo colunar válido com parte das linhas.
+     */
+    private static long gravar(Path destino, Producao producao) throws IOException {
+        Path absoluto = destino.toAbsolutePath();
+        Path temporario = Files.createTempFile(absoluto.getParent(), absoluto.getFileName() + ".", ".tmp");
+        try {
+            long linhas;
+            try (Escritor escritor = new Escritor(temporario)) {
+                producao.produzir(escritor);
+                linhas = escritor.getLinhas();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            try {
+                Files.move(temporario, absoluto, StandardCopyOption.REPLACE_EXISTING,
+                           StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporario, absoluto, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return linhas;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+    }
+
+    /**
+     * Indica se o arquivo está no formato colunar (pelos bytes iniciais)
+     */
+    public static boolean ehColunar(Path arquivo) throws IOException {
+        if (!Files.isRegularFile(arquivo) || Files.size(arquivo) < MAGICO.length) {
+            return false;
+        }
+        try (InputStream entrada = Files.newInputStream(arquivo)) {
+            byte[] inicio = new byte[MAGICO.length];
+            return entrada.readNBytes(inicio, 0, inicio.length) == inicio.length &&
+                   Arrays.equals(inicio, MAGICO);
+        }
+    }
+
+    /**
+     * Lê todas as linhas do arquivo, na ordem em que foram gravadas
+     *
+     * @throws IOException Se o arquivo não estiver no formato ou estiver truncado
+     */
+    public static void ler(Path arquivo, Consumer<LogEntry> destino) throws IOException {
+        ler(arquivo, Long.MIN_VALUE, Long.MAX_VALUE, destino);
+    }
+
+    /**
+     * Lê as linhas com inicio <= TIMESTAMP <= fim, pulando as colunas dos
+     * blocos cujo intervalo [mínimo, máximo] não cruza o pedido.
+     *
+     * Complexidade: O(linhas dos blocos que cruzam o intervalo + textos distintos)
+     *
+     * @return Número de blocos pulados sem ler as colunas
+     * @throws IOException Se o arquivo não estiver no formato ou estiver truncado
+     */
+    public static int ler(Path arquivo, long inicio, long fim, Consumer<LogEntry> destino) throws IOException {
+        try (DataInputStream entrada = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(arquivo), BUFFER))) {
+            byte[] magico = new byte[MAGICO.length];
+            entrada.readFully(magico);
+            if (!Arrays.equals(magico, MAGICO)) {
+                throw new IOException("Arquivo não está no formato colunar: " + arquivo);
+            }
+
+            List<String> dicionario = new ArrayList<>();
+            byte[] colunas = new byte[0];
+            byte[] texto = new byte[64];
+            int pulados = 0;
+            long linhasLidas = 0;
+
+            while (true) {
+                int linhas = entrada.readInt();
+                if (linhas == 0) {
+                    long totalLinhas = entrada.readLong();
+                    if (totalLinhas != linhasLidas) {
+                        throw new IOException("Arquivo colunar incompleto: " + arquivo + " (" + linhasLidas +
+                                              " de " + totalLinhas + " linhas)");
+                    }
+                    return pulados;
+                }
+                linhasLidas += linhas;
+                long minimo = entrada.readLong();
+                long maximo = entrada.readLong();
+                int textosNovos = entrada.readInt();
+                entrada.readInt();
+                int bytesColunas = entrada.readInt();
+                if (linhas < 0 || bytesColunas != linhas * BYTES_POR_LINHA) {
+                    throw new IOException("Bloco inválido no arquivo colunar: " + arquivo);
+                }
+
+                // O dicionário é sempre lido: blocos seguintes usam estes textos
+                for (int t = 0; t < textosNovos; t++) {
+                    int tamanho = entrada.readInt();
+                    if (tamanho < 0) {
+                        throw new IOException("Texto inválido no arquivo colunar: " + arquivo);
+                    }
+                    if (tamanho > texto.length) {
+                        texto = new byte[Math.max(tamanho, 2 * texto.length)];
+                    }
+                    entrada.readFully(texto, 0, tamanho);
+                    dicionario.add(new String(texto, 0, tamanho, StandardCharsets.UTF_8));
+                }
+
+                if (maximo < inicio || minimo > fim) {
+                    pular(entrada, bytesColunas);
+                    pulados++;
+                    continue;
+                }
+
+                if (colunas.length < bytesColunas) {
+                    colunas = new byte[bytesColunas];
+                }
+                entrada.readFully(colunas, 0, bytesColunas);
+                entregar(arquivo, ByteBuffer.wrap(colunas, 0, bytesColunas), linhas, dicionario,
+                         inicio, fim, destino);
+            }
+        } catch (EOFException e) {
+            throw new IOException("Arquivo colunar truncado: " + arquivo, e);
+        }
+    }
+
+    /**
+     * Monta os LogEntry de um bloco a partir das colunas
+     */
+    private static void entregar(Path arquivo, ByteBuffer colunas, int linhas, List<String> dicionario,
+                                 long inicio, long fim, Consumer<LogEntry> destino) throws IOException {
+        int timestamps = 0;
+        int bytes = timestamps + linhas * Long.BYTES;
+        int severidades = bytes + linhas * Long.BYTES;
+        int usuarios = severidades + linhas * Integer.BYTES;
+        int sessoes = usuarios + linhas * Integer.BYTES;
+        int acoes = sessoes + linhas * Integer.BYTES;
+        int recursos = acoes + linhas * Integer.BYTES;
+
+        for (int i = 0; i < linhas; i++) {
+            long timestamp = colunas.getLong(timestamps + i * Long.BYTES);
+            if (timestamp < inicio || timestamp > fim) {
+                continue;
+            }
+            int deslocamento = i * Integer.BYTES;
+            destino.accept(new LogEntry(timestamp,
+                                        texto(arquivo, dicionario, colunas.getInt(usuarios + deslocamento)),
+                                        texto(arquivo, dicionario, colunas.getInt(sessoes + deslocamento)),
+                                        texto(arquivo, dicionario, colunas.getInt(acoes + deslocamento)),
+                                        texto(arquivo, dicionario, colunas.getInt(recursos + deslocamento)),
+                                        colunas.getInt(severidades + deslocamento),
+                                        colunas.getLong(bytes + i * Long.BYTES)));
+        }
+    }
+
+    private static String texto(Path arquivo, List<String> dicionario, int id) throws IOException {
+        if (id < 0 || id >= dicionario.size()) {
+            throw new IOException("Texto " + id + " fora do dicionário no arquivo colunar: " + arquivo);
+        }
+        return dicionario.get(id);
+    }
+
+    private static void pular(DataInputStream entrada, int quantidade) throws IOException {
+        int restante = quantidade;
+        while (restante > 0) {
+            int pulados = entrada.skipBytes(restante);
+            if (pulados <= 0) {
+                throw new EOFException();
+            }
+            restante -= pulados;
+        }
+    }
+
+    /**
+     * Gravação incremental no formato colunar: acumula LINHAS_POR_BLOCO linhas
+     * e grava o bloco (dicionário novo + colunas). close() grava o último bloco
+     * e o marcador de fim; sem ele o arquivo fica truncado e a leitura falha.
+     * Como close() sempre fecha um arquivo válido, quem pode falhar no meio da
+     * gravação deve escrever em um temporário e movê-lo no fim (como converter).
+     */
+    public static class Escritor implements Closeable {
+
+        private final DataOutputStream saida;
+
+        // Texto -> id no dicionário do arquivo
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> textosNovos = new ArrayList<>();
+
+        private final long[] timestamps = new long[LINHAS_POR_BLOCO];
+        private final long[] bytes = new long[LINHAS_POR_BLOCO];
+        private final int[] severidades = new int[LINHAS_POR_BLOCO];
+        private final int[] usuarios = new int[LINHAS_POR_BLOCO];
+        private final int[] sessoes = new int[LINHAS_POR_BLOCO];
+        private final int[] acoes = new int[LINHAS_POR_BLOCO];
+        private final int[] recursos = new int[LINHAS_POR_BLOCO];
+
+        private int linhasNoBloco = 0;
+        private long linhas = 0;
+
+        public Escritor(Path destino) throws IOException {
+            this.saida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(destino), BUFFER));
+            saida.write(MAGICO);
+        }
+
+        public void adicionar(LogEntry log) {
+            int i = linhasNoBloco;
+            timestamps[i] = log.getTimestamp();
+            bytes[i] = log.getBytesTransferred();
+            severidades[i] = log.getSeverityLevel();
+            usuarios[i] = id(log.getUserId());
+            sessoes[i] = id(log.getSessionId());
+            acoes[i] = id(log.getActionType());
+            recursos[i] = id(log.getTargetResource());
+            linhas++;
+
+            if (++linhasNoBloco == LINHAS_POR_BLOCO) {
+                try {
+                    gravarBloco();
+                } catch (IOException e) {
+                    // adicionar é usado como Consumer<LogEntry> (sem exceções verificadas)
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        /**
+         * Linhas adicionadas até agora
+         */
+        public long getLinhas() {
+            return linhas;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (linhasNoBloco > 0) {
+                    gravarBloco();
+                }
+                saida.writeInt(0);
+                saida.writeLong(linhas);
+            } finally {
+                saida.close();
+            }
+        }
+
+        private int id(String texto) {
+            Integer id = ids.get(texto);
+            if (id == null) {
+                id = ids.size();
+                ids.put(texto, id);
+                textosNovos.add(texto);
+            }
+            return id;
+        }
+
+        private void gravarBloco() throws IOException {
+            int n = linhasNoBloco;
+            long minimo = Long.MAX_VALUE;
+            long maximo = Long.MIN_VALUE;
+            for (int i = 0; i < n; i++) {
+                minimo = Math.min(minimo, timestamps[i]);
+                maximo = Math.max(maximo, timestamps[i]);
+            }
+
+            List<byte[]> dicionario = new ArrayList<>(textosNovos.size());
+            int bytesDicionario = 0;
+            for (String texto : textosNovos) {
+                byte[] codificado = texto.getBytes(StandardCharsets.UTF_8);
+                dicionario.add(codificado);
+                bytesDicionario += Integer.BYTES + codificado.length;
+            }
+
+            saida.writeInt(n);
+            saida.writeLong(minimo);
+            saida.writeLong(maximo);
+            saida.writeInt(dicionario.size());
+            saida.writeInt(bytesDicionario);
+            saida.writeInt(n * BYTES_POR_LINHA);
+
+            for (byte[] codificado : dicionario) {
+                saida.writeInt(codificado.length);
+                saida.write(codificado);
+            }
+
+            gravarColuna(timestamps, n);
+            gravarColuna(bytes, n);
+            gravarColuna(severidades, n);
+            gravarColuna(usuarios, n);
+            gravarColuna(sessoes, n);
+            gravarColuna(acoes, n);
+            gravarColuna(recursos, n);
+
+            textosNovos.clear();
+            linhasNoBloco = 0;
+        }
+
+        private void gravarColuna(long[] coluna, int n) throws IOException {
+            for (int i = 0; i < n; i++) {
+                saida.writeLong(coluna[i]);
+            }
+        }
+
+        private void gravarColuna(int[] coluna, int n) throws IOException {
+            for (int i = 0; i < n; i++) {
+                saida.writeInt(coluna[i]);
+            }
+        }
+    }
+}
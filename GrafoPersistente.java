@@ -0,0 +1,320 @@
+package br.edu.icev.aed.forense.extended;
+
+import br.edu.icev.aed.forense.util.CSVReader;
+import br.edu.icev.aed.forense.util.DicionarioRecursos;
+import br.edu.icev.aed.forense.util.LeitorMultiplosArquivos;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Persistência do grafo de recursos em um arquivo binário compacto, para que
+ * consultas repetidas do Desafio 5 sobre o mesmo log não reconstruam o grafo
+ * a partir do CSV.
+ *
+ * O arquivo fica ao lado do CSV (mesmo nome + EXTENSAO) e guarda a identidade
+ * dos logs de origem (LeitorMultiplosArquivos.identidade: caminho, tamanho e
+ * data de modificação de cada arquivo); se qualquer arquivo mudar, o grafo é
+ * reconstruído e regravado. Para um diretório o arquivo fica ao lado dele;
+ * para um glob, no diretório do glob, com o nome derivado do caminho
+ * normalizado (GLOB + hash + EXTENSAO). Na leitura o arquivo é mapeado em memória
+ * (FileChannel.map) e os arrays do CSR são copiados em bloco para o heap
+ * (O(V + E), sem parse do CSV): o GrafoRecursos e as buscas trabalham sobre
+ * int[], então os buffers mapeados não são usados diretamente.
+ *
+ * Falhas na gravação (diretório somente leitura, arquivo em uso) só geram um
+ * aviso: o grafo já construído é devolvido mesmo assim.
+ *
+ * Formato (big-endian):
+ *   int    MAGICO, int VERSAO
+ *   int    tamanho em bytes + bytes UTF-8 da identidade dos logs
+ *   int    vértices, int arestas, int possui agregados (0/1)
+ *   nomes  vértices × (int tamanho em bytes + bytes UTF-8)
+ *   int[]  inicio (vértices + 1), int[] destinos (arestas)
+ *   int[]  severidades (arestas), long[] bytes (arestas)   [se houver agregados]
+ *
+ * USO OPCIONAL: Para investigações que fazem várias consultas sobre o mesmo log.
+ */
+public class GrafoPersistente {
+
+    public static final String EXTENSAO = ".grafo";
+
+    private static final int MAGICO = 0x47524652; // "GRFR"
+    private static final int VERSAO = 2;
+
+    // Prefixo do arquivo persistido de um glob
+    private static final String GLOB = "glob-";
+
+    // Tamanho do buffer usado na gravação
+    private static final int BUFFER_ESCRITA = 1 << 20;
+
+    private GrafoPersistente() {
+    }
+
+    /**
+     * Retorna o grafo do CSV, lendo o arquivo persistido se ele for válido ou
+     * construindo (e persistindo) o grafo caso contrário.
+     *
+     * @param caminhoArquivoCsv Caminho para o arquivo de logs, diretório ou glob
+     * @return Grafo de recursos
+     * @throws IOException Se houver erro na leitura do CSV
+     */
+    public static GrafoRecursos carregarOuConstruir(String caminhoArquivoCsv) throws IOException {
+        Path arquivo = arquivoPara(caminhoArquivoCsv);
+
+        // Identidade dos logs antes da leitura: se algum arquivo mudar durante
+        // a construção, o arquivo gravado já nasce desatualizado
+        String identidade = identidade(caminhoArquivoCsv);
+
+        GrafoRecursos grafo = carregar(arquivo, identidade);
+        if (grafo == null) {
+            grafo = GrafoRecursos.construir(caminhoArquivoCsv);
+            try {
+                salvar(grafo, arquivo, identidade);
+            } catch (IOException e) {
+                System.err.println("Aviso: grafo não persistido em " + arquivo + ": " + e);
+            }
+        }
+        return grafo;
+    }
+
+    /**
+     * Caminho do arquivo persistido de um CSV
+     */
+    public static Path arquivoPara(Path csv) {
+        return csv.resolveSibling(csv.getFileName() + EXTENSAO);
+    }
+
+    /**
+     * Caminho do arquivo persistido de um arquivo, diretório ou glob de logs
+     */
+    public static Path arquivoPara(String caminho) {
+        if (!LeitorMultiplosArquivos.ehMultiplo(caminho)) {
+            return arquivoPara(Path.of(caminho));
+        }
+        String absoluto = LeitorMultiplosArquivos.absoluto(caminho);
+        Path diretorio = Path.of(absoluto);
+        if (Files.isDirectory(diretorio) && diretorio.getParent() != null) {
+            return arquivoPara(diretorio);
+        }
+        return LeitorMultiplosArquivos.diretorio(absoluto)
+                .resolve(GLOB + Integer.toHexString(absoluto.hashCode()) + EXTENSAO);
+    }
+
+    /**
+     * Identidade gravada no cabeçalho: a dos arquivos de logs e se a leitura
+     * ordena o CSV (o que muda as arestas)
+     *
+     * @throws IOException Se o diretório não puder ser listado
+     */
+    public static String identidade(String caminho) throws IOException {
+        return LeitorMultiplosArquivos.identidade(caminho) + "\n" +
+               CSVReader.PROPRIEDADE_ORDENAR + "=" + Boolean.getBoolean(CSVReader.PROPRIEDADE_ORDENAR);
+    }
+
+    /**
+     * Lê o grafo persistido, se existir e corresponder ao CSV atual.
+     *
+     * @return Grafo lido, ou null se o arquivo não existir, estiver desatualizado ou corrompido
+     * @throws IOException Se houver erro de leitura
+     */
+    public static GrafoRecursos carregar(Path arquivo, Path csv) throws IOException {
+        return carregar(arquivo, identidade(csv.toString()));
+    }
+
+    /**
+     * Lê o grafo persistido, se existir e tiver sido gravado com a identidade
+     * informada (ver identidade(caminho)).
+     *
+     * @return Grafo lido, ou null se o arquivo não existir, estiver desatualizado ou corrompido
+     * @throws IOException Se houver erro de leitura
+     */
+    public static GrafoRecursos carregar(Path arquivo, String identidade) throws IOException {
+        if (!Files.isRegularFile(arquivo)) {
+            return null;
+        }
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+
+            if (buffer.getInt() != MAGICO || buffer.getInt() != VERSAO) {
+                return null;
+            }
+            byte[] esperada = identidade.getBytes(StandardCharsets.UTF_8);
+            if (buffer.getInt() != esperada.length) {
+                return null;
+            }
+            byte[] gravada = new byte[esperada.length];
+            buffer.get(gravada);
+            if (!Arrays.equals(gravada, esperada)) {
+                return null;
+            }
+
+            int vertices = buffer.getInt();
+            int arestas = buffer.getInt();
+            boolean possuiAgregados = buffer.getInt() == 1;
+
+            DicionarioRecursos dicionario = new DicionarioRecursos();
+            byte[] nome = new byte[64];
+            for (int v = 0; v < vertices; v++) {
+                int tamanho = buffer.getInt();
+                if (tamanho > nome.length) {
+                    nome = new byte[Math.max(tamanho, 2 * nome.length)];
+                }
+                buffer.get(nome, 0, tamanho);
+                dicionario.internar(new String(nome, 0, tamanho, StandardCharsets.UTF_8));
+            }
+
+            int[] inicio = new int[vertices + 1];
+            int[] destinos = new int[arestas];
+            buffer.asIntBuffer().get(inicio);
+            buffer.position(buffer.position() + 4 * inicio.length);
+            buffer.asIntBuffer().get(destinos);
+            buffer.position(buffer.position() + 4 * destinos.length);
+
+            if (!possuiAgregados) {
+                return new GrafoRecursos(dicionario, inicio, destinos);
+            }
+
+            int[] severidades = new int[arestas];
+            long[] bytes = new long[arestas];
+            buffer.asIntBuffer().get(severidades);
+            buffer.position(buffer.position() + 4 * severidades.length);
+            buffer.asLongBuffer().get(bytes);
+            return new GrafoRecursos(dicionario, inicio, destinos, severidades, bytes);
+
+        } catch (BufferUnderflowException | IndexOutOfBoundsException |
+                 IllegalArgumentException | NegativeArraySizeException e) {
+            // Arquivo truncado ou corrompido: reconstruir
+            return null;
+        }
+    }
+
+    /**
+     * Grava o grafo associado ao CSV informado, com a identidade atual do CSV.
+     * Se o grafo foi construído antes, prefira a versão que recebe a
+     * identidade lida antes da construção.
+     *
+     * @throws IOException Se houver erro na gravação
+     */
+    public static void salvar(GrafoRecursos grafo, Path arquivo, Path csv) throws IOException {
+        salvar(grafo, arquivo, identidade(csv.toString()));
+    }
+
+    /**
+     * Grava o grafo com a identidade (ver identidade(caminho)) dos logs de
+     * onde ele foi construído. A gravação é feita em um arquivo temporário
+     * exclusivo, no mesmo diretório, movido no final: leitores nunca veem um
+     * arquivo pela metade e gravações concorrentes não se sobrescrevem.
+     *
+     * @throws IOException Se houver erro na gravação
+     */
+    public static void salvar(GrafoRecursos grafo, Path arquivo, String identidade) throws IOException {
+        Path absoluto = arquivo.toAbsolutePath();
+        Path temporario = Files.createTempFile(absoluto.getParent(), absoluto.getFileName() + ".", ".tmp");
+        try {
+            gravar(grafo, temporario, identidade);
+            Files.move(temporario, absoluto, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+    }
+
+    private static void gravar(GrafoRecursos grafo, Path temporario, String identidade) throws IOException {
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Escrita escrita = new Escrita(canal);
+            byte[] bytesIdentidade = identidade.getBytes(StandardCharsets.UTF_8);
+            escrita.buffer.putInt(MAGICO).putInt(VERSAO).putInt(bytesIdentidade.length);
+            escrita.escrever(bytesIdentidade);
+            escrita.garantir(12);
+            escrita.buffer.putInt(grafo.vertices())
+                          .putInt(grafo.arestas())
+                          .putInt(grafo.possuiAgregados() ? 1 : 0);
+
+            DicionarioRecursos dicionario = grafo.getDicionario();
+            for (int v = 0; v < grafo.vertices(); v++) {
+                byte[] nome = dicionario.nome(v).getBytes(StandardCharsets.UTF_8);
+                escrita.garantir(4 + nome.length);
+                escrita.buffer.putInt(nome.length);
+                escrita.escrever(nome);
+            }
+
+            escrita.escrever(grafo.arrayInicio());
+            escrita.escrever(grafo.arrayDestinos());
+            if (grafo.possuiAgregados()) {
+                escrita.escrever(grafo.arraySeveridades());
+                escrita.escrever(grafo.arrayBytes());
+            }
+            escrita.descarregar();
+        }
+    }
+
+    /**
+     * Gravação bufferizada em um FileChannel
+     */
+    private static final class Escrita {
+        private final FileChannel canal;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_ESCRITA);
+
+        Escrita(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        void garantir(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                descarregar();
+            }
+        }
+
+        void escrever(byte[] dados) throws IOException {
+            int posicao = 0;
+            while (posicao < dados.length) {
+                garantir(1);
+                int quantidade = Math.min(buffer.remaining(), dados.length - posicao);
+                buffer.put(dados, posicao, quantidade);
+                posicao += quantidade;
+            }
+        }
+
+        void escrever(int[] dados) throws IOException {
+            int posicao = 0;
+            while (posicao < dados.length) {
+                garantir(4);
+                int quantidade = Math.min(buffer.remaining() / 4, dados.length - posicao);
+                buffer.asIntBuffer().put(dados, posicao, quantidade);
+                buffer.position(buffer.position() + 4 * quantidade);
+                posicao += quantidade;
+            }
+        }
+
+        void escrever(long[] dados) throws IOException {
+            int posicao = 0;
+            while (posicao < dados.length) {
+                garantir(8);
+                int quantidade = Math.min(buffer.remaining() / 8, dados.length - posicao);
+                buffer.asLongBuffer().put(dados, posicao, quantidade);
+                buffer.position(buffer.position() + 8 * quantidade);
+                posicao += quantidade;
+            }
+        }
+
+        void descarregar() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
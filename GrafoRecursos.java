@@ -0,0 +1,655 @@
+package br.edu.icev.aed.forense.extended;
+
+import br.edu.icev.aed.forense.LogEntry;
+import br.edu.icev.aed.forense.util.CSVReader;
+import br.edu.icev.aed.forense.util.DicionarioRecursos;
+import br.edu.icev.aed.forense.util.TabelaLogs;
+import br.edu.icev.aed.forense.util.TabelaLogsMemoria;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Grafo de acessos do Desafio 5 em formato CSR (Compressed Sparse Row).
+ *
+ * Mesmas arestas do construirGrafo da solução (recursos acessados
+ * consecutivamente dentro de uma sessão, sem duplicatas), mas com os
+ * recursos internados em ids inteiros e as listas de adjacência guardadas
+ * em dois arrays primitivos:
+ * - inicio[v] .. inicio[v + 1] - 1 = posições em destinos[] dos vizinhos de v
+ * - destinos[] = ids dos recursos de destino, em ordem crescente por origem
+ *
+ * Cada aresta também agrega as ocorrências da transição (o evento de destino):
+ * - maior SEVERITY_LEVEL observado
+ * - soma de BYTES_TRANSFERRED
+ * usados como custo pelas buscas ponderadas.
+ *
+ * O grafo transposto (arestas invertidas) é montado sob demanda.
+ */
+public class GrafoRecursos {
+
+    // Ocorrências por tarefa na agregação: abaixo disso não compensa dividir
+    private static final int BLOCO_AGREGACAO = 1 << 14;
+
+    // Linhas por faixa na internação e no agrupamento por sessão (mínimo)
+    private static final int BLOCO_INTERNACAO = 1 << 14;
+
+    private final DicionarioRecursos dicionario;
+    private final int[] inicio;
+    private final int[] destinos;
+
+    // Agregados por aresta (mesma posição de destinos[]); null em grafos internos
+    private final int[] severidadesMaximas;
+    private final long[] bytesTotais;
+
+    private volatile GrafoRecursos transposto;
+
+    GrafoRecursos(DicionarioRecursos dicionario, int[] inicio, int[] destinos) {
+        this(dicionario, inicio, destinos, null, null);
+    }
+
+    GrafoRecursos(DicionarioRecursos dicionario, int[] inicio, int[] destinos,
+                  int[] severidadesMaximas, long[] bytesTotais) {
+        this.dicionario = dicionario;
+        this.inicio = inicio;
+        this.destinos = destinos;
+        this.severidadesMaximas = severidadesMaximas;
+        this.bytesTotais = bytesTotais;
+    }
+
+    /**
+     * Lê o arquivo e constrói o grafo.
+     *
+     * @param caminhoArquivoCsv Caminho para o arquivo de logs
+     * @return Grafo em formato CSR
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static GrafoRecursos construir(String caminhoArquivoCsv) throws IOException {
+        return construir(CSVReader.lerTodosOsLogs(caminhoArquivoCsv));
+    }
+
+    /**
+     * Constrói o grafo a partir de logs já carregados, usando o pool comum.
+     */
+    public static GrafoRecursos construir(List<LogEntry> logs) {
+        return construir(logs, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constrói o grafo a partir de logs já carregados, usando o pool informado.
+     */
+    public static GrafoRecursos construir(List<LogEntry> logs, ForkJoinPool pool) {
+        return construir(new TabelaLogsMemoria(logs), pool);
+    }
+
+    /**
+     * Constrói o grafo a partir de uma tabela de logs (em memória ou fora do
+     * heap), usando o pool comum.
+     */
+    public static GrafoRecursos construir(TabelaLogs tabela) {
+        return construir(tabela, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constrói o grafo a partir de uma tabela de logs, usando o pool informado.
+     * A tabela é lida pelos acessores, em várias threads; no heap ficam só os
+     * arrays primitivos (alguns int e long por linha) e os textos distintos.
+     *
+     * Algoritmo:
+     * 1. Em paralelo, por faixas de linhas: cada faixa interna recursos e
+     *    sessões em ids locais e conta as linhas de cada sessão local. Depois,
+     *    percorrendo as faixas em ordem, os ids locais são traduzidos para ids
+     *    globais (na ordem em que aparecem no arquivo, então o grafo é
+     *    determinístico e igual para qualquer número de threads)
+     * 2. Counting sort das linhas por sessão, em paralelo: cada faixa recebe,
+     *    para cada sessão local, a posição de suas linhas depois das linhas
+     *    da mesma sessão nas faixas anteriores (estável: mantém a ordem do
+     *    arquivo) e distribui as próprias linhas
+     * 3. Em paralelo, por faixas de sessões: ordena cada sessão por timestamp
+     *    (só se necessário) e emite cada aresta como uma chave long
+     *    (origem << 32 | destino). Uma sessão com k linhas gera k - 1 arestas,
+     *    então cada sessão escreve em uma faixa própria dos arrays de arestas
+     * 4. Arrays.parallelSort das chaves, remoção de duplicatas e offsets do CSR
+     * 5. Em paralelo, agrega severidade e bytes de cada ocorrência na sua
+     *    aresta (busca binária entre os vizinhos da origem)
+     *
+     * Complexidade: O(n log n / P) em paralelo + O(soma dos textos distintos
+     * de cada faixa) sequencial para traduzir os ids locais
+     */
+    public static GrafoRecursos construir(TabelaLogs tabela, ForkJoinPool pool) {
+        int n = tabela.tamanho();
+        DicionarioRecursos dicionario = new DicionarioRecursos();
+
+        // FASE 1: ids locais por faixa de linhas, em paralelo
+        int[] recurso = new int[n];
+        int[] sessao = new int[n];
+        int totalFaixas = (int) Math.max(1, Math.min(4L * pool.getParallelism(),
+                                                     ((long) n + BLOCO_INTERNACAO - 1) / BLOCO_INTERNACAO));
+        FaixaLinhas[] faixas = new FaixaLinhas[totalFaixas];
+        for (int f = 0; f < totalFaixas; f++) {
+            faixas[f] = new FaixaLinhas((int) ((long) n * f / totalFaixas), (int) ((long) n * (f + 1) / totalFaixas));
+        }
+        pool.invoke(new TarefaFaixas(faixas, 0, totalFaixas, faixa -> faixa.internar(tabela, recurso, sessao)));
+
+        // Ids globais na ordem das faixas e linhas por sessão global
+        Map<String, Integer> idPorSessao = new HashMap<>();
+        int[] contagemSessao = new int[16];
+        for (FaixaLinhas faixa : faixas) {
+            faixa.idRecurso = new int[faixa.recursos.size()];
+            for (int r = 0; r < faixa.idRecurso.length; r++) {
+                faixa.idRecurso[r] = dicionario.internar(faixa.recursos.get(r));
+            }
+            faixa.idSessao = new int[faixa.sessoes.size()];
+            for (int s = 0; s < faixa.idSessao.length; s++) {
+                Integer id = idPorSessao.get(faixa.sessoes.get(s));
+                if (id == null) {
+                    id = idPorSessao.size();
+                    idPorSessao.put(faixa.sessoes.get(s), id);
+                    if (id == contagemSessao.length) {
+                        contagemSessao = Arrays.copyOf(contagemSessao, 2 * id);
+                    }
+                }
+                faixa.idSessao[s] = id;
+                contagemSessao[id] += faixa.linhasPorSessao[s];
+            }
+        }
+
+        // FASE 2: counting sort das linhas por sessão
+        int totalSessoes = idPorSessao.size();
+        int[] inicioSessao = new int[totalSessoes + 1];
+        for (int s = 0; s < totalSessoes; s++) {
+            inicioSessao[s + 1] = inicioSessao[s] + contagemSessao[s];
+        }
+        int[] posicao = Arrays.copyOf(inicioSessao, totalSessoes);
+        for (FaixaLinhas faixa : faixas) {
+            faixa.proximaPosicao = new int[faixa.idSessao.length];
+            for (int s = 0; s < faixa.idSessao.length; s++) {
+                faixa.proximaPosicao[s] = posicao[faixa.idSessao[s]];
+                posicao[faixa.idSessao[s]] += faixa.linhasPorSessao[s];
+            }
+        }
+        int[] linhas = new int[n];
+        pool.invoke(new TarefaFaixas(faixas, 0, totalFaixas, faixa -> faixa.distribuir(recurso, sessao, linhas)));
+
+        // FASE 3: arestas por sessão, em paralelo
+        int totalArestas = n - totalSessoes;
+        Arestas arestas = new Arestas(tabela, recurso, linhas, inicioSessao, totalArestas);
+        int bloco = Math.max(1, totalSessoes / (4 * pool.getParallelism()));
+        pool.invoke(new TarefaSessoes(arestas, 0, totalSessoes, bloco));
+
+        // FASE 4: ordenar, remover duplicatas e montar o CSR
+        long[] ordenadas = arestas.chaves.clone();
+        Arrays.parallelSort(ordenadas);
+        GrafoRecursos grafo = deChavesOrdenadas(dicionario, dicionario.tamanho(),
+                                                ordenadas, removerDuplicatas(ordenadas));
+
+        // FASE 5: agregados por aresta
+        return grafo.comAgregados(arestas.chaves, arestas.severidades, arestas.bytes, pool);
+    }
+
+    /**
+     * Faixa de linhas das fases 1 e 2: recursos e sessões na ordem em que
+     * aparecem na faixa (ids locais), linhas por sessão local e, depois da
+     * tradução, ids globais e posição da próxima linha de cada sessão local
+     */
+    private static final class FaixaLinhas {
+        final int inicio;
+        final int fim;
+        final List<String> recursos = new ArrayList<>();
+        final List<String> sessoes = new ArrayList<>();
+        int[] linhasPorSessao = new int[16];
+        int[] idRecurso;
+        int[] idSessao;
+        int[] proximaPosicao;
+
+        FaixaLinhas(int inicio, int fim) {
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        /**
+         * Grava em recurso[] e sessao[] os ids locais das linhas da faixa
+         */
+        void internar(TabelaLogs tabela, int[] recurso, int[] sessao) {
+            Map<String, Integer> idPorRecurso = new HashMap<>();
+            Map<String, Integer> idPorSessao = new HashMap<>();
+            for (int i = inicio; i < fim; i++) {
+                recurso[i] = idLocal(idPorRecurso, recursos, tabela.getTargetResource(i));
+                int s = idLocal(idPorSessao, sessoes, tabela.getSessionId(i));
+                if (s == linhasPorSessao.length) {
+                    linhasPorSessao = Arrays.copyOf(linhasPorSessao, 2 * s);
+                }
+                linhasPorSessao[s]++;
+                sessao[i] = s;
+            }
+        }
+
+        /**
+         * Troca os ids locais de recurso pelos globais e coloca cada linha na
+         * posição da sua sessão em linhas[]
+         */
+        void distribuir(int[] recurso, int[] sessao, int[] linhas) {
+            for (int i = inicio; i < fim; i++) {
+                recurso[i] = idRecurso[recurso[i]];
+                linhas[proximaPosicao[sessao[i]]++] = i;
+            }
+        }
+
+        private static int idLocal(Map<String, Integer> ids, List<String> textos, String texto) {
+            Integer id = ids.get(texto);
+            if (id == null) {
+                id = textos.size();
+                ids.put(texto, id);
+                textos.add(texto);
+            }
+            return id;
+        }
+    }
+
+    private static final class TarefaFaixas extends RecursiveAction {
+        private final FaixaLinhas[] faixas;
+        private final int inicio;
+        private final int fim;
+        private final Consumer<FaixaLinhas> acao;
+
+        TarefaFaixas(FaixaLinhas[] faixas, int inicio, int fim, Consumer<FaixaLinhas> acao) {
+            this.faixas = faixas;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.acao = acao;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - inicio <= 1) {
+                for (int f = inicio; f < fim; f++) {
+                    acao.accept(faixas[f]);
+                }
+                return;
+            }
+            int meio = (inicio + fim) >>> 1;
+            invokeAll(new TarefaFaixas(faixas, inicio, meio, acao),
+                      new TarefaFaixas(faixas, meio, fim, acao));
+        }
+    }
+
+    /**
+     * Ocorrências de arestas (uma por par de linhas consecutivas de uma sessão)
+     */
+    private static final class Arestas {
+        final TabelaLogs tabela;
+        final int[] recurso;
+        final int[] linhas;
+        final int[] inicioSessao;
+        final long[] chaves;
+        final int[] severidades;
+        final long[] bytes;
+
+        Arestas(TabelaLogs tabela, int[] recurso, int[] linhas, int[] inicioSessao, int total) {
+            this.tabela = tabela;
+            this.recurso = recurso;
+            this.linhas = linhas;
+            this.inicioSessao = inicioSessao;
+            this.chaves = new long[total];
+            this.severidades = new int[total];
+            this.bytes = new long[total];
+        }
+
+        /**
+         * Ordena a sessão s por timestamp e emite suas arestas a partir da
+         * posição inicioSessao[s] - s (as sessões anteriores geraram uma
+         * aresta a menos que suas linhas cada uma)
+         */
+        void emitir(int s) {
+            int inicio = inicioSessao[s];
+            int fim = inicioSessao[s + 1];
+            ordenarPorTimestamp(inicio, fim);
+
+            int e = inicio - s;
+            for (int i = inicio; i + 1 < fim; i++) {
+                int destino = linhas[i + 1];
+                chaves[e] = empacotar(recurso[linhas[i]], recurso[destino]);
+                severidades[e] = tabela.getSeverityLevel(destino);
+                bytes[e] = tabela.getBytesTransferred(destino);
+                e++;
+            }
+        }
+
+        /**
+         * Logs costumam vir em ordem de tempo: só ordena se a sessão não estiver.
+         * A ordenação é estável, como no Desafio 5 (merge sort sobre arrays
+         * primitivos, sem um objeto por linha).
+         */
+        private void ordenarPorTimestamp(int inicio, int fim) {
+            boolean ordenada = true;
+            for (int i = inicio; i + 1 < fim && ordenada; i++) {
+                ordenada = tabela.getTimestamp(linhas[i]) <= tabela.getTimestamp(linhas[i + 1]);
+            }
+            if (ordenada) {
+                return;
+            }
+            int tamanho = fim - inicio;
+            long[] tempos = new long[tamanho];
+            int[] segmento = Arrays.copyOfRange(linhas, inicio, fim);
+            for (int i = 0; i < tamanho; i++) {
+                tempos[i] = tabela.getTimestamp(segmento[i]);
+            }
+            ordenarEstavel(tempos, segmento, new long[tamanho], new int[tamanho], 0, tamanho);
+            System.arraycopy(segmento, 0, linhas, inicio, tamanho);
+        }
+
+        /**
+         * Merge sort de tempos[inicio, fim) levando junto as linhas; em empates
+         * a metade da esquerda sai primeiro (estável)
+         */
+        private static void ordenarEstavel(long[] tempos, int[] linhas, long[] temposAux, int[] linhasAux,
+                                           int inicio, int fim) {
+            if (fim - inicio < 2) {
+                return;
+            }
+            int meio = (inicio + fim) >>> 1;
+            ordenarEstavel(tempos, linhas, temposAux, linhasAux, inicio, meio);
+            ordenarEstavel(tempos, linhas, temposAux, linhasAux, meio, fim);
+            if (tempos[meio - 1] <= tempos[meio]) {
+                return;
+            }
+            System.arraycopy(tempos, inicio, temposAux, inicio, fim - inicio);
+            System.arraycopy(linhas, inicio, linhasAux, inicio, fim - inicio);
+            int esquerda = inicio;
+            int direita = meio;
+            for (int k = inicio; k < fim; k++) {
+                if (direita >= fim || (esquerda < meio && temposAux[esquerda] <= temposAux[direita])) {
+                    tempos[k] = temposAux[esquerda];
+                    linhas[k] = linhasAux[esquerda++];
+                } else {
+                    tempos[k] = temposAux[direita];
+                    linhas[k] = linhasAux[direita++];
+                }
+            }
+        }
+    }
+
+    private static final class TarefaSessoes extends RecursiveAction {
+        private final Arestas arestas;
+        private final int inicio;
+        private final int fim;
+        private final int bloco;
+
+        TarefaSessoes(Arestas arestas, int inicio, int fim, int bloco) {
+            this.arestas = arestas;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.bloco = bloco;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - inicio <= bloco) {
+                for (int s = inicio; s < fim; s++) {
+                    arestas.emitir(s);
+                }
+                return;
+            }
+            int meio = (inicio + fim) >>> 1;
+            invokeAll(new TarefaSessoes(arestas, inicio, meio, bloco),
+                      new TarefaSessoes(arestas, meio, fim, bloco));
+        }
+    }
+
+    /**
+     * Cria uma cópia do grafo com severidade máxima e bytes somados por aresta,
+     * a partir das ocorrências (chave, severidade, bytes) de cada transição.
+     * Ocorrências de blocos diferentes podem cair na mesma aresta, então os
+     * acumuladores são atômicos durante a agregação.
+     */
+    GrafoRecursos comAgregados(long[] chaves, int[] severidades, long[] bytes, ForkJoinPool pool) {
+        AtomicIntegerArray severidadesMaximas = new AtomicIntegerArray(destinos.length);
+        AtomicLongArray bytesTotais = new AtomicLongArray(destinos.length);
+        for (int i = 0; i < destinos.length; i++) {
+            severidadesMaximas.set(i, Integer.MIN_VALUE);
+        }
+
+        int bloco = Math.max(BLOCO_AGREGACAO, chaves.length / (4 * pool.getParallelism()));
+        pool.invoke(new TarefaAgregacao(chaves, severidades, bytes, severidadesMaximas, bytesTotais,
+                                        0, chaves.length, bloco));
+
+        int[] severidadesFinais = new int[destinos.length];
+        long[] bytesFinais = new long[destinos.length];
+        for (int i = 0; i < destinos.length; i++) {
+            severidadesFinais[i] = severidadesMaximas.get(i);
+            bytesFinais[i] = bytesTotais.get(i);
+        }
+        return new GrafoRecursos(dicionario, inicio, destinos, severidadesFinais, bytesFinais);
+    }
+
+    private final class TarefaAgregacao extends RecursiveAction {
+        private final long[] chaves;
+        private final int[] severidades;
+        private final long[] bytes;
+        private final AtomicIntegerArray severidadesMaximas;
+        private final AtomicLongArray bytesTotais;
+        private final int inicio;
+        private final int fim;
+        private final int bloco;
+
+        TarefaAgregacao(long[] chaves, int[] severidades, long[] bytes,
+                        AtomicIntegerArray severidadesMaximas, AtomicLongArray bytesTotais,
+                        int inicio, int fim, int bloco) {
+            this.chaves = chaves;
+            this.severidades = severidades;
+            this.bytes = bytes;
+            this.severidadesMaximas = severidadesMaximas;
+            this.bytesTotais = bytesTotais;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.bloco = bloco;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - inicio <= bloco) {
+                for (int i = inicio; i < fim; i++) {
+                    int aresta = indiceAresta((int) (chaves[i] >>> 32), (int) chaves[i]);
+                    severidadesMaximas.accumulateAndGet(aresta, severidades[i], Math::max);
+                    bytesTotais.addAndGet(aresta, bytes[i]);
+                }
+                return;
+            }
+            int meio = (inicio + fim) >>> 1;
+            invokeAll(new TarefaAgregacao(chaves, severidades, bytes, severidadesMaximas, bytesTotais,
+                                          inicio, meio, bloco),
+                      new TarefaAgregacao(chaves, severidades, bytes, severidadesMaximas, bytesTotais,
+                                          meio, fim, bloco));
+        }
+    }
+
+    static long empacotar(int origem, int destino) {
+        return ((long) origem << 32) | (destino & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Compacta duplicatas consecutivas de um array ordenado
+     *
+     * @return Número de chaves distintas no início do array
+     */
+    static int removerDuplicatas(long[] chaves) {
+        int distintas = 0;
+        for (int i = 0; i < chaves.length; i++) {
+            if (i == 0 || chaves[i] != chaves[i - 1]) {
+                chaves[distintas++] = chaves[i];
+            }
+        }
+        return distintas;
+    }
+
+    /**
+     * Monta o CSR a partir das primeiras `quantidade` chaves ordenadas e distintas.
+     * O dicionário pode ser null para grafos internos sem nomes (ex.: condensação).
+     */
+    static GrafoRecursos deChavesOrdenadas(DicionarioRecursos dicionario, int vertices,
+                                           long[] chaves, int quantidade) {
+        int[] inicio = new int[vertices + 1];
+        int[] destinos = new int[quantidade];
+
+        for (int i = 0; i < quantidade; i++) {
+            inicio[(int) (chaves[i] >>> 32) + 1]++;
+            destinos[i] = (int) chaves[i];
+        }
+        for (int v = 0; v < vertices; v++) {
+            inicio[v + 1] += inicio[v];
+        }
+
+        return new GrafoRecursos(dicionario, inicio, destinos);
+    }
+
+    // Acesso direto aos arrays para serialização (GrafoPersistente)
+
+    int[] arrayInicio() {
+        return inicio;
+    }
+
+    int[] arrayDestinos() {
+        return destinos;
+    }
+
+    int[] arraySeveridades() {
+        return severidadesMaximas;
+    }
+
+    long[] arrayBytes() {
+        return bytesTotais;
+    }
+
+    /**
+     * Dicionário de recursos (nome <-> id)
+     */
+    public DicionarioRecursos getDicionario() {
+        return dicionario;
+    }
+
+    /**
+     * Número de recursos (vértices)
+     */
+    public int vertices() {
+        return inicio.length - 1;
+    }
+
+    /**
+     * Número de arestas distintas
+     */
+    public int arestas() {
+        return destinos.length;
+    }
+
+    /**
+     * Posição em destinos() do primeiro vizinho de v
+     */
+    public int inicioVizinhos(int v) {
+        return inicio[v];
+    }
+
+    /**
+     * Posição em destinos() logo após o último vizinho de v
+     */
+    public int fimVizinhos(int v) {
+        return inicio[v + 1];
+    }
+
+    /**
+     * Destino da aresta na posição informada
+     */
+    public int destino(int aresta) {
+        return destinos[aresta];
+    }
+
+    /**
+     * Posição da aresta origem -> destino em destinos(), ou -1 se não existir.
+     * Os vizinhos de cada origem estão ordenados, então usa busca binária.
+     *
+     * Complexidade: O(log grau)
+     */
+    public int indiceAresta(int origem, int destino) {
+        int posicao = Arrays.binarySearch(destinos, inicio[origem], inicio[origem + 1], destino);
+        return posicao >= 0 ? posicao : -1;
+    }
+
+    /**
+     * Indica se o grafo tem severidade e bytes agregados por aresta
+     */
+    public boolean possuiAgregados() {
+        return severidadesMaximas != null;
+    }
+
+    /**
+     * Maior SEVERITY_LEVEL entre as ocorrências da aresta
+     */
+    public int severidadeMaxima(int aresta) {
+        return severidadesMaximas[aresta];
+    }
+
+    /**
+     * Soma de BYTES_TRANSFERRED das ocorrências da aresta
+     */
+    public long bytesTotal(int aresta) {
+        return bytesTotais[aresta];
+    }
+
+    /**
+     * Grau de saída de v
+     */
+    public int grauSaida(int v) {
+        return inicio[v + 1] - inicio[v];
+    }
+
+    /**
+     * Grafo com todas as arestas invertidas (construído uma vez, sob demanda)
+     */
+    public GrafoRecursos transposto() {
+        GrafoRecursos resultado = transposto;
+        if (resultado == null) {
+            synchronized (this) {
+                resultado = transposto;
+                if (resultado == null) {
+                    resultado = inverter();
+                    resultado.transposto = this;
+                    transposto = resultado;
+                }
+            }
+        }
+        return resultado;
+    }
+
+    private GrafoRecursos inverter() {
+        int vertices = vertices();
+        int[] inicioInv = new int[vertices + 1];
+        int[] destinosInv = new int[destinos.length];
+
+        for (int d : destinos) {
+            inicioInv[d + 1]++;
+        }
+        for (int v = 0; v < vertices; v++) {
+            inicioInv[v + 1] += inicioInv[v];
+        }
+        int[] severidadesInv = severidadesMaximas == null ? null : new int[destinos.length];
+        long[] bytesInv = bytesTotais == null ? null : new long[destinos.length];
+
+        int[] posicao = Arrays.copyOf(inicioInv, vertices);
+        for (int v = 0; v < vertices; v++) {
+            for (int e = inicio[v]; e < inicio[v + 1]; e++) {
+                int p = posicao[destinos[e]]++;
+                destinosInv[p] = v;
+                if (severidadesInv != null) {
+                    severidadesInv[p] = severidadesMaximas[e];
+                    bytesInv[p] = bytesTotais[e];
+                }
+            }
+        }
+
+        return new GrafoRecursos(dicionario, inicioInv, destinosInv, severidadesInv, bytesInv);
+    }
+}
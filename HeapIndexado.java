@@ -0,0 +1,156 @@
+package br.edu.icev.aed.forense.util;
+
+import java.util.Arrays;
+
+/**
+ * Heap binário mínimo indexado sobre ids inteiros (0 .. capacidade - 1),
+ * com prioridades double e sem objetos por elemento.
+ *
+ * Mantém a posição de cada id dentro do heap, o que permite diminuir a
+ * prioridade de um id já inserido (decrease-key) em O(log n), como o
+ * Dijkstra precisa.
+ *
+ * Pode ser reutilizado entre várias buscas: limpar() desfaz apenas as
+ * posições tocadas desde a última limpeza, sem percorrer a capacidade toda.
+ */
+public class HeapIndexado {
+
+    private static final int AUSENTE = -1;
+
+    private final int[] heap;
+    private final int[] posicao;
+    private final double[] prioridade;
+    private int tamanho;
+
+    // Ids que já passaram pelo heap desde a última limpeza
+    private final int[] tocados;
+    private int totalTocados;
+
+    public HeapIndexado(int capacidade) {
+        this.heap = new int[capacidade];
+        this.posicao = new int[capacidade];
+        this.prioridade = new double[capacidade];
+        this.tocados = new int[capacidade];
+        Arrays.fill(posicao, AUSENTE);
+    }
+
+    public boolean vazio() {
+        return tamanho == 0;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Indica se o id está no heap neste momento
+     */
+    public boolean contem(int id) {
+        return posicao[id] >= 0;
+    }
+
+    /**
+     * Insere o id ou diminui sua prioridade.
+     * Se o id já estiver com prioridade menor ou igual, nada muda.
+     *
+     * Complexidade: O(log n)
+     *
+     * @return true se o heap mudou
+     */
+    public boolean inserirOuDiminuir(int id, double novaPrioridade) {
+        int p = posicao[id];
+        if (p >= 0) {
+            if (novaPrioridade >= prioridade[id]) {
+                return false;
+            }
+            prioridade[id] = novaPrioridade;
+            subir(p);
+            return true;
+        }
+
+        if (p == AUSENTE) {
+            tocados[totalTocados++] = id;
+        }
+        prioridade[id] = novaPrioridade;
+        heap[tamanho] = id;
+        posicao[id] = tamanho;
+        subir(tamanho++);
+        return true;
+    }
+
+    /**
+     * Prioridade atual do id no topo
+     */
+    public double prioridadeMinima() {
+        return prioridade[heap[0]];
+    }
+
+    /**
+     * Remove e retorna o id de menor prioridade.
+     *
+     * Complexidade: O(log n)
+     */
+    public int extrairMinimo() {
+        int minimo = heap[0];
+        tamanho--;
+        if (tamanho > 0) {
+            heap[0] = heap[tamanho];
+            posicao[heap[0]] = 0;
+            descer(0);
+        }
+        // Fora do heap, mas lembrado como tocado até limpar()
+        posicao[minimo] = AUSENTE - 1;
+        return minimo;
+    }
+
+    /**
+     * Esvazia o heap, restaurando só as posições tocadas
+     *
+     * Complexidade: O(tocados)
+     */
+    public void limpar() {
+        for (int i = 0; i < totalTocados; i++) {
+            posicao[tocados[i]] = AUSENTE;
+        }
+        totalTocados = 0;
+        tamanho = 0;
+    }
+
+    private void subir(int i) {
+        int id = heap[i];
+        double p = prioridade[id];
+        while (i > 0) {
+            int pai = (i - 1) >>> 1;
+            if (prioridade[heap[pai]] <= p) {
+                break;
+            }
+            heap[i] = heap[pai];
+            posicao[heap[i]] = i;
+            i = pai;
+        }
+        heap[i] = id;
+        posicao[id] = i;
+    }
+
+    private void descer(int i) {
+        int id = heap[i];
+        double p = prioridade[id];
+        while (true) {
+            int filho = 2 * i + 1;
+            if (filho >= tamanho) {
+                break;
+            }
+            if (filho + 1 < tamanho && prioridade[heap[filho + 1]] < prioridade[heap[filho]]) {
+                filho++;
+            }
+            if (prioridade[heap[filho]] >= p) {
+                break;
+            }
+            heap[i] = heap[filho];
+            posicao[heap[i]] = i;
+            i = filho;
+        }
+        heap[i] = id;
+        posicao[id] = i;
+    }
+}
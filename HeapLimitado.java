@@ -0,0 +1,120 @@
+package br.edu.icev.aed.forense.util;
+
+import java.util.Arrays;
+
+/**
+ * Min-heap de tamanho limitado sobre pares (severidade, linha).
+ * O topo é o menos severo entre os mantidos, candidato a ser descartado.
+ *
+ * Guarda só o índice da linha (um "handle" para o log carregado), então
+ * selecionar o top-N aloca O(N) e os objetos de resultado são criados
+ * apenas para as linhas que sobrevivem.
+ */
+public class HeapLimitado {
+
+    private final int capacidade;
+    private int[] severidades;
+    private int[] linhas;
+    private int tamanho = 0;
+
+    /**
+     * @param capacidade Número máximo de elementos mantidos (o N do top-N)
+     * @param capacidadeInicial Tamanho inicial dos arrays (cresce até a capacidade)
+     */
+    public HeapLimitado(int capacidade, int capacidadeInicial) {
+        this.capacidade = capacidade;
+        int inicial = Math.max(1, Math.min(capacidade, capacidadeInicial));
+        this.severidades = new int[inicial];
+        this.linhas = new int[inicial];
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Oferece uma linha; só entra se houver espaço ou se for mais severa que o topo
+     */
+    public void oferecer(int severidade, int linha) {
+        if (tamanho < capacidade) {
+            if (tamanho == severidades.length) {
+                int novo = (int) Math.min(capacidade, 2L * severidades.length);
+                severidades = Arrays.copyOf(severidades, novo);
+                linhas = Arrays.copyOf(linhas, novo);
+            }
+            severidades[tamanho] = severidade;
+            linhas[tamanho] = linha;
+            subir(tamanho++);
+        } else if (severidade > severidades[0]) {
+            severidades[0] = severidade;
+            linhas[0] = linha;
+            descer(0);
+        }
+    }
+
+    /**
+     * Junta outro heap a este (o maior recebe os elementos do menor)
+     */
+    public HeapLimitado juntar(HeapLimitado outro) {
+        HeapLimitado maior = this.tamanho >= outro.tamanho ? this : outro;
+        HeapLimitado menor = maior == this ? outro : this;
+        for (int i = 0; i < menor.tamanho; i++) {
+            maior.oferecer(menor.severidades[i], menor.linhas[i]);
+        }
+        return maior;
+    }
+
+    /**
+     * Linhas em ordem decrescente de severidade (esvazia o heap)
+     */
+    public int[] extrairOrdenado() {
+        int[] resultado = new int[tamanho];
+        for (int i = tamanho - 1; i >= 0; i--) {
+            resultado[i] = linhas[0];
+            tamanho--;
+            severidades[0] = severidades[tamanho];
+            linhas[0] = linhas[tamanho];
+            descer(0);
+        }
+        return resultado;
+    }
+
+    private void subir(int i) {
+        while (i > 0) {
+            int pai = (i - 1) >>> 1;
+            if (severidades[pai] <= severidades[i]) {
+                break;
+            }
+            trocar(i, pai);
+            i = pai;
+        }
+    }
+
+    private void descer(int i) {
+        while (true) {
+            int menor = i;
+            int esquerda = 2 * i + 1;
+            int direita = esquerda + 1;
+            if (esquerda < tamanho && severidades[esquerda] < severidades[menor]) {
+                menor = esquerda;
+            }
+            if (direita < tamanho && severidades[direita] < severidades[menor]) {
+                menor = direita;
+            }
+            if (menor == i) {
+                return;
+            }
+            trocar(i, menor);
+            i = menor;
+        }
+    }
+
+    private void trocar(int a, int b) {
+        int s = severidades[a];
+        severidades[a] = severidades[b];
+        severidades[b] = s;
+        int l = linhas[a];
+        linhas[a] = linhas[b];
+        linhas[b] = l;
+    }
+}
@@ -0,0 +1,201 @@
+package br.edu.icev.aed.forense.extended;
+
+import br.edu.icev.aed.forense.Alerta;
+import br.edu.icev.aed.forense.LogEntry;
+import br.edu.icev.aed.forense.util.CSVReader;
+import br.edu.icev.aed.forense.util.TabelaLogs;
+import br.edu.icev.aed.forense.util.TabelaLogsMemoria;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Índice de alertas agrupados por SEVERITY_LEVEL.
+ *
+ * Como a severidade é um inteiro pequeno e limitado (1-10), o índice guarda um
+ * bucket de linhas (int[] com os índices das linhas, na ordem do arquivo) para
+ * cada nível, montado por contagem em O(n). Consultas percorrem os buckets da
+ * maior severidade para a menor:
+ * - top-N sem heap e sem reler o arquivo
+ * - todos os alertas com severidade >= X
+ * - paginação (deslocamento + tamanho), pulando buckets inteiros
+ *
+ * Funciona sobre qualquer TabelaLogs (em memória ou fora do heap). Se a faixa
+ * de severidades for larga demais para um bucket por valor da faixa, há um
+ * bucket por valor distinto (níveis ordenados uma vez, O(n log n)).
+ *
+ * Objetos Alerta só são criados para as linhas efetivamente retornadas.
+ * Depois de construído o índice não muda e pode ser lido por várias threads.
+ *
+ * USO OPCIONAL: Para consultas repetidas além do Desafio 3.
+ */
+public class IndiceSeveridade {
+
+    // Maior número de níveis da faixa (entre a menor e a maior severidade)
+    // para usar um bucket por valor da faixa
+    private static final int LIMITE_NIVEIS = 1 << 16;
+
+    private final TabelaLogs tabela;
+
+    // niveis[b] = severidade do bucket b (crescente);
+    // buckets[b] = linhas com essa severidade, na ordem do arquivo
+    private final int[] niveis;
+    private final int[][] buckets;
+
+    private IndiceSeveridade(TabelaLogs tabela, int[] niveis, int[][] buckets) {
+        this.tabela = tabela;
+        this.niveis = niveis;
+        this.buckets = buckets;
+    }
+
+    /**
+     * Lê o arquivo uma vez e constrói o índice.
+     *
+     * @param caminhoArquivoCsv Caminho para o arquivo de logs
+     * @return Índice pronto para consultas
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static IndiceSeveridade construir(String caminhoArquivoCsv) throws IOException {
+        return construir(CSVReader.lerTodosOsLogs(caminhoArquivoCsv));
+    }
+
+    /**
+     * Constrói o índice a partir de logs já carregados (counting sort).
+     *
+     * Complexidade: O(n + k) onde k é o número de níveis de severidade
+     */
+    public static IndiceSeveridade construir(List<LogEntry> logs) {
+        return construir(new TabelaLogsMemoria(logs));
+    }
+
+    /**
+     * Constrói o índice sobre uma tabela de logs (counting sort). A tabela não
+     * deve mudar depois desta chamada.
+     *
+     * Complexidade: O(n + k) onde k é o número de níveis da faixa;
+     * O(n log n) se a faixa passar de LIMITE_NIVEIS
+     */
+    public static IndiceSeveridade construir(TabelaLogs tabela) {
+        int n = tabela.tamanho();
+        if (n == 0) {
+            return new IndiceSeveridade(tabela, new int[0], new int[0][]);
+        }
+
+        int menor = Integer.MAX_VALUE;
+        int maior = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            menor = Math.min(menor, tabela.getSeverityLevel(i));
+            maior = Math.max(maior, tabela.getSeverityLevel(i));
+        }
+
+        // Níveis: todos os valores da faixa, ou só os distintos se a faixa for larga
+        int[] niveis;
+        boolean faixaDensa = (long) maior - menor + 1 <= LIMITE_NIVEIS;
+        if (faixaDensa) {
+            niveis = new int[maior - menor + 1];
+            for (int s = 0; s < niveis.length; s++) {
+                niveis[s] = menor + s;
+            }
+        } else {
+            int[] severidades = new int[n];
+            for (int i = 0; i < n; i++) {
+                severidades[i] = tabela.getSeverityLevel(i);
+            }
+            niveis = Arrays.stream(severidades).sorted().distinct().toArray();
+        }
+
+        // Passo 1: contar linhas por nível
+        int[] bucketDaLinha = new int[n];
+        int[] contagem = new int[niveis.length];
+        for (int i = 0; i < n; i++) {
+            int severidade = tabela.getSeverityLevel(i);
+            int b = faixaDensa ? severidade - menor : Arrays.binarySearch(niveis, severidade);
+            bucketDaLinha[i] = b;
+            contagem[b]++;
+        }
+
+        // Passo 2: distribuir os índices das linhas
+        int[][] buckets = new int[contagem.length][];
+        for (int b = 0; b < contagem.length; b++) {
+            buckets[b] = new int[contagem[b]];
+        }
+        int[] preenchidos = new int[contagem.length];
+        for (int i = 0; i < n; i++) {
+            int b = bucketDaLinha[i];
+            buckets[b][preenchidos[b]++] = i;
+        }
+
+        return new IndiceSeveridade(tabela, niveis, buckets);
+    }
+
+    /**
+     * Número total de alertas indexados
+     */
+    public int tamanho() {
+        return tabela.tamanho();
+    }
+
+    /**
+     * Os N alertas mais severos, do mais severo para o menos severo.
+     * Mesmo contrato do Desafio 3 (empates em ordem do arquivo).
+     *
+     * Complexidade: O(k + n)
+     */
+    public List<Alerta> topN(int n) {
+        return pagina(0, n);
+    }
+
+    /**
+     * Todos os alertas com severidade maior ou igual à informada.
+     *
+     * @param severidade Severidade mínima (inclusiva)
+     * @return Alertas em ordem decrescente de severidade
+     */
+    public List<Alerta> comSeveridadeMinima(int severidade) {
+        return pagina(0, contarComSeveridadeMinima(severidade));
+    }
+
+    /**
+     * Quantidade de alertas com severidade maior ou igual à informada, sem
+     * materializar nenhum Alerta.
+     */
+    public int contarComSeveridadeMinima(int severidade) {
+        int total = 0;
+        for (int b = buckets.length - 1; b >= 0 && niveis[b] >= severidade; b--) {
+            total += buckets[b].length;
+        }
+        return total;
+    }
+
+    /**
+     * Uma página da lista completa de alertas ordenada por severidade decrescente.
+     * Buckets inteiros anteriores ao deslocamento são pulados pelo tamanho.
+     *
+     * @param deslocamento Quantos alertas pular
+     * @param tamanhoPagina Quantos alertas retornar
+     * @return Alertas da página (lista vazia se o deslocamento passar do fim)
+     */
+    public List<Alerta> pagina(int deslocamento, int tamanhoPagina) {
+        if (deslocamento < 0) {
+            throw new IllegalArgumentException("Deslocamento não pode ser negativo");
+        }
+        int tamanho = (int) Math.max(0, Math.min(tamanhoPagina, (long) tabela.tamanho() - deslocamento));
+        int[] linhas = new int[tamanho];
+
+        int preenchidas = 0;
+        int pular = deslocamento;
+        for (int b = buckets.length - 1; b >= 0 && preenchidas < tamanho; b--) {
+            int[] bucket = buckets[b];
+            if (pular >= bucket.length) {
+                pular -= bucket.length;
+                continue;
+            }
+            int copiar = Math.min(bucket.length - pular, tamanho - preenchidas);
+            System.arraycopy(bucket, pular, linhas, preenchidas, copiar);
+            preenchidas += copiar;
+            pular = 0;
+        }
+
+        return PriorizacaoParalela.materializar(tabela, linhas);
+    }
+}
@@ -0,0 +1,227 @@
+package br.edu.icev.aed.forense.extended;
+
+import br.edu.icev.aed.forense.LogEntry;
+import br.edu.icev.aed.forense.util.CSVReader;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Índice de consultas de máximo em intervalo sobre BYTES_TRANSFERRED.
+ *
+ * Construído uma vez por conjunto de logs, responde sem reler o arquivo:
+ * - "qual a maior transferência entre T1 e T2" em O(1) (sparse table)
+ * - "quando ocorreu a próxima transferência maior depois de T" em O(log n)
+ *
+ * As colunas de timestamp e bytes ficam em arrays primitivos ordenados por
+ * TIMESTAMP (ordenação estável: empates preservam a ordem do arquivo), e a
+ * conversão timestamp → linha é feita por busca binária.
+ *
+ * A sparse table guarda, para cada nível k, o índice do maior valor em cada
+ * bloco de 2^k linhas. Memória: O(n log n) ints.
+ *
+ * USO OPCIONAL: Para consultas repetidas além do Desafio 4.
+ */
+public class IndiceTransferencias {
+
+    private final List<LogEntry> logs;
+    private final long[] timestamps;
+    private final long[] bytes;
+
+    // tabela[k][i] = índice do maior valor em [i, i + 2^k); o nível 0 é implícito
+    private final int[][] tabela;
+
+    private IndiceTransferencias(List<LogEntry> logs) {
+        int n = logs.size();
+        this.logs = logs;
+        this.timestamps = new long[n];
+        this.bytes = new long[n];
+
+        for (int i = 0; i < n; i++) {
+            LogEntry log = logs.get(i);
+            timestamps[i] = log.getTimestamp();
+            bytes[i] = log.getBytesTransferred();
+        }
+
+        int niveis = n == 0 ? 1 : 32 - Integer.numberOfLeadingZeros(n);
+        this.tabela = new int[niveis][];
+
+        for (int k = 1; k < niveis; k++) {
+            int bloco = 1 << k;
+            int metade = bloco >> 1;
+            int[] nivel = new int[n - bloco + 1];
+            for (int i = 0; i < nivel.length; i++) {
+                nivel[i] = maiorIndice(argMaxBloco(k - 1, i), argMaxBloco(k - 1, i + metade));
+            }
+            tabela[k] = nivel;
+        }
+    }
+
+    /**
+     * Lê o arquivo uma vez e constrói o índice.
+     *
+     * @param caminhoArquivoCsv Caminho para o arquivo de logs
+     * @return Índice pronto para consultas
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static IndiceTransferencias construir(String caminhoArquivoCsv) throws IOException {
+        return construir(CSVReader.lerTodosOsLogs(caminhoArquivoCsv));
+    }
+
+    /**
+     * Constrói o índice a partir de logs já carregados.
+     *
+     * Complexidade: O(n log n)
+     */
+    public static IndiceTransferencias construir(List<LogEntry> logs) {
+        List<LogEntry> ordenados = logs;
+
+        // Só copia e ordena se o log não estiver em ordem cronológica
+        for (int i = 1; i < logs.size(); i++) {
+            if (logs.get(i).getTimestamp() < logs.get(i - 1).getTimestamp()) {
+                ordenados = new ArrayList<>(logs);
+                ordenados.sort(Comparator.comparingLong(LogEntry::getTimestamp));
+                break;
+            }
+        }
+
+        return new IndiceTransferencias(ordenados);
+    }
+
+    /**
+     * Número de linhas indexadas
+     */
+    public int tamanho() {
+        return timestamps.length;
+    }
+
+    /**
+     * Maior transferência com timestamp em [inicio, fim].
+     * Em caso de empate, retorna o evento mais antigo.
+     *
+     * Complexidade: O(log n) para localizar as linhas + O(1) para o máximo
+     *
+     * @param inicio Timestamp inicial (inclusivo)
+     * @param fim Timestamp final (inclusivo)
+     * @return O evento com mais bytes no intervalo, ou vazio se não houver eventos
+     */
+    public Optional<LogEntry> maiorEntre(long inicio, long fim) {
+        int i = primeiraLinhaEmOuApos(inicio);
+        int j = primeiraLinhaApos(fim) - 1;
+        if (i > j) {
+            return Optional.empty();
+        }
+        return Optional.of(logs.get(argMax(i, j)));
+    }
+
+    /**
+     * Primeiro evento depois do instante informado (timestamp estritamente maior)
+     * que transferiu mais do que bytesMinimos.
+     *
+     * Complexidade: O(log n)
+     *
+     * @param timestamp Instante de referência
+     * @param bytesMinimos Limiar de bytes (exclusivo)
+     * @return O evento encontrado, ou vazio se não houver
+     */
+    public Optional<LogEntry> proximaMaiorApos(long timestamp, long bytesMinimos) {
+        int inicio = primeiraLinhaApos(timestamp);
+        int linha = primeiraLinhaAcimaDe(inicio, bytesMinimos);
+        return linha < 0 ? Optional.empty() : Optional.of(logs.get(linha));
+    }
+
+    /**
+     * Próximo evento com transferência maior que a do evento ocorrido em
+     * timestamp, na mesma semântica do Desafio 4 (se houver vários eventos
+     * com o mesmo timestamp, usa o primeiro deles).
+     *
+     * Complexidade: O(log n)
+     *
+     * @param timestamp TIMESTAMP de um evento existente
+     * @return O próximo evento maior, ou vazio se não houver ou se o timestamp não existir
+     */
+    public Optional<LogEntry> proximoPico(long timestamp) {
+        int linha = primeiraLinhaEmOuApos(timestamp);
+        if (linha >= tamanho() || timestamps[linha] != timestamp) {
+            return Optional.empty();
+        }
+        int proxima = primeiraLinhaAcimaDe(linha + 1, bytes[linha]);
+        return proxima < 0 ? Optional.empty() : Optional.of(logs.get(proxima));
+    }
+
+    /**
+     * Índice da linha com mais bytes em [i, j] (inclusivo).
+     *
+     * Complexidade: O(1)
+     */
+    public int argMax(int i, int j) {
+        if (i < 0 || j >= tamanho() || i > j) {
+            throw new IndexOutOfBoundsException("Intervalo inválido: [" + i + ", " + j + "]");
+        }
+        int k = 31 - Integer.numberOfLeadingZeros(j - i + 1);
+        return maiorIndice(argMaxBloco(k, i), argMaxBloco(k, j - (1 << k) + 1));
+    }
+
+    /**
+     * Busca binária: primeira linha com timestamp >= t (ou tamanho() se nenhuma)
+     */
+    public int primeiraLinhaEmOuApos(long t) {
+        int baixo = 0;
+        int alto = timestamps.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (timestamps[meio] < t) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    /**
+     * Busca binária: primeira linha com timestamp > t (ou tamanho() se nenhuma)
+     */
+    public int primeiraLinhaApos(long t) {
+        int baixo = 0;
+        int alto = timestamps.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (timestamps[meio] <= t) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    /**
+     * Primeira linha a partir de inicio com bytes > limiar, descendo pelos
+     * níveis da sparse table e pulando blocos cujo máximo não passa do limiar.
+     *
+     * @return Índice da linha, ou -1 se não houver
+     */
+    private int primeiraLinhaAcimaDe(int inicio, long limiar) {
+        int n = tamanho();
+        int p = inicio;
+        for (int k = tabela.length - 1; k >= 0; k--) {
+            if (p + (1 << k) <= n && bytes[argMaxBloco(k, p)] <= limiar) {
+                p += 1 << k;
+            }
+        }
+        return p < n ? p : -1;
+    }
+
+    private int argMaxBloco(int k, int i) {
+        return k == 0 ? i : tabela[k][i];
+    }
+
+    private int maiorIndice(int a, int b) {
+        if (bytes[a] != bytes[b]) {
+            return bytes[a] > bytes[b] ? a : b;
+        }
+        // Empate: o índice mais antigo vence
+        return Math.min(a, b);
+    }
+}
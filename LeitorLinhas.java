@@ -0,0 +1,139 @@
+package br.edu.icev.aed.forense.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Leitor de linhas sobre bytes que sabe o número e o deslocamento em bytes
+ * de cada linha (o BufferedReader não informa o deslocamento, necessário
+ * para localizar linhas rejeitadas em arquivos grandes).
+ *
+ * As linhas são separadas por '\n'; um '\r' final é removido. Como a busca
+ * é feita nos bytes, um caractere UTF-8 nunca é dividido entre linhas.
+ */
+public class LeitorLinhas {
+
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    private final InputStream entrada;
+    private final Charset charset;
+
+    private byte[] buffer;
+    private int inicio;
+    private int fim;
+
+    // Deslocamento no arquivo de buffer[0]
+    private long offsetBuffer;
+
+    private long numeroLinha;
+    private long offsetLinha;
+
+    /**
+     * Lê as linhas de um stream a partir do início do arquivo
+     */
+    public LeitorLinhas(InputStream entrada, Charset charset) {
+        this.entrada = entrada;
+        this.charset = charset;
+        this.buffer = new byte[TAMANHO_BUFFER];
+    }
+
+    /**
+     * Lê as linhas de um bloco já carregado.
+     *
+     * @param bloco Bytes do bloco
+     * @param tamanho Bytes válidos no bloco
+     * @param offsetBloco Deslocamento do bloco no arquivo
+     * @param linhaAnterior Número da linha que precede o bloco
+     */
+    public LeitorLinhas(byte[] bloco, int tamanho, long offsetBloco, long linhaAnterior, Charset charset) {
+        this.entrada = null;
+        this.charset = charset;
+        this.buffer = bloco;
+        this.fim = tamanho;
+        this.offsetBuffer = offsetBloco;
+        this.numeroLinha = linhaAnterior;
+    }
+
+    /**
+     * Próxima linha, ou null no fim
+     */
+    public String proximaLinha() throws IOException {
+        int quebra = procurarQuebra(inicio);
+        while (quebra < 0 && entrada != null) {
+            int procurado = fim - inicio;
+            if (!carregar()) {
+                break;
+            }
+            quebra = procurarQuebra(inicio + procurado);
+        }
+
+        if (quebra < 0) {
+            if (inicio == fim) {
+                return null;
+            }
+            // Última linha sem '\n'
+            quebra = fim;
+        }
+
+        int tamanho = quebra - inicio;
+        if (tamanho > 0 && buffer[quebra - 1] == '\r') {
+            tamanho--;
+        }
+        String linha = new String(buffer, inicio, tamanho, charset);
+
+        numeroLinha++;
+        offsetLinha = offsetBuffer + inicio;
+        inicio = Math.min(quebra + 1, fim);
+        return linha;
+    }
+
+    /**
+     * Número da última linha devolvida (a partir de 1)
+     */
+    public long getNumeroLinha() {
+        return numeroLinha;
+    }
+
+    /**
+     * Deslocamento em bytes do início da última linha devolvida
+     */
+    public long getOffsetLinha() {
+        return offsetLinha;
+    }
+
+    private int procurarQuebra(int de) {
+        for (int i = de; i < fim; i++) {
+            if (buffer[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Move a linha incompleta para o início do buffer (aumentando-o se ela já
+     * ocupa o buffer inteiro) e lê mais bytes
+     *
+     * @return false no fim do stream
+     */
+    private boolean carregar() throws IOException {
+        int pendente = fim - inicio;
+        if (inicio > 0) {
+            System.arraycopy(buffer, inicio, buffer, 0, pendente);
+            offsetBuffer += inicio;
+            inicio = 0;
+            fim = pendente;
+        }
+        if (fim == buffer.length) {
+            buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+        }
+        int lidos = entrada.read(buffer, fim, buffer.length - fim);
+        if (lidos <= 0) {
+            return false;
+        }
+        fim += lidos;
+        return true;
+    }
+}
@@ -0,0 +1,333 @@
+package br.edu.icev.aed.forense.util;
+
+import br.edu.icev.aed.forense.LogEntry;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Leitura de logs rotacionados em vários arquivos como um único log.
+ *
+ * O caminho pode ser:
+ * - um diretório: todos os arquivos .csv e .csv.gz dentro dele
+ * - um glob no nome do arquivo: ex.: /var/log/forense/acessos-2024-*.csv
+ *
+ * Algoritmo:
+ * 1. Resolve a lista de arquivos (ordenada pelo nome)
+ * 2. Cada arquivo é lido por uma thread própria (um cursor), que entrega os
+ *    logs em lotes por uma fila limitada: os arquivos são lidos em paralelo e
+ *    nenhum é carregado inteiro
+ * 3. Junta os cursores com um merge k-way por TIMESTAMP usando um heap com o
+ *    próximo log de cada arquivo; empates saem na ordem dos nomes dos arquivos
+ *
+ * Cada arquivo deve estar em ordem de tempo (como os logs rotacionados);
+ * dentro de um arquivo a ordem original é sempre mantida.
+ *
+ * Complexidade: O(n log k) para o merge de n logs em k arquivos; memória
+ * O(k × lotes na fila), independente de n
+ */
+public class LeitorMultiplosArquivos {
+
+    private static final String CARACTERES_GLOB = "*?[{";
+
+    private LeitorMultiplosArquivos() {
+    }
+
+    /**
+     * Indica se o caminho é um diretório ou um glob (e não um arquivo comum)
+     */
+    public static boolean ehMultiplo(String caminho) {
+        try {
+            Path arquivo = Paths.get(caminho);
+            if (Files.isDirectory(arquivo)) {
+                return true;
+            }
+            if (Files.exists(arquivo)) {
+                return false;
+            }
+        } catch (InvalidPathException e) {
+            // Alguns sistemas (ex.: Windows) não aceitam '*' e '?' em caminhos
+        }
+        return contemGlob(nomeDoArquivo(caminho));
+    }
+
+    /**
+     * Arquivos de log correspondentes a um diretório ou glob, em ordem de nome
+     *
+     * @throws IOException Se o diretório não puder ser listado
+     */
+    public static List<Path> resolver(String caminho) throws IOException {
+        Path diretorio = diretorio(caminho);
+        PathMatcher filtro = contemGlob(nomeDoArquivo(caminho))
+                ? FileSystems.getDefault().getPathMatcher("glob:" + nomeDoArquivo(caminho))
+                : FileSystems.getDefault().getPathMatcher("glob:*.{csv,csv.gz}");
+
+        List<Path> arquivos = new ArrayList<>();
+        try (DirectoryStream<Path> conteudo = Files.newDirectoryStream(diretorio)) {
+            for (Path arquivo : conteudo) {
+                if (Files.isRegularFile(arquivo) && filtro.matches(arquivo.getFileName())) {
+                    arquivos.add(arquivo);
+                }
+            }
+        }
+        Collections.sort(arquivos);
+        return arquivos;
+    }
+
+    /**
+     * Diretório listado por resolver: o próprio caminho, ou o diretório do glob
+     */
+    public static Path diretorio(String caminho) {
+        String nome = nomeDoArquivo(caminho);
+        if (!contemGlob(nome)) {
+            return Paths.get(caminho);
+        }
+        String pai = caminho.substring(0, caminho.length() - nome.length());
+        return pai.isEmpty() ? Paths.get(".") : Paths.get(pai);
+    }
+
+    /**
+     * Identidade do conteúdo de um caminho (arquivo, diretório ou glob): o
+     * caminho absoluto e, para cada arquivo resolvido, caminho, tamanho e data
+     * de modificação ("-" se o arquivo não existe). Muda quando qualquer
+     * arquivo do conjunto é alterado, criado ou removido, o que não acontece
+     * com o tamanho e a data do próprio diretório.
+     *
+     * Complexidade: O(k) para k arquivos (uma listagem do diretório)
+     *
+     * @throws IOException Se o diretório não puder ser listado
+     */
+    public static String identidade(String caminho) throws IOException {
+        StringBuilder identidade = new StringBuilder(absoluto(caminho));
+        List<Path> arquivos = ehMultiplo(caminho) ? resolver(caminho) : List.of(Paths.get(caminho));
+        for (Path arquivo : arquivos) {
+            identidade.append('\n').append(arquivo.toAbsolutePath().normalize()).append('|');
+            try {
+                BasicFileAttributes atributos = Files.readAttributes(arquivo, BasicFileAttributes.class);
+                identidade.append(atributos.size()).append('|')
+                          .append(atributos.lastModifiedTime().toMillis());
+            } catch (NoSuchFileException e) {
+                identidade.append('-');
+            }
+        }
+        return identidade.toString();
+    }
+
+    /**
+     * Caminho absoluto normalizado; globs que o sistema não aceita como
+     * caminho ficam como foram escritos
+     */
+    public static String absoluto(String caminho) {
+        try {
+            return Paths.get(caminho).toAbsolutePath().normalize().toString();
+        } catch (InvalidPathException e) {
+            return caminho;
+        }
+    }
+
+    /**
+     * Lê todos os arquivos do diretório/glob e entrega os logs ao consumidor
+     * em ordem de TIMESTAMP. Os arquivos são lidos em paralelo, mas só alguns
+     * lotes de cada um ficam no heap ao mesmo tempo.
+     *
+     * @param caminho Diretório ou glob
+     * @param destino Recebe cada LogEntry, na ordem do merge
+     * @param relatorio Recebe as linhas rejeitadas de todos os arquivos
+     *                  (os exemplos indicam o arquivo de origem)
+     * @throws IOException Se houver erro na leitura de algum arquivo
+     */
+    public static void ler(String caminho, Consumer<LogEntry> destino,
+                           RelatorioErrosParse relatorio) throws IOException {
+        List<Path> arquivos = resolver(caminho);
+
+        // Um cursor (thread produtora + fila limitada) por arquivo
+        List<Cursor> cursores = new ArrayList<>();
+        try {
+            for (Path arquivo : arquivos) {
+                cursores.add(new Cursor(arquivo));
+            }
+            mesclar(cursores, destino);
+        } finally {
+            for (Cursor cursor : cursores) {
+                cursor.encerrar();
+            }
+        }
+
+        // Todos os produtores terminaram: os relatórios estão completos
+        for (Cursor cursor : cursores) {
+            relatorio.juntar(cursor.relatorio, cursor.arquivo.toString());
+        }
+    }
+
+    /**
+     * Merge k-way por TIMESTAMP: o heap guarda o índice de cada cursor ainda
+     * não esgotado, ordenado pelo timestamp do seu próximo log (e pelo índice
+     * do cursor em caso de empate).
+     */
+    private static void mesclar(List<Cursor> cursores, Consumer<LogEntry> destino) throws IOException {
+        PriorityQueue<Integer> heap = new PriorityQueue<>((a, b) -> {
+            int comparacao = Long.compare(cursores.get(a).atual().getTimestamp(),
+                                          cursores.get(b).atual().getTimestamp());
+            return comparacao != 0 ? comparacao : Integer.compare(a, b);
+        });
+
+        for (int c = 0; c < cursores.size(); c++) {
+            if (cursores.get(c).avancar()) {
+                heap.add(c);
+            }
+        }
+
+        while (!heap.isEmpty()) {
+            int c = heap.poll();
+            Cursor cursor = cursores.get(c);
+            destino.accept(cursor.atual());
+            if (cursor.avancar()) {
+                heap.add(c);
+            }
+        }
+    }
+
+    /**
+     * Leitura de um arquivo em uma thread própria, entregue em lotes de LOTE
+     * logs por uma fila de LOTES_NA_FILA lotes: o produtor para quando o merge
+     * fica para trás, então cada arquivo ocupa no heap no máximo alguns lotes.
+     */
+    private static final class Cursor {
+
+        private static final int LOTE = 4096;
+        private static final int LOTES_NA_FILA = 4;
+
+        // Marca de fim de arquivo na fila
+        private static final List<LogEntry> FIM = new ArrayList<>();
+
+        final Path arquivo;
+        final RelatorioErrosParse relatorio = new RelatorioErrosParse();
+
+        private final BlockingQueue<List<LogEntry>> fila = new ArrayBlockingQueue<>(LOTES_NA_FILA);
+        private final Thread produtor;
+        private volatile IOException erro;
+
+        // Lote em montagem (thread produtora)
+        private List<LogEntry> pendente = new ArrayList<>(LOTE);
+
+        // Lote em leitura e posição do log atual (thread do merge)
+        private List<LogEntry> lote = Collections.emptyList();
+        private int posicao;
+
+        Cursor(Path arquivo) {
+            this.arquivo = arquivo;
+            this.produtor = new Thread(this::produzir, "mesclar-" + arquivo.getFileName());
+            this.produtor.setDaemon(true);
+            this.produtor.start();
+        }
+
+        private void produzir() {
+            try {
+                CSVReader.lerLogs(arquivo.toString(), log -> {
+                    pendente.add(log);
+                    if (pendente.size() == LOTE) {
+                        entregar(pendente);
+                        pendente = new ArrayList<>(LOTE);
+                    }
+                }, relatorio);
+                if (!pendente.isEmpty()) {
+                    entregar(pendente);
+                }
+            } catch (IOException e) {
+                erro = e;
+            } catch (Interrompido e) {
+                // Merge encerrado: ninguém vai ler o resto
+                return;
+            } catch (RuntimeException e) {
+                erro = new IOException("Erro ao ler " + arquivo + ": " + e, e);
+            }
+            try {
+                fila.put(FIM);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void entregar(List<LogEntry> logs) {
+            try {
+                fila.put(logs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new Interrompido();
+            }
+        }
+
+        /**
+         * Passa para o próximo log
+         *
+         * @return false no fim do arquivo
+         * @throws IOException Se a leitura do arquivo falhou
+         */
+        boolean avancar() throws IOException {
+            posicao++;
+            while (posicao >= lote.size()) {
+                if (lote == FIM) {
+                    return false;
+                }
+                try {
+                    lote = fila.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Leitura interrompida");
+                }
+                posicao = 0;
+                if (lote == FIM && erro != null) {
+                    throw erro;
+                }
+            }
+            return true;
+        }
+
+        LogEntry atual() {
+            return lote.get(posicao);
+        }
+
+        /**
+         * Interrompe o produtor se ele ainda estiver lendo
+         */
+        void encerrar() {
+            produtor.interrupt();
+        }
+    }
+
+    /**
+     * Interrupção do produtor, lançada de dentro do consumidor de logs
+     */
+    private static final class Interrompido extends RuntimeException {
+        Interrompido() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static String nomeDoArquivo(String caminho) {
+        int barra = Math.max(caminho.lastIndexOf('/'), caminho.lastIndexOf('\\'));
+        return caminho.substring(barra + 1);
+    }
+
+    private static boolean contemGlob(String nome) {
+        for (int i = 0; i < nome.length(); i++) {
+            if (CARACTERES_GLOB.indexOf(nome.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
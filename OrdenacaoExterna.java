@@ -0,0 +1,291 @@
+package br.edu.icev.aed.forense.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ordenação externa (merge sort em disco) de arquivos CSV de log por TIMESTAMP.
+ *
+ * Os Desafios 1 e 4 assumem que a ordem do arquivo é a ordem cronológica, o
+ * que não vale para logs juntados de vários coletores. Esta classe ordena
+ * arquivos de qualquer tamanho usando memória limitada:
+ *
+ * 1. Caminho rápido: uma passada verifica se o arquivo já está ordenado
+ *    (só o primeiro campo de cada linha é convertido)
+ * 2. Runs: lê linhas até o limite de memória, ordena por TIMESTAMP (ordenação
+ *    estável) e grava cada run ordenada em um arquivo temporário
+ * 3. Merge k-way das runs com um heap (de LIMITE_RUNS_ABERTAS em
+ *    LIMITE_RUNS_ABERTAS se houver muitas runs), gerando o CSV final
+ *
+ * A ordenação é estável: linhas com o mesmo TIMESTAMP mantêm a ordem do
+ * arquivo original. Linhas cujo TIMESTAMP não é numérico são descartadas com
+ * aviso, como no CSVReader.
+ *
+ * Complexidade: O(n log n) comparações; cada linha é lida e gravada
+ * O(log_k(runs)) vezes
+ *
+ * Com -Dforense.ordenar=true o CSVReader passa todo arquivo por garantirOrdem.
+ */
+public class OrdenacaoExterna {
+
+    // Memória padrão para as linhas de uma run (estimativa)
+    public static final long MEMORIA_PADRAO = 64L << 20;
+
+    // Máximo de runs abertas ao mesmo tempo durante o merge
+    private static final int LIMITE_RUNS_ABERTAS = 64;
+
+    // Custo estimado por linha além dos caracteres (objetos e referências)
+    private static final int CUSTO_FIXO_LINHA = 64;
+
+    // Caminho absoluto -> identidade (tamanho|data) da última verificação que o achou ordenado
+    private static final Map<String, String> ORDENADOS = new ConcurrentHashMap<>();
+
+    private OrdenacaoExterna() {
+    }
+
+    /**
+     * Linha do CSV com o TIMESTAMP já convertido
+     */
+    private static final class Linha {
+        final long timestamp;
+        final String texto;
+
+        Linha(long timestamp, String texto) {
+            this.timestamp = timestamp;
+            this.texto = texto;
+        }
+    }
+
+    /**
+     * Verifica em uma passada se o arquivo já está em ordem de TIMESTAMP.
+     *
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static boolean estaOrdenado(String caminhoArquivoCsv) throws IOException {
+        try (BufferedReader reader = CSVReader.abrir(caminhoArquivoCsv)) {
+            reader.readLine(); // cabeçalho
+            long anterior = Long.MIN_VALUE;
+            String linha;
+            while ((linha = reader.readLine()) != null) {
+                Long timestamp = timestamp(linha);
+                if (timestamp == null) {
+                    continue;
+                }
+                if (timestamp < anterior) {
+                    return false;
+                }
+                anterior = timestamp;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retorna um caminho com o mesmo log em ordem cronológica: o próprio
+     * arquivo se já estiver ordenado, ou uma cópia ordenada em um arquivo
+     * temporário, que o chamador deve apagar depois de ler (o CSVReader apaga
+     * ao fim de cada leitura).
+     *
+     * Arquivos já verificados como ordenados são lembrados pela identidade
+     * (tamanho e data de modificação): chamadas seguintes não os releem.
+     *
+     * @throws IOException Se houver erro de leitura ou gravação
+     */
+    public static String garantirOrdem(String caminhoArquivoCsv) throws IOException {
+        Path arquivo = Paths.get(caminhoArquivoCsv).toAbsolutePath().normalize();
+        String identidade = Files.size(arquivo) + "|" + Files.getLastModifiedTime(arquivo).toMillis();
+        if (identidade.equals(ORDENADOS.get(arquivo.toString()))) {
+            return caminhoArquivoCsv;
+        }
+        if (estaOrdenado(caminhoArquivoCsv)) {
+            ORDENADOS.put(arquivo.toString(), identidade);
+            return caminhoArquivoCsv;
+        }
+
+        Path saida = Files.createTempFile("forense-ordenado", ".csv");
+        try {
+            ordenar(caminhoArquivoCsv, saida, MEMORIA_PADRAO);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(saida);
+            throw e;
+        }
+        return saida.toString();
+    }
+
+    /**
+     * Ordena o CSV por TIMESTAMP, gravando o resultado (com o cabeçalho) em saida.
+     *
+     * @param caminhoArquivoCsv Arquivo de entrada (pode ser gzip)
+     * @param saida Arquivo de saída
+     * @param memoriaMaxima Memória aproximada, em bytes, para as linhas de uma run
+     * @throws IOException Se houver erro de leitura ou gravação
+     */
+    public static void ordenar(String caminhoArquivoCsv, Path saida, long memoriaMaxima) throws IOException {
+        Path diretorioRuns = Files.createTempDirectory("forense-runs");
+        List<Path> runs = new ArrayList<>();
+        String cabecalho;
+
+        try {
+            // FASE 1: runs ordenadas
+            try (BufferedReader reader = CSVReader.abrir(caminhoArquivoCsv)) {
+                cabecalho = reader.readLine();
+                List<Linha> run = new ArrayList<>();
+                long memoria = 0;
+                long descartadas = 0;
+                String texto;
+                while ((texto = reader.readLine()) != null) {
+                    if (texto.trim().isEmpty()) {
+                        continue;
+                    }
+                    Long timestamp = timestamp(texto);
+                    if (timestamp == null) {
+                        descartadas++;
+                        continue;
+                    }
+                    run.add(new Linha(timestamp, texto));
+                    memoria += CUSTO_FIXO_LINHA + 2L * texto.length();
+                    if (memoria >= memoriaMaxima) {
+                        runs.add(gravarRun(run, diretorioRuns, runs.size()));
+                        run.clear();
+                        memoria = 0;
+                    }
+                }
+                if (!run.isEmpty() || runs.isEmpty()) {
+                    runs.add(gravarRun(run, diretorioRuns, runs.size()));
+                }
+                if (descartadas > 0) {
+                    System.err.println("Aviso: " + descartadas + " linha(s) com TIMESTAMP inválido " +
+                                       "descartada(s) na ordenação de " + caminhoArquivoCsv);
+                }
+            }
+
+            // FASE 2: merge em passadas de até LIMITE_RUNS_ABERTAS runs
+            int proximaRun = runs.size();
+            while (runs.size() > LIMITE_RUNS_ABERTAS) {
+                List<Path> mescladas = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += LIMITE_RUNS_ABERTAS) {
+                    List<Path> grupo = runs.subList(i, Math.min(runs.size(), i + LIMITE_RUNS_ABERTAS));
+                    Path destino = diretorioRuns.resolve("run-" + (proximaRun++));
+                    mesclar(grupo, destino, null);
+                    for (Path run : grupo) {
+                        Files.delete(run);
+                    }
+                    mescladas.add(destino);
+                }
+                runs = mescladas;
+            }
+
+            Path temporario = saida.resolveSibling(saida.getFileName() + ".tmp");
+            mesclar(runs, temporario, cabecalho);
+            Files.move(temporario, saida, StandardCopyOption.REPLACE_EXISTING);
+
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+            Files.deleteIfExists(diretorioRuns);
+        }
+    }
+
+    private static Path gravarRun(List<Linha> run, Path diretorio, int numero) throws IOException {
+        // List.sort de objetos é estável (TimSort): empates mantêm a ordem do arquivo
+        run.sort(Comparator.comparingLong(linha -> linha.timestamp));
+
+        Path arquivo = diretorio.resolve("run-" + numero);
+        try (BufferedWriter writer = Files.newBufferedWriter(arquivo, Charset.defaultCharset())) {
+            for (Linha linha : run) {
+                writer.write(linha.texto);
+                writer.newLine();
+            }
+        }
+        return arquivo;
+    }
+
+    /**
+     * Cursor sobre uma run durante o merge
+     */
+    private static final class Cursor {
+        final BufferedReader reader;
+        final int ordem;
+        String texto;
+        long timestamp;
+
+        Cursor(BufferedReader reader, int ordem) {
+            this.reader = reader;
+            this.ordem = ordem;
+        }
+
+        boolean avancar() throws IOException {
+            texto = reader.readLine();
+            if (texto == null) {
+                return false;
+            }
+            timestamp = timestamp(texto);
+            return true;
+        }
+    }
+
+    /**
+     * Merge k-way das runs em destino. Empates saem na ordem das runs, que é a
+     * ordem em que as linhas apareceram no arquivo (mantém a estabilidade).
+     */
+    private static void mesclar(List<Path> runs, Path destino, String cabecalho) throws IOException {
+        PriorityQueue<Cursor> heap = new PriorityQueue<>((a, b) -> {
+            int comparacao = Long.compare(a.timestamp, b.timestamp);
+            return comparacao != 0 ? comparacao : Integer.compare(a.ordem, b.ordem);
+        });
+        List<Cursor> cursores = new ArrayList<>();
+
+        try (BufferedWriter writer = Files.newBufferedWriter(destino, Charset.defaultCharset())) {
+            for (int i = 0; i < runs.size(); i++) {
+                Cursor cursor = new Cursor(Files.newBufferedReader(runs.get(i), Charset.defaultCharset()), i);
+                cursores.add(cursor);
+                if (cursor.avancar()) {
+                    heap.add(cursor);
+                }
+            }
+
+            if (cabecalho != null) {
+                writer.write(cabecalho);
+                writer.newLine();
+            }
+            while (!heap.isEmpty()) {
+                Cursor cursor = heap.poll();
+                writer.write(cursor.texto);
+                writer.newLine();
+                if (cursor.avancar()) {
+                    heap.add(cursor);
+                }
+            }
+        } finally {
+            for (Cursor cursor : cursores) {
+                cursor.reader.close();
+            }
+        }
+    }
+
+    /**
+     * TIMESTAMP da linha (primeiro campo), ou null se não for numérico
+     */
+    private static Long timestamp(String linha) {
+        int virgula = linha.indexOf(',');
+        String campo = (virgula < 0 ? linha : linha.substring(0, virgula)).trim();
+        if (campo.length() >= 2 && campo.charAt(0) == '"' && campo.charAt(campo.length() - 1) == '"') {
+            // TIMESTAMP entre aspas (RFC 4180)
+            campo = campo.substring(1, campo.length() - 1).trim();
+        }
+        try {
+            return Long.parseLong(campo);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
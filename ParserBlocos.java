@@ -0,0 +1,322 @@
+package br.edu.icev.aed.forense.util;
+
+import br.edu.icev.aed.forense.LogEntry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Parser de blocos de bytes do CSV de logs, sem criar uma String por linha.
+ *
+ * Uma VarreduraDelimitadores (vetorial quando disponível) devolve as posições
+ * de ',', '\n' e '"' de cada janela do bloco; linhas e campos saem direto
+ * dessas posições. Números são convertidos a partir dos bytes e só os quatro
+ * campos de texto viram String.
+ *
+ * Linhas com aspas, com campos faltando ou com números inválidos (raras) são
+ * decodificadas e entregues ao ParserLogs, que trata aspas e dá a categoria
+ * do erro; o resultado é o mesmo do LeitorLinhas + ParserLogs, inclusive os
+ * números de linha e deslocamentos do relatório.
+ *
+ * Só serve para charsets em que ',', '\n', '"', '\r' e os espaços são um único
+ * byte ASCII que nunca aparece dentro de outro caractere (suporta(charset)).
+ *
+ * Não é thread-safe: use uma instância por thread.
+ */
+public class ParserBlocos {
+
+    // Bytes varridos por chamada da varredura (tamanho do vetor de posições)
+    private static final int JANELA = 1 << 14;
+
+    // Bloco inicial da leitura de streams
+    private static final int TAMANHO_BLOCO = 1 << 20;
+
+    private static final int CAMPOS = 7;
+
+    private final VarreduraDelimitadores varredura;
+    private final Charset charset;
+    private final ParserLogs parserLinhas = new ParserLogs();
+
+    // Espaço de trabalho reaproveitado entre linhas e blocos
+    private final int[] posicoes = new int[JANELA];
+    private final int[] inicioCampo = new int[CAMPOS];
+    private final int[] fimCampo = new int[CAMPOS];
+
+    // Resultado da última conversão numérica
+    private long numero;
+
+    /**
+     * Parser com a varredura padrão (vetorial se disponível)
+     */
+    public ParserBlocos(Charset charset) {
+        this(VarreduraDelimitadores.padrao(), charset);
+    }
+
+    public ParserBlocos(VarreduraDelimitadores varredura, Charset charset) {
+        if (!suporta(charset)) {
+            throw new IllegalArgumentException("Charset não suportado pelo ParserBlocos: " + charset);
+        }
+        this.varredura = varredura;
+        this.charset = charset;
+    }
+
+    /**
+     * Se o charset é compatível com ASCII nos delimitadores (UTF-8, ISO-8859-*,
+     * windows-125x). Para os outros, use LeitorLinhas + ParserLogs.
+     */
+    public static boolean suporta(Charset charset) {
+        String nome = charset.name();
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII) ||
+               nome.startsWith("ISO-8859-") || nome.startsWith("windows-125");
+    }
+
+    /**
+     * Lê o CSV inteiro de um stream (o cabeçalho é descartado), em blocos
+     * cortados no último '\n'.
+     *
+     * @param entrada Bytes do CSV
+     * @param destino Recebe cada LogEntry válido, na ordem do arquivo
+     * @param relatorio Recebe as linhas rejeitadas
+     * @throws IOException Se houver erro na leitura
+     */
+    public void ler(InputStream entrada, Consumer<LogEntry> destino, RelatorioErrosParse relatorio)
+            throws IOException {
+        byte[] bloco = new byte[TAMANHO_BLOCO];
+        int preenchido = 0;
+        boolean cabecalho = true;
+
+        // Deslocamento no arquivo de bloco[0] e linhas já lidas
+        long offsetBloco = 0;
+        long linhas = 0;
+
+        while (true) {
+            int lidos = entrada.read(bloco, preenchido, bloco.length - preenchido);
+            if (lidos > 0) {
+                preenchido += lidos;
+                if (preenchido < bloco.length) {
+                    continue;
+                }
+            }
+            boolean fimArquivo = lidos < 0;
+
+            // Até o último '\n' (no fim do arquivo, tudo)
+            int corte = fimArquivo ? preenchido : ultimaQuebraDeLinha(bloco, preenchido) + 1;
+            if (corte == 0 && !fimArquivo) {
+                // Linha maior que o bloco: aumentar o bloco
+                bloco = Arrays.copyOf(bloco, 2 * bloco.length);
+                continue;
+            }
+
+            int inicio = 0;
+            if (cabecalho && corte > 0) {
+                int quebra = primeiraQuebraDeLinha(bloco, corte);
+                inicio = quebra < 0 ? corte : quebra + 1;
+                linhas = 1;
+                cabecalho = false;
+            }
+            linhas += parsear(bloco, inicio, corte, offsetBloco, linhas, destino, relatorio);
+
+            // O resto (linha incompleta) vai para o início do bloco
+            System.arraycopy(bloco, corte, bloco, 0, preenchido - corte);
+            offsetBloco += corte;
+            preenchido -= corte;
+
+            if (fimArquivo) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Converte as linhas de bloco[inicio, fim). O trecho deve começar no início
+     * de uma linha; a última linha pode não ter '\n'.
+     *
+     * @param offsetBloco Deslocamento no arquivo de bloco[0]
+     * @param linhaAnterior Número da linha que precede o trecho
+     * @param destino Recebe cada LogEntry válido, na ordem do trecho
+     * @param relatorio Recebe as linhas rejeitadas, numeradas a partir de linhaAnterior + 1
+     * @return Número de linhas do trecho
+     */
+    public long parsear(byte[] bloco, int inicio, int fim, long offsetBloco, long linhaAnterior,
+                        Consumer<LogEntry> destino, RelatorioErrosParse relatorio) {
+        long numeroLinha = linhaAnterior;
+
+        // Estado da linha atual: início, vírgulas vistas (até CAMPOS) e se tem aspas
+        int inicioLinha = inicio;
+        int campo = 0;
+        boolean aspas = false;
+        inicioCampo[0] = inicio;
+
+        for (int janela = inicio; janela < fim; janela += JANELA) {
+            int encontrados = varredura.varrer(bloco, janela, Math.min(fim, janela + JANELA), posicoes);
+            for (int k = 0; k < encontrados; k++) {
+                int posicao = posicoes[k];
+                byte delimitador = bloco[posicao];
+                if (delimitador == ',') {
+                    if (campo < CAMPOS) {
+                        fimCampo[campo++] = posicao;
+                        if (campo < CAMPOS) {
+                            inicioCampo[campo] = posicao + 1;
+                        }
+                    }
+                } else if (delimitador == '\n') {
+                    numeroLinha++;
+                    linha(bloco, inicioLinha, posicao, campo, aspas, offsetBloco, numeroLinha,
+                          destino, relatorio);
+                    inicioLinha = posicao + 1;
+                    campo = 0;
+                    aspas = false;
+                    inicioCampo[0] = inicioLinha;
+                } else {
+                    aspas = true;
+                }
+            }
+        }
+
+        // Última linha sem '\n'
+        if (inicioLinha < fim) {
+            numeroLinha++;
+            linha(bloco, inicioLinha, fim, campo, aspas, offsetBloco, numeroLinha, destino, relatorio);
+        }
+        return numeroLinha - linhaAnterior;
+    }
+
+    /**
+     * Converte uma linha já separada em campos (bloco[inicio, fim), sem o '\n')
+     */
+    private void linha(byte[] bloco, int inicio, int fim, int virgulas, boolean aspas, long offsetBloco,
+                       long numeroLinha, Consumer<LogEntry> destino, RelatorioErrosParse relatorio) {
+        if (fim > inicio && bloco[fim - 1] == '\r') {
+            fim--;
+        }
+
+        // Caminho rápido: sem aspas e com os 7 campos
+        if (!aspas && virgulas >= CAMPOS - 1) {
+            if (virgulas == CAMPOS - 1) {
+                fimCampo[CAMPOS - 1] = fim;
+            }
+            LogEntry log = converter(bloco);
+            if (log != null) {
+                relatorio.registrarAceita();
+                destino.accept(log);
+                return;
+            }
+        }
+
+        // Caminho geral (aspas, linha vazia ou inválida): o ParserLogs decide
+        String texto = new String(bloco, inicio, fim - inicio, charset);
+        int status = parserLinhas.parsear(texto);
+        if (status == ParserLogs.OK) {
+            relatorio.registrarAceita();
+            destino.accept(parserLinhas.resultado());
+        } else if (status != ParserLogs.LINHA_VAZIA) {
+            relatorio.registrar(status, texto, numeroLinha, offsetBloco + inicio);
+        }
+    }
+
+    /**
+     * LogEntry dos campos localizados, ou null se algum número for inválido
+     */
+    private LogEntry converter(byte[] bloco) {
+        if (!lerNumero(bloco, inicioCampo[0], fimCampo[0])) {
+            return null;
+        }
+        long timestamp = numero;
+
+        if (!lerNumero(bloco, inicioCampo[5], fimCampo[5]) ||
+            numero < Integer.MIN_VALUE || numero > Integer.MAX_VALUE) {
+            return null;
+        }
+        int severidade = (int) numero;
+
+        if (!lerNumero(bloco, inicioCampo[6], fimCampo[6])) {
+            return null;
+        }
+        long bytes = numero;
+
+        return new LogEntry(timestamp, texto(bloco, 1), texto(bloco, 2), texto(bloco, 3),
+                            texto(bloco, 4), severidade, bytes);
+    }
+
+    /**
+     * Campo de texto sem espaços em volta (como String.trim; bytes >= 0x80
+     * fazem parte de caracteres e nunca são espaço)
+     */
+    private String texto(byte[] bloco, int campo) {
+        int inicio = inicioCampo[campo];
+        int fim = fimCampo[campo];
+        while (inicio < fim && (bloco[inicio] & 0xFF) <= ' ') {
+            inicio++;
+        }
+        while (fim > inicio && (bloco[fim - 1] & 0xFF) <= ' ') {
+            fim--;
+        }
+        return new String(bloco, inicio, fim - inicio, charset);
+    }
+
+    /**
+     * Converte bloco[inicio, fim) em long, como ParserLogs.lerNumero
+     *
+     * @return false se o campo não for um número válido
+     */
+    private boolean lerNumero(byte[] bloco, int inicio, int fim) {
+        while (inicio < fim && (bloco[inicio] & 0xFF) <= ' ') {
+            inicio++;
+        }
+        while (fim > inicio && (bloco[fim - 1] & 0xFF) <= ' ') {
+            fim--;
+        }
+        if (inicio == fim) {
+            return false;
+        }
+
+        boolean negativo = false;
+        byte sinal = bloco[inicio];
+        if (sinal == '-' || sinal == '+') {
+            negativo = sinal == '-';
+            inicio++;
+            if (inicio == fim) {
+                return false;
+            }
+        }
+
+        long limite = negativo ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long limiteMultiplicacao = limite / 10;
+        long acumulado = 0;
+        for (int i = inicio; i < fim; i++) {
+            int digito = bloco[i] - '0';
+            if (digito < 0 || digito > 9 || acumulado < limiteMultiplicacao) {
+                return false;
+            }
+            acumulado *= 10;
+            if (acumulado < limite + digito) {
+                return false;
+            }
+            acumulado -= digito;
+        }
+        numero = negativo ? acumulado : -acumulado;
+        return true;
+    }
+
+    private static int ultimaQuebraDeLinha(byte[] bloco, int tamanho) {
+        for (int i = tamanho - 1; i >= 0; i--) {
+            if (bloco[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int primeiraQuebraDeLinha(byte[] bloco, int tamanho) {
+        for (int i = 0; i < tamanho; i++) {
+            if (bloco[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
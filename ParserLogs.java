@@ -0,0 +1,324 @@
+package br.edu.icev.aed.forense.util;
+
+import br.edu.icev.aed.forense.LogEntry;
+
+/**
+ * Parser de linhas do CSV de logs sem exceções no caminho quente.
+ *
+ * Em vez de lançar uma exceção por linha malformada (caro: cada exceção
+ * captura a pilha), parsear() devolve um código de status e só cria o
+ * LogEntry quando a linha é válida. Os campos são localizados por varredura
+ * das vírgulas e os números são convertidos à mão, com verificação de
+ * overflow, sem Long.parseLong.
+ *
+ * Aceita as mesmas linhas que a versão anterior baseada em split(",") e
+ * Long.parseLong: espaços em volta dos campos, sinal opcional e campos
+ * extras depois do sétimo (ignorados).
+ *
+ * Campos entre aspas (RFC 4180) também são aceitos, para recursos com
+ * vírgula (URLs, caminhos do Windows, linhas de comando):
+ *   1700000000,u,s,FILE_ACCESS,"C:\Dados\a,b.txt",5,100
+ * Dentro das aspas a vírgula é texto e "" representa uma aspa. Aspas no
+ * meio de um campo sem aspas continuam sendo texto (como antes). Aspas não
+ * fechadas ou texto depois da aspa de fechamento rejeitam a linha como
+ * ASPAS_INVALIDAS; quebras de linha dentro de aspas não são suportadas.
+ *
+ * Caminho rápido: se a linha não tem aspas (o caso comum), os campos são
+ * localizados só com String.indexOf, que a JVM executa com instruções
+ * vetoriais; a máquina de estados só roda nas linhas com aspas.
+ *
+ * Não é thread-safe: use uma instância por thread.
+ */
+public class ParserLogs {
+
+    // Códigos de status (também índices das categorias do RelatorioErrosParse)
+    public static final int OK = 0;
+    public static final int LINHA_VAZIA = 1;
+    public static final int CAMPOS_INSUFICIENTES = 2;
+    public static final int TIMESTAMP_INVALIDO = 3;
+    public static final int SEVERIDADE_INVALIDA = 4;
+    public static final int BYTES_INVALIDOS = 5;
+    public static final int ASPAS_INVALIDAS = 6;
+
+    // Número de códigos de status
+    public static final int TOTAL_STATUS = 7;
+
+    private static final String[] DESCRICOES = {
+        "ok",
+        "linha vazia",
+        "número insuficiente de campos",
+        "TIMESTAMP inválido",
+        "SEVERITY_LEVEL inválido",
+        "BYTES_TRANSFERRED inválido",
+        "aspas inválidas"
+    };
+
+    private static final int CAMPOS = 7;
+
+    // Estados do tokenizador de linhas com aspas
+    private static final int INICIO_CAMPO = 0;
+    private static final int SEM_ASPAS = 1;
+    private static final int COM_ASPAS = 2;
+    private static final int ASPA_DENTRO = 3;
+    private static final int APOS_ASPAS = 4;
+
+    // Início e fim de cada campo da última linha (espaço de trabalho reaproveitado)
+    private final int[] inicioCampo = new int[CAMPOS];
+    private final int[] fimCampo = new int[CAMPOS];
+
+    // Campos já sem aspas das linhas com aspas (espaço de trabalho reaproveitado)
+    private final String[] campos = new String[CAMPOS];
+    private final StringBuilder campoAtual = new StringBuilder();
+
+    // Resultado da última conversão numérica
+    private long numero;
+
+    private LogEntry resultado;
+
+    /**
+     * Descrição legível de um código de status
+     */
+    public static String descricao(int status) {
+        return DESCRICOES[status];
+    }
+
+    /**
+     * Converte uma linha do CSV.
+     *
+     * @param linha Linha do CSV (sem a quebra de linha)
+     * @return OK se a linha é válida (o log fica em resultado()); LINHA_VAZIA
+     *         para linhas só com espaços; senão a categoria do erro
+     */
+    public int parsear(String linha) {
+        resultado = null;
+        int n = linha.length();
+
+        int primeiro = 0;
+        while (primeiro < n && linha.charAt(primeiro) <= ' ') {
+            primeiro++;
+        }
+        if (primeiro == n) {
+            return LINHA_VAZIA;
+        }
+
+        if (linha.indexOf('"') >= 0) {
+            return parsearComAspas(linha);
+        }
+
+        // Caminho rápido (sem aspas): localizar os 7 campos
+        int inicio = 0;
+        for (int campo = 0; campo < CAMPOS; campo++) {
+            int virgula = linha.indexOf(',', inicio);
+            if (virgula < 0) {
+                if (campo < CAMPOS - 1) {
+                    return CAMPOS_INSUFICIENTES;
+                }
+                virgula = n;
+            }
+            inicioCampo[campo] = inicio;
+            fimCampo[campo] = virgula;
+            inicio = virgula + 1;
+        }
+
+        if (!lerNumero(linha, inicioCampo[0], fimCampo[0])) {
+            return TIMESTAMP_INVALIDO;
+        }
+        long timestamp = numero;
+
+        if (!lerNumero(linha, inicioCampo[5], fimCampo[5]) ||
+            numero < Integer.MIN_VALUE || numero > Integer.MAX_VALUE) {
+            return SEVERIDADE_INVALIDA;
+        }
+        int severidade = (int) numero;
+
+        if (!lerNumero(linha, inicioCampo[6], fimCampo[6])) {
+            return BYTES_INVALIDOS;
+        }
+        long bytes = numero;
+
+        resultado = new LogEntry(timestamp, texto(linha, 1), texto(linha, 2), texto(linha, 3),
+                                 texto(linha, 4), severidade, bytes);
+        return OK;
+    }
+
+    /**
+     * Caminho lento: máquina de estados RFC 4180 que separa os campos
+     * respeitando aspas e depois converte os campos já sem aspas.
+     */
+    private int parsearComAspas(String linha) {
+        int campo = 0;
+        int estado = INICIO_CAMPO;
+        boolean entreAspas = false;
+        campoAtual.setLength(0);
+
+        for (int i = 0; i < linha.length() && campo < CAMPOS; i++) {
+            char c = linha.charAt(i);
+            switch (estado) {
+                case INICIO_CAMPO:
+                    if (c == '"') {
+                        estado = COM_ASPAS;
+                        entreAspas = true;
+                        campoAtual.setLength(0);
+                    } else if (c == ',') {
+                        campos[campo++] = "";
+                    } else if (c > ' ') {
+                        estado = SEM_ASPAS;
+                        campoAtual.append(c);
+                    }
+                    // Espaços antes do campo são ignorados
+                    break;
+                case SEM_ASPAS:
+                    if (c == ',') {
+                        campos[campo++] = semEspacosNoFim(campoAtual);
+                        campoAtual.setLength(0);
+                        estado = INICIO_CAMPO;
+                    } else {
+                        // Aspa no meio de campo sem aspas é texto, como no caminho rápido
+                        campoAtual.append(c);
+                    }
+                    break;
+                case COM_ASPAS:
+                    if (c == '"') {
+                        estado = ASPA_DENTRO;
+                    } else {
+                        campoAtual.append(c);
+                    }
+                    break;
+                case ASPA_DENTRO:
+                    if (c == '"') {
+                        // "" dentro das aspas: uma aspa literal
+                        campoAtual.append('"');
+                        estado = COM_ASPAS;
+                    } else if (c == ',') {
+                        campos[campo++] = campoAtual.toString();
+                        campoAtual.setLength(0);
+                        estado = INICIO_CAMPO;
+                        entreAspas = false;
+                    } else if (c > ' ') {
+                        return ASPAS_INVALIDAS;
+                    } else {
+                        estado = APOS_ASPAS;
+                    }
+                    break;
+                case APOS_ASPAS:
+                    if (c == ',') {
+                        campos[campo++] = campoAtual.toString();
+                        campoAtual.setLength(0);
+                        estado = INICIO_CAMPO;
+                        entreAspas = false;
+                    } else if (c > ' ') {
+                        return ASPAS_INVALIDAS;
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Estado inválido: " + estado);
+            }
+        }
+
+        // Último campo (terminado pelo fim da linha)
+        if (campo < CAMPOS) {
+            if (estado == COM_ASPAS) {
+                return ASPAS_INVALIDAS;
+            }
+            if (campo < CAMPOS - 1) {
+                return CAMPOS_INSUFICIENTES;
+            }
+            campos[campo] = entreAspas ? campoAtual.toString() : semEspacosNoFim(campoAtual);
+        }
+
+        if (!lerNumero(campos[0], 0, campos[0].length())) {
+            return TIMESTAMP_INVALIDO;
+        }
+        long timestamp = numero;
+
+        if (!lerNumero(campos[5], 0, campos[5].length()) ||
+            numero < Integer.MIN_VALUE || numero > Integer.MAX_VALUE) {
+            return SEVERIDADE_INVALIDA;
+        }
+        int severidade = (int) numero;
+
+        if (!lerNumero(campos[6], 0, campos[6].length())) {
+            return BYTES_INVALIDOS;
+        }
+        long bytes = numero;
+
+        resultado = new LogEntry(timestamp, campos[1], campos[2], campos[3], campos[4], severidade, bytes);
+        return OK;
+    }
+
+    private static String semEspacosNoFim(StringBuilder campo) {
+        int fim = campo.length();
+        while (fim > 0 && campo.charAt(fim - 1) <= ' ') {
+            fim--;
+        }
+        return campo.substring(0, fim);
+    }
+
+    /**
+     * Log da última linha, se parsear() devolveu OK; senão null
+     */
+    public LogEntry resultado() {
+        return resultado;
+    }
+
+    /**
+     * Campo de texto sem espaços em volta (como String.trim)
+     */
+    private String texto(String linha, int campo) {
+        int inicio = inicioCampo[campo];
+        int fim = fimCampo[campo];
+        while (inicio < fim && linha.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        while (fim > inicio && linha.charAt(fim - 1) <= ' ') {
+            fim--;
+        }
+        return linha.substring(inicio, fim);
+    }
+
+    /**
+     * Converte linha[inicio, fim) (sem espaços em volta) em long, guardando o
+     * valor em numero. Acumula em negativo, como Long.parseLong, para aceitar
+     * Long.MIN_VALUE e detectar overflow sem exceção.
+     *
+     * @return false se o campo não for um número válido
+     */
+    private boolean lerNumero(String linha, int inicio, int fim) {
+        while (inicio < fim && linha.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        while (fim > inicio && linha.charAt(fim - 1) <= ' ') {
+            fim--;
+        }
+        if (inicio == fim) {
+            return false;
+        }
+
+        boolean negativo = false;
+        char sinal = linha.charAt(inicio);
+        if (sinal == '-' || sinal == '+') {
+            negativo = sinal == '-';
+            inicio++;
+            if (inicio == fim) {
+                return false;
+            }
+        }
+
+        long limite = negativo ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long limiteMultiplicacao = limite / 10;
+        long acumulado = 0;
+        for (int i = inicio; i < fim; i++) {
+            int digito = linha.charAt(i) - '0';
+            if (digito < 0 || digito > 9 || acumulado < limiteMultiplicacao) {
+                return false;
+            }
+            acumulado *= 10;
+            if (acumulado < limite + digito) {
+                return false;
+            }
+            acumulado -= digito;
+        }
+        numero = negativo ? acumulado : -acumulado;
+        return true;
+    }
+}
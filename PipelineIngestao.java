@@ -0,0 +1,263 @@
+package br.edu.icev.aed.forense.util;
+
+import br.edu.icev.aed.forense.LogEntry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Pipeline de ingestão em estágios para arquivos grandes, separando E/S,
+ * parse e análise:
+ *
+ *   [leitor] --blocos de bytes--> [N parsers] --blocos de LogEntry--> [consumidor]
+ *
+ * - Leitor (uma thread): lê blocos de TAMANHO_BLOCO bytes cortados no último
+ *   '\n' (o resto vai para o bloco seguinte) e agenda o parse de cada bloco
+ * - Parsers (pool de N threads): convertem as linhas do bloco em LogEntry
+ * - Consumidor (a thread que chamou ler): recebe os blocos na ordem do
+ *   arquivo e entrega cada LogEntry ao destino (a análise)
+ *
+ * A entrega em ordem usa uma fila limitada de futuros, um por bloco, na ordem
+ * de leitura: o consumidor espera o futuro da frente enquanto os parsers já
+ * trabalham nos seguintes. Como a fila é limitada, o leitor para quando a
+ * análise fica para trás (backpressure) e a memória em uso fica em torno de
+ * blocosEmVoo × TAMANHO_BLOCO.
+ *
+ * Como os blocos são cortados em '\n', um caractere UTF-8 nunca é dividido.
+ * Cada bloco é convertido pelo ParserBlocos (delimitadores localizados com a
+ * Vector API quando disponível). Linhas inválidas são contadas em um
+ * relatório por bloco (sem exceções), juntado pelo consumidor na ordem do
+ * arquivo.
+ */
+public class PipelineIngestao {
+
+    private static final int TAMANHO_BLOCO = 1 << 20;
+
+    // Marca de fim na fila de blocos
+    private static final Future<BlocoParseado> FIM = CompletableFuture.completedFuture(null);
+
+    /**
+     * Resultado do parse de um bloco: logs válidos, linhas rejeitadas (com
+     * números de linha relativos ao bloco) e número de linhas do bloco
+     */
+    private static class BlocoParseado {
+        private final List<LogEntry> logs;
+        private final RelatorioErrosParse relatorio;
+        private final long linhas;
+
+        BlocoParseado(List<LogEntry> logs, RelatorioErrosParse relatorio, long linhas) {
+            this.logs = logs;
+            this.relatorio = relatorio;
+            this.linhas = linhas;
+        }
+    }
+
+    private PipelineIngestao() {
+    }
+
+    /**
+     * Número padrão de parsers: um por núcleo, deixando um para leitor e análise
+     */
+    public static int parsersPadrao() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    /**
+     * Lê o arquivo pelo pipeline, entregando os logs ao destino na ordem do arquivo.
+     *
+     * @param caminhoArquivo Arquivo CSV (pode ser gzip)
+     * @param parsers Número de threads de parse
+     * @param destino Recebe cada LogEntry, na thread que chamou este método
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static void ler(Path caminhoArquivo, int parsers, Consumer<LogEntry> destino) throws IOException {
+        RelatorioErrosParse relatorio = new RelatorioErrosParse();
+        ler(caminhoArquivo, parsers, destino, relatorio);
+        if (relatorio.getTotalRejeitadas() > 0) {
+            System.err.println("Aviso: " + caminhoArquivo + ": " + relatorio.resumo());
+        }
+    }
+
+    /**
+     * Lê o arquivo pelo pipeline, entregando os logs ao destino na ordem do
+     * arquivo e registrando as linhas rejeitadas no relatório.
+     *
+     * @param caminhoArquivo Arquivo CSV (pode ser gzip)
+     * @param parsers Número de threads de parse
+     * @param destino Recebe cada LogEntry, na thread que chamou este método
+     * @param relatorio Recebe as contagens e exemplos de linhas rejeitadas
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static void ler(Path caminhoArquivo, int parsers, Consumer<LogEntry> destino,
+                           RelatorioErrosParse relatorio) throws IOException {
+        if (parsers <= 0) {
+            throw new IllegalArgumentException("Número de parsers deve ser positivo: " + parsers);
+        }
+
+        BlockingQueue<Future<BlocoParseado>> emVoo = new ArrayBlockingQueue<>(2 * parsers + 2);
+        ExecutorService poolParsers = Executors.newFixedThreadPool(parsers, tarefa -> {
+            Thread thread = new Thread(tarefa, "parser-" + caminhoArquivo.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        InputStream entrada = CSVReader.abrirBytes(caminhoArquivo.toString());
+
+        Thread leitor = new Thread(() -> produzir(entrada, poolParsers, emVoo),
+                                   "leitor-" + caminhoArquivo.getFileName());
+        leitor.setDaemon(true);
+        leitor.start();
+
+        try {
+            // Linhas já entregues (começa em 1: o cabeçalho)
+            long linhasAnteriores = 1;
+            while (true) {
+                Future<BlocoParseado> futuro = emVoo.take();
+                if (futuro == FIM) {
+                    break;
+                }
+                BlocoParseado bloco = futuro.get();
+                for (LogEntry log : bloco.logs) {
+                    destino.accept(log);
+                }
+                relatorio.juntar(bloco.relatorio, linhasAnteriores);
+                linhasAnteriores += bloco.linhas;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Leitura interrompida");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) {
+                throw (IOException) causa;
+            }
+            throw new IOException("Erro no pipeline de ingestão: " + causa, causa);
+        } finally {
+            leitor.interrupt();
+            poolParsers.shutdownNow();
+            entrada.close();
+        }
+    }
+
+    /**
+     * Estágio leitor: corta o arquivo em blocos de linhas completas e agenda o
+     * parse de cada um. O cabeçalho (primeira linha) é descartado.
+     */
+    private static void produzir(InputStream entrada, ExecutorService poolParsers,
+                                 BlockingQueue<Future<BlocoParseado>> emVoo) {
+        try {
+            byte[] bloco = new byte[TAMANHO_BLOCO];
+            int preenchido = 0;
+            boolean cabecalho = true;
+            int lidos;
+
+            // Deslocamento no arquivo de bloco[0]
+            long offsetBloco = 0;
+
+            while ((lidos = entrada.read(bloco, preenchido, bloco.length - preenchido)) > 0) {
+                preenchido += lidos;
+                int ultimaQuebra = ultimaQuebraDeLinha(bloco, preenchido);
+                if (ultimaQuebra < 0) {
+                    if (preenchido == bloco.length) {
+                        // Linha maior que o bloco: aumentar o bloco
+                        bloco = Arrays.copyOf(bloco, 2 * bloco.length);
+                    }
+                    continue;
+                }
+
+                int inicio = 0;
+                if (cabecalho) {
+                    inicio = primeiraQuebraDeLinha(bloco, preenchido) + 1;
+                    cabecalho = false;
+                }
+                agendar(Arrays.copyOfRange(bloco, inicio, ultimaQuebra + 1), offsetBloco + inicio,
+                        poolParsers, emVoo);
+                offsetBloco += ultimaQuebra + 1;
+
+                // O resto (linha incompleta) vai para o início do próximo bloco
+                int resto = preenchido - (ultimaQuebra + 1);
+                byte[] proximo = new byte[Math.max(TAMANHO_BLOCO, resto + 1)];
+                System.arraycopy(bloco, ultimaQuebra + 1, proximo, 0, resto);
+                bloco = proximo;
+                preenchido = resto;
+            }
+
+            // Última linha sem '\n' (ou arquivo só com cabeçalho)
+            if (preenchido > 0 && !cabecalho) {
+                agendar(Arrays.copyOf(bloco, preenchido), offsetBloco, poolParsers, emVoo);
+            }
+            emVoo.put(FIM);
+
+        } catch (IOException e) {
+            CompletableFuture<BlocoParseado> erro = new CompletableFuture<>();
+            erro.completeExceptionally(e);
+            try {
+                emVoo.put(erro);
+            } catch (InterruptedException interrompido) {
+                Thread.currentThread().interrupt();
+            }
+        } catch (InterruptedException e) {
+            // Consumidor encerrou o pipeline
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void agendar(byte[] linhas, long offset, ExecutorService poolParsers,
+                                BlockingQueue<Future<BlocoParseado>> emVoo) throws InterruptedException {
+        emVoo.put(poolParsers.submit(() -> parsear(linhas, offset)));
+    }
+
+    /**
+     * Estágio parser: converte um bloco de linhas completas em LogEntry
+     */
+    private static BlocoParseado parsear(byte[] bloco, long offset) throws IOException {
+        Charset charset = Charset.defaultCharset();
+        if (ParserBlocos.suporta(charset)) {
+            RelatorioErrosParse relatorio = new RelatorioErrosParse();
+            List<LogEntry> logs = new ArrayList<>(bloco.length / 64 + 1);
+            long linhas = new ParserBlocos(charset).parsear(bloco, 0, bloco.length, offset, 0,
+                                                            logs::add, relatorio);
+            return new BlocoParseado(logs, relatorio, linhas);
+        }
+
+        LeitorLinhas leitor = new LeitorLinhas(bloco, bloco.length, offset, 0, Charset.defaultCharset());
+        ParserLogs parser = new ParserLogs();
+        RelatorioErrosParse relatorio = new RelatorioErrosParse();
+        List<LogEntry> logs = new ArrayList<>(bloco.length / 64 + 1);
+
+        String linha;
+        while ((linha = leitor.proximaLinha()) != null) {
+            int status = parser.parsear(linha);
+            if (status == ParserLogs.OK) {
+                relatorio.registrarAceita();
+                logs.add(parser.resultado());
+            } else if (status != ParserLogs.LINHA_VAZIA) {
+                relatorio.registrar(status, linha, leitor.getNumeroLinha(), leitor.getOffsetLinha());
+            }
+        }
+        return new BlocoParseado(logs, relatorio, leitor.getNumeroLinha());
+    }
+
+    private static int ultimaQuebraDeLinha(byte[] bloco, int tamanho) {
+        for (int i = tamanho - 1; i >= 0; i--) {
+            if (bloco[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int primeiraQuebraDeLinha(byte[] bloco, int tamanho) {
+        for (int i = 0; i < tamanho; i++) {
+            if (bloco[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
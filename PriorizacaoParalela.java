@@ -0,0 +1,136 @@
+package br.edu.icev.aed.forense.extended;
+
+import br.edu.icev.aed.forense.Alerta;
+import br.edu.icev.aed.forense.LogEntry;
+import br.edu.icev.aed.forense.util.CSVReader;
+import br.edu.icev.aed.forense.util.HeapLimitado;
+import br.edu.icev.aed.forense.util.TabelaLogs;
+import br.edu.icev.aed.forense.util.TabelaLogsMemoria;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Versão paralela do Desafio 3 (top-N alertas por severidade).
+ *
+ * Algoritmo:
+ * 1. Divide as linhas em blocos (cerca de 4 blocos por núcleo)
+ * 2. Cada tarefa ForkJoin mantém um min-heap limitado a N com os índices
+ *    das linhas mais severas do seu bloco (arrays primitivos)
+ * 3. Os heaps parciais são combinados dois a dois no join
+ * 4. O heap final é ordenado e só então os N Alertas são criados
+ *
+ * Mesmo contrato do Desafio 3: ordem decrescente de severidade, empates sem
+ * ordem definida.
+ *
+ * Complexidade: O(n log N / P) para os blocos + O(P · N log N) para as junções
+ */
+public class PriorizacaoParalela {
+
+    // Bloco mínimo: abaixo disso não compensa dividir
+    private static final int BLOCO_MINIMO = 1 << 14;
+
+    /**
+     * Tarefa que calcula o top-N de um intervalo de linhas
+     */
+    private static final class TarefaTopN extends RecursiveTask<HeapLimitado> {
+        private final List<LogEntry> logs;
+        private final int inicio;
+        private final int fim;
+        private final int n;
+        private final int bloco;
+
+        TarefaTopN(List<LogEntry> logs, int inicio, int fim, int n, int bloco) {
+            this.logs = logs;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.n = n;
+            this.bloco = bloco;
+        }
+
+        @Override
+        protected HeapLimitado compute() {
+            if (fim - inicio <= bloco) {
+                HeapLimitado heap = new HeapLimitado(n, fim - inicio);
+                for (int i = inicio; i < fim; i++) {
+                    heap.oferecer(logs.get(i).getSeverityLevel(), i);
+                }
+                return heap;
+            }
+
+            int meio = (inicio + fim) >>> 1;
+            TarefaTopN esquerda = new TarefaTopN(logs, inicio, meio, n, bloco);
+            TarefaTopN direita = new TarefaTopN(logs, meio, fim, n, bloco);
+            esquerda.fork();
+            HeapLimitado resultadoDireita = direita.compute();
+            return esquerda.join().juntar(resultadoDireita);
+        }
+    }
+
+    /**
+     * Lê o arquivo e prioriza os alertas em paralelo.
+     *
+     * @param caminhoArquivoCsv Caminho para o arquivo de logs
+     * @param n Número de alertas a retornar
+     * @return Os N alertas mais severos, do mais severo para o menos severo
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static List<Alerta> priorizar(String caminhoArquivoCsv, int n) throws IOException {
+        return priorizar(CSVReader.lerTodosOsLogs(caminhoArquivoCsv), n);
+    }
+
+    /**
+     * Prioriza alertas de logs já carregados usando o pool comum.
+     */
+    public static List<Alerta> priorizar(List<LogEntry> logs, int n) {
+        return priorizar(logs, n, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Prioriza alertas de logs já carregados usando o pool informado.
+     * A lista deve ter acesso aleatório eficiente (ex.: ArrayList).
+     */
+    public static List<Alerta> priorizar(List<LogEntry> logs, int n, ForkJoinPool pool) {
+        if (n <= 0 || logs.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        int bloco = Math.max(BLOCO_MINIMO, logs.size() / (4 * pool.getParallelism()) + 1);
+        HeapLimitado heap = pool.invoke(new TarefaTopN(logs, 0, logs.size(), n, bloco));
+
+        return materializar(logs, heap.extrairOrdenado());
+    }
+
+    /**
+     * Cria os Alertas apenas para as linhas selecionadas, na ordem informada.
+     *
+     * @param logs Logs carregados (acesso aleatório)
+     * @param linhas Índices das linhas selecionadas
+     * @return Um Alerta por linha
+     */
+    public static List<Alerta> materializar(List<LogEntry> logs, int[] linhas) {
+        return materializar(new TabelaLogsMemoria(logs), linhas);
+    }
+
+    /**
+     * Cria os Alertas apenas para as linhas selecionadas de uma tabela de logs
+     * (em memória ou fora do heap), na ordem informada.
+     */
+    public static List<Alerta> materializar(TabelaLogs tabela, int[] linhas) {
+        List<Alerta> alertas = new ArrayList<>(linhas.length);
+        for (int linha : linhas) {
+            alertas.add(new Alerta(
+                tabela.getTimestamp(linha),
+                tabela.getUserId(linha),
+                tabela.getSessionId(linha),
+                tabela.getActionType(linha),
+                tabela.getTargetResource(linha),
+                tabela.getSeverityLevel(linha),
+                tabela.getBytesTransferred(linha)
+            ));
+        }
+        return alertas;
+    }
+}
@@ -0,0 +1,197 @@
+package br.edu.icev.aed.forense.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Relatório das linhas rejeitadas durante a leitura de um log.
+ *
+ * Conta as linhas rejeitadas por categoria (os códigos de status do
+ * ParserLogs) e guarda até AMOSTRAS_POR_CATEGORIA exemplos de cada uma, com
+ * o número da linha e o deslocamento em bytes no arquivo (nos dados já
+ * descomprimidos, para gzip), para localizar o problema sem imprimir nada
+ * por linha. A memória usada é constante, não importa quantas linhas sejam
+ * rejeitadas.
+ *
+ * Não é thread-safe: leitores paralelos usam um relatório por tarefa e
+ * juntam os relatórios no final (juntar).
+ */
+public class RelatorioErrosParse {
+
+    // Exemplos guardados por categoria
+    public static final int AMOSTRAS_POR_CATEGORIA = 5;
+
+    // Caracteres guardados de cada linha de exemplo
+    private static final int TAMANHO_MAXIMO_AMOSTRA = 200;
+
+    /**
+     * Uma linha rejeitada
+     */
+    public static class Amostra {
+        private final String arquivo;
+        private final int categoria;
+        private final long numeroLinha;
+        private final long offsetByte;
+        private final String linha;
+
+        public Amostra(String arquivo, int categoria, long numeroLinha, long offsetByte, String linha) {
+            this.arquivo = arquivo;
+            this.categoria = categoria;
+            this.numeroLinha = numeroLinha;
+            this.offsetByte = offsetByte;
+            this.linha = linha;
+        }
+
+        /** Arquivo da linha quando vários arquivos são lidos juntos; senão null */
+        public String getArquivo() { return arquivo; }
+        public int getCategoria() { return categoria; }
+        public long getNumeroLinha() { return numeroLinha; }
+        public long getOffsetByte() { return offsetByte; }
+        public String getLinha() { return linha; }
+
+        @Override
+        public String toString() {
+            return (arquivo != null ? arquivo + ": " : "") + "linha " + numeroLinha +
+                   " (byte " + offsetByte + "): " + ParserLogs.descricao(categoria) + ": " + linha;
+        }
+    }
+
+    private final long[] rejeitadas = new long[ParserLogs.TOTAL_STATUS];
+    private final List<List<Amostra>> amostras = new ArrayList<>(ParserLogs.TOTAL_STATUS);
+    private long aceitas = 0;
+
+    public RelatorioErrosParse() {
+        for (int i = 0; i < ParserLogs.TOTAL_STATUS; i++) {
+            amostras.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Conta uma linha aceita
+     */
+    public void registrarAceita() {
+        aceitas++;
+    }
+
+    /**
+     * Conta uma linha rejeitada, guardando-a como exemplo se ainda houver espaço
+     *
+     * @param categoria Código de status do ParserLogs
+     * @param linha Texto da linha
+     * @param numeroLinha Número da linha no arquivo (a partir de 1, com o cabeçalho)
+     * @param offsetByte Deslocamento em bytes do início da linha no arquivo
+     */
+    public void registrar(int categoria, String linha, long numeroLinha, long offsetByte) {
+        rejeitadas[categoria]++;
+        List<Amostra> daCategoria = amostras.get(categoria);
+        if (daCategoria.size() < AMOSTRAS_POR_CATEGORIA) {
+            String texto = linha.length() > TAMANHO_MAXIMO_AMOSTRA
+                    ? linha.substring(0, TAMANHO_MAXIMO_AMOSTRA) + "..."
+                    : linha;
+            daCategoria.add(new Amostra(null, categoria, numeroLinha, offsetByte, texto));
+        }
+    }
+
+    /**
+     * Acrescenta os números de outro relatório (de um trecho posterior do
+     * mesmo arquivo), somando deslocamentoLinhas aos números de linha dele.
+     * Os exemplos continuam em ordem do arquivo.
+     */
+    public void juntar(RelatorioErrosParse outro, long deslocamentoLinhas) {
+        juntar(outro, deslocamentoLinhas, null);
+    }
+
+    /**
+     * Acrescenta os números do relatório de outro arquivo lido em conjunto
+     * (diretório ou glob); os exemplos dele passam a indicar o arquivo.
+     */
+    public void juntar(RelatorioErrosParse outro, String arquivo) {
+        juntar(outro, 0, arquivo);
+    }
+
+    private void juntar(RelatorioErrosParse outro, long deslocamentoLinhas, String arquivo) {
+        aceitas += outro.aceitas;
+        for (int c = 0; c < ParserLogs.TOTAL_STATUS; c++) {
+            rejeitadas[c] += outro.rejeitadas[c];
+            List<Amostra> daCategoria = amostras.get(c);
+            for (Amostra amostra : outro.amostras.get(c)) {
+                if (daCategoria.size() >= AMOSTRAS_POR_CATEGORIA) {
+                    break;
+                }
+                daCategoria.add(new Amostra(arquivo != null ? arquivo : amostra.arquivo, c,
+                                            amostra.numeroLinha + deslocamentoLinhas,
+                                            amostra.offsetByte, amostra.linha));
+            }
+        }
+    }
+
+    /**
+     * Linhas convertidas em LogEntry
+     */
+    public long getAceitas() {
+        return aceitas;
+    }
+
+    /**
+     * Linhas rejeitadas na categoria informada
+     */
+    public long getRejeitadas(int categoria) {
+        return rejeitadas[categoria];
+    }
+
+    /**
+     * Total de linhas rejeitadas em todas as categorias
+     */
+    public long getTotalRejeitadas() {
+        long total = 0;
+        for (long quantidade : rejeitadas) {
+            total += quantidade;
+        }
+        return total;
+    }
+
+    /**
+     * Exemplos de linhas rejeitadas na categoria informada, em ordem do arquivo
+     */
+    public List<Amostra> getAmostras(int categoria) {
+        return Collections.unmodifiableList(amostras.get(categoria));
+    }
+
+    /**
+     * Todos os exemplos guardados, agrupados por categoria
+     */
+    public List<Amostra> getAmostras() {
+        List<Amostra> todas = new ArrayList<>();
+        for (List<Amostra> daCategoria : amostras) {
+            todas.addAll(daCategoria);
+        }
+        return todas;
+    }
+
+    /**
+     * Resumo em uma linha: total rejeitado e contagem por categoria
+     */
+    public String resumo() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(getTotalRejeitadas()).append(" linha(s) rejeitada(s) de ")
+          .append(aceitas + getTotalRejeitadas());
+        String separador = ": ";
+        for (int c = 0; c < ParserLogs.TOTAL_STATUS; c++) {
+            if (rejeitadas[c] > 0) {
+                sb.append(separador).append(ParserLogs.descricao(c)).append(" = ").append(rejeitadas[c]);
+                separador = ", ";
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(resumo());
+        for (Amostra amostra : getAmostras()) {
+            sb.append("\n  ").append(amostra);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,413 @@
+package br.edu.icev.aed.forense.extended;
+
+import br.edu.icev.aed.forense.Alerta;
+import br.edu.icev.aed.forense.util.LeitorMultiplosArquivos;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor HTTP local (apenas localhost) para muitas consultas concorrentes
+ * sobre os mesmos logs.
+ *
+ * Cada chamada a SolucaoForenseImpl relê o CSV inteiro; aqui o arquivo é
+ * carregado uma vez em um DatasetForense (índices prontos, compartilhado sem
+ * locks entre as requisições). O arquivo é recarregado quando muda (tamanho
+ * ou data de modificação diferentes; para diretórios e globs, de qualquer
+ * arquivo do conjunto, como no AnaliseComCache). Ficam carregados no máximo
+ * maximoConjuntos arquivos; ao carregar mais um, sai o usado há mais tempo.
+ *
+ * Endpoints (GET, resposta text/plain UTF-8, um item por linha):
+ * - /sessoes-invalidas?arquivo=...
+ * - /linha-do-tempo?arquivo=...&sessao=...
+ * - /alertas?arquivo=...&n=...           (linhas no formato do CSV)
+ * - /picos?arquivo=...                   (timestamp,próximo maior)
+ * - /caminho?arquivo=...&inicial=...&alvo=...  (404 se não houver caminho)
+ *
+ * Concorrência:
+ * - Cada requisição roda em uma virtual thread (JDK 21+); em JVMs mais
+ *   antigas, em um pool de threads sob demanda
+ * - Consultas idênticas em andamento são coalescidas: a segunda espera o
+ *   resultado da primeira em vez de recalcular. O mesmo vale para a carga
+ *   do arquivo, que acontece uma única vez mesmo com muitos pedidos simultâneos
+ *
+ * USO OPCIONAL: Para ferramentas que disparam muitas consultas sobre o mesmo log.
+ */
+public class ServidorConsultas {
+
+    // Arquivos (ou diretórios/globs) carregados ao mesmo tempo, por padrão
+    public static final int MAXIMO_CONJUNTOS_PADRAO = 4;
+
+    /**
+     * Logs carregados de um arquivo, com a identidade
+     * (LeitorMultiplosArquivos.identidade) usada para detectar mudanças e o
+     * último acesso usado para escolher o que sai
+     */
+    private static class Conjunto {
+        private final String identidade;
+        private final DatasetForense dataset;
+        private volatile long ultimoAcesso;
+
+        Conjunto(String identidade, DatasetForense dataset, long ultimoAcesso) {
+            this.identidade = identidade;
+            this.dataset = dataset;
+            this.ultimoAcesso = ultimoAcesso;
+        }
+    }
+
+    // Caminho absoluto (ou glob) -> logs carregados
+    private final Map<String, Conjunto> conjuntos = new ConcurrentHashMap<>();
+
+    // Consultas (e cargas) em andamento, pela chave canônica
+    private final Map<String, CompletableFuture<Object>> emAndamento = new ConcurrentHashMap<>();
+
+    private final AtomicLong consultas = new AtomicLong();
+    private final AtomicLong coalescidas = new AtomicLong();
+    private final AtomicLong cargas = new AtomicLong();
+    private final AtomicLong relogioAcessos = new AtomicLong();
+
+    private final HttpServer servidor;
+    private final ExecutorService executor;
+    private final int maximoConjuntos;
+
+    private ServidorConsultas(HttpServer servidor, ExecutorService executor, int maximoConjuntos) {
+        this.servidor = servidor;
+        this.executor = executor;
+        this.maximoConjuntos = maximoConjuntos;
+    }
+
+    /**
+     * Inicia o servidor em localhost.
+     *
+     * @param porta Porta TCP (0 escolhe uma porta livre)
+     * @return Servidor já aceitando requisições
+     * @throws IOException Se a porta não puder ser aberta
+     */
+    public static ServidorConsultas iniciar(int porta) throws IOException {
+        return iniciar(porta, MAXIMO_CONJUNTOS_PADRAO);
+    }
+
+    /**
+     * Inicia o servidor em localhost.
+     *
+     * @param porta Porta TCP (0 escolhe uma porta livre)
+     * @param maximoConjuntos Arquivos mantidos carregados ao mesmo tempo
+     * @return Servidor já aceitando requisições
+     * @throws IOException Se a porta não puder ser aberta
+     */
+    public static ServidorConsultas iniciar(int porta, int maximoConjuntos) throws IOException {
+        if (maximoConjuntos <= 0) {
+            throw new IllegalArgumentException("Número de arquivos carregados deve ser positivo: " + maximoConjuntos);
+        }
+        HttpServer http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), porta), 0);
+        ServidorConsultas servidor = new ServidorConsultas(http, criarExecutor(), maximoConjuntos);
+        http.createContext("/", servidor::tratar);
+        http.setExecutor(servidor.executor);
+        http.start();
+        return servidor;
+    }
+
+    /**
+     * Executor com uma virtual thread por requisição, obtido por reflexão para
+     * que o código continue compilando para Java 11. Sem virtual threads,
+     * usa um pool de threads daemon criado sob demanda.
+     */
+    private static ExecutorService criarExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(tarefa -> {
+                Thread thread = new Thread(tarefa, "consulta-forense");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Porta em que o servidor está escutando
+     */
+    public int getPorta() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Para o servidor e libera os logs carregados
+     */
+    public void parar() {
+        servidor.stop(0);
+        executor.shutdownNow();
+        conjuntos.clear();
+    }
+
+    /**
+     * Total de consultas recebidas
+     */
+    public long getConsultas() {
+        return consultas.get();
+    }
+
+    /**
+     * Consultas e cargas que aproveitaram um cálculo idêntico já em andamento
+     */
+    public long getCoalescidas() {
+        return coalescidas.get();
+    }
+
+    /**
+     * Número de vezes que um arquivo foi lido do disco
+     */
+    public long getCargas() {
+        return cargas.get();
+    }
+
+    /**
+     * Número de arquivos com logs carregados no momento
+     */
+    public int getConjuntos() {
+        return conjuntos.size();
+    }
+
+    /**
+     * Executa uma consulta diretamente (sem HTTP), com a mesma carga única e
+     * coalescência das requisições.
+     *
+     * @param endpoint Nome do endpoint (ex.: "linha-do-tempo")
+     * @param parametros Parâmetros da consulta
+     * @return Resultado, um item por linha; null se não houver caminho (/caminho)
+     * @throws IllegalArgumentException Se o endpoint ou os parâmetros forem inválidos
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public String consultar(String endpoint, Map<String, String> parametros) throws IOException {
+        consultas.incrementAndGet();
+        String chave = endpoint + "?" + new TreeMap<>(parametros);
+        return (String) coalescer(chave, () -> calcular(endpoint, parametros));
+    }
+
+    private String calcular(String endpoint, Map<String, String> parametros) throws IOException {
+        DatasetForense dataset = conjunto(obrigatorio(parametros, "arquivo"));
+        StringBuilder resposta = new StringBuilder();
+
+        switch (endpoint) {
+            case "sessoes-invalidas":
+                for (String sessao : new TreeSet<>(dataset.sessoesInvalidas())) {
+                    resposta.append(sessao).append('\n');
+                }
+                break;
+            case "linha-do-tempo":
+                for (String acao : dataset.linhaDoTempo(obrigatorio(parametros, "sessao"))) {
+                    resposta.append(acao).append('\n');
+                }
+                break;
+            case "alertas":
+                for (Alerta a : dataset.alertas(inteiro(parametros, "n"))) {
+                    resposta.append(a.getTimestamp()).append(',').append(a.getUserId()).append(',')
+                            .append(a.getSessionId()).append(',').append(a.getActionType()).append(',')
+                            .append(a.getTargetResource()).append(',').append(a.getSeverityLevel()).append(',')
+                            .append(a.getBytesTransferred()).append('\n');
+                }
+                break;
+            case "picos":
+                for (Map.Entry<Long, Long> pico : new TreeMap<>(dataset.picosDeTransferencia()).entrySet()) {
+                    resposta.append(pico.getKey()).append(',').append(pico.getValue()).append('\n');
+                }
+                break;
+            case "caminho":
+                Optional<List<String>> caminho = dataset.caminho(
+                    obrigatorio(parametros, "inicial"), obrigatorio(parametros, "alvo"));
+                if (!caminho.isPresent()) {
+                    return null;
+                }
+                for (String recurso : caminho.get()) {
+                    resposta.append(recurso).append('\n');
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Endpoint desconhecido: " + endpoint);
+        }
+        return resposta.toString();
+    }
+
+    /**
+     * Logs do arquivo, carregados uma única vez enquanto o arquivo não mudar
+     */
+    private DatasetForense conjunto(String arquivo) throws IOException {
+        String caminho = LeitorMultiplosArquivos.absoluto(arquivo);
+        if (!LeitorMultiplosArquivos.ehMultiplo(arquivo) && !Files.exists(Paths.get(caminho))) {
+            throw new NoSuchFileException(caminho);
+        }
+        String identidade = LeitorMultiplosArquivos.identidade(arquivo);
+
+        Conjunto atual = conjuntos.get(caminho);
+        if (atual != null && atual.identidade.equals(identidade)) {
+            atual.ultimoAcesso = relogioAcessos.incrementAndGet();
+            return atual.dataset;
+        }
+
+        return (DatasetForense) coalescer("carga:" + identidade, () -> {
+            Conjunto carregado = conjuntos.get(caminho);
+            if (carregado == null || !carregado.identidade.equals(identidade)) {
+                cargas.incrementAndGet();
+                carregado = new Conjunto(identidade, DatasetForense.carregar(caminho),
+                                         relogioAcessos.incrementAndGet());
+                conjuntos.put(caminho, carregado);
+                descartarExcedentes();
+            }
+            return carregado.dataset;
+        });
+    }
+
+    /**
+     * Remove os conjuntos acessados há mais tempo até sobrarem maximoConjuntos.
+     * Consultas em andamento sobre um conjunto removido terminam normalmente.
+     *
+     * Complexidade: O(k) por remoção, para k conjuntos carregados (k pequeno)
+     */
+    private void descartarExcedentes() {
+        while (conjuntos.size() > maximoConjuntos) {
+            Map.Entry<String, Conjunto> maisAntigo = null;
+            for (Map.Entry<String, Conjunto> entrada : conjuntos.entrySet()) {
+                if (maisAntigo == null || entrada.getValue().ultimoAcesso < maisAntigo.getValue().ultimoAcesso) {
+                    maisAntigo = entrada;
+                }
+            }
+            if (maisAntigo == null) {
+                return;
+            }
+            conjuntos.remove(maisAntigo.getKey(), maisAntigo.getValue());
+        }
+    }
+
+    /**
+     * Executa o cálculo, ou espera o resultado de um cálculo idêntico já em
+     * andamento em outra thread. O resultado não é guardado após a conclusão.
+     */
+    private Object coalescer(String chave, Callable<Object> calculo) throws IOException {
+        CompletableFuture<Object> novo = new CompletableFuture<>();
+        CompletableFuture<Object> existente = emAndamento.putIfAbsent(chave, novo);
+        if (existente != null) {
+            coalescidas.incrementAndGet();
+            return aguardar(existente);
+        }
+
+        try {
+            novo.complete(calculo.call());
+        } catch (Throwable e) {
+            novo.completeExceptionally(e);
+        } finally {
+            emAndamento.remove(chave, novo);
+        }
+        return aguardar(novo);
+    }
+
+    private static Object aguardar(CompletableFuture<Object> futuro) throws IOException {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Consulta interrompida", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) {
+                throw (IOException) causa;
+            }
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            if (causa instanceof Error) {
+                throw (Error) causa;
+            }
+            throw new IOException(causa);
+        }
+    }
+
+    /**
+     * Trata uma requisição HTTP (na virtual thread da requisição)
+     */
+    private void tratar(HttpExchange troca) throws IOException {
+        int status;
+        String corpo;
+        try {
+            if (!"GET".equals(troca.getRequestMethod())) {
+                status = 405;
+                corpo = "Método não suportado\n";
+            } else {
+                String endpoint = troca.getRequestURI().getPath().replaceFirst("^/", "");
+                corpo = consultar(endpoint, parametros(troca.getRequestURI().getRawQuery()));
+                status = corpo != null ? 200 : 404;
+                if (corpo == null) {
+                    corpo = "Nenhum caminho encontrado\n";
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            corpo = e.getMessage() + "\n";
+        } catch (NoSuchFileException e) {
+            status = 404;
+            corpo = "Arquivo não encontrado: " + e.getMessage() + "\n";
+        } catch (IOException | RuntimeException e) {
+            status = 500;
+            corpo = "Erro: " + e.getMessage() + "\n";
+        }
+
+        byte[] bytes = corpo.getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        troca.sendResponseHeaders(status, bytes.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parametros(String consulta) {
+        Map<String, String> parametros = new HashMap<>();
+        if (consulta == null || consulta.isEmpty()) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            String nome = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            parametros.put(URLDecoder.decode(nome, StandardCharsets.UTF_8),
+                           URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return parametros;
+    }
+
+    private static String obrigatorio(Map<String, String> parametros, String nome) {
+        String valor = parametros.get(nome);
+        if (valor == null || valor.isEmpty()) {
+            throw new IllegalArgumentException("Parâmetro obrigatório ausente: " + nome);
+        }
+        return valor;
+    }
+
+    private static int inteiro(Map<String, String> parametros, String nome) {
+        try {
+            return Integer.parseInt(obrigatorio(parametros, nome));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parâmetro inválido: " + nome);
+        }
+    }
+
+    /**
+     * Inicia o servidor pela linha de comando: java ... ServidorConsultas [porta]
+     */
+    public static void main(String[] args) throws IOException {
+        int porta = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        ServidorConsultas servidor = iniciar(porta);
+        System.out.println("Servidor de consultas em http://localhost:" + servidor.getPorta() + "/");
+    }
+}
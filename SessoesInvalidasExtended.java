@@ -19,6 +19,9 @@ import java.util.*;
  */
 public class SessoesInvalidasExtended {
 
+    // Maior número de janelas para o qual o histograma denso compensa
+    private static final int LIMITE_HISTOGRAMA = 1 << 20;
+
     /**
      * Versão estendida que retorna informações detalhadas sobre sessões inválidas.
      * 
@@ -31,35 +34,71 @@ public class SessoesInvalidasExtended {
      */
     public static ResultadoSessoesInvalidas analisarComMetricas(String caminhoArquivoCsv) 
             throws IOException {
-        
+        return processar(caminhoArquivoCsv).paraResultado();
+    }
+
+    /**
+     * Lê o arquivo e executa a passagem única sobre os logs.
+     */
+    static PassagemSessoes processar(String caminhoArquivoCsv) throws IOException {
         // Validação de entrada
         if (caminhoArquivoCsv == null || caminhoArquivoCsv.trim().isEmpty()) {
             throw new IllegalArgumentException("Caminho do arquivo não pode ser nulo ou vazio");
         }
         
-        // Estruturas de dados principais
-        Set<String> sessoesInvalidas = new HashSet<>();
-        Map<String, Stack<String>> pilhasPorUsuario = new HashMap<>();
+        List<LogEntry> logs = CSVReader.lerTodosOsLogs(caminhoArquivoCsv);
+        return PassagemSessoes.executar(logs);
+    }
+
+    /**
+     * Estado de uma única passagem pelos logs.
+     * 
+     * Além das pilhas por usuário do Desafio 1, registra para cada sessão o
+     * usuário que a abriu e o seu primeiro timestamp. Assim o ranking de
+     * usuários e o padrão temporal saem da mesma leitura, sem reler o arquivo.
+     */
+    static final class PassagemSessoes {
+        final Set<String> sessoesInvalidas = new HashSet<>();
+        final Map<String, Stack<String>> pilhasPorUsuario = new HashMap<>();
+        
+        // SESSION_ID -> USER_ID do primeiro evento da sessão
+        final Map<String, String> usuarioPorSessao = new HashMap<>();
+        // SESSION_ID -> menor TIMESTAMP visto na sessão
+        final Map<String, Long> inicioPorSessao = new HashMap<>();
         
         // Contadores de métricas
         int loginAninhados = 0;
         int logoutOrfaos = 0;
         int logoutIncorretos = 0;
+        int sessoesAbertas = 0;
         int totalEventos = 0;
-        
-        // Ler todos os logs
-        List<LogEntry> logs = CSVReader.lerTodosOsLogs(caminhoArquivoCsv);
-        totalEventos = logs.size();
-        
-        // Processar cada log
-        for (LogEntry log : logs) {
+
+        /**
+         * Processa todos os logs em O(n), na ordem do arquivo.
+         */
+        static PassagemSessoes executar(List<LogEntry> logs) {
+            PassagemSessoes passagem = new PassagemSessoes();
+            passagem.totalEventos = logs.size();
+            
+            for (LogEntry log : logs) {
+                passagem.registrar(log);
+            }
+            passagem.finalizar();
+            
+            return passagem;
+        }
+
+        private void registrar(LogEntry log) {
             String userId = log.getUserId();
             String sessionId = log.getSessionId();
             String actionType = log.getActionType();
             
+            // Mapeamentos por sessão (primeiro usuário, primeiro timestamp)
+            usuarioPorSessao.putIfAbsent(sessionId, userId);
+            inicioPorSessao.merge(sessionId, log.getTimestamp(), Math::min);
+            
             // Garantir que o usuário tenha uma pilha
-            pilhasPorUsuario.putIfAbsent(userId, new Stack<>());
-            Stack<String> pilhaUsuario = pilhasPorUsuario.get(userId);
+            Stack<String> pilhaUsuario = pilhasPorUsuario.computeIfAbsent(userId, u -> new Stack<>());
             
             if ("LOGIN".equals(actionType)) {
                 // LOGIN: verificar se já há sessão ativa (LOGIN aninhado)
@@ -93,24 +132,26 @@ public class SessoesInvalidasExtended {
                 }
             }
         }
-        
-        // Contar sessões abertas (sem LOGOUT)
-        int sessoesAbertas = 0;
-        for (Stack<String> pilha : pilhasPorUsuario.values()) {
-            sessoesAbertas += pilha.size();
-            sessoesInvalidas.addAll(pilha);
+
+        private void finalizar() {
+            // Contar sessões abertas (sem LOGOUT)
+            for (Stack<String> pilha : pilhasPorUsuario.values()) {
+                sessoesAbertas += pilha.size();
+                sessoesInvalidas.addAll(pilha);
+            }
+        }
+
+        ResultadoSessoesInvalidas paraResultado() {
+            return new ResultadoSessoesInvalidas(
+                sessoesInvalidas,
+                loginAninhados,
+                logoutOrfaos,
+                sessoesAbertas,
+                logoutIncorretos,
+                pilhasPorUsuario.size(),  // total de usuários
+                totalEventos
+            );
         }
-        
-        // Construir e retornar resultado
-        return new ResultadoSessoesInvalidas(
-            sessoesInvalidas,
-            loginAninhados,
-            logoutOrfaos,
-            sessoesAbertas,
-            logoutIncorretos,
-            pilhasPorUsuario.size(),  // total de usuários
-            totalEventos
-        );
     }
 
     /**
@@ -141,6 +182,10 @@ public class SessoesInvalidasExtended {
      * Identifica usuários com mais sessões inválidas.
      * Útil para identificar contas comprometidas.
      * 
+     * Cada sessão inválida é atribuída ao usuário do seu primeiro evento.
+     * O ranking usa um min-heap limitado a topN, então o custo é
+     * O(n + u log topN) em vez de ordenar todos os u usuários.
+     * 
      * @param caminhoArquivoCsv Caminho para o arquivo de logs
      * @param topN Quantos usuários retornar
      * @return Map com usuários e contagem de sessões inválidas, ordenado
@@ -149,31 +194,54 @@ public class SessoesInvalidasExtended {
     public static Map<String, Integer> usuariosComMaisSessoesInvalidas(
             String caminhoArquivoCsv, int topN) throws IOException {
         
+        PassagemSessoes passagem = processar(caminhoArquivoCsv);
+        
         Map<String, Integer> contagemPorUsuario = new HashMap<>();
-        Set<String> sessoesInvalidas = analisar(caminhoArquivoCsv);
+        for (String sessionId : passagem.sessoesInvalidas) {
+            contagemPorUsuario.merge(passagem.usuarioPorSessao.get(sessionId), 1, Integer::sum);
+        }
         
-        // Ler logs novamente para mapear sessões -> usuários
-        List<LogEntry> logs = CSVReader.lerTodosOsLogs(caminhoArquivoCsv);
+        Map<String, Integer> ranking = new LinkedHashMap<>();
+        if (topN <= 0) {
+            return ranking;
+        }
         
-        for (LogEntry log : logs) {
-            if (sessoesInvalidas.contains(log.getSessionId())) {
-                contagemPorUsuario.merge(log.getUserId(), 1, Integer::sum);
+        // Min-heap com no máximo topN entradas: o topo é o menor do ranking atual
+        Comparator<Map.Entry<String, Integer>> porContagem = Map.Entry.comparingByValue();
+        PriorityQueue<Map.Entry<String, Integer>> heap = new PriorityQueue<>(topN, porContagem);
+        
+        for (Map.Entry<String, Integer> entry : contagemPorUsuario.entrySet()) {
+            if (heap.size() < topN) {
+                heap.offer(entry);
+            } else if (entry.getValue() > heap.peek().getValue()) {
+                heap.poll();
+                heap.offer(entry);
             }
         }
         
-        // Ordenar por contagem decrescente e pegar top N
-        return contagemPorUsuario.entrySet().stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .limit(topN)
-                .collect(LinkedHashMap::new,
-                        (map, entry) -> map.put(entry.getKey(), entry.getValue()),
-                        LinkedHashMap::putAll);
+        // Esvaziar o heap (ordem crescente) e inverter para ordem decrescente
+        List<Map.Entry<String, Integer>> ordenados = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ordenados.add(heap.poll());
+        }
+        for (int i = ordenados.size() - 1; i >= 0; i--) {
+            ranking.put(ordenados.get(i).getKey(), ordenados.get(i).getValue());
+        }
+        
+        return ranking;
     }
 
     /**
      * Analisa padrões temporais de sessões inválidas.
      * Agrupa por janelas de tempo para identificar períodos suspeitos.
      * 
+     * Cada sessão inválida conta uma vez, na janela do seu primeiro timestamp.
+     * A contagem usa um histograma int[] indexado pela janela; quando o
+     * intervalo de janelas é esparso demais para um array, ordena as janelas
+     * num long[] e conta as repetições. As janelas são alinhadas com
+     * Math.floorDiv (como na AgregacaoTemporal), então um timestamp negativo
+     * cai na janela que começa antes dele, e não na janela 0.
+     * 
      * @param caminhoArquivoCsv Caminho para o arquivo de logs
      * @param janelaTempo Tamanho da janela em segundos
      * @return Map com timestamp inicial da janela e contagem de inválidas
@@ -182,15 +250,52 @@ public class SessoesInvalidasExtended {
     public static Map<Long, Integer> padraoTemporalInvalidas(
             String caminhoArquivoCsv, long janelaTempo) throws IOException {
         
+        if (janelaTempo <= 0) {
+            throw new IllegalArgumentException("Janela de tempo deve ser positiva");
+        }
+        
+        PassagemSessoes passagem = processar(caminhoArquivoCsv);
         Map<Long, Integer> contagemPorJanela = new TreeMap<>();
-        Set<String> sessoesInvalidas = analisar(caminhoArquivoCsv);
         
-        List<LogEntry> logs = CSVReader.lerTodosOsLogs(caminhoArquivoCsv);
+        int total = passagem.sessoesInvalidas.size();
+        if (total == 0) {
+            return contagemPorJanela;
+        }
         
-        for (LogEntry log : logs) {
-            if (sessoesInvalidas.contains(log.getSessionId())) {
-                long janela = (log.getTimestamp() / janelaTempo) * janelaTempo;
-                contagemPorJanela.merge(janela, 1, Integer::sum);
+        // Índice da janela de cada sessão inválida
+        long[] janelas = new long[total];
+        long menor = Long.MAX_VALUE;
+        long maior = Long.MIN_VALUE;
+        int i = 0;
+        for (String sessionId : passagem.sessoesInvalidas) {
+            long janela = Math.floorDiv(passagem.inicioPorSessao.get(sessionId), janelaTempo);
+            janelas[i++] = janela;
+            menor = Math.min(menor, janela);
+            maior = Math.max(maior, janela);
+        }
+        
+        // Intervalo grande demais para um int[] (ou que transborda o long): ordenar
+        long intervalo = maior - menor + 1;
+        if (intervalo > 0 && intervalo <= Math.min(Integer.MAX_VALUE - 8, Math.max(LIMITE_HISTOGRAMA, 4L * total))) {
+            // Histograma denso
+            int[] histograma = new int[(int) intervalo];
+            for (long janela : janelas) {
+                histograma[(int) (janela - menor)]++;
+            }
+            for (int k = 0; k < histograma.length; k++) {
+                if (histograma[k] > 0) {
+                    contagemPorJanela.put((menor + k) * janelaTempo, histograma[k]);
+                }
+            }
+        } else {
+            // Janelas esparsas: ordenar e contar sequências iguais
+            Arrays.sort(janelas);
+            int inicio = 0;
+            for (int k = 1; k <= total; k++) {
+                if (k == total || janelas[k] != janelas[inicio]) {
+                    contagemPorJanela.put(janelas[inicio] * janelaTempo, k - inicio);
+                    inicio = k;
+                }
             }
         }
         
@@ -1,6 +1,13 @@
 package br.edu.icev.aed.forense;
 
+import br.edu.icev.aed.forense.extended.BuscaLarguraParalela;
+import br.edu.icev.aed.forense.extended.GrafoPersistente;
+import br.edu.icev.aed.forense.extended.GrafoRecursos;
+import br.edu.icev.aed.forense.extended.PriorizacaoParalela;
 import br.edu.icev.aed.forense.util.CSVReader;
+import br.edu.icev.aed.forense.util.HeapLimitado;
+import br.edu.icev.aed.forense.util.TabelaLogs;
+import br.edu.icev.aed.forense.util.TabelaLogsMemoria;
 
 import java.io.IOException;
 import java.util.*;
@@ -17,6 +24,15 @@ import java.util.*;
  */
 public class SolucaoForenseImpl implements AnaliseForenseAvancada {
 
+    // A partir deste número de linhas o Desafio 3 usa a versão paralela
+    private static final int LIMIAR_PARALELO_ALERTAS = 1 << 20;
+
+    // A partir deste número de linhas o Desafio 5 usa grafo CSR e BFS paralela
+    private static final int LIMIAR_PARALELO_GRAFO = 1 << 20;
+
+    // Com -Dforense.grafo.persistente=true o Desafio 5 reaproveita o grafo gravado em disco
+    private static final String PROPRIEDADE_GRAFO_PERSISTENTE = "forense.grafo.persistente";
+
     /**
      * Construtor público sem argumentos (obrigatório pela especificação)
      */
@@ -37,20 +53,27 @@ public class SolucaoForenseImpl implements AnaliseForenseAvancada {
      */
     @Override
     public Set<String> desafio1_encontrarSessoesInvalidas(String caminhoArquivoCsv) throws IOException {
+        // Ler todos os logs do arquivo
+        List<LogEntry> logs = CSVReader.lerTodosOsLogs(caminhoArquivoCsv);
+        
+        return desafio1_encontrarSessoesInvalidas(new TabelaLogsMemoria(logs));
+    }
+
+    /**
+     * Desafio 1 sobre logs já carregados (em memória ou fora do heap)
+     */
+    public Set<String> desafio1_encontrarSessoesInvalidas(TabelaLogs tabela) {
         // Conjunto que armazenará as sessões inválidas
         Set<String> sessoesInvalidas = new HashSet<>();
         
         // Map: USER_ID -> Stack de SESSION_IDs
         Map<String, Stack<String>> pilhasPorUsuario = new HashMap<>();
         
-        // Ler todos os logs do arquivo
-        List<LogEntry> logs = CSVReader.lerTodosOsLogs(caminhoArquivoCsv);
-        
         // Processar cada log em ordem cronológica
-        for (LogEntry log : logs) {
-            String userId = log.getUserId();
-            String sessionId = log.getSessionId();
-            String actionType = log.getActionType();
+        for (int i = 0; i < tabela.tamanho(); i++) {
+            String userId = tabela.getUserId(i);
+            String sessionId = tabela.getSessionId(i);
+            String actionType = tabela.getActionType(i);
             
             // Garantir que o usuário tenha uma pilha
             pilhasPorUsuario.putIfAbsent(userId, new Stack<>());
@@ -104,16 +127,23 @@ public class SolucaoForenseImpl implements AnaliseForenseAvancada {
     @Override
     public List<String> desafio2_reconstruirLinhaDoTempo(String caminhoArquivoCsv, 
                                                           String sessionId) throws IOException {
-        // Fila para manter a ordem cronológica (FIFO)
-        Queue<String> filaAcoes = new LinkedList<>();
-        
         // Ler todos os logs
         List<LogEntry> logs = CSVReader.lerTodosOsLogs(caminhoArquivoCsv);
         
+        return desafio2_reconstruirLinhaDoTempo(new TabelaLogsMemoria(logs), sessionId);
+    }
+
+    /**
+     * Desafio 2 sobre logs já carregados (em memória ou fora do heap)
+     */
+    public List<String> desafio2_reconstruirLinhaDoTempo(TabelaLogs tabela, String sessionId) {
+        // Fila para manter a ordem cronológica (FIFO)
+        Queue<String> filaAcoes = new LinkedList<>();
+        
         // Filtrar logs da sessão específica e adicionar à fila
-        for (LogEntry log : logs) {
-            if (sessionId.equals(log.getSessionId())) {
-                filaAcoes.offer(log.getActionType());
+        for (int i = 0; i < tabela.tamanho(); i++) {
+            if (sessionId.equals(tabela.getSessionId(i))) {
+                filaAcoes.offer(tabela.getActionType(i));
             }
         }
         
@@ -127,14 +157,16 @@ public class SolucaoForenseImpl implements AnaliseForenseAvancada {
     }
 
     /**
-     * Desafio 3: Priorizar Alertas usando PriorityQueue
+     * Desafio 3: Priorizar Alertas usando fila de prioridade (heap)
      * 
      * Algoritmo:
-     * 1. Cria PriorityQueue com comparador customizado (ordem decrescente de severidade)
-     * 2. Adiciona todos os alertas à fila de prioridade
-     * 3. Extrai os N primeiros elementos (maiores severidades)
+     * 1. Mantém um min-heap limitado a N com (severidade, índice da linha)
+     * 2. Cada linha só entra se for mais severa que o topo (a menos severa mantida)
+     * 3. Extrai as N linhas em ordem decrescente de severidade
+     * 4. Cria os objetos Alerta apenas para essas N linhas
      * 
-     * Complexidade: O(n log n) onde n é o número de linhas no log
+     * Complexidade: O(n log N) onde n é o número de linhas no log;
+     * memória extra O(N)
      */
     @Override
 public List<Alerta> desafio3_priorizarAlertas(String caminhoArquivoCsv, int n) throws IOException {
@@ -143,51 +175,35 @@ public List<Alerta> desafio3_priorizarAlertas(String caminhoArquivoCsv, int n) t
         return new ArrayList<>();
     }
 
-    // Wrapper para conseguir ordenar por severidade sem depender de campos da classe Alerta da API
-    class AlertaWrapper {
-        final Alerta alerta;
-        final int severidade;
-
-        AlertaWrapper(Alerta alerta, int severidade) {
-            this.alerta = alerta;
-            this.severidade = severidade;
-        }
-    }
-
-    // PriorityQueue em ordem decrescente de severidade
-    PriorityQueue<AlertaWrapper> filaPrioridade = new PriorityQueue<>(
-        (w1, w2) -> Integer.compare(w2.severidade, w1.severidade)
-    );
-
     // Ler todos os logs
     List<LogEntry> logs = CSVReader.lerTodosOsLogs(caminhoArquivoCsv);
 
-    for (LogEntry log : logs) {
-        int severity = log.getSeverityLevel();
+    // Logs muito grandes: heaps limitados por bloco em paralelo
+    if (logs.size() >= LIMIAR_PARALELO_ALERTAS) {
+        return PriorizacaoParalela.priorizar(logs, n);
+    }
 
-        // Criar o Alerta usando o construtor da API:
-        // (timestamp, userId, sessionId, actionType, targetResource, severityLevel, bytesTransferred)
-        Alerta alerta = new Alerta(
-            log.getTimestamp(),
-            log.getUserId(),
-            log.getSessionId(),
-            log.getActionType(),
-            log.getTargetResource(),
-            severity,
-            log.getBytesTransferred()
-        );
+    return desafio3_priorizarAlertas(new TabelaLogsMemoria(logs), n);
+}
 
-        filaPrioridade.offer(new AlertaWrapper(alerta, severity));
-    }
+    /**
+     * Desafio 3 sobre logs já carregados (em memória ou fora do heap)
+     */
+    public List<Alerta> desafio3_priorizarAlertas(TabelaLogs tabela, int n) {
+        if (n <= 0) {
+            return new ArrayList<>();
+        }
 
-    // Extrair os N alertas mais severos
-    List<Alerta> alertasPrioritarios = new ArrayList<>();
-    while (!filaPrioridade.isEmpty() && alertasPrioritarios.size() < n) {
-        alertasPrioritarios.add(filaPrioridade.poll().alerta);
-    }
+        // Min-heap limitado a N sobre o índice de cada linha (sem criar Alertas ainda):
+        // o topo é o menos severo entre os N mantidos
+        HeapLimitado heap = new HeapLimitado(n, Math.min(n, tabela.tamanho()));
+        for (int i = 0; i < tabela.tamanho(); i++) {
+            heap.oferecer(tabela.getSeverityLevel(i), i);
+        }
 
-    return alertasPrioritarios;
-}
+        // Criar os Alertas só para as N linhas selecionadas, da mais severa para a menos severa
+        return PriorizacaoParalela.materializar(tabela, heap.extrairOrdenado());
+    }
 
     /**
      * Desafio 4: Encontrar Picos de Transferência usando Stack Monotônica
@@ -201,32 +217,39 @@ public List<Alerta> desafio3_priorizarAlertas(String caminhoArquivoCsv, int n) t
      */
     @Override
     public Map<Long, Long> desafio4_encontrarPicosDeTransferencia(String caminhoArquivoCsv) throws IOException {
-        Map<Long, Long> resultado = new HashMap<>();
-        
         // Ler todos os logs
         List<LogEntry> logs = CSVReader.lerTodosOsLogs(caminhoArquivoCsv);
         
+        return desafio4_encontrarPicosDeTransferencia(new TabelaLogsMemoria(logs));
+    }
+
+    /**
+     * Desafio 4 sobre logs já carregados (em memória ou fora do heap)
+     */
+    public Map<Long, Long> desafio4_encontrarPicosDeTransferencia(TabelaLogs tabela) {
+        Map<Long, Long> resultado = new HashMap<>();
+        
         // Stack para implementar o algoritmo "Next Greater Element"
-        // Armazena pares (timestamp, bytes)
-        Stack<LogEntry> stack = new Stack<>();
+        // Armazena os índices das linhas (array primitivo)
+        int[] stack = new int[tabela.tamanho()];
+        int topo = 0;
         
         // Processar em ordem REVERSA (do fim para o início)
-        for (int i = logs.size() - 1; i >= 0; i--) {
-            LogEntry eventoAtual = logs.get(i);
+        for (int i = tabela.tamanho() - 1; i >= 0; i--) {
+            long bytesAtual = tabela.getBytesTransferred(i);
             
             // Remover da pilha todos os eventos com bytes <= ao atual
-            while (!stack.isEmpty() && 
-                   stack.peek().getBytesTransferred() <= eventoAtual.getBytesTransferred()) {
-                stack.pop();
+            while (topo > 0 && tabela.getBytesTransferred(stack[topo - 1]) <= bytesAtual) {
+                topo--;
             }
             
             // Se a pilha não está vazia, o topo é o "próximo maior"
-            if (!stack.isEmpty()) {
-                resultado.put(eventoAtual.getTimestamp(), stack.peek().getTimestamp());
+            if (topo > 0) {
+                resultado.put(tabela.getTimestamp(i), tabela.getTimestamp(stack[topo - 1]));
             }
             
             // Empilhar o evento atual
-            stack.push(eventoAtual);
+            stack[topo++] = i;
         }
         
         return resultado;
@@ -241,16 +264,42 @@ public List<Alerta> desafio3_priorizarAlertas(String caminhoArquivoCsv, int n) t
      * 3. Reconstruir caminho usando mapa de predecessores
      * 
      * Complexidade: O(V + E) onde V é o número de recursos e E é o número de arestas
+     * 
+     * Logs muito grandes usam o grafo CSR com BFS paralela por níveis
+     * (mesmo número de saltos no caminho retornado). Com a propriedade
+     * forense.grafo.persistente ativa, o grafo CSR é gravado ao lado do CSV
+     * (ou do diretório/glob) e reaproveitado nas chamadas seguintes enquanto
+     * nenhum dos arquivos de log mudar.
      */
     @Override
     public Optional<List<String>> desafio5_rastrearContaminacao(String caminhoArquivoCsv,
                                                                  String recursoInicial,
                                                                  String recursoAlvo) throws IOException {
+        if (Boolean.getBoolean(PROPRIEDADE_GRAFO_PERSISTENTE)) {
+            GrafoRecursos grafo = GrafoPersistente.carregarOuConstruir(caminhoArquivoCsv);
+            return desafio5_rastrearContaminacao(grafo, recursoInicial, recursoAlvo);
+        }
+        
         // Ler todos os logs
         List<LogEntry> logs = CSVReader.lerTodosOsLogs(caminhoArquivoCsv);
         
+        return desafio5_rastrearContaminacao(new TabelaLogsMemoria(logs), recursoInicial, recursoAlvo);
+    }
+
+    /**
+     * Desafio 5 sobre logs já carregados (em memória ou fora do heap).
+     * Tabelas fora do heap e tabelas grandes usam o grafo CSR, montado pelos
+     * acessores da tabela com arrays primitivos: o grafo com Map guardaria
+     * objetos por linha no heap.
+     */
+    public Optional<List<String>> desafio5_rastrearContaminacao(TabelaLogs tabela, String recursoInicial,
+                                                                 String recursoAlvo) {
+        if (!(tabela instanceof TabelaLogsMemoria) || tabela.tamanho() >= LIMIAR_PARALELO_GRAFO) {
+            return desafio5_rastrearContaminacao(GrafoRecursos.construir(tabela), recursoInicial, recursoAlvo);
+        }
+        
         // FASE 1: Construir o grafo de acessos
-        Map<String, List<String>> grafo = construirGrafo(logs);
+        Map<String, List<String>> grafo = construirGrafo(tabela);
         
         // Verificar se os recursos existem no grafo
         if (!grafo.containsKey(recursoInicial)) {
@@ -304,29 +353,45 @@ public List<Alerta> desafio3_priorizarAlertas(String caminhoArquivoCsv, int n) t
         return Optional.of(caminho);
     }
 
+    /**
+     * Desafio 5 sobre um grafo CSR já montado, com BFS paralela por níveis.
+     * Mantém o contrato da versão com Map: o recurso inicial precisa ter
+     * arestas de saída para ser considerado presente no grafo.
+     */
+    public Optional<List<String>> desafio5_rastrearContaminacao(GrafoRecursos grafo, String recursoInicial,
+                                                                 String recursoAlvo) {
+        int inicial = grafo.getDicionario().id(recursoInicial);
+        if (inicial < 0 || grafo.grauSaida(inicial) == 0) {
+            return Optional.empty();
+        }
+        if (recursoInicial.equals(recursoAlvo)) {
+            return Optional.of(Collections.singletonList(recursoInicial));
+        }
+        return BuscaLarguraParalela.rastrear(grafo, recursoInicial, recursoAlvo);
+    }
+
     /**
      * Método auxiliar: Constrói o grafo de acessos a partir dos logs
      * Agrupa por sessão e cria arestas entre recursos acessados consecutivamente
      */
-    private Map<String, List<String>> construirGrafo(List<LogEntry> logs) {
+    private Map<String, List<String>> construirGrafo(TabelaLogs tabela) {
         Map<String, List<String>> grafo = new HashMap<>();
         
-        // Agrupar logs por SESSION_ID
-        Map<String, List<LogEntry>> logsPorSessao = new HashMap<>();
-        for (LogEntry log : logs) {
-            logsPorSessao.putIfAbsent(log.getSessionId(), new ArrayList<>());
-            logsPorSessao.get(log.getSessionId()).add(log);
+        // Agrupar linhas por SESSION_ID
+        Map<String, List<Integer>> linhasPorSessao = new HashMap<>();
+        for (int linha = 0; linha < tabela.tamanho(); linha++) {
+            linhasPorSessao.computeIfAbsent(tabela.getSessionId(linha), s -> new ArrayList<>()).add(linha);
         }
         
         // Para cada sessão, criar arestas entre recursos consecutivos
-        for (List<LogEntry> sessao : logsPorSessao.values()) {
+        for (List<Integer> sessao : linhasPorSessao.values()) {
             // Ordenar por timestamp (já deve estar ordenado, mas garantir)
-            sessao.sort(Comparator.comparingLong(LogEntry::getTimestamp));
+            sessao.sort(Comparator.comparingLong(tabela::getTimestamp));
             
             // Criar arestas entre recursos consecutivos
             for (int i = 0; i < sessao.size() - 1; i++) {
-                String recursoOrigem = sessao.get(i).getTargetResource();
-                String recursoDestino = sessao.get(i + 1).getTargetResource();
+                String recursoOrigem = tabela.getTargetResource(sessao.get(i));
+                String recursoDestino = tabela.getTargetResource(sessao.get(i + 1));
                 
                 grafo.putIfAbsent(recursoOrigem, new ArrayList<>());
                 // Evitar duplicatas
@@ -0,0 +1,43 @@
+package br.edu.icev.aed.forense.util;
+
+import br.edu.icev.aed.forense.LogEntry;
+
+/**
+ * Acesso por índice de linha aos campos de um log carregado.
+ *
+ * Permite que os algoritmos dos desafios rodem tanto sobre a lista de
+ * LogEntry (TabelaLogsMemoria) quanto sobre armazenamento fora do heap
+ * (TabelaLogsOffHeap), sem depender de um objeto por linha.
+ *
+ * As linhas seguem a ordem do arquivo (0 .. tamanho() - 1).
+ */
+public interface TabelaLogs {
+
+    /**
+     * Número de linhas
+     */
+    int tamanho();
+
+    long getTimestamp(int linha);
+
+    String getUserId(int linha);
+
+    String getSessionId(int linha);
+
+    String getActionType(int linha);
+
+    String getTargetResource(int linha);
+
+    int getSeverityLevel(int linha);
+
+    long getBytesTransferred(int linha);
+
+    /**
+     * Cria um LogEntry com os campos da linha
+     */
+    default LogEntry entrada(int linha) {
+        return new LogEntry(getTimestamp(linha), getUserId(linha), getSessionId(linha),
+                            getActionType(linha), getTargetResource(linha),
+                            getSeverityLevel(linha), getBytesTransferred(linha));
+    }
+}
@@ -0,0 +1,69 @@
+package br.edu.icev.aed.forense.util;
+
+import br.edu.icev.aed.forense.LogEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * TabelaLogs sobre uma lista de LogEntry já carregada no heap
+ * (o formato devolvido por CSVReader.lerTodosOsLogs).
+ */
+public class TabelaLogsMemoria implements TabelaLogs {
+
+    private final List<LogEntry> logs;
+
+    /**
+     * @param logs Logs em ordem do arquivo; copiados para um ArrayList se a
+     *             lista não tiver acesso aleatório eficiente
+     */
+    public TabelaLogsMemoria(List<LogEntry> logs) {
+        this.logs = logs instanceof RandomAccess ? logs : new ArrayList<>(logs);
+    }
+
+    @Override
+    public int tamanho() {
+        return logs.size();
+    }
+
+    @Override
+    public long getTimestamp(int linha) {
+        return logs.get(linha).getTimestamp();
+    }
+
+    @Override
+    public String getUserId(int linha) {
+        return logs.get(linha).getUserId();
+    }
+
+    @Override
+    public String getSessionId(int linha) {
+        return logs.get(linha).getSessionId();
+    }
+
+    @Override
+    public String getActionType(int linha) {
+        return logs.get(linha).getActionType();
+    }
+
+    @Override
+    public String getTargetResource(int linha) {
+        return logs.get(linha).getTargetResource();
+    }
+
+    @Override
+    public int getSeverityLevel(int linha) {
+        return logs.get(linha).getSeverityLevel();
+    }
+
+    @Override
+    public long getBytesTransferred(int linha) {
+        return logs.get(linha).getBytesTransferred();
+    }
+
+    @Override
+    public LogEntry entrada(int linha) {
+        return logs.get(linha);
+    }
+}
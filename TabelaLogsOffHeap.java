@@ -0,0 +1,278 @@
+package br.edu.icev.aed.forense.util;
+
+import br.edu.icev.aed.forense.LogEntry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * TabelaLogs com os dados fora do heap do Java, para logs de vários GB.
+ *
+ * Em vez de um LogEntry (e sete referências) por linha, os campos ficam em
+ * ByteBuffers diretos:
+ * - Colunas numéricas de largura fixa, em blocos de LINHAS_POR_BLOCO linhas.
+ *   Cada bloco é um único buffer com uma região por coluna:
+ *   timestamp (long), bytes (long), severidade (int) e os ids de texto (int)
+ *   de usuário, sessão, ação e recurso
+ * - Arena de textos: registros (int tamanho + bytes UTF-8) e as linhas
+ *   guardam só o seu id. Usuário, ação e recurso (poucos valores distintos)
+ *   são gravados uma única vez; sessões (da ordem do número de linhas em
+ *   logs grandes) são gravadas sem deduplicação, salvo a repetição da
+ *   sessão da linha anterior, para que o mapa no heap não cresça com o log
+ *
+ * No heap ficam apenas os objetos dos buffers, o mapa de deduplicação dos
+ * textos de poucos valores durante a carga (descartado em finalizarCarga) e
+ * um pequeno cache de textos decodificados. A memória direta é limitada por
+ * -XX:MaxDirectMemorySize.
+ *
+ * Uso: carregar(caminho) ou adicionar(...) seguido de finalizarCarga().
+ * Depois de finalizada, a tabela é somente leitura e pode ser lida por várias
+ * threads ao mesmo tempo.
+ *
+ * USO OPCIONAL: Para logs grandes demais para caber no heap como LogEntry.
+ */
+public class TabelaLogsOffHeap implements TabelaLogs {
+
+    private static final int BITS_BLOCO = 16;
+    private static final int LINHAS_POR_BLOCO = 1 << BITS_BLOCO;
+    private static final int MASCARA_BLOCO = LINHAS_POR_BLOCO - 1;
+
+    // Região de cada coluna dentro do bloco
+    private static final int COLUNA_TIMESTAMP = 0;
+    private static final int COLUNA_BYTES = 8 * LINHAS_POR_BLOCO;
+    private static final int COLUNA_SEVERIDADE = 16 * LINHAS_POR_BLOCO;
+    private static final int COLUNA_USUARIO = 20 * LINHAS_POR_BLOCO;
+    private static final int COLUNA_SESSAO = 24 * LINHAS_POR_BLOCO;
+    private static final int COLUNA_ACAO = 28 * LINHAS_POR_BLOCO;
+    private static final int COLUNA_RECURSO = 32 * LINHAS_POR_BLOCO;
+    private static final int BYTES_POR_BLOCO = 36 * LINHAS_POR_BLOCO;
+
+    private final List<ByteBuffer> blocos = new ArrayList<>();
+    private final ArenaTextos textos = new ArenaTextos();
+    private int tamanho;
+
+    /**
+     * Lê o arquivo CSV direto para a tabela, sem montar a lista de LogEntry.
+     *
+     * @param caminhoArquivoCsv Caminho para o arquivo de logs
+     * @return Tabela finalizada
+     * @throws IOException Se houver erro na leitura do arquivo
+     */
+    public static TabelaLogsOffHeap carregar(String caminhoArquivoCsv) throws IOException {
+        TabelaLogsOffHeap tabela = new TabelaLogsOffHeap();
+        CSVReader.lerLogs(caminhoArquivoCsv, tabela::adicionar);
+        tabela.finalizarCarga();
+        return tabela;
+    }
+
+    /**
+     * Acrescenta uma linha ao final da tabela
+     */
+    public void adicionar(LogEntry log) {
+        adicionar(log.getTimestamp(), log.getUserId(), log.getSessionId(), log.getActionType(),
+                  log.getTargetResource(), log.getSeverityLevel(), log.getBytesTransferred());
+    }
+
+    /**
+     * Acrescenta uma linha ao final da tabela
+     */
+    public void adicionar(long timestamp, String userId, String sessionId, String actionType,
+                          String targetResource, int severityLevel, long bytesTransferred) {
+        int posicao = tamanho & MASCARA_BLOCO;
+        if (posicao == 0) {
+            blocos.add(ByteBuffer.allocateDirect(BYTES_POR_BLOCO));
+        }
+        ByteBuffer bloco = blocos.get(blocos.size() - 1);
+
+        bloco.putLong(COLUNA_TIMESTAMP + 8 * posicao, timestamp);
+        bloco.putLong(COLUNA_BYTES + 8 * posicao, bytesTransferred);
+        bloco.putInt(COLUNA_SEVERIDADE + 4 * posicao, severityLevel);
+        bloco.putInt(COLUNA_USUARIO + 4 * posicao, textos.adicionar(userId));
+        bloco.putInt(COLUNA_SESSAO + 4 * posicao, textos.acrescentar(sessionId));
+        bloco.putInt(COLUNA_ACAO + 4 * posicao, textos.adicionar(actionType));
+        bloco.putInt(COLUNA_RECURSO + 4 * posicao, textos.adicionar(targetResource));
+        tamanho++;
+    }
+
+    /**
+     * Encerra a carga e libera o mapa de deduplicação de textos
+     */
+    public void finalizarCarga() {
+        textos.finalizarCarga();
+    }
+
+    /**
+     * Número de textos na arena (sessões podem aparecer mais de uma vez)
+     */
+    public int textosDistintos() {
+        return textos.tamanho();
+    }
+
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
+
+    @Override
+    public long getTimestamp(int linha) {
+        return bloco(linha).getLong(COLUNA_TIMESTAMP + 8 * (linha & MASCARA_BLOCO));
+    }
+
+    @Override
+    public String getUserId(int linha) {
+        return textos.texto(bloco(linha).getInt(COLUNA_USUARIO + 4 * (linha & MASCARA_BLOCO)));
+    }
+
+    @Override
+    public String getSessionId(int linha) {
+        return textos.texto(bloco(linha).getInt(COLUNA_SESSAO + 4 * (linha & MASCARA_BLOCO)));
+    }
+
+    @Override
+    public String getActionType(int linha) {
+        return textos.texto(bloco(linha).getInt(COLUNA_ACAO + 4 * (linha & MASCARA_BLOCO)));
+    }
+
+    @Override
+    public String getTargetResource(int linha) {
+        return textos.texto(bloco(linha).getInt(COLUNA_RECURSO + 4 * (linha & MASCARA_BLOCO)));
+    }
+
+    @Override
+    public int getSeverityLevel(int linha) {
+        return bloco(linha).getInt(COLUNA_SEVERIDADE + 4 * (linha & MASCARA_BLOCO));
+    }
+
+    @Override
+    public long getBytesTransferred(int linha) {
+        return bloco(linha).getLong(COLUNA_BYTES + 8 * (linha & MASCARA_BLOCO));
+    }
+
+    private ByteBuffer bloco(int linha) {
+        if (linha < 0 || linha >= tamanho) {
+            throw new IndexOutOfBoundsException("Linha " + linha + " fora de 0.." + (tamanho - 1));
+        }
+        return blocos.get(linha >>> BITS_BLOCO);
+    }
+
+    /**
+     * Textos distintos gravados fora do heap, endereçados por id.
+     *
+     * - dados: blocos de BYTES_ARENA com registros (int tamanho + bytes UTF-8)
+     * - enderecos: para cada id, (bloco << 32 | deslocamento) do registro
+     */
+    private static final class ArenaTextos {
+        private static final int BYTES_ARENA = 1 << 20;
+        private static final int BITS_ENDERECOS = 16;
+        private static final int IDS_POR_BLOCO = 1 << BITS_ENDERECOS;
+        private static final int TAMANHO_CACHE = 1 << 12;
+
+        private final List<ByteBuffer> dados = new ArrayList<>();
+        private final List<ByteBuffer> enderecos = new ArrayList<>();
+        private int tamanho;
+
+        // Apenas durante a carga
+        private Map<String, Integer> idPorTexto = new HashMap<>();
+        private String ultimoAcrescentado;
+        private int idUltimoAcrescentado;
+
+        // Cache direto (id & máscara) de textos já decodificados
+        private final AtomicReferenceArray<Decodificado> cache = new AtomicReferenceArray<>(TAMANHO_CACHE);
+
+        private static final class Decodificado {
+            final int id;
+            final String texto;
+
+            Decodificado(int id, String texto) {
+                this.id = id;
+                this.texto = texto;
+            }
+        }
+
+        int tamanho() {
+            return tamanho;
+        }
+
+        /**
+         * Id do texto, gravando-o só se ainda não estiver na arena.
+         * Para colunas de poucos valores distintos.
+         */
+        int adicionar(String texto) {
+            verificarCarga();
+            Integer existente = idPorTexto.get(texto);
+            if (existente != null) {
+                return existente;
+            }
+            int id = gravar(texto);
+            idPorTexto.put(texto, id);
+            return id;
+        }
+
+        /**
+         * Grava o texto sem consultar o mapa (nada fica no heap), reaproveitando
+         * só o id do último texto acrescentado se for igual.
+         * Para colunas de muitos valores distintos.
+         */
+        int acrescentar(String texto) {
+            verificarCarga();
+            if (!texto.equals(ultimoAcrescentado)) {
+                idUltimoAcrescentado = gravar(texto);
+                ultimoAcrescentado = texto;
+            }
+            return idUltimoAcrescentado;
+        }
+
+        private void verificarCarga() {
+            if (idPorTexto == null) {
+                throw new IllegalStateException("Carga da tabela já finalizada");
+            }
+        }
+
+        private int gravar(String texto) {
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer atual = dados.isEmpty() ? null : dados.get(dados.size() - 1);
+            if (atual == null || atual.remaining() < 4 + bytes.length) {
+                atual = ByteBuffer.allocateDirect(Math.max(BYTES_ARENA, 4 + bytes.length));
+                dados.add(atual);
+            }
+            long endereco = ((long) (dados.size() - 1) << 32) | atual.position();
+            atual.putInt(bytes.length).put(bytes);
+
+            int id = tamanho++;
+            if ((id & (IDS_POR_BLOCO - 1)) == 0) {
+                enderecos.add(ByteBuffer.allocateDirect(8 * IDS_POR_BLOCO));
+            }
+            enderecos.get(id >>> BITS_ENDERECOS).putLong(8 * (id & (IDS_POR_BLOCO - 1)), endereco);
+            return id;
+        }
+
+        void finalizarCarga() {
+            idPorTexto = null;
+            ultimoAcrescentado = null;
+        }
+
+        String texto(int id) {
+            int posicaoCache = id & (TAMANHO_CACHE - 1);
+            Decodificado emCache = cache.get(posicaoCache);
+            if (emCache != null && emCache.id == id) {
+                return emCache.texto;
+            }
+
+            long endereco = enderecos.get(id >>> BITS_ENDERECOS).getLong(8 * (id & (IDS_POR_BLOCO - 1)));
+            ByteBuffer bloco = dados.get((int) (endereco >>> 32));
+            int deslocamento = (int) endereco;
+            int tamanhoTexto = bloco.getInt(deslocamento);
+            byte[] bytes = new byte[tamanhoTexto];
+            ByteBuffer leitura = bloco.duplicate();
+            leitura.position(deslocamento + 4);
+            leitura.get(bytes);
+
+            String texto = new String(bytes, StandardCharsets.UTF_8);
+            cache.set(posicaoCache, new Decodificado(id, texto));
+            return texto;
+        }
+    }
+}
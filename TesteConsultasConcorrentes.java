@@ -0,0 +1,442 @@
+package br.edu.icev.aed.forense.test;
+
+import br.edu.icev.aed.forense.Alerta;
+import br.edu.icev.aed.forense.SolucaoForenseImpl;
+import br.edu.icev.aed.forense.extended.AnaliseComCache;
+import br.edu.icev.aed.forense.extended.DatasetForense;
+import br.edu.icev.aed.forense.extended.ServidorConsultas;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bateria de testes das consultas concorrentes sobre logs carregados uma vez.
+ *
+ * Esta classe testa:
+ * - Servidor HTTP local com os mesmos resultados da SolucaoForenseImpl
+ * - Carga única e coalescência de consultas idênticas simultâneas
+ * - DatasetForense compartilhado entre threads com os mesmos resultados dos desafios
+ * - Cache LRU de resultados limitado por bytes, invalidado quando o arquivo muda
+ */
+public class TesteConsultasConcorrentes {
+
+    private static final SolucaoForenseImpl solucao = new SolucaoForenseImpl();
+    private static int testesPassados = 0;
+    private static int testesFalhados = 0;
+
+    private static final String CABECALHO =
+        "TIMESTAMP,USER_ID,SESSION_ID,ACTION_TYPE,TARGET_RESOURCE,SEVERITY_LEVEL,BYTES_TRANSFERRED\n";
+
+    private static final String[] ACOES = {"LOGIN", "LOGOUT", "FILE_ACCESS", "DATA_TRANSFER"};
+
+    public static void main(String[] args) {
+        System.out.println("╔════════════════════════════════════════════════════════════╗");
+        System.out.println("║        BATERIA DE TESTES - CONSULTAS CONCORRENTES         ║");
+        System.out.println("╚════════════════════════════════════════════════════════════╝\n");
+
+        try {
+            // Servidor de consultas
+            testarServidorHttp();
+            testarCargaUnicaECoalescencia();
+
+            // Dataset imutável compartilhado
+            testarDatasetConcorrente();
+
+            // Cache de resultados
+            testarCacheAcertosEInvalidacao();
+            testarCacheRemocaoPorTamanho();
+            testarCacheDiretorioEGlob();
+            testarServidorDiretorioERemocao();
+
+            // Resumo
+            imprimirResumo();
+
+        } catch (Exception e) {
+            System.err.println("ERRO FATAL: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // ===== SERVIDOR DE CONSULTAS =====
+
+    private static void testarServidorHttp() throws Exception {
+        System.out.println("🧪 Teste 1: Endpoints HTTP Iguais aos Desafios");
+
+        String arquivo = criarArquivoTeste("teste1.csv", gerarLogs(2_000, 1));
+        ServidorConsultas servidor = ServidorConsultas.iniciar(0);
+        try {
+            String base = "http://localhost:" + servidor.getPorta() + "/";
+            String parametroArquivo = "arquivo=" + codificar(arquivo);
+
+            List<String> linhaTempo = solucao.desafio2_reconstruirLinhaDoTempo(arquivo, "sessão-7");
+            String respostaLinhaTempo = requisitar(base + "linha-do-tempo?" + parametroArquivo +
+                                                   "&sessao=" + codificar("sessão-7"));
+
+            Optional<List<String>> caminho = solucao.desafio5_rastrearContaminacao(arquivo, "/dados/r1", "/dados/r2");
+            String respostaCaminho = requisitar(base + "caminho?" + parametroArquivo +
+                                                "&inicial=" + codificar("/dados/r1") + "&alvo=" + codificar("/dados/r2"));
+            String semCaminho = requisitar(base + "caminho?" + parametroArquivo +
+                                           "&inicial=" + codificar("/dados/r1") + "&alvo=inexistente");
+            String semParametro = requisitar(base + "linha-do-tempo?" + parametroArquivo);
+
+            boolean passou = respostaLinhaTempo.equals("200:" + juntar(linhaTempo)) &&
+                            caminho.isPresent() &&
+                            mesmoTamanhoEExtremos(respostaCaminho, caminho.get()) &&
+                            semCaminho.startsWith("404:") &&
+                            semParametro.startsWith("400:") &&
+                            servidor.getCargas() == 1;
+
+            verificar("Respostas devem coincidir com os desafios (com 404 e 400)", passou,
+                     respostaCaminho + " / " + semCaminho + " / " + semParametro);
+        } finally {
+            servidor.parar();
+        }
+    }
+
+    private static void testarCargaUnicaECoalescencia() throws Exception {
+        System.out.println("🧪 Teste 2: Carga Única com 64 Consultas Simultâneas");
+
+        String arquivo = criarArquivoTeste("teste2.csv", gerarLogs(50_000, 2));
+        List<String> esperado = solucao.desafio2_reconstruirLinhaDoTempo(arquivo, "sessão-3");
+
+        ServidorConsultas servidor = ServidorConsultas.iniciar(0);
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<String>> respostas = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                respostas.add(pool.submit(() -> {
+                    largada.await();
+                    return servidor.consultar("linha-do-tempo", Map.of("arquivo", arquivo, "sessao", "sessão-3"));
+                }));
+            }
+            largada.countDown();
+
+            boolean iguais = true;
+            for (Future<String> resposta : respostas) {
+                iguais &= resposta.get().equals(juntar(esperado));
+            }
+            boolean cargaUnica = servidor.getCargas() == 1;
+
+            // Arquivo alterado: a próxima consulta recarrega
+            Files.writeString(Path.of(arquivo), gerarLogs(100, 3));
+            List<String> novo = solucao.desafio2_reconstruirLinhaDoTempo(arquivo, "sessão-3");
+            boolean recarregou = servidor.consultar("linha-do-tempo", Map.of("arquivo", arquivo, "sessao", "sessão-3"))
+                                         .equals(juntar(novo)) && servidor.getCargas() == 2;
+
+            verificar("Arquivo deve ser lido uma vez e recarregado ao mudar",
+                     iguais && cargaUnica && recarregou,
+                     iguais + "/" + servidor.getCargas() + "/" + servidor.getCoalescidas());
+        } finally {
+            pool.shutdownNow();
+            servidor.parar();
+        }
+    }
+
+    // ===== DATASET COMPARTILHADO =====
+
+    private static void testarDatasetConcorrente() throws Exception {
+        System.out.println("🧪 Teste 3: Dataset Compartilhado por 16 Threads");
+
+        String arquivo = criarArquivoTeste("teste3.csv", gerarLogs(20_000, 4));
+        DatasetForense dataset = DatasetForense.carregar(arquivo);
+
+        // Resultados de referência pelos desafios
+        Set<String> invalidas = solucao.desafio1_encontrarSessoesInvalidas(arquivo);
+        Map<Long, Long> picos = solucao.desafio4_encontrarPicosDeTransferencia(arquivo);
+        List<Integer> severidades = severidades(solucao.desafio3_priorizarAlertas(arquivo, 25));
+        List<List<String>> linhasTempo = new ArrayList<>();
+        List<Optional<List<String>>> caminhos = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            linhasTempo.add(solucao.desafio2_reconstruirLinhaDoTempo(arquivo, "sessão-" + i));
+            caminhos.add(solucao.desafio5_rastrearContaminacao(arquivo, "/dados/r" + i, "/dados/r" + (59 - i)));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Boolean>> resultados = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                resultados.add(pool.submit(() -> {
+                    boolean ok = dataset.sessoesInvalidas().equals(invalidas) &&
+                                 dataset.picosDeTransferencia().equals(picos) &&
+                                 severidades(dataset.alertas(25)).equals(severidades);
+                    for (int i = 0; i < 20; i++) {
+                        ok &= dataset.linhaDoTempo("sessão-" + i).equals(linhasTempo.get(i));
+                        Optional<List<String>> caminho = dataset.caminho("/dados/r" + i, "/dados/r" + (59 - i));
+                        ok &= caminho.isPresent() == caminhos.get(i).isPresent() &&
+                              (!caminho.isPresent() || caminho.get().size() == caminhos.get(i).get().size());
+                    }
+                    return ok;
+                }));
+            }
+
+            boolean passou = true;
+            for (Future<Boolean> resultado : resultados) {
+                passou &= resultado.get();
+            }
+
+            // Resultados compartilhados não podem ser alterados pelos chamadores
+            boolean imutavel;
+            try {
+                dataset.linhaDoTempo("sessão-0").clear();
+                imutavel = false;
+            } catch (UnsupportedOperationException e) {
+                imutavel = true;
+            }
+
+            verificar("Todas as threads devem ver os resultados dos desafios", passou && imutavel,
+                     passou + "/" + imutavel);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // ===== CACHE DE RESULTADOS =====
+
+    private static void testarCacheAcertosEInvalidacao() throws Exception {
+        System.out.println("🧪 Teste 4: Cache com Acertos e Invalidação");
+
+        String arquivo = criarArquivoTeste("teste4.csv", gerarLogs(5_000, 5));
+        AnaliseComCache cache = new AnaliseComCache();
+
+        List<String> primeira = cache.desafio2_reconstruirLinhaDoTempo(arquivo, "sessão-1");
+        primeira.clear(); // Alterar o resultado recebido não pode afetar o cache
+        List<String> segunda = cache.desafio2_reconstruirLinhaDoTempo(arquivo, "sessão-1");
+        List<Alerta> alertas = cache.desafio3_priorizarAlertas(arquivo, 5);
+        alertas.get(0).setSeverityLevel(-1);
+        List<Alerta> alertasDeNovo = cache.desafio3_priorizarAlertas(arquivo, 5);
+        Optional<List<String>> caminho = cache.desafio5_rastrearContaminacao(arquivo, "/dados/r1", "/dados/r2");
+        Optional<List<String>> caminhoDeNovo = cache.desafio5_rastrearContaminacao(arquivo, "/dados/r1", "/dados/r2");
+
+        boolean acertou = segunda.equals(solucao.desafio2_reconstruirLinhaDoTempo(arquivo, "sessão-1")) &&
+                          !segunda.isEmpty() &&
+                          severidades(alertasDeNovo).equals(severidades(solucao.desafio3_priorizarAlertas(arquivo, 5))) &&
+                          caminho.equals(caminhoDeNovo) &&
+                          cache.getFalhas() == 3 && cache.getAcertos() == 3;
+
+        // Arquivo alterado: as entradas antigas somem e a consulta é recalculada
+        Files.writeString(Path.of(arquivo), gerarLogs(200, 6));
+        List<String> aposMudanca = cache.desafio2_reconstruirLinhaDoTempo(arquivo, "sessão-1");
+        boolean invalidou = aposMudanca.equals(solucao.desafio2_reconstruirLinhaDoTempo(arquivo, "sessão-1")) &&
+                            cache.getInvalidacoes() == 3 && cache.getFalhas() == 4 && cache.getEntradas() == 1;
+
+        verificar("Consultas repetidas devem vir do cache até o arquivo mudar", acertou && invalidou,
+                 cache.getAcertos() + "/" + cache.getFalhas() + "/" + cache.getInvalidacoes());
+    }
+
+    private static void testarCacheRemocaoPorTamanho() throws Exception {
+        System.out.println("🧪 Teste 5: Remoção LRU por Tamanho em Bytes");
+
+        String arquivo = criarArquivoTeste("teste5.csv", gerarLogs(5_000, 7));
+        AnaliseComCache cache = new AnaliseComCache(solucao, 16 << 10);
+
+        for (int i = 0; i < 100; i++) {
+            cache.desafio2_reconstruirLinhaDoTempo(arquivo, "sessão-" + i);
+        }
+        boolean limitado = cache.getBytesEmUso() <= (16 << 10) && cache.getRemocoes() > 0 &&
+                           cache.getEntradas() + cache.getRemocoes() == 100;
+
+        // A mais recente continua no cache; a primeira foi removida
+        long acertosAntes = cache.getAcertos();
+        cache.desafio2_reconstruirLinhaDoTempo(arquivo, "sessão-99");
+        boolean recenteFicou = cache.getAcertos() == acertosAntes + 1;
+        cache.desafio2_reconstruirLinhaDoTempo(arquivo, "sessão-0");
+        boolean antigaSaiu = cache.getAcertos() == acertosAntes + 1;
+
+        verificar("Cache deve respeitar o limite removendo as menos usadas",
+                 limitado && recenteFicou && antigaSaiu,
+                 cache.getBytesEmUso() + " bytes, " + cache.getEntradas() + " entradas, " +
+                 cache.getRemocoes() + " remoções");
+    }
+
+    private static void testarCacheDiretorioEGlob() throws Exception {
+        System.out.println("🧪 Teste 6: Cache de Diretórios e Globs");
+
+        Path primeiro = Path.of(criarArquivoTeste("teste6-a.csv", gerarLogs(2_000, 8)));
+        Path diretorio = primeiro.getParent();
+        Path segundo = diretorio.resolve("teste6-b.csv");
+        Files.writeString(segundo, gerarLogs(2_000, 9));
+        String glob = diretorio.resolve("teste6-*.csv").toString();
+        AnaliseComCache cache = new AnaliseComCache();
+
+        cache.desafio2_reconstruirLinhaDoTempo(diretorio.toString(), "sessão-1");
+        cache.desafio2_reconstruirLinhaDoTempo(glob, "sessão-1");
+        cache.desafio2_reconstruirLinhaDoTempo(diretorio.toString(), "sessão-1");
+        cache.desafio2_reconstruirLinhaDoTempo(glob, "sessão-1");
+        boolean acertou = cache.getAcertos() == 2 && cache.getFalhas() == 2;
+
+        // Um arquivo de dentro recebe uma linha: o diretório em si não muda
+        Files.writeString(segundo, "99999,usuário-1,sessão-1,LOGOUT,/dados/r1,1,0\n", StandardOpenOption.APPEND);
+        List<String> esperado = solucao.desafio2_reconstruirLinhaDoTempo(diretorio.toString(), "sessão-1");
+        boolean invalidou = cache.desafio2_reconstruirLinhaDoTempo(diretorio.toString(), "sessão-1").equals(esperado) &&
+                            cache.desafio2_reconstruirLinhaDoTempo(glob, "sessão-1").equals(esperado) &&
+                            esperado.get(esperado.size() - 1).equals("LOGOUT") &&
+                            cache.getFalhas() == 4 && cache.getInvalidacoes() == 2 && cache.getEntradas() == 2;
+
+        verificar("Diretórios e globs devem ser invalidados quando um arquivo muda", acertou && invalidou,
+                 cache.getAcertos() + "/" + cache.getFalhas() + "/" + cache.getInvalidacoes());
+    }
+
+    private static void testarServidorDiretorioERemocao() throws Exception {
+        System.out.println("🧪 Teste 7: Servidor Recarrega Diretórios e Limita Arquivos Carregados");
+
+        Path primeiro = Path.of(criarArquivoTeste("teste7-a.csv", gerarLogs(1_000, 10)));
+        Path diretorio = primeiro.getParent();
+        Path segundo = diretorio.resolve("teste7-b.csv");
+        Files.writeString(segundo, gerarLogs(1_000, 11));
+        Map<String, String> porDiretorio = Map.of("arquivo", diretorio.toString(), "sessao", "sessão-2");
+
+        ServidorConsultas servidor = ServidorConsultas.iniciar(0, 2);
+        try {
+            servidor.consultar("linha-do-tempo", porDiretorio);
+            servidor.consultar("linha-do-tempo", porDiretorio);
+            boolean cargaUnica = servidor.getCargas() == 1;
+
+            // Linha nova em um arquivo do diretório: recarrega
+            Files.writeString(segundo, "99999,usuário-2,sessão-2,LOGOUT,/dados/r2,1,0\n", StandardOpenOption.APPEND);
+            String resposta = servidor.consultar("linha-do-tempo", porDiretorio);
+            boolean recarregou = resposta.equals(juntar(solucao.desafio2_reconstruirLinhaDoTempo(diretorio.toString(), "sessão-2"))) &&
+                                 resposta.endsWith("LOGOUT\n") && servidor.getCargas() == 2;
+
+            // Três arquivos com limite de dois: o usado há mais tempo (o diretório) sai
+            servidor.consultar("sessoes-invalidas", Map.of("arquivo", primeiro.toString()));
+            servidor.consultar("sessoes-invalidas", Map.of("arquivo", segundo.toString()));
+            boolean limitou = servidor.getConjuntos() == 2 && servidor.getCargas() == 4;
+            servidor.consultar("linha-do-tempo", porDiretorio);
+            boolean voltou = servidor.getConjuntos() == 2 && servidor.getCargas() == 5;
+
+            verificar("Diretório deve ser recarregado ao mudar e só 2 arquivos ficar carregados",
+                     cargaUnica && recarregou && limitou && voltou,
+                     servidor.getCargas() + " cargas, " + servidor.getConjuntos() + " carregados");
+        } finally {
+            servidor.parar();
+        }
+    }
+
+    // ===== MÉTODOS AUXILIARES =====
+
+    /**
+     * Resposta "200:..." com o mesmo número de saltos e os mesmos extremos
+     * do caminho esperado (empates entre caminhos mínimos podem diferir)
+     */
+    private static boolean mesmoTamanhoEExtremos(String resposta, List<String> esperado) {
+        if (!resposta.startsWith("200:")) {
+            return false;
+        }
+        String[] recursos = resposta.substring(4).split("\n");
+        return recursos.length == esperado.size() &&
+               recursos[0].equals(esperado.get(0)) &&
+               recursos[recursos.length - 1].equals(esperado.get(esperado.size() - 1));
+    }
+
+    private static List<Integer> severidades(List<Alerta> alertas) {
+        List<Integer> resultado = new ArrayList<>();
+        for (Alerta alerta : alertas) {
+            resultado.add(alerta.getSeverityLevel());
+        }
+        return resultado;
+    }
+
+    /**
+     * Faz um GET e devolve "status:corpo"
+     */
+    private static String requisitar(String url) throws IOException {
+        HttpURLConnection conexao = (HttpURLConnection) URI.create(url).toURL().openConnection();
+        try {
+            int status = conexao.getResponseCode();
+            try (InputStream corpo = status < 400 ? conexao.getInputStream() : conexao.getErrorStream()) {
+                return status + ":" + new String(corpo.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        } finally {
+            conexao.disconnect();
+        }
+    }
+
+    private static String codificar(String valor) {
+        return URLEncoder.encode(valor, StandardCharsets.UTF_8);
+    }
+
+    private static String juntar(List<String> itens) {
+        StringBuilder sb = new StringBuilder();
+        for (String item : itens) {
+            sb.append(item).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Gera um CSV com usuários, sessões e recursos repetidos (incluindo acentos)
+     */
+    private static String gerarLogs(int linhas, long semente) {
+        Random random = new Random(semente);
+        StringBuilder sb = new StringBuilder(CABECALHO);
+        for (int i = 0; i < linhas; i++) {
+            sb.append(1_000 + i).append(",usuário-").append(random.nextInt(40))
+              .append(",sessão-").append(random.nextInt(300))
+              .append(',').append(ACOES[random.nextInt(ACOES.length)])
+              .append(",/dados/r").append(random.nextInt(60))
+              .append(',').append(1 + random.nextInt(10))
+              .append(',').append(random.nextInt(1_000_000)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String criarArquivoTeste(String nome, String conteudo) throws IOException {
+        Path tempDir = Files.createTempDirectory("forensic-tests");
+        Path arquivo = tempDir.resolve(nome);
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(arquivo.toFile()))) {
+            writer.write(conteudo);
+        }
+
+        return arquivo.toString();
+    }
+
+    private static void verificar(String descricao, boolean condicao, Object resultado) {
+        if (condicao) {
+            System.out.println("   ✅ PASSOU: " + descricao);
+            testesPassados++;
+        } else {
+            System.out.println("   ❌ FALHOU: " + descricao);
+            System.out.println("   Resultado: " + resultado);
+            testesFalhados++;
+        }
+        System.out.println();
+    }
+
+    private static void imprimirResumo() {
+        System.out.println("\n╔════════════════════════════════════════════════════════════╗");
+        System.out.println("║                     RESUMO DOS TESTES                      ║");
+        System.out.println("╚════════════════════════════════════════════════════════════╝");
+        System.out.println();
+        System.out.println("Total de testes: " + (testesPassados + testesFalhados));
+        System.out.println("✅ Passados: " + testesPassados);
+        System.out.println("❌ Falhados: " + testesFalhados);
+        System.out.println();
+
+        if (testesFalhados == 0) {
+            System.out.println("🎉 TODOS OS TESTES PASSARAM! Implementação correta.");
+        } else {
+            System.out.println("⚠️  Alguns testes falharam. Revise a implementação.");
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package br.edu.icev.aed.forense.test;
 
 import br.edu.icev.aed.forense.SolucaoForenseImpl;
+import br.edu.icev.aed.forense.extended.AgregacaoTemporal;
 import br.edu.icev.aed.forense.extended.SessoesInvalidasExtended;
 import br.edu.icev.aed.forense.model.ResultadoSessoesInvalidas;
 
@@ -9,6 +10,10 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -56,6 +61,10 @@ public class TesteDesafio1 {
             
             // Teste com versão estendida
             testarVersaoEstendida();
+            testarRankingUsuarios();
+            testarPadraoTemporal();
+            testarAgregacaoTemporal();
+            testarAgregacaoEsparsa();
             
             // Resumo
             imprimirResumo();
@@ -300,6 +309,124 @@ public class TesteDesafio1 {
         }
     }
 
+    private static void testarRankingUsuarios() throws IOException {
+        System.out.println("🧪 Teste 14: Ranking de Usuários com Sessões Inválidas");
+        
+        // alice: s1 (aninhada), s2 (aberta) | bob: s3 (órfã) | carol: válida
+        String conteudo = 
+            "TIMESTAMP,USER_ID,SESSION_ID,ACTION_TYPE,TARGET_RESOURCE,SEVERITY_LEVEL,BYTES_TRANSFERRED\n" +
+            "1000,alice,s1,LOGIN,/usr/bin/sshd,5,0\n" +
+            "1100,alice,s1,FILE_ACCESS,/etc/passwd,5,0\n" +
+            "1200,alice,s2,LOGIN,/usr/bin/sshd,5,0\n" +
+            "1300,bob,s3,LOGOUT,/usr/bin/sshd,5,0\n" +
+            "1400,carol,s4,LOGIN,/usr/bin/sshd,5,0\n" +
+            "1500,carol,s4,LOGOUT,/usr/bin/sshd,5,0\n";
+        
+        String arquivo = criarArquivoTeste("teste14.csv", conteudo);
+        Map<String, Integer> top1 = SessoesInvalidasExtended.usuariosComMaisSessoesInvalidas(arquivo, 1);
+        Map<String, Integer> todos = SessoesInvalidasExtended.usuariosComMaisSessoesInvalidas(arquivo, 10);
+        
+        boolean passou = top1.size() == 1 && Integer.valueOf(2).equals(top1.get("alice")) &&
+                        todos.size() == 2 && Integer.valueOf(1).equals(todos.get("bob")) &&
+                        new ArrayList<>(todos.keySet()).equals(Arrays.asList("alice", "bob"));
+        
+        verificar("Ranking deve contar sessões por usuário em ordem decrescente", 
+                 passou, todos.keySet());
+    }
+
+    private static void testarPadraoTemporal() throws IOException {
+        System.out.println("🧪 Teste 15: Padrão Temporal de Sessões Inválidas");
+        
+        // s1 e s2 começam na janela [1000, 1100); s3 na janela [5000, 5100)
+        String conteudo = 
+            "TIMESTAMP,USER_ID,SESSION_ID,ACTION_TYPE,TARGET_RESOURCE,SEVERITY_LEVEL,BYTES_TRANSFERRED\n" +
+            "1000,alice,s1,LOGIN,/usr/bin/sshd,5,0\n" +
+            "1050,alice,s2,LOGIN,/usr/bin/sshd,5,0\n" +
+            "5020,bob,s3,LOGOUT,/usr/bin/sshd,5,0\n";
+        
+        String arquivo = criarArquivoTeste("teste15.csv", conteudo);
+        Map<Long, Integer> janelas = SessoesInvalidasExtended.padraoTemporalInvalidas(arquivo, 100);
+        
+        boolean passou = janelas.size() == 2 &&
+                        Integer.valueOf(2).equals(janelas.get(1000L)) &&
+                        Integer.valueOf(1).equals(janelas.get(5000L));
+        
+        verificar("Deve agrupar sessões inválidas pela janela de início", 
+                 passou, janelas.keySet());
+    }
+
+    private static void testarAgregacaoTemporal() throws IOException {
+        System.out.println("🧪 Teste 16: Agregação Temporal em Múltiplas Resoluções");
+        
+        // Dois eventos no primeiro minuto, um na hora seguinte (sessão inválida s2)
+        String conteudo = 
+            "TIMESTAMP,USER_ID,SESSION_ID,ACTION_TYPE,TARGET_RESOURCE,SEVERITY_LEVEL,BYTES_TRANSFERRED\n" +
+            "3600,alice,s1,LOGIN,/usr/bin/sshd,3,100\n" +
+            "3630,alice,s1,LOGOUT,/usr/bin/sshd,4,200\n" +
+            "7300,bob,s2,LOGIN,/usr/bin/sshd,9,1000\n";
+        
+        String arquivo = criarArquivoTeste("teste16.csv", conteudo);
+        AgregacaoTemporal agregacao = AgregacaoTemporal.construir(arquivo);
+        
+        List<AgregacaoTemporal.Janela> porMinuto = agregacao.consultar(AgregacaoTemporal.MINUTO);
+        List<AgregacaoTemporal.Janela> porDia = agregacao.consultar(AgregacaoTemporal.DIA);
+        AgregacaoTemporal.Janela total = agregacao.agregar(0, 10000);
+        
+        boolean passou = porMinuto.size() == 2 &&
+                        porMinuto.get(0).getEventos() == 2 &&
+                        porMinuto.get(0).getBytesTransferidos() == 300 &&
+                        porMinuto.get(1).getSessoesInvalidas() == 1 &&
+                        porDia.size() == 1 &&
+                        porDia.get(0).getEventos() == 3 &&
+                        porDia.get(0).getSeveridadeMaxima() == 9 &&
+                        total.getBytesTransferidos() == 1300 &&
+                        agregacao.invalidasPorJanela(AgregacaoTemporal.HORA).equals(
+                            SessoesInvalidasExtended.padraoTemporalInvalidas(arquivo, AgregacaoTemporal.HORA));
+        
+        verificar("Agregação deve responder janelas de minuto, hora e dia", 
+                 passou, agregacao.invalidasPorJanela(AgregacaoTemporal.HORA).keySet());
+    }
+
+    private static void testarAgregacaoEsparsa() throws IOException {
+        System.out.println("🧪 Teste 17: Agregação Temporal com Timestamps Espalhados");
+        
+        // Um timestamp fora da faixa real (séculos depois) e um negativo:
+        // buckets densos por minuto não caberiam na memória
+        String conteudo = 
+            "TIMESTAMP,USER_ID,SESSION_ID,ACTION_TYPE,TARGET_RESOURCE,SEVERITY_LEVEL,BYTES_TRANSFERRED\n" +
+            "-30,carol,s0,LOGIN,/usr/bin/sshd,2,10\n" +
+            "3600,alice,s1,LOGIN,/usr/bin/sshd,3,100\n" +
+            "3630,alice,s1,LOGOUT,/usr/bin/sshd,4,200\n" +
+            "7300,bob,s2,LOGIN,/usr/bin/sshd,9,1000\n" +
+            "99999999999999,dave,s3,LOGIN,/usr/bin/sshd,5,50\n";
+        
+        String arquivo = criarArquivoTeste("teste17.csv", conteudo);
+        AgregacaoTemporal agregacao = AgregacaoTemporal.construir(arquivo);
+        
+        List<AgregacaoTemporal.Janela> porMinuto = agregacao.consultar(AgregacaoTemporal.MINUTO);
+        List<AgregacaoTemporal.Janela> porHora = agregacao.consultar(0, 10000, AgregacaoTemporal.HORA);
+        AgregacaoTemporal.Janela total = agregacao.agregar(0, 10000);
+        AgregacaoTemporal.Janela tudo = agregacao.agregar(agregacao.getInicio(), agregacao.getFim());
+        
+        boolean passou = porMinuto.size() == 4 &&
+                        porMinuto.get(0).getInicio() == -60 &&
+                        porMinuto.get(1).getEventos() == 2 &&
+                        porMinuto.get(3).getInicio() == 99999999999960L &&
+                        porHora.size() == 2 &&
+                        porHora.get(0).getBytesTransferidos() == 300 &&
+                        total.getEventos() == 3 &&
+                        total.getBytesTransferidos() == 1300 &&
+                        tudo.getEventos() == 5 &&
+                        tudo.getSeveridadeMaxima() == 9 &&
+                        agregacao.invalidasPorJanela(AgregacaoTemporal.MINUTO).equals(
+                            SessoesInvalidasExtended.padraoTemporalInvalidas(arquivo, AgregacaoTemporal.MINUTO)) &&
+                        agregacao.invalidasPorJanela(AgregacaoTemporal.DIA).equals(
+                            SessoesInvalidasExtended.padraoTemporalInvalidas(arquivo, AgregacaoTemporal.DIA));
+        
+        verificar("Agregação esparsa deve responder como a densa e alinhar janelas como o padraoTemporal", 
+                 passou, agregacao.invalidasPorJanela(AgregacaoTemporal.MINUTO).keySet());
+    }
+
     // ===== MÉTODOS AUXILIARES =====
 
     private static String criarArquivoTeste(String nome, String conteudo) throws IOException {
@@ -313,7 +440,7 @@ public class TesteDesafio1 {
         return arquivo.toString();
     }
 
-    private static void verificar(String descricao, boolean condicao, Set<String> resultado) {
+    private static void verificar(String descricao, boolean condicao, Set<?> resultado) {
         if (condicao) {
             System.out.println("   ✅ PASSOU: " + descricao);
             testesPassados++;
@@ -0,0 +1,308 @@
+package br.edu.icev.aed.forense.test;
+
+import br.edu.icev.aed.forense.Alerta;
+import br.edu.icev.aed.forense.LogEntry;
+import br.edu.icev.aed.forense.SolucaoForenseImpl;
+import br.edu.icev.aed.forense.extended.IndiceSeveridade;
+import br.edu.icev.aed.forense.extended.PriorizacaoParalela;
+import br.edu.icev.aed.forense.util.TabelaLogsMemoria;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Bateria de testes específicos para o Desafio 3: Priorizar Alertas.
+ *
+ * Esta classe testa:
+ * - Top-N por severidade
+ * - N maior que o número de alertas e N inválido
+ * - Alertas criados a partir das linhas selecionadas (heap de índices)
+ * - Índice por severidade (top-N, limiar e paginação)
+ * - Top-N paralelo com heaps por tarefa
+ */
+public class TesteDesafio3 {
+
+    private static final SolucaoForenseImpl solucao = new SolucaoForenseImpl();
+    private static int testesPassados = 0;
+    private static int testesFalhados = 0;
+
+    private static final String CABECALHO =
+        "TIMESTAMP,USER_ID,SESSION_ID,ACTION_TYPE,TARGET_RESOURCE,SEVERITY_LEVEL,BYTES_TRANSFERRED\n";
+
+    public static void main(String[] args) {
+        System.out.println("╔════════════════════════════════════════════════════════════╗");
+        System.out.println("║     BATERIA DE TESTES - DESAFIO 3: PRIORIZAR ALERTAS      ║");
+        System.out.println("╚════════════════════════════════════════════════════════════╝\n");
+
+        try {
+            // Testes básicos
+            testarTopN();
+            testarNMaiorQueArquivo();
+            testarNInvalido();
+
+            // Índice por severidade
+            testarIndiceTopN();
+            testarIndiceLimiarEPaginacao();
+            testarIndiceFaixaLarga();
+
+            // Versão paralela
+            testarPriorizacaoParalela();
+
+            // Seleção por índice de linha
+            testarAlertasDasLinhasSelecionadas();
+
+            // Resumo
+            imprimirResumo();
+
+        } catch (Exception e) {
+            System.err.println("ERRO FATAL: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // ===== TESTES BÁSICOS =====
+
+    private static void testarTopN() throws IOException {
+        System.out.println("🧪 Teste 1: Top-N por Severidade");
+
+        String conteudo = CABECALHO +
+            "1000,alice,s1,LOGIN,/usr/bin/sshd,3,0\n" +
+            "2000,alice,s1,FILE_ACCESS,/etc/shadow,9,0\n" +
+            "3000,bob,s2,COMMAND_EXEC,/bin/nc,7,0\n" +
+            "4000,bob,s2,DATA_TRANSFER,10.0.0.1,10,0\n" +
+            "5000,bob,s2,LOGOUT,/usr/bin/sshd,1,0\n";
+
+        String arquivo = criarArquivoTeste("teste1.csv", conteudo);
+        List<Alerta> resultado = solucao.desafio3_priorizarAlertas(arquivo, 3);
+
+        verificar("Deve retornar as 3 maiores severidades em ordem",
+                 severidades(resultado).equals(List.of(10, 9, 7)), severidades(resultado));
+    }
+
+    private static void testarNMaiorQueArquivo() throws IOException {
+        System.out.println("🧪 Teste 2: N Maior que o Número de Alertas");
+
+        String conteudo = CABECALHO +
+            "1000,alice,s1,LOGIN,/usr/bin/sshd,3,0\n" +
+            "2000,alice,s1,LOGOUT,/usr/bin/sshd,5,0\n";
+
+        String arquivo = criarArquivoTeste("teste2.csv", conteudo);
+        List<Alerta> resultado = solucao.desafio3_priorizarAlertas(arquivo, 10);
+
+        verificar("Deve retornar todos os alertas disponíveis",
+                 severidades(resultado).equals(List.of(5, 3)), severidades(resultado));
+    }
+
+    private static void testarNInvalido() throws IOException {
+        System.out.println("🧪 Teste 3: N Igual a Zero");
+
+        String conteudo = CABECALHO +
+            "1000,alice,s1,LOGIN,/usr/bin/sshd,3,0\n";
+
+        String arquivo = criarArquivoTeste("teste3.csv", conteudo);
+        List<Alerta> resultado = solucao.desafio3_priorizarAlertas(arquivo, 0);
+
+        verificar("Deve retornar lista vazia", resultado.isEmpty(), severidades(resultado));
+    }
+
+    // ===== ÍNDICE POR SEVERIDADE =====
+
+    private static void testarIndiceTopN() throws IOException {
+        System.out.println("🧪 Teste 4: Índice por Severidade Consistente com o Desafio 3");
+
+        Random random = new Random(7);
+        StringBuilder sb = new StringBuilder(CABECALHO);
+        for (int i = 0; i < 300; i++) {
+            sb.append(1000 + i).append(",alice,s1,FILE_ACCESS,/r,")
+              .append(1 + random.nextInt(10)).append(",0\n");
+        }
+
+        String arquivo = criarArquivoTeste("teste4.csv", sb.toString());
+        IndiceSeveridade indice = IndiceSeveridade.construir(arquivo);
+
+        boolean passou = true;
+        for (int n : new int[] {1, 5, 37, 300, 500}) {
+            List<Integer> esperado = severidades(solucao.desafio3_priorizarAlertas(arquivo, n));
+            passou &= severidades(indice.topN(n)).equals(esperado);
+        }
+
+        verificar("topN deve ter as mesmas severidades do Desafio 3", passou, indice.tamanho());
+    }
+
+    private static void testarIndiceLimiarEPaginacao() throws IOException {
+        System.out.println("🧪 Teste 5: Alertas Acima de Limiar e Paginação");
+
+        String conteudo = CABECALHO +
+            "1000,alice,s1,LOGIN,/usr/bin/sshd,9,0\n" +
+            "2000,alice,s1,FILE_ACCESS,/etc/shadow,10,0\n" +
+            "3000,bob,s2,COMMAND_EXEC,/bin/nc,9,0\n" +
+            "4000,bob,s2,DATA_TRANSFER,10.0.0.1,2,0\n" +
+            "5000,bob,s2,LOGOUT,/usr/bin/sshd,8,0\n";
+
+        String arquivo = criarArquivoTeste("teste5.csv", conteudo);
+        IndiceSeveridade indice = IndiceSeveridade.construir(arquivo);
+
+        List<Alerta> criticos = indice.comSeveridadeMinima(9);
+        List<Alerta> segundaPagina = indice.pagina(2, 2);
+        List<Alerta> alemDoFim = indice.pagina(10, 2);
+
+        boolean passou = severidades(criticos).equals(List.of(10, 9, 9)) &&
+                        indice.contarComSeveridadeMinima(9) == 3 &&
+                        severidades(segundaPagina).equals(List.of(9, 8)) &&
+                        segundaPagina.get(0).getTimestamp() == 3000 &&
+                        alemDoFim.isEmpty();
+
+        verificar("Deve filtrar por limiar e paginar em ordem decrescente",
+                 passou, severidades(criticos));
+    }
+
+    private static void testarIndiceFaixaLarga() {
+        System.out.println("🧪 Teste 6: Índice sobre TabelaLogs com Severidades Muito Espalhadas");
+
+        // Faixa de severidades maior que um bucket por valor: um bucket por valor distinto
+        Random random = new Random(31);
+        int[] niveis = {Integer.MIN_VALUE, -70_000, 3, 3, 90_000, Integer.MAX_VALUE};
+        List<LogEntry> logs = new ArrayList<>();
+        List<Integer> todas = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            int severidade = niveis[random.nextInt(niveis.length)];
+            logs.add(new LogEntry(i, "u", "s" + i, "FILE_ACCESS", "/r", severidade, 0));
+            todas.add(severidade);
+        }
+        todas.sort(Collections.reverseOrder());
+
+        IndiceSeveridade indice = IndiceSeveridade.construir(new TabelaLogsMemoria(logs));
+        List<Alerta> pagina = indice.pagina(100, 50);
+
+        boolean passou = severidades(indice.topN(2_000)).equals(todas) &&
+                        severidades(solucao.desafio3_priorizarAlertas(new TabelaLogsMemoria(logs), 300))
+                            .equals(severidades(indice.topN(300))) &&
+                        severidades(pagina).equals(todas.subList(100, 150)) &&
+                        indice.contarComSeveridadeMinima(3) == Collections.frequency(todas, 3) +
+                            Collections.frequency(todas, 90_000) + Collections.frequency(todas, Integer.MAX_VALUE);
+
+        verificar("Faixa larga deve ordenar como o Desafio 3", passou, indice.contarComSeveridadeMinima(3));
+    }
+
+    // ===== VERSÃO PARALELA =====
+
+    private static void testarPriorizacaoParalela() {
+        System.out.println("🧪 Teste 7: Top-N Paralelo com Heaps por Tarefa");
+
+        Random random = new Random(11);
+        List<LogEntry> logs = new ArrayList<>();
+        List<Integer> todas = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            int severidade = 1 + random.nextInt(10);
+            logs.add(new LogEntry(i, "u" + (i % 50), "s" + (i % 500), "FILE_ACCESS", "/r", severidade, 0));
+            todas.add(severidade);
+        }
+        todas.sort(Collections.reverseOrder());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        boolean passou = true;
+        try {
+            for (int n : new int[] {1, 100, 25_000, 300_000}) {
+                List<Integer> obtido = severidades(PriorizacaoParalela.priorizar(logs, n, pool));
+                List<Integer> esperado = todas.subList(0, Math.min(n, todas.size()));
+                passou &= obtido.equals(esperado);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        verificar("Resultado paralelo deve ter as mesmas severidades da ordenação completa",
+                 passou, logs.size());
+    }
+
+    // ===== SELEÇÃO POR ÍNDICE DE LINHA =====
+
+    private static void testarAlertasDasLinhasSelecionadas() throws IOException {
+        System.out.println("🧪 Teste 8: Alertas Criados Só para as Linhas Selecionadas");
+
+        // Timestamps únicos: cada Alerta pode ser conferido com a sua linha
+        Random random = new Random(21);
+        StringBuilder sb = new StringBuilder(CABECALHO);
+        List<Integer> todas = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            int severidade = 1 + random.nextInt(10);
+            sb.append(i).append(",u").append(i % 7).append(",s").append(i % 13)
+              .append(",FILE_ACCESS,/r").append(i).append(',').append(severidade)
+              .append(',').append(i * 3).append('\n');
+            todas.add(severidade);
+        }
+        todas.sort(Collections.reverseOrder());
+
+        String arquivo = criarArquivoTeste("teste7.csv", sb.toString());
+        List<Alerta> resultado = solucao.desafio3_priorizarAlertas(arquivo, 50);
+
+        boolean passou = severidades(resultado).equals(todas.subList(0, 50));
+        for (Alerta alerta : resultado) {
+            long i = alerta.getTimestamp();
+            passou &= alerta.getUserId().equals("u" + (i % 7)) &&
+                      alerta.getSessionId().equals("s" + (i % 13)) &&
+                      alerta.getTargetResource().equals("/r" + i) &&
+                      alerta.getBytesTransferred() == i * 3;
+        }
+
+        verificar("Cada Alerta deve trazer os campos da sua linha", passou, severidades(resultado));
+    }
+
+    // ===== MÉTODOS AUXILIARES =====
+
+    private static List<Integer> severidades(List<Alerta> alertas) {
+        List<Integer> resultado = new ArrayList<>();
+        for (Alerta alerta : alertas) {
+            resultado.add(alerta.getSeverityLevel());
+        }
+        return resultado;
+    }
+
+    private static String criarArquivoTeste(String nome, String conteudo) throws IOException {
+        Path tempDir = Files.createTempDirectory("forensic-tests");
+        Path arquivo = tempDir.resolve(nome);
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(arquivo.toFile()))) {
+            writer.write(conteudo);
+        }
+
+        return arquivo.toString();
+    }
+
+    private static void verificar(String descricao, boolean condicao, Object resultado) {
+        if (condicao) {
+            System.out.println("   ✅ PASSOU: " + descricao);
+            testesPassados++;
+        } else {
+            System.out.println("   ❌ FALHOU: " + descricao);
+            System.out.println("   Resultado: " + resultado);
+            testesFalhados++;
+        }
+        System.out.println();
+    }
+
+    private static void imprimirResumo() {
+        System.out.println("\n╔════════════════════════════════════════════════════════════╗");
+        System.out.println("║                     RESUMO DOS TESTES                      ║");
+        System.out.println("╚════════════════════════════════════════════════════════════╝");
+        System.out.println();
+        System.out.println("Total de testes: " + (testesPassados + testesFalhados));
+        System.out.println("✅ Passados: " + testesPassados);
+        System.out.println("❌ Falhados: " + testesFalhados);
+        System.out.println();
+
+        if (testesFalhados == 0) {
+            System.out.println("🎉 TODOS OS TESTES PASSARAM! Implementação correta.");
+        } else {
+            System.out.println("⚠️  Alguns testes falharam. Revise a implementação.");
+        }
+    }
+}
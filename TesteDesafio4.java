@@ -0,0 +1,284 @@
+package br.edu.icev.aed.forense.test;
+
+import br.edu.icev.aed.forense.SolucaoForenseImpl;
+import br.edu.icev.aed.forense.LogEntry;
+import br.edu.icev.aed.forense.extended.DetectorExfiltracao;
+import br.edu.icev.aed.forense.extended.IndiceTransferencias;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bateria de testes específicos para o Desafio 4: Picos de Transferência.
+ *
+ * Esta classe testa:
+ * - Próximo evento maior (pilha monotônica)
+ * - Detector de exfiltração por janela deslizante
+ * - Índice de máximo em intervalo (sparse table)
+ */
+public class TesteDesafio4 {
+
+    private static final SolucaoForenseImpl solucao = new SolucaoForenseImpl();
+    private static int testesPassados = 0;
+    private static int testesFalhados = 0;
+
+    private static final String CABECALHO =
+        "TIMESTAMP,USER_ID,SESSION_ID,ACTION_TYPE,TARGET_RESOURCE,SEVERITY_LEVEL,BYTES_TRANSFERRED\n";
+
+    public static void main(String[] args) {
+        System.out.println("╔════════════════════════════════════════════════════════════╗");
+        System.out.println("║   BATERIA DE TESTES - DESAFIO 4: PICOS DE TRANSFERÊNCIA   ║");
+        System.out.println("╚════════════════════════════════════════════════════════════╝\n");
+
+        try {
+            // Testes básicos
+            testarProximoMaior();
+
+            // Janela deslizante
+            testarExfiltracaoPorUsuario();
+            testarJanelaExpira();
+            testarAcompanhamentoArquivo();
+            testarJanelasInativasDescartadas();
+
+            // Índice de máximo em intervalo
+            testarMaiorEntre();
+            testarIndiceConsistenteComDesafio4();
+
+            // Resumo
+            imprimirResumo();
+
+        } catch (Exception e) {
+            System.err.println("ERRO FATAL: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // ===== TESTES BÁSICOS =====
+
+    private static void testarProximoMaior() throws IOException {
+        System.out.println("🧪 Teste 1: Próximo Evento com Transferência Maior");
+
+        String conteudo = CABECALHO +
+            "1000,alice,s1,DATA_TRANSFER,/a,5,500\n" +
+            "2000,alice,s1,DATA_TRANSFER,/b,5,100\n" +
+            "3000,alice,s1,DATA_TRANSFER,/c,5,800\n" +
+            "4000,alice,s1,DATA_TRANSFER,/d,5,200\n";
+
+        String arquivo = criarArquivoTeste("teste1.csv", conteudo);
+        Map<Long, Long> resultado = solucao.desafio4_encontrarPicosDeTransferencia(arquivo);
+
+        boolean passou = resultado.size() == 2 &&
+                        resultado.get(1000L) == 3000L &&
+                        resultado.get(2000L) == 3000L;
+
+        verificar("Deve ligar cada evento ao próximo maior", passou, resultado);
+    }
+
+    // ===== JANELA DESLIZANTE =====
+
+    private static void testarExfiltracaoPorUsuario() throws IOException {
+        System.out.println("🧪 Teste 2: Exfiltração Acumulada por Usuário");
+
+        // bob transfere 3 x 400 bytes em 2 minutos; limiar 1000 em 10 minutos
+        String conteudo = CABECALHO +
+            "1000,bob,s1,DATA_TRANSFER,/x,5,400\n" +
+            "1060,bob,s1,DATA_TRANSFER,/y,5,400\n" +
+            "1100,alice,s2,DATA_TRANSFER,/z,5,100\n" +
+            "1120,bob,s1,DATA_TRANSFER,/w,5,400\n" +
+            "1130,bob,s1,DATA_TRANSFER,/v,5,400\n";
+
+        String arquivo = criarArquivoTeste("teste2.csv", conteudo);
+        List<DetectorExfiltracao.Suspeita> suspeitas = DetectorExfiltracao.analisar(arquivo, 600, 1000);
+
+        // Apenas um alerta para a rajada de bob (o quarto evento não realerta)
+        boolean passou = suspeitas.size() == 1 &&
+                        suspeitas.get(0).getEscopo() == DetectorExfiltracao.Escopo.USUARIO &&
+                        "bob".equals(suspeitas.get(0).getChave()) &&
+                        suspeitas.get(0).getBytesNaJanela() == 1200 &&
+                        suspeitas.get(0).getInicioJanela() == 1000 &&
+                        suspeitas.get(0).getEventos() == 3;
+
+        verificar("Deve sinalizar bob uma única vez", passou, suspeitas);
+    }
+
+    private static void testarJanelaExpira() throws IOException {
+        System.out.println("🧪 Teste 3: Eventos Fora da Janela Expiram");
+
+        // Mesmo volume total, mas espalhado além da janela de 10 minutos
+        String conteudo = CABECALHO +
+            "1000,bob,s1,DATA_TRANSFER,/x,5,600\n" +
+            "1600,bob,s1,DATA_TRANSFER,/y,5,600\n" +
+            "2200,bob,s1,DATA_TRANSFER,/z,5,600\n";
+
+        String arquivo = criarArquivoTeste("teste3.csv", conteudo);
+        List<DetectorExfiltracao.Suspeita> suspeitas = DetectorExfiltracao.analisar(arquivo, 600, 1000);
+
+        verificar("Não deve sinalizar transferências espaçadas", suspeitas.isEmpty(), suspeitas);
+    }
+
+    private static void testarAcompanhamentoArquivo() throws Exception {
+        System.out.println("🧪 Teste 4: Acompanhamento de Arquivo em Crescimento");
+
+        String arquivo = criarArquivoTeste("teste4.csv", CABECALHO +
+            "1000,bob,s1,DATA_TRANSFER,/x,5,700\n");
+
+        DetectorExfiltracao detector = new DetectorExfiltracao(600, 1000);
+        BlockingQueue<DetectorExfiltracao.Suspeita> recebidas = new LinkedBlockingQueue<>();
+        Thread monitor = new Thread(() -> {
+            try {
+                detector.acompanhar(arquivo, 10, recebidas::add);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+        monitor.start();
+
+        // Linha escrita em duas partes: só deve ser processada quando completa
+        Path caminho = Path.of(arquivo);
+        Thread.sleep(50);
+        Files.write(caminho, "1100,bob,s1,DATA_TR".getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.APPEND);
+        Thread.sleep(50);
+        Files.write(caminho, "ANSFER,/y,5,700\n".getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.APPEND);
+
+        DetectorExfiltracao.Suspeita suspeita = recebidas.poll(5, TimeUnit.SECONDS);
+        monitor.interrupt();
+        monitor.join();
+
+        boolean passou = suspeita != null &&
+                        "bob".equals(suspeita.getChave()) &&
+                        suspeita.getBytesNaJanela() == 1400;
+
+        verificar("Deve detectar suspeita em linhas acrescentadas", passou, suspeita);
+    }
+
+    private static void testarJanelasInativasDescartadas() {
+        System.out.println("🧪 Teste 7: Janelas de Chaves Inativas São Descartadas");
+
+        // 20.000 usuários e recursos distintos, um evento por segundo: só os
+        // dos últimos 600 s (mais os de uma varredura) ficam em memória
+        DetectorExfiltracao detector = new DetectorExfiltracao(600, 1000);
+        for (int i = 0; i < 20_000; i++) {
+            detector.registrar(new LogEntry(i, "usuário-" + i, "s" + i, "DATA_TRANSFER", "/r" + i, 5, 10));
+        }
+        int ativas = detector.janelasAtivas();
+
+        // Um usuário já descartado volta com uma rajada: é sinalizado de novo
+        List<DetectorExfiltracao.Suspeita> suspeitas =
+            detector.registrar(new LogEntry(20_000, "usuário-0", "s0", "DATA_TRANSFER", "/novo", 5, 5000));
+        boolean sinalizou = suspeitas.size() == 2 && suspeitas.get(0).getChave().equals("usuário-0") &&
+                            suspeitas.get(0).getEventos() == 1;
+
+        verificar("Memória deve acompanhar só as chaves com eventos na janela",
+                 ativas <= 4_000 && sinalizou, ativas + " janelas, " + suspeitas);
+    }
+
+    // ===== ÍNDICE DE MÁXIMO EM INTERVALO =====
+
+    private static void testarMaiorEntre() throws IOException {
+        System.out.println("🧪 Teste 5: Maior Transferência Entre T1 e T2");
+
+        String conteudo = CABECALHO +
+            "1000,alice,s1,DATA_TRANSFER,/a,5,500\n" +
+            "2000,alice,s1,DATA_TRANSFER,/b,5,900\n" +
+            "3000,alice,s1,DATA_TRANSFER,/c,5,300\n" +
+            "4000,alice,s1,DATA_TRANSFER,/d,5,700\n";
+
+        String arquivo = criarArquivoTeste("teste5.csv", conteudo);
+        IndiceTransferencias indice = IndiceTransferencias.construir(arquivo);
+
+        Optional<LogEntry> tudo = indice.maiorEntre(0, 5000);
+        Optional<LogEntry> fim = indice.maiorEntre(2500, 4000);
+        Optional<LogEntry> vazio = indice.maiorEntre(4100, 9000);
+        Optional<LogEntry> proxima = indice.proximaMaiorApos(2000, 600);
+
+        boolean passou = tudo.isPresent() && tudo.get().getTimestamp() == 2000 &&
+                        fim.isPresent() && fim.get().getTimestamp() == 4000 &&
+                        !vazio.isPresent() &&
+                        proxima.isPresent() && proxima.get().getTimestamp() == 4000;
+
+        verificar("Deve responder máximo em intervalo e próxima maior", passou, tudo);
+    }
+
+    private static void testarIndiceConsistenteComDesafio4() throws IOException {
+        System.out.println("🧪 Teste 6: Índice Consistente com o Desafio 4");
+
+        // Timestamps únicos e bytes aleatórios (com repetições)
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder(CABECALHO);
+        for (int i = 0; i < 500; i++) {
+            sb.append(1000 + i * 10).append(",alice,s1,DATA_TRANSFER,/r,5,")
+              .append(random.nextInt(50)).append("\n");
+        }
+
+        String arquivo = criarArquivoTeste("teste6.csv", sb.toString());
+        Map<Long, Long> esperado = solucao.desafio4_encontrarPicosDeTransferencia(arquivo);
+        IndiceTransferencias indice = IndiceTransferencias.construir(arquivo);
+
+        boolean passou = true;
+        for (int i = 0; i < 500 && passou; i++) {
+            long ts = 1000 + i * 10;
+            Optional<LogEntry> pico = indice.proximoPico(ts);
+            Long tsEsperado = esperado.get(ts);
+            passou = tsEsperado == null ? !pico.isPresent()
+                                        : pico.isPresent() && pico.get().getTimestamp() == tsEsperado;
+        }
+
+        verificar("proximoPico deve coincidir com o Desafio 4", passou, esperado.size());
+    }
+
+    // ===== MÉTODOS AUXILIARES =====
+
+    private static String criarArquivoTeste(String nome, String conteudo) throws IOException {
+        Path tempDir = Files.createTempDirectory("forensic-tests");
+        Path arquivo = tempDir.resolve(nome);
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(arquivo.toFile()))) {
+            writer.write(conteudo);
+        }
+
+        return arquivo.toString();
+    }
+
+    private static void verificar(String descricao, boolean condicao, Object resultado) {
+        if (condicao) {
+            System.out.println("   ✅ PASSOU: " + descricao);
+            testesPassados++;
+        } else {
+            System.out.println("   ❌ FALHOU: " + descricao);
+            System.out.println("   Resultado: " + resultado);
+            testesFalhados++;
+        }
+        System.out.println();
+    }
+
+    private static void imprimirResumo() {
+        System.out.println("\n╔════════════════════════════════════════════════════════════╗");
+        System.out.println("║                     RESUMO DOS TESTES                      ║");
+        System.out.println("╚════════════════════════════════════════════════════════════╝");
+        System.out.println();
+        System.out.println("Total de testes: " + (testesPassados + testesFalhados));
+        System.out.println("✅ Passados: " + testesPassados);
+        System.out.println("❌ Falhados: " + testesFalhados);
+        System.out.println();
+
+        if (testesFalhados == 0) {
+            System.out.println("🎉 TODOS OS TESTES PASSARAM! Implementação correta.");
+        } else {
+            System.out.println("⚠️  Alguns testes falharam. Revise a implementação.");
+        }
+    }
+}
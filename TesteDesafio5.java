@@ -0,0 +1,692 @@
+package br.edu.icev.aed.forense.test;
+
+import br.edu.icev.aed.forense.LogEntry;
+import br.edu.icev.aed.forense.SolucaoForenseImpl;
+import br.edu.icev.aed.forense.extended.Alcancabilidade;
+import br.edu.icev.aed.forense.extended.BuscaLarguraParalela;
+import br.edu.icev.aed.forense.extended.CaminhosPonderados;
+import br.edu.icev.aed.forense.extended.ContaminacaoTemporal;
+import br.edu.icev.aed.forense.extended.GrafoPersistente;
+import br.edu.icev.aed.forense.extended.GrafoRecursos;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Bateria de testes específicos para o Desafio 5: Rastrear Contaminação.
+ *
+ * Esta classe testa:
+ * - Caminho mais curto entre recursos (BFS)
+ * - Ausência de caminho e recurso inexistente
+ * - Caminhos que respeitam a ordem temporal
+ * - Alcançabilidade (raio de impacto) com componentes fortemente conexas
+ * - Caminhos ponderados por severidade/bytes (Dijkstra e k caminhos)
+ * - BFS paralela por níveis (mesmo número de saltos da BFS sequencial)
+ * - Construção paralela do grafo CSR
+ * - Grafo persistido em disco e invalidado quando o CSV muda (inclusive
+ *   arquivos de um diretório ou glob)
+ */
+public class TesteDesafio5 {
+
+    private static final SolucaoForenseImpl solucao = new SolucaoForenseImpl();
+    private static int testesPassados = 0;
+    private static int testesFalhados = 0;
+
+    private static final String CABECALHO =
+        "TIMESTAMP,USER_ID,SESSION_ID,ACTION_TYPE,TARGET_RESOURCE,SEVERITY_LEVEL,BYTES_TRANSFERRED\n";
+
+    public static void main(String[] args) {
+        System.out.println("╔════════════════════════════════════════════════════════════╗");
+        System.out.println("║   BATERIA DE TESTES - DESAFIO 5: RASTREAR CONTAMINAÇÃO    ║");
+        System.out.println("╚════════════════════════════════════════════════════════════╝\n");
+
+        try {
+            // Testes básicos
+            testarCaminhoMaisCurto();
+            testarSemCaminho();
+            testarRecursoInexistente();
+
+            // Grafo temporal
+            testarCaminhoImpossivelNoTempo();
+            testarCaminhoTemporalValido();
+
+            // Alcançabilidade
+            testarRaioDeImpacto();
+            testarAlcancabilidadeConsistenteComBFS();
+
+            // Caminhos ponderados
+            testarCaminhoMaisSuspeito();
+            testarKCaminhosContraForcaBruta();
+
+            // BFS paralela
+            testarBFSParalelaPequena();
+            testarBFSParalelaGrafoGrande();
+            testarConstrucaoParalelaDoGrafo();
+
+            // Grafo persistente
+            testarGrafoPersistente();
+            testarGrafoPersistenteDeDiretorio();
+
+            // Empates de instante no grafo temporal
+            testarSaltosNoMesmoInstante();
+
+            // Resumo
+            imprimirResumo();
+
+        } catch (Exception e) {
+            System.err.println("ERRO FATAL: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // ===== TESTES BÁSICOS =====
+
+    private static void testarCaminhoMaisCurto() throws IOException {
+        System.out.println("🧪 Teste 1: Caminho Mais Curto");
+
+        // Dois caminhos de /a até /d: a -> b -> c -> d e a -> d (mais curto)
+        String conteudo = CABECALHO +
+            "1000,alice,s1,LOGIN,/a,5,0\n" +
+            "1100,alice,s1,FILE_ACCESS,/b,5,0\n" +
+            "1200,alice,s1,FILE_ACCESS,/c,5,0\n" +
+            "1300,alice,s1,FILE_ACCESS,/d,5,0\n" +
+            "2000,bob,s2,LOGIN,/a,5,0\n" +
+            "2100,bob,s2,FILE_ACCESS,/d,5,0\n";
+
+        String arquivo = criarArquivoTeste("teste1.csv", conteudo);
+        Optional<List<String>> resultado = solucao.desafio5_rastrearContaminacao(arquivo, "/a", "/d");
+
+        verificar("Deve encontrar o caminho com menos saltos",
+                 resultado.equals(Optional.of(Arrays.asList("/a", "/d"))), resultado);
+    }
+
+    private static void testarSemCaminho() throws IOException {
+        System.out.println("🧪 Teste 2: Sem Caminho Entre os Recursos");
+
+        String conteudo = CABECALHO +
+            "1000,alice,s1,LOGIN,/a,5,0\n" +
+            "1100,alice,s1,FILE_ACCESS,/b,5,0\n" +
+            "2000,bob,s2,LOGIN,/c,5,0\n" +
+            "2100,bob,s2,FILE_ACCESS,/d,5,0\n";
+
+        String arquivo = criarArquivoTeste("teste2.csv", conteudo);
+        Optional<List<String>> resultado = solucao.desafio5_rastrearContaminacao(arquivo, "/a", "/d");
+
+        verificar("Deve retornar Optional vazio", !resultado.isPresent(), resultado);
+    }
+
+    private static void testarRecursoInexistente() throws IOException {
+        System.out.println("🧪 Teste 3: Recurso Inicial Inexistente");
+
+        String conteudo = CABECALHO +
+            "1000,alice,s1,LOGIN,/a,5,0\n" +
+            "1100,alice,s1,FILE_ACCESS,/b,5,0\n";
+
+        String arquivo = criarArquivoTeste("teste3.csv", conteudo);
+        Optional<List<String>> resultado = solucao.desafio5_rastrearContaminacao(arquivo, "/x", "/b");
+
+        verificar("Deve retornar Optional vazio", !resultado.isPresent(), resultado);
+    }
+
+    // ===== GRAFO TEMPORAL =====
+
+    private static void testarCaminhoImpossivelNoTempo() throws IOException {
+        System.out.println("🧪 Teste 4: Caminho Estático Impossível na Ordem do Tempo");
+
+        // a -> b acontece em 2000, mas b -> c só aconteceu antes (600)
+        String conteudo = CABECALHO +
+            "500,bob,s2,LOGIN,/b,5,0\n" +
+            "600,bob,s2,FILE_ACCESS,/c,5,0\n" +
+            "1000,alice,s1,LOGIN,/a,5,0\n" +
+            "2000,alice,s1,FILE_ACCESS,/b,5,0\n";
+
+        String arquivo = criarArquivoTeste("teste4.csv", conteudo);
+        Optional<List<String>> estatico = solucao.desafio5_rastrearContaminacao(arquivo, "/a", "/c");
+        Optional<List<String>> temporal = ContaminacaoTemporal.rastrear(arquivo, "/a", "/c");
+
+        verificar("BFS estática encontra caminho, mas a versão temporal não",
+                 estatico.isPresent() && !temporal.isPresent(), temporal);
+    }
+
+    private static void testarCaminhoTemporalValido() throws IOException {
+        System.out.println("🧪 Teste 5: Caminho que Respeita o Tempo");
+
+        // Atalho a -> c só em 100 (antes de sair de a); rota válida: a -> b -> c
+        String conteudo = CABECALHO +
+            "50,carol,s0,LOGIN,/a,5,0\n" +
+            "100,carol,s0,FILE_ACCESS,/c,5,0\n" +
+            "500,bob,s2,LOGIN,/b,5,0\n" +
+            "600,bob,s2,FILE_ACCESS,/c,5,0\n" +
+            "1000,alice,s1,LOGIN,/a,5,0\n" +
+            "2000,alice,s1,FILE_ACCESS,/b,5,0\n" +
+            "3000,dave,s3,LOGIN,/b,5,0\n" +
+            "3100,dave,s3,FILE_ACCESS,/c,5,0\n";
+
+        String arquivo = criarArquivoTeste("teste5.csv", conteudo);
+        ContaminacaoTemporal grafo = ContaminacaoTemporal.construir(arquivo);
+
+        Optional<List<String>> semRestricao = grafo.rastrear("/a", "/c");
+        Optional<List<ContaminacaoTemporal.Passo>> aPartirDe1000 =
+            grafo.rastrearComInstantes("/a", "/c", 1000);
+
+        boolean passou = semRestricao.equals(Optional.of(Arrays.asList("/a", "/c"))) &&
+                        aPartirDe1000.isPresent() &&
+                        aPartirDe1000.get().size() == 3 &&
+                        aPartirDe1000.get().get(1).getInstante() == 2000 &&
+                        aPartirDe1000.get().get(2).getInstante() == 3100;
+
+        verificar("Cada salto deve ocorrer no mesmo instante ou depois do anterior",
+                 passou, aPartirDe1000);
+    }
+
+    // ===== ALCANÇABILIDADE =====
+
+    private static void testarRaioDeImpacto() throws IOException {
+        System.out.println("🧪 Teste 6: Raio de Impacto Direto e Reverso");
+
+        // e -> a -> b <-> c -> d (b e c formam um ciclo)
+        String conteudo = CABECALHO +
+            "1000,alice,s1,LOGIN,/e,5,0\n" +
+            "1100,alice,s1,FILE_ACCESS,/a,5,0\n" +
+            "1200,alice,s1,FILE_ACCESS,/b,5,0\n" +
+            "1300,alice,s1,FILE_ACCESS,/c,5,0\n" +
+            "1400,alice,s1,FILE_ACCESS,/b,5,0\n" +
+            "2000,bob,s2,LOGIN,/c,5,0\n" +
+            "2100,bob,s2,FILE_ACCESS,/d,5,0\n";
+
+        String arquivo = criarArquivoTeste("teste6.csv", conteudo);
+        Alcancabilidade alcance = Alcancabilidade.construir(arquivo);
+
+        boolean passou = alcance.alcancaveisAPartirDe("/a").equals(Set.of("/b", "/c", "/d")) &&
+                        alcance.alcancaveisAPartirDe("/b").equals(Set.of("/c", "/d")) &&
+                        alcance.quePodemAlcancar("/d").equals(Set.of("/e", "/a", "/b", "/c")) &&
+                        alcance.quePodemAlcancar("/e").isEmpty() &&
+                        alcance.alcanca("/e", "/d") &&
+                        !alcance.alcanca("/d", "/a") &&
+                        alcance.totalComponentes() == 4;
+
+        verificar("Deve responder alcançáveis e quem pode alcançar",
+                 passou, alcance.alcancaveisAPartirDe("/a"));
+    }
+
+    private static void testarAlcancabilidadeConsistenteComBFS() throws IOException {
+        System.out.println("🧪 Teste 7: Alcançabilidade Consistente com o Desafio 5");
+
+        Random random = new Random(3);
+        StringBuilder sb = new StringBuilder(CABECALHO);
+        for (int s = 0; s < 12; s++) {
+            for (int i = 0; i < 3; i++) {
+                sb.append(s * 100 + i).append(",u,s").append(s).append(",FILE_ACCESS,/r")
+                  .append(random.nextInt(15)).append(",5,0\n");
+            }
+        }
+
+        String arquivo = criarArquivoTeste("teste7.csv", sb.toString());
+        Alcancabilidade alcance = Alcancabilidade.construir(arquivo);
+
+        boolean passou = true;
+        for (int a = 0; a < 15 && passou; a++) {
+            Set<String> alcancaveis = new HashSet<>();
+            for (int b = 0; b < 15; b++) {
+                if (a != b && solucao.desafio5_rastrearContaminacao(arquivo, "/r" + a, "/r" + b).isPresent()) {
+                    alcancaveis.add("/r" + b);
+                }
+            }
+            Set<String> obtido = new HashSet<>(alcance.alcancaveisAPartirDe("/r" + a));
+            obtido.remove("/r" + a);
+            passou = obtido.equals(alcancaveis);
+        }
+
+        verificar("Alcançáveis devem coincidir com os caminhos da BFS", passou, alcance.totalComponentes());
+    }
+
+    // ===== CAMINHOS PONDERADOS =====
+
+    private static void testarCaminhoMaisSuspeito() throws IOException {
+        System.out.println("🧪 Teste 8: Caminho Mais Suspeito");
+
+        // a -> d direto com severidade 1; a -> b -> d com severidade 10 e muitos bytes
+        String conteudo = CABECALHO +
+            "1000,alice,s1,LOGIN,/a,1,0\n" +
+            "1100,alice,s1,FILE_ACCESS,/d,1,0\n" +
+            "2000,bob,s2,LOGIN,/a,9,0\n" +
+            "2100,bob,s2,FILE_ACCESS,/b,10,500000\n" +
+            "2200,bob,s2,DATA_TRANSFER,/d,10,900000\n";
+
+        String arquivo = criarArquivoTeste("teste8.csv", conteudo);
+        Optional<List<String>> bfs = solucao.desafio5_rastrearContaminacao(arquivo, "/a", "/d");
+        Optional<List<String>> ponderado = CaminhosPonderados.rastrear(arquivo, "/a", "/d");
+
+        boolean passou = bfs.equals(Optional.of(Arrays.asList("/a", "/d"))) &&
+                        ponderado.equals(Optional.of(Arrays.asList("/a", "/b", "/d"))) &&
+                        CaminhosPonderados.rastrear(arquivo, "/d", "/a").isEmpty();
+
+        verificar("Deve preferir a rota de maior severidade à de menos saltos", passou, ponderado);
+    }
+
+    private static void testarKCaminhosContraForcaBruta() throws IOException {
+        System.out.println("🧪 Teste 9: k Caminhos de Menor Custo (Comparação com Força Bruta)");
+
+        Random random = new Random(11);
+        StringBuilder sb = new StringBuilder(CABECALHO);
+        for (int s = 0; s < 20; s++) {
+            for (int i = 0; i < 3; i++) {
+                sb.append(s * 100 + i).append(",u,s").append(s).append(",FILE_ACCESS,/r")
+                  .append(random.nextInt(8)).append(',').append(random.nextInt(11))
+                  .append(',').append(random.nextInt(100000)).append('\n');
+            }
+        }
+
+        String arquivo = criarArquivoTeste("teste9.csv", sb.toString());
+        CaminhosPonderados caminhos = CaminhosPonderados.construir(arquivo);
+
+        // Força bruta: enumerar todos os caminhos simples pelos custos de cada par
+        Map<String, Double> custos = new HashMap<>();
+        List<String> linhas = Files.readAllLines(Path.of(arquivo));
+        Map<String, List<String[]>> porSessao = new HashMap<>();
+        for (String linha : linhas.subList(1, linhas.size())) {
+            String[] campos = linha.split(",");
+            porSessao.computeIfAbsent(campos[2], k -> new ArrayList<>()).add(campos);
+        }
+        Map<String, Integer> severidades = new HashMap<>();
+        Map<String, Long> bytes = new HashMap<>();
+        for (List<String[]> sessao : porSessao.values()) {
+            for (int i = 0; i + 1 < sessao.size(); i++) {
+                String par = sessao.get(i)[4] + ">" + sessao.get(i + 1)[4];
+                severidades.merge(par, Integer.parseInt(sessao.get(i + 1)[5]), Math::max);
+                bytes.merge(par, Long.parseLong(sessao.get(i + 1)[6]), Long::sum);
+            }
+        }
+        for (String par : severidades.keySet()) {
+            custos.put(par, CaminhosPonderados.custoAresta(severidades.get(par), bytes.get(par)));
+        }
+
+        boolean passou = true;
+        int k = 4;
+        for (int a = 0; a < 8 && passou; a++) {
+            for (int b = 0; b < 8 && passou; b++) {
+                if (a == b) {
+                    continue;
+                }
+                List<Double> esperados = new ArrayList<>();
+                enumerar("/r" + a, "/r" + b, new ArrayList<>(List.of("/r" + a)), 0, custos, esperados);
+                esperados.sort(null);
+
+                List<CaminhosPonderados.Caminho> obtidos = caminhos.maisSuspeitos("/r" + a, "/r" + b, k);
+                passou = obtidos.size() == Math.min(k, esperados.size());
+                for (int i = 0; i < obtidos.size() && passou; i++) {
+                    passou = Math.abs(obtidos.get(i).getCusto() - esperados.get(i)) < 1e-9 &&
+                             new HashSet<>(obtidos.get(i).getRecursos()).size() == obtidos.get(i).getRecursos().size();
+                }
+            }
+        }
+
+        verificar("Custos dos k caminhos devem coincidir com a enumeração completa", passou, caminhos);
+    }
+
+    private static void enumerar(String atual, String alvo, List<String> caminho, double custo,
+                                 Map<String, Double> custos, List<Double> resultado) {
+        if (atual.equals(alvo)) {
+            resultado.add(custo);
+            return;
+        }
+        for (Map.Entry<String, Double> aresta : custos.entrySet()) {
+            String[] par = aresta.getKey().split(">");
+            if (par[0].equals(atual) && !caminho.contains(par[1])) {
+                caminho.add(par[1]);
+                enumerar(par[1], alvo, caminho, custo + aresta.getValue(), custos, resultado);
+                caminho.remove(caminho.size() - 1);
+            }
+        }
+    }
+
+    // ===== BFS PARALELA =====
+
+    private static void testarBFSParalelaPequena() throws IOException {
+        System.out.println("🧪 Teste 10: BFS Paralela em Grafo Pequeno");
+
+        String arquivo = criarArquivoTeste("teste10.csv", CABECALHO +
+            "1000,alice,s1,LOGIN,/a,5,0\n" +
+            "1100,alice,s1,FILE_ACCESS,/b,5,0\n" +
+            "1200,alice,s1,FILE_ACCESS,/c,5,0\n" +
+            "1300,alice,s1,FILE_ACCESS,/d,5,0\n" +
+            "2000,bob,s2,LOGIN,/a,5,0\n" +
+            "2100,bob,s2,FILE_ACCESS,/d,5,0\n");
+
+        boolean passou =
+            BuscaLarguraParalela.rastrear(arquivo, "/a", "/d").equals(Optional.of(Arrays.asList("/a", "/d"))) &&
+            BuscaLarguraParalela.rastrear(arquivo, "/b", "/d").equals(Optional.of(Arrays.asList("/b", "/c", "/d"))) &&
+            BuscaLarguraParalela.rastrear(arquivo, "/d", "/a").isEmpty() &&
+            BuscaLarguraParalela.rastrear(arquivo, "/x", "/a").isEmpty();
+
+        verificar("Deve retornar os mesmos caminhos da BFS sequencial", passou,
+                 BuscaLarguraParalela.rastrear(arquivo, "/b", "/d"));
+    }
+
+    private static void testarBFSParalelaGrafoGrande() {
+        System.out.println("🧪 Teste 11: BFS Paralela em Grafo Grande (Top-Down e Bottom-Up)");
+
+        // Sessões curtas com recursos aleatórios: grafo de baixo diâmetro
+        Random random = new Random(5);
+        int recursos = 50_000;
+        List<LogEntry> logs = new ArrayList<>();
+        for (int s = 0; s < 60_000; s++) {
+            for (int i = 0; i < 3; i++) {
+                logs.add(new LogEntry(s * 10L + i, "u", "s" + s, "FILE_ACCESS",
+                                      "/r" + random.nextInt(recursos), 5, 0));
+            }
+        }
+        GrafoRecursos grafo = GrafoRecursos.construir(logs);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        boolean passou = true;
+        try {
+            for (int consulta = 0; consulta < 20 && passou; consulta++) {
+                int origem = random.nextInt(grafo.vertices());
+                int alvo = random.nextInt(grafo.vertices());
+                int esperado = distanciaSequencial(grafo, origem, alvo);
+                int[] caminho = BuscaLarguraParalela.caminhoMaisCurto(grafo, origem, alvo, pool);
+
+                if (esperado < 0) {
+                    passou = caminho == null;
+                    continue;
+                }
+                passou = caminho != null && caminho.length - 1 == esperado &&
+                         caminho[0] == origem && caminho[caminho.length - 1] == alvo;
+                for (int i = 0; i + 1 < (caminho == null ? 0 : caminho.length) && passou; i++) {
+                    passou = grafo.indiceAresta(caminho[i], caminho[i + 1]) >= 0;
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        verificar("Caminhos válidos com o mesmo número de saltos da BFS sequencial", passou, grafo.arestas());
+    }
+
+    private static void testarConstrucaoParalelaDoGrafo() {
+        System.out.println("🧪 Teste 12: Construção Paralela do Grafo");
+
+        // Sessões intercaladas e fora de ordem de tempo
+        Random random = new Random(9);
+        List<LogEntry> logs = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            logs.add(new LogEntry(random.nextInt(1_000_000), "u", "s" + random.nextInt(5_000),
+                                  "FILE_ACCESS", "/r" + random.nextInt(2_000),
+                                  random.nextInt(11), random.nextInt(1000)));
+        }
+
+        // Referência: mesmo agrupamento do construirGrafo da solução
+        Map<String, List<LogEntry>> porSessao = new HashMap<>();
+        for (LogEntry log : logs) {
+            porSessao.computeIfAbsent(log.getSessionId(), k -> new ArrayList<>()).add(log);
+        }
+        Map<String, Integer> severidades = new HashMap<>();
+        Map<String, Long> bytes = new HashMap<>();
+        for (List<LogEntry> sessao : porSessao.values()) {
+            sessao.sort((a, b) -> Long.compare(a.getTimestamp(), b.getTimestamp()));
+            for (int i = 0; i + 1 < sessao.size(); i++) {
+                String par = sessao.get(i).getTargetResource() + ">" + sessao.get(i + 1).getTargetResource();
+                severidades.merge(par, sessao.get(i + 1).getSeverityLevel(), Math::max);
+                bytes.merge(par, sessao.get(i + 1).getBytesTransferred(), Long::sum);
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        GrafoRecursos grafo;
+        try {
+            grafo = GrafoRecursos.construir(logs, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        boolean passou = grafo.arestas() == severidades.size();
+        for (int v = 0; v < grafo.vertices() && passou; v++) {
+            for (int e = grafo.inicioVizinhos(v); e < grafo.fimVizinhos(v) && passou; e++) {
+                String par = grafo.getDicionario().nome(v) + ">" + grafo.getDicionario().nome(grafo.destino(e));
+                passou = severidades.containsKey(par) &&
+                         severidades.get(par) == grafo.severidadeMaxima(e) &&
+                         bytes.get(par) == grafo.bytesTotal(e);
+            }
+        }
+
+        verificar("Arestas e agregados devem coincidir com a construção sequencial", passou, grafo.arestas());
+
+        // Ids e listas de vizinhos iguais aos de uma única thread (faixas traduzidas em ordem)
+        ForkJoinPool umaThread = new ForkJoinPool(1);
+        GrafoRecursos sequencial;
+        try {
+            sequencial = GrafoRecursos.construir(logs, umaThread);
+        } finally {
+            umaThread.shutdown();
+        }
+        boolean iguais = sequencial.vertices() == grafo.vertices() && sequencial.arestas() == grafo.arestas();
+        for (int v = 0; v < grafo.vertices() && iguais; v++) {
+            iguais = sequencial.getDicionario().nome(v).equals(grafo.getDicionario().nome(v)) &&
+                     sequencial.inicioVizinhos(v) == grafo.inicioVizinhos(v) &&
+                     sequencial.fimVizinhos(v) == grafo.fimVizinhos(v);
+            for (int e = grafo.inicioVizinhos(v); e < grafo.fimVizinhos(v) && iguais; e++) {
+                iguais = sequencial.destino(e) == grafo.destino(e);
+            }
+        }
+        verificar("Ids dos vértices não devem depender do número de threads", iguais, grafo.vertices());
+    }
+
+    // ===== GRAFO PERSISTENTE =====
+
+    private static void testarGrafoPersistente() throws IOException {
+        System.out.println("🧪 Teste 13: Grafo Persistido e Reaproveitado");
+
+        String arquivo = criarArquivoTeste("teste13.csv", CABECALHO +
+            "1000,alice,s1,LOGIN,/a,5,0\n" +
+            "1100,alice,s1,FILE_ACCESS,/b,7,100\n" +
+            "1200,alice,s1,FILE_ACCESS,/c,5,0\n");
+        Path csv = Path.of(arquivo);
+        Path persistido = GrafoPersistente.arquivoPara(csv);
+
+        GrafoRecursos construido = GrafoPersistente.carregarOuConstruir(arquivo);
+        GrafoRecursos lido = GrafoPersistente.carregar(persistido, csv);
+
+        boolean mesmoGrafo = lido != null && Files.exists(persistido) &&
+                             lido.vertices() == construido.vertices() &&
+                             lido.arestas() == construido.arestas() &&
+                             lido.getDicionario().id("/b") == construido.getDicionario().id("/b") &&
+                             lido.severidadeMaxima(0) == construido.severidadeMaxima(0) &&
+                             lido.bytesTotal(0) == construido.bytesTotal(0);
+
+        // CSV alterado: o arquivo persistido deixa de valer
+        Files.writeString(csv, "1300,alice,s1,FILE_ACCESS,/d,5,0\n", StandardOpenOption.APPEND);
+        boolean invalidado = GrafoPersistente.carregar(persistido, csv) == null;
+
+        System.setProperty("forense.grafo.persistente", "true");
+        Optional<List<String>> comPersistencia;
+        try {
+            comPersistencia = solucao.desafio5_rastrearContaminacao(arquivo, "/a", "/d");
+        } finally {
+            System.clearProperty("forense.grafo.persistente");
+        }
+        boolean regravado = GrafoPersistente.carregar(persistido, csv) != null;
+
+        // Arquivo corrompido: reconstrói em vez de falhar
+        Files.write(persistido, new byte[] {1, 2, 3});
+        boolean corrompido = GrafoPersistente.carregar(persistido, csv) == null &&
+                             GrafoPersistente.carregarOuConstruir(arquivo).arestas() == 3;
+
+        // Falha ao gravar (o destino é um diretório não vazio): devolve o grafo
+        // construído, com aviso, sem deixar temporários
+        String outro = criarArquivoTeste("teste13b.csv", CABECALHO + "1000,alice,s1,LOGIN,/a,5,0\n" +
+                                                       "1100,alice,s1,FILE_ACCESS,/b,7,100\n");
+        Path bloqueado = GrafoPersistente.arquivoPara(Path.of(outro));
+        Files.createDirectories(bloqueado.resolve("ocupado"));
+        boolean semGravar = GrafoPersistente.carregarOuConstruir(outro).arestas() == 1;
+        try (Stream<Path> conteudo = Files.list(bloqueado.getParent())) {
+            semGravar &= conteudo.noneMatch(p -> p.getFileName().toString().endsWith(".tmp"));
+        }
+
+        boolean passou = mesmoGrafo && invalidado && regravado && corrompido && semGravar &&
+                        comPersistencia.equals(solucao.desafio5_rastrearContaminacao(arquivo, "/a", "/d")) &&
+                        comPersistencia.equals(Optional.of(Arrays.asList("/a", "/b", "/c", "/d")));
+
+        verificar("Deve reaproveitar o grafo gravado e reconstruir quando o CSV mudar",
+                 passou, comPersistencia);
+    }
+
+    private static void testarGrafoPersistenteDeDiretorio() throws IOException {
+        System.out.println("🧪 Teste 14: Grafo Persistido de Diretório e Glob");
+
+        // Log rotacionado em dois arquivos: /a -> /b -> /c na sessão s1
+        Path diretorio = Files.createTempDirectory("forensic-tests").resolve("logs");
+        Files.createDirectories(diretorio);
+        Files.writeString(diretorio.resolve("a-1.csv"), CABECALHO +
+            "1000,alice,s1,LOGIN,/a,5,0\n" +
+            "1100,alice,s1,FILE_ACCESS,/b,5,0\n");
+        Path segundo = diretorio.resolve("a-2.csv");
+        Files.writeString(segundo, CABECALHO + "1200,alice,s1,FILE_ACCESS,/c,5,0\n");
+        String glob = diretorio.resolve("a-*.csv").toString();
+
+        Optional<List<String>> antes;
+        Optional<List<String>> depois;
+        Optional<List<String>> peloGlob;
+        System.setProperty("forense.grafo.persistente", "true");
+        try {
+            antes = solucao.desafio5_rastrearContaminacao(diretorio.toString(), "/a", "/c");
+
+            // Arquivo de dentro do diretório reescrito: o tamanho e a data do
+            // diretório não mudam, mas o grafo gravado deixa de valer
+            Files.writeString(segundo, CABECALHO + "1200,alice,s1,FILE_ACCESS,/dd,5,0\n");
+            depois = solucao.desafio5_rastrearContaminacao(diretorio.toString(), "/a", "/c");
+
+            peloGlob = solucao.desafio5_rastrearContaminacao(glob, "/a", "/dd");
+        } finally {
+            System.clearProperty("forense.grafo.persistente");
+        }
+
+        boolean arquivos = Files.exists(GrafoPersistente.arquivoPara(diretorio.toString())) &&
+                           Files.exists(GrafoPersistente.arquivoPara(glob)) &&
+                           !Files.exists(diretorio.resolve("a-*.csv" + GrafoPersistente.EXTENSAO));
+
+        boolean passou = arquivos &&
+                        antes.equals(Optional.of(Arrays.asList("/a", "/b", "/c"))) &&
+                        !depois.isPresent() &&
+                        peloGlob.equals(Optional.of(Arrays.asList("/a", "/b", "/dd"))) &&
+                        peloGlob.equals(solucao.desafio5_rastrearContaminacao(glob, "/a", "/dd"));
+
+        verificar("Grafo de diretório/glob deve ser invalidado quando um arquivo interno muda",
+                 passou, antes + " / " + depois + " / " + peloGlob);
+    }
+
+    private static int distanciaSequencial(GrafoRecursos grafo, int origem, int alvo) {
+        int[] distancia = new int[grafo.vertices()];
+        Arrays.fill(distancia, -1);
+        int[] fila = new int[grafo.vertices()];
+        int cabeca = 0;
+        int cauda = 0;
+        fila[cauda++] = origem;
+        distancia[origem] = 0;
+        while (cabeca < cauda) {
+            int v = fila[cabeca++];
+            for (int e = grafo.inicioVizinhos(v); e < grafo.fimVizinhos(v); e++) {
+                int w = grafo.destino(e);
+                if (distancia[w] < 0) {
+                    distancia[w] = distancia[v] + 1;
+                    fila[cauda++] = w;
+                }
+            }
+        }
+        return distancia[alvo];
+    }
+
+    // ===== EMPATES DE INSTANTE =====
+
+    private static void testarSaltosNoMesmoInstante() throws IOException {
+        System.out.println("🧪 Teste 15: Cadeia Longa de Saltos no Mesmo Instante");
+
+        // /r0 -> /r1 -> ... -> /rN, todas as arestas no instante 5000, em sessões
+        // escritas de trás para frente; /x só é alcançado depois (em 6000) e não
+        // pode servir de atalho para /rN
+        int n = 3_000;
+        StringBuilder conteudo = new StringBuilder(CABECALHO);
+        for (int i = n - 1; i >= 0; i--) {
+            conteudo.append("4000,u,s").append(i).append(",LOGIN,/r").append(i).append(",5,0\n")
+                    .append("5000,u,s").append(i).append(",FILE_ACCESS,/r").append(i + 1).append(",5,0\n");
+        }
+        conteudo.append("5500,u,sx,LOGIN,/r0,5,0\n")
+                .append("6000,u,sx,FILE_ACCESS,/x,5,0\n")
+                .append("7000,u,sy,LOGIN,/x,5,0\n")
+                .append("7000,u,sy,FILE_ACCESS,/y,5,0\n");
+
+        ContaminacaoTemporal grafo = ContaminacaoTemporal.construir(
+            criarArquivoTeste("teste15.csv", conteudo.toString()));
+
+        Optional<List<ContaminacaoTemporal.Passo>> cadeia = grafo.rastrearComInstantes("/r0", "/r" + n, 0);
+        boolean passou = cadeia.isPresent() && cadeia.get().size() == n + 1;
+        for (int i = 1; passou && i <= n; i++) {
+            passou = cadeia.get().get(i).getRecurso().equals("/r" + i) &&
+                     cadeia.get().get(i).getInstante() == 5000;
+        }
+
+        // Partindo depois de 5000 a cadeia não existe mais; /x -> /y (7000) continua valendo
+        boolean semCadeia = !grafo.rastrearComInstantes("/r0", "/r" + n, 5001).isPresent() &&
+                            grafo.rastrear("/r0", "/y").equals(Optional.of(Arrays.asList("/r0", "/x", "/y")));
+
+        verificar("Saltos encadeados no mesmo instante devem formar um único caminho",
+                 passou && semCadeia, cadeia.map(List::size).orElse(0));
+    }
+
+    // ===== MÉTODOS AUXILIARES =====
+
+    private static String criarArquivoTeste(String nome, String conteudo) throws IOException {
+        Path tempDir = Files.createTempDirectory("forensic-tests");
+        Path arquivo = tempDir.resolve(nome);
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(arquivo.toFile()))) {
+            writer.write(conteudo);
+        }
+
+        return arquivo.toString();
+    }
+
+    private static void verificar(String descricao, boolean condicao, Object resultado) {
+        if (condicao) {
+            System.out.println("   ✅ PASSOU: " + descricao);
+            testesPassados++;
+        } else {
+            System.out.println("   ❌ FALHOU: " + descricao);
+            System.out.println("   Resultado: " + resultado);
+            testesFalhados++;
+        }
+        System.out.println();
+    }
+
+    private static void imprimirResumo() {
+        System.out.println("\n╔════════════════════════════════════════════════════════════╗");
+        System.out.println("║                     RESUMO DOS TESTES                      ║");
+        System.out.println("╚════════════════════════════════════════════════════════════╝");
+        System.out.println();
+        System.out.println("Total de testes: " + (testesPassados + testesFalhados));
+        System.out.println("✅ Passados: " + testesPassados);
+        System.out.println("❌ Falhados: " + testesFalhados);
+        System.out.println();
+
+        if (testesFalhados == 0) {
+            System.out.println("🎉 TODOS OS TESTES PASSARAM! Implementação correta.");
+        } else {
+            System.out.println("⚠️  Alguns testes falharam. Revise a implementação.");
+        }
+    }
+}
@@ -0,0 +1,830 @@
+package br.edu.icev.aed.forense.test;
+
+import br.edu.icev.aed.forense.Alerta;
+import br.edu.icev.aed.forense.LogEntry;
+import br.edu.icev.aed.forense.SolucaoForenseImpl;
+import br.edu.icev.aed.forense.extended.GrafoRecursos;
+import br.edu.icev.aed.forense.util.CSVReader;
+import br.edu.icev.aed.forense.util.EntradaGzipPipeline;
+import br.edu.icev.aed.forense.util.FormatoColunar;
+import br.edu.icev.aed.forense.util.LeitorLinhas;
+import br.edu.icev.aed.forense.util.OrdenacaoExterna;
+import br.edu.icev.aed.forense.util.ParserBlocos;
+import br.edu.icev.aed.forense.util.ParserLogs;
+import br.edu.icev.aed.forense.util.PipelineIngestao;
+import br.edu.icev.aed.forense.util.RelatorioErrosParse;
+import br.edu.icev.aed.forense.util.TabelaLogsOffHeap;
+import br.edu.icev.aed.forense.util.VarreduraDelimitadores;
+import br.edu.icev.aed.forense.util.VarreduraEscalar;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bateria de testes da leitura e do carregamento dos logs.
+ *
+ * Esta classe testa:
+ * - Tabela de logs fora do heap (colunas e arena de textos)
+ * - Desafios sobre a tabela fora do heap com os mesmos resultados da leitura normal
+ * - Arquivos gzip descomprimidos em paralelo com o parse
+ * - Diretórios e globs de arquivos rotacionados, mesclados por TIMESTAMP
+ * - Ordenação externa por TIMESTAMP com memória limitada
+ * - Pipeline de ingestão (leitor, parsers e consumidor em threads separadas)
+ * - Parser sem exceções e relatório de linhas rejeitadas
+ */
+public class TesteLeitorCSV {
+
+    private static final SolucaoForenseImpl solucao = new SolucaoForenseImpl();
+    private static int testesPassados = 0;
+    private static int testesFalhados = 0;
+
+    private static final String CABECALHO =
+        "TIMESTAMP,USER_ID,SESSION_ID,ACTION_TYPE,TARGET_RESOURCE,SEVERITY_LEVEL,BYTES_TRANSFERRED\n";
+
+    private static final String[] ACOES = {"LOGIN", "LOGOUT", "FILE_ACCESS", "DATA_TRANSFER"};
+
+    public static void main(String[] args) {
+        System.out.println("╔════════════════════════════════════════════════════════════╗");
+        System.out.println("║       BATERIA DE TESTES - LEITURA E CARGA DOS LOGS        ║");
+        System.out.println("╚════════════════════════════════════════════════════════════╝\n");
+
+        try {
+            // Tabela fora do heap
+            testarTabelaOffHeap();
+            testarDesafiosSobreTabelaOffHeap();
+
+            // Arquivos comprimidos
+            testarArquivoGzip();
+            testarGzipCorrompido();
+
+            // Vários arquivos
+            testarDiretorioMesclado();
+            testarGlobComDesafios();
+
+            // Ordenação externa
+            testarOrdenacaoExterna();
+            testarDesafiosComOrdenacao();
+
+            // Pipeline de ingestão
+            testarPipelineIngestao();
+
+            // Linhas malformadas
+            testarParserSemExcecoes();
+            testarRelatorioDeErros();
+            testarCamposEntreAspas();
+
+            // Varredura de delimitadores
+            testarParserBlocos();
+
+            // Formato colunar
+            testarFormatoColunar();
+            testarIntervaloColunar();
+
+            // Resumo
+            imprimirResumo();
+
+        } catch (Exception e) {
+            System.err.println("ERRO FATAL: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // ===== TABELA FORA DO HEAP =====
+
+    private static void testarTabelaOffHeap() throws IOException {
+        System.out.println("🧪 Teste 1: Colunas e Textos Fora do Heap");
+
+        // Mais de um bloco de linhas e textos com acentos
+        String arquivo = criarArquivoTeste("teste1.csv", gerarLogs(150_000, 1));
+        List<LogEntry> logs = CSVReader.lerTodosOsLogs(arquivo);
+        TabelaLogsOffHeap tabela = TabelaLogsOffHeap.carregar(arquivo);
+
+        boolean passou = tabela.tamanho() == logs.size();
+        for (int i = 0; i < logs.size() && passou; i++) {
+            LogEntry log = logs.get(i);
+            passou = tabela.getTimestamp(i) == log.getTimestamp() &&
+                     tabela.getUserId(i).equals(log.getUserId()) &&
+                     tabela.getSessionId(i).equals(log.getSessionId()) &&
+                     tabela.getActionType(i).equals(log.getActionType()) &&
+                     tabela.getTargetResource(i).equals(log.getTargetResource()) &&
+                     tabela.getSeverityLevel(i) == log.getSeverityLevel() &&
+                     tabela.getBytesTransferred(i) == log.getBytesTransferred();
+        }
+
+        verificar("Todos os campos devem coincidir com a leitura em LogEntry",
+                 passou, tabela.tamanho() + " linhas, " + tabela.textosDistintos() + " textos");
+    }
+
+    private static void testarDesafiosSobreTabelaOffHeap() throws IOException {
+        System.out.println("🧪 Teste 2: Desafios Sobre a Tabela Fora do Heap");
+
+        String arquivo = criarArquivoTeste("teste2.csv", gerarLogs(20_000, 2));
+        TabelaLogsOffHeap tabela = TabelaLogsOffHeap.carregar(arquivo);
+
+        boolean passou =
+            solucao.desafio1_encontrarSessoesInvalidas(tabela)
+                   .equals(solucao.desafio1_encontrarSessoesInvalidas(arquivo)) &&
+            solucao.desafio2_reconstruirLinhaDoTempo(tabela, "sessão-7")
+                   .equals(solucao.desafio2_reconstruirLinhaDoTempo(arquivo, "sessão-7")) &&
+            severidades(solucao.desafio3_priorizarAlertas(tabela, 100))
+                   .equals(severidades(solucao.desafio3_priorizarAlertas(arquivo, 100))) &&
+            solucao.desafio4_encontrarPicosDeTransferencia(tabela)
+                   .equals(solucao.desafio4_encontrarPicosDeTransferencia(arquivo)) &&
+            solucao.desafio5_rastrearContaminacao(tabela, "/dados/r1", "/dados/r9")
+                   .equals(solucao.desafio5_rastrearContaminacao(arquivo, "/dados/r1", "/dados/r9"));
+
+        verificar("Os cinco desafios devem dar o mesmo resultado da leitura normal",
+                 passou, tabela.tamanho());
+
+        // Grafo CSR montado pelos acessores da tabela: igual ao da lista de LogEntry
+        GrafoRecursos daTabela = GrafoRecursos.construir(tabela);
+        GrafoRecursos daLista = GrafoRecursos.construir(CSVReader.lerTodosOsLogs(arquivo));
+        boolean mesmoGrafo = daTabela.vertices() == daLista.vertices() && daTabela.arestas() == daLista.arestas();
+        for (int v = 0; v < daLista.vertices() && mesmoGrafo; v++) {
+            mesmoGrafo = daTabela.getDicionario().nome(v).equals(daLista.getDicionario().nome(v)) &&
+                         daTabela.inicioVizinhos(v) == daLista.inicioVizinhos(v);
+            for (int e = daLista.inicioVizinhos(v); e < daLista.fimVizinhos(v) && mesmoGrafo; e++) {
+                mesmoGrafo = daTabela.destino(e) == daLista.destino(e) &&
+                             daTabela.severidadeMaxima(e) == daLista.severidadeMaxima(e) &&
+                             daTabela.bytesTotal(e) == daLista.bytesTotal(e);
+            }
+        }
+
+        verificar("Grafo da tabela fora do heap deve ser igual ao da lista", mesmoGrafo, daTabela.arestas());
+    }
+
+    // ===== ARQUIVOS COMPRIMIDOS =====
+
+    private static void testarArquivoGzip() throws IOException {
+        System.out.println("🧪 Teste 3: Leitura de Arquivo Gzip");
+
+        // Vários blocos de 1 MB descomprimidos
+        String conteudo = gerarLogs(60_000, 3);
+        String arquivo = criarArquivoTeste("teste3.csv", conteudo);
+        String comprimido = criarArquivoGzip("teste3.csv.gz", conteudo);
+
+        List<LogEntry> normal = CSVReader.lerTodosOsLogs(arquivo);
+        List<LogEntry> descomprimido = CSVReader.lerTodosOsLogs(comprimido);
+
+        boolean passou = normal.size() == descomprimido.size() && normal.size() == 60_000;
+        for (int i = 0; i < normal.size() && passou; i++) {
+            passou = normal.get(i).getTimestamp() == descomprimido.get(i).getTimestamp() &&
+                     normal.get(i).getUserId().equals(descomprimido.get(i).getUserId()) &&
+                     normal.get(i).getBytesTransferred() == descomprimido.get(i).getBytesTransferred();
+        }
+        passou &= solucao.desafio1_encontrarSessoesInvalidas(comprimido)
+                         .equals(solucao.desafio1_encontrarSessoesInvalidas(arquivo));
+
+        verificar("Gzip deve produzir os mesmos logs do arquivo descomprimido",
+                 passou, descomprimido.size());
+    }
+
+    private static void testarGzipCorrompido() throws IOException {
+        System.out.println("🧪 Teste 4: Gzip Truncado");
+
+        byte[] completo = comprimir(gerarLogs(5_000, 4));
+        Path arquivo = Files.createTempDirectory("forensic-tests").resolve("teste4.csv.gz");
+        Files.write(arquivo, Arrays.copyOf(completo, completo.length / 2));
+
+        boolean lancou = false;
+        try {
+            CSVReader.lerTodosOsLogs(arquivo.toString());
+        } catch (IOException e) {
+            lancou = true;
+        }
+
+        verificar("Arquivo truncado deve gerar IOException", lancou, lancou);
+
+        // Depois do erro, novas leituras repetem o erro em vez de esperar na fila
+        int erros;
+        ExecutorService leitor = Executors.newSingleThreadExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "teste4-leitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (EntradaGzipPipeline entrada = new EntradaGzipPipeline(arquivo)) {
+            Future<Integer> leituras = leitor.submit(() -> {
+                int lancadas = 0;
+                byte[] buffer = new byte[8192];
+                for (int tentativa = 0; tentativa < 3; tentativa++) {
+                    try {
+                        while (entrada.read(buffer, 0, buffer.length) >= 0) {
+                            // Consumir até o erro
+                        }
+                    } catch (IOException e) {
+                        lancadas++;
+                    }
+                }
+                return lancadas;
+            });
+            erros = leituras.get(10, TimeUnit.SECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            erros = -1;
+        } finally {
+            leitor.shutdownNow();
+        }
+
+        verificar("Leituras após o erro devem gerar IOException de novo", erros == 3, erros);
+    }
+
+    // ===== VÁRIOS ARQUIVOS =====
+
+    private static void testarDiretorioMesclado() throws IOException {
+        System.out.println("🧪 Teste 5: Diretório de Arquivos Rotacionados");
+
+        Path diretorio = Files.createTempDirectory("forensic-tests");
+        Files.writeString(diretorio.resolve("a.csv"), CABECALHO +
+            "1000,alice,s1,LOGIN,/a,1,0\n" +
+            "3000,alice,s1,FILE_ACCESS,/b,1,0\n");
+        Files.write(diretorio.resolve("b.csv.gz"), comprimir(CABECALHO +
+            "2000,bob,s2,LOGIN,/c,1,0\n" +
+            "3000,bob,s2,FILE_ACCESS,/d,1,0\n"));
+        Files.writeString(diretorio.resolve("c.csv"), CABECALHO +
+            "500,carol,s3,LOGIN,/e,1,0\n");
+        // Arquivos que não são logs devem ser ignorados
+        Files.writeString(diretorio.resolve("notas.txt"), "não é log\n");
+
+        List<Long> timestamps = new ArrayList<>();
+        List<String> usuarios = new ArrayList<>();
+        for (LogEntry log : CSVReader.lerTodosOsLogs(diretorio.toString())) {
+            timestamps.add(log.getTimestamp());
+            usuarios.add(log.getUserId());
+        }
+
+        // Empate em 3000: a.csv vem antes de b.csv.gz
+        boolean passou = timestamps.equals(List.of(500L, 1000L, 2000L, 3000L, 3000L)) &&
+                        usuarios.equals(List.of("carol", "alice", "bob", "alice", "bob"));
+
+        verificar("Logs de todos os arquivos devem sair em ordem de tempo", passou, timestamps);
+
+        // Arquivos maiores que os lotes dos cursores, com tempos intercalados
+        Path grandes = Files.createTempDirectory("forensic-tests");
+        for (int arquivo = 0; arquivo < 3; arquivo++) {
+            StringBuilder conteudo = new StringBuilder(CABECALHO);
+            for (int i = 0; i < 10_000; i++) {
+                conteudo.append(3 * i + arquivo).append(",u,s").append(arquivo).append(",FILE_ACCESS,/r,1,0\n");
+            }
+            Files.writeString(grandes.resolve("parte-" + arquivo + ".csv"), conteudo);
+        }
+        long[] esperado = {0};
+        boolean[] emOrdem = {true};
+        CSVReader.lerLogs(grandes.toString(), log -> emOrdem[0] &= log.getTimestamp() == esperado[0]++);
+        boolean intercalados = emOrdem[0] && esperado[0] == 30_000;
+
+        // Erro em um dos arquivos chega ao chamador (sem travar o merge)
+        Files.write(grandes.resolve("parte-3.csv.gz"), Arrays.copyOf(comprimir(gerarLogs(5_000, 3)), 200));
+        boolean lancou = false;
+        try {
+            CSVReader.lerLogs(grandes.toString(), log -> { });
+        } catch (IOException e) {
+            lancou = true;
+        }
+
+        verificar("Merge deve ler os arquivos em lotes, em ordem, e repassar erros",
+                 intercalados && lancou, esperado[0] + " logs, erro=" + lancou);
+    }
+
+    private static void testarGlobComDesafios() throws IOException {
+        System.out.println("🧪 Teste 6: Glob de Arquivos nos Desafios");
+
+        // LOGIN em uma hora, LOGOUT na seguinte
+        Path diretorio = Files.createTempDirectory("forensic-tests");
+        Files.writeString(diretorio.resolve("acessos-10h.csv"), CABECALHO +
+            "1000,alice,s1,LOGIN,/a,5,100\n" +
+            "1100,alice,s1,FILE_ACCESS,/b,5,50\n");
+        Files.writeString(diretorio.resolve("acessos-11h.csv"), CABECALHO +
+            "1200,alice,s1,FILE_ACCESS,/c,5,700\n" +
+            "1300,alice,s1,LOGOUT,/a,5,0\n");
+        Files.writeString(diretorio.resolve("outro.csv"), CABECALHO +
+            "1050,bob,s9,LOGIN,/x,5,0\n");
+
+        String glob = diretorio.resolve("acessos-*.csv").toString();
+        Map<Long, Long> picos = solucao.desafio4_encontrarPicosDeTransferencia(glob);
+
+        boolean passou = solucao.desafio1_encontrarSessoesInvalidas(glob).isEmpty() &&
+                        solucao.desafio2_reconstruirLinhaDoTempo(glob, "s1")
+                               .equals(List.of("LOGIN", "FILE_ACCESS", "FILE_ACCESS", "LOGOUT")) &&
+                        picos.get(1000L) == 1200L && picos.get(1100L) == 1200L &&
+                        solucao.desafio5_rastrearContaminacao(glob, "/a", "/c").isPresent();
+
+        verificar("Sessões que atravessam arquivos devem ser analisadas como um só log", passou, picos);
+    }
+
+    // ===== ORDENAÇÃO EXTERNA =====
+
+    private static void testarOrdenacaoExterna() throws IOException {
+        System.out.println("🧪 Teste 7: Ordenação Externa com Várias Runs");
+
+        // Timestamps embaralhados com repetições; 64 KB de memória geram muitas runs
+        Random random = new Random(7);
+        StringBuilder sb = new StringBuilder(CABECALHO);
+        List<long[]> esperado = new ArrayList<>();
+        for (int i = 0; i < 30_000; i++) {
+            long timestamp = random.nextInt(5_000);
+            sb.append(timestamp).append(",u,s,FILE_ACCESS,/r,1,").append(i).append('\n');
+            esperado.add(new long[] {timestamp, i});
+        }
+        // Ordenação estável de referência: empates pela ordem original
+        esperado.sort((a, b) -> Long.compare(a[0], b[0]));
+
+        String arquivo = criarArquivoTeste("teste7.csv", sb.toString());
+        Path saida = Files.createTempDirectory("forensic-tests").resolve("ordenado.csv");
+        OrdenacaoExterna.ordenar(arquivo, saida, 64 << 10);
+
+        List<LogEntry> ordenados = CSVReader.lerTodosOsLogs(saida.toString());
+        boolean passou = !OrdenacaoExterna.estaOrdenado(arquivo) &&
+                        OrdenacaoExterna.estaOrdenado(saida.toString()) &&
+                        ordenados.size() == esperado.size() &&
+                        Files.readAllLines(saida).get(0).equals(CABECALHO.trim());
+        for (int i = 0; i < ordenados.size() && passou; i++) {
+            passou = ordenados.get(i).getTimestamp() == esperado.get(i)[0] &&
+                     ordenados.get(i).getBytesTransferred() == esperado.get(i)[1];
+        }
+
+        verificar("Saída deve estar ordenada, estável e com todas as linhas", passou, ordenados.size());
+    }
+
+    private static void testarDesafiosComOrdenacao() throws IOException {
+        System.out.println("🧪 Teste 8: Desafios com Garantia de Ordem Cronológica");
+
+        // Coletores juntados fora de ordem: o LOGOUT aparece antes do LOGIN no arquivo
+        String arquivo = criarArquivoTeste("teste8.csv", CABECALHO +
+            "2000,alice,s1,LOGOUT,/a,1,0\n" +
+            "1000,alice,s1,LOGIN,/a,1,0\n");
+
+        String jaOrdenado = criarArquivoTeste("teste8-ordenado.csv", CABECALHO +
+            "1000,alice,s1,LOGIN,/a,1,0\n");
+
+        boolean semOrdenacao = solucao.desafio1_encontrarSessoesInvalidas(arquivo).contains("s1");
+        boolean comOrdenacao;
+        int copiasAntes = copiasOrdenadas();
+        int copiasDepois;
+        System.setProperty(CSVReader.PROPRIEDADE_ORDENAR, "true");
+        try {
+            // Duas leituras: cada uma ordena, lê e apaga a sua cópia
+            comOrdenacao = solucao.desafio1_encontrarSessoesInvalidas(arquivo).isEmpty() &&
+                           solucao.desafio1_encontrarSessoesInvalidas(arquivo).isEmpty();
+            copiasDepois = copiasOrdenadas();
+        } finally {
+            System.clearProperty(CSVReader.PROPRIEDADE_ORDENAR);
+        }
+
+        // Caminho rápido: arquivo já ordenado não é copiado
+        boolean semCopia = OrdenacaoExterna.garantirOrdem(jaOrdenado).equals(jaOrdenado) &&
+                           OrdenacaoExterna.garantirOrdem(jaOrdenado).equals(jaOrdenado);
+
+        verificar("Com a ordenação ativa a sessão deve ser válida, sem deixar cópias",
+                 semOrdenacao && comOrdenacao && semCopia && copiasDepois == copiasAntes,
+                 semOrdenacao + "/" + comOrdenacao + "/" + semCopia +
+                 " / cópias: " + copiasAntes + " -> " + copiasDepois);
+    }
+
+    // ===== PIPELINE DE INGESTÃO =====
+
+    private static void testarPipelineIngestao() throws IOException {
+        System.out.println("🧪 Teste 9: Pipeline de Ingestão em Ordem");
+
+        // Vários blocos de 1 MB, com CRLF, linha inválida e sem '\n' no final
+        String conteudo = gerarLogs(60_000, 9).replace("\n", "\r\n") + "linha inválida\n" +
+                          "99999999,usuário-x,sessão-x,LOGIN,/fim,1,0";
+        String arquivo = criarArquivoTeste("teste9.csv", conteudo);
+        String arquivoGzip = criarArquivoGzip("teste9.csv.gz", conteudo);
+
+        List<String> esperado = new ArrayList<>();
+        for (LogEntry log : CSVReader.lerTodosOsLogs(arquivo)) {
+            esperado.add(log.toString());
+        }
+
+        List<String> lidos = new ArrayList<>();
+        PipelineIngestao.ler(Path.of(arquivo), 3, log -> lidos.add(log.toString()));
+        List<String> lidosGzip = new ArrayList<>();
+        PipelineIngestao.ler(Path.of(arquivoGzip), 2, log -> lidosGzip.add(log.toString()));
+
+        verificar("Pipeline deve entregar os mesmos logs, na ordem do arquivo",
+                 esperado.size() == 60_001 && lidos.equals(esperado) && lidosGzip.equals(esperado),
+                 esperado.size() + "/" + lidos.size() + "/" + lidosGzip.size());
+    }
+
+    // ===== LINHAS MALFORMADAS =====
+
+    private static void testarParserSemExcecoes() {
+        System.out.println("🧪 Teste 10: Parser com Códigos de Status");
+
+        ParserLogs parser = new ParserLogs();
+        boolean passou =
+            parser.parsear(" 10 , u , s , LOGIN , /r , +5 , -9223372036854775808,extra") == ParserLogs.OK &&
+            parser.resultado().getTimestamp() == 10 &&
+            parser.resultado().getUserId().equals("u") &&
+            parser.resultado().getSeverityLevel() == 5 &&
+            parser.resultado().getBytesTransferred() == Long.MIN_VALUE &&
+            parser.parsear("   ") == ParserLogs.LINHA_VAZIA &&
+            parser.parsear("1,u,s,LOGIN,/r,5") == ParserLogs.CAMPOS_INSUFICIENTES &&
+            parser.parsear("1a,u,s,LOGIN,/r,5,0") == ParserLogs.TIMESTAMP_INVALIDO &&
+            parser.parsear("9223372036854775808,u,s,LOGIN,/r,5,0") == ParserLogs.TIMESTAMP_INVALIDO &&
+            parser.parsear("1,u,s,LOGIN,/r,2147483648,0") == ParserLogs.SEVERIDADE_INVALIDA &&
+            parser.parsear("1,u,s,LOGIN,/r,5,-") == ParserLogs.BYTES_INVALIDOS &&
+            parser.resultado() == null;
+
+        verificar("Cada linha deve receber o status da sua categoria", passou, passou);
+    }
+
+    private static void testarRelatorioDeErros() throws IOException {
+        System.out.println("🧪 Teste 11: Relatório de Linhas Rejeitadas");
+
+        // 1000 linhas válidas intercaladas com 20 timestamps e 3 severidades inválidos
+        StringBuilder sb = new StringBuilder(CABECALHO);
+        for (int i = 0; i < 1_000; i++) {
+            sb.append(1_000 + i).append(",usuário,s,LOGIN,/r,1,0\n");
+            if (i % 50 == 0) {
+                sb.append("x").append(i).append(",usuário,s,LOGIN,/r,1,0\n");
+            }
+            if (i % 400 == 0) {
+                sb.append(i).append(",usuário,s,LOGIN,/r,alta,0\n");
+            }
+        }
+        String arquivo = criarArquivoTeste("teste11.csv", sb.toString());
+        byte[] bytes = Files.readAllBytes(Path.of(arquivo));
+        List<String> linhas = Files.readAllLines(Path.of(arquivo));
+
+        RelatorioErrosParse relatorio = new RelatorioErrosParse();
+        List<LogEntry> logs = CSVReader.lerTodosOsLogs(arquivo, relatorio);
+
+        boolean contagens = logs.size() == 1_000 && relatorio.getAceitas() == 1_000 &&
+                           relatorio.getRejeitadas(ParserLogs.TIMESTAMP_INVALIDO) == 20 &&
+                           relatorio.getRejeitadas(ParserLogs.SEVERIDADE_INVALIDA) == 3 &&
+                           relatorio.getTotalRejeitadas() == 23 &&
+                           relatorio.getAmostras(ParserLogs.TIMESTAMP_INVALIDO).size() ==
+                               RelatorioErrosParse.AMOSTRAS_POR_CATEGORIA;
+
+        // Número da linha e deslocamento em bytes apontam para a linha rejeitada
+        boolean localizadas = true;
+        for (RelatorioErrosParse.Amostra amostra : relatorio.getAmostras()) {
+            String naLinha = linhas.get((int) amostra.getNumeroLinha() - 1);
+            String noOffset = new String(bytes, (int) amostra.getOffsetByte(), naLinha.getBytes().length);
+            localizadas &= naLinha.equals(amostra.getLinha()) && noOffset.equals(amostra.getLinha());
+        }
+
+        // O pipeline deve produzir o mesmo relatório
+        RelatorioErrosParse relatorioPipeline = new RelatorioErrosParse();
+        PipelineIngestao.ler(Path.of(arquivo), 2, log -> { }, relatorioPipeline);
+        boolean mesmoNoPipeline = relatorioPipeline.toString().equals(relatorio.toString());
+
+        verificar("Rejeitadas devem ser contadas por categoria e localizadas no arquivo",
+                 contagens && localizadas && mesmoNoPipeline,
+                 relatorio + " | " + contagens + "/" + localizadas + "/" + mesmoNoPipeline);
+    }
+
+    private static void testarCamposEntreAspas() throws IOException {
+        System.out.println("🧪 Teste 12: Campos Entre Aspas (RFC 4180)");
+
+        ParserLogs parser = new ParserLogs();
+        boolean tokenizados =
+            parser.parsear("1,u,s,FILE_ACCESS,\"C:\\Dados\\a,b.txt\",5,100") == ParserLogs.OK &&
+            parser.resultado().getTargetResource().equals("C:\\Dados\\a,b.txt") &&
+            parser.parsear("2,u,s,FILE_ACCESS,\"cmd \"\"x,y\"\"\",5,100") == ParserLogs.OK &&
+            parser.resultado().getTargetResource().equals("cmd \"x,y\"") &&
+            parser.parsear("\"3\", \"u\" ,s,LOGIN,\"\",\"7\",\"-4\"") == ParserLogs.OK &&
+            parser.resultado().getTimestamp() == 3 && parser.resultado().getUserId().equals("u") &&
+            parser.resultado().getTargetResource().isEmpty() &&
+            parser.resultado().getSeverityLevel() == 7 && parser.resultado().getBytesTransferred() == -4 &&
+            parser.parsear("4,u,s,LOGIN,a\"b,1,0") == ParserLogs.OK &&
+            parser.resultado().getTargetResource().equals("a\"b") &&
+            parser.parsear("5,u,s,LOGIN,\"aberta,1,0") == ParserLogs.ASPAS_INVALIDAS &&
+            parser.parsear("6,u,s,LOGIN,\"a\"b,1,0") == ParserLogs.ASPAS_INVALIDAS &&
+            parser.parsear("7,u,s,LOGIN,\"a,b\",1") == ParserLogs.CAMPOS_INSUFICIENTES &&
+            parser.parsear("8,u,s,LOGIN,\"a,b\",\"x\",0") == ParserLogs.SEVERIDADE_INVALIDA;
+
+        // Desafio 5 sobre recursos com vírgula, inclusive pelo pipeline
+        String conteudo = CABECALHO +
+            "1000,u,s1,FILE_ACCESS,\"/a,1\",1,0\n" +
+            "1001,u,s1,FILE_ACCESS,\"/b \"\"2\"\"\",1,0\n" +
+            "1002,u,s1,FILE_ACCESS,/c,1,0\n" +
+            "1003,u,s2,FILE_ACCESS,\"/sem fim,1,0\n";
+        String arquivo = criarArquivoTeste("teste12.csv", conteudo);
+        Optional<List<String>> caminho = solucao.desafio5_rastrearContaminacao(arquivo, "/a,1", "/c");
+
+        RelatorioErrosParse relatorio = new RelatorioErrosParse();
+        List<LogEntry> sequencial = CSVReader.lerTodosOsLogs(arquivo, relatorio);
+        List<LogEntry> pipeline = new ArrayList<>();
+        PipelineIngestao.ler(Path.of(arquivo), 2, pipeline::add, new RelatorioErrosParse());
+
+        boolean lidos = caminho.isPresent() &&
+                        caminho.get().equals(Arrays.asList("/a,1", "/b \"2\"", "/c")) &&
+                        sequencial.size() == 3 && pipeline.size() == 3 &&
+                        pipeline.get(1).getTargetResource().equals("/b \"2\"") &&
+                        relatorio.getRejeitadas(ParserLogs.ASPAS_INVALIDAS) == 1;
+
+        verificar("Campos entre aspas devem aceitar vírgulas e aspas escapadas",
+                 tokenizados && lidos, tokenizados + " / " + caminho + " / " + relatorio);
+    }
+
+    // ===== VARREDURA DE DELIMITADORES =====
+
+    private static void testarParserBlocos() throws IOException {
+        System.out.println("🧪 Teste 13: Parser de Blocos com Varredura de Delimitadores");
+
+        byte[] trecho = "a,b\n\"c\",d".getBytes(StandardCharsets.UTF_8);
+        int[] posicoes = new int[trecho.length];
+        int encontrados = new VarreduraEscalar().varrer(trecho, 1, trecho.length, posicoes);
+        boolean varredura = encontrados == 5 &&
+                            Arrays.equals(Arrays.copyOf(posicoes, encontrados), new int[] {1, 3, 4, 6, 7});
+
+        // Mais de um bloco de 1 MB, com CRLF, aspas, acentos, espaços, campos extras e linhas inválidas
+        StringBuilder sb = new StringBuilder(gerarLogs(40_000, 13).replace("\n", "\r\n"));
+        sb.append("\n   \n")
+          .append(" 5 , usuário ,  sessão , LOGIN , /á é , +3 , 7 ,extra\n")
+          .append("6,u,s,FILE_ACCESS,\"/a,b\",2,9\n")
+          .append("7,u,s,LOGIN,/r,1\n")
+          .append("8,u,s,LOGIN,/r,x,0\n")
+          .append("9,u,s,LOGIN,/r,1,99999999999999999999\n")
+          .append("10,u,s,LOGIN,/fim,1,0");
+        String arquivo = criarArquivoTeste("teste13.csv", sb.toString());
+
+        // Referência: LeitorLinhas + ParserLogs, linha a linha
+        List<String> esperado = new ArrayList<>();
+        RelatorioErrosParse relatorioEsperado = new RelatorioErrosParse();
+        try (InputStream entrada = Files.newInputStream(Path.of(arquivo))) {
+            LeitorLinhas leitor = new LeitorLinhas(entrada, Charset.defaultCharset());
+            ParserLogs parser = new ParserLogs();
+            leitor.proximaLinha();
+            String linha;
+            while ((linha = leitor.proximaLinha()) != null) {
+                int status = parser.parsear(linha);
+                if (status == ParserLogs.OK) {
+                    relatorioEsperado.registrarAceita();
+                    esperado.add(parser.resultado().toString());
+                } else if (status != ParserLogs.LINHA_VAZIA) {
+                    relatorioEsperado.registrar(status, linha, leitor.getNumeroLinha(), leitor.getOffsetLinha());
+                }
+            }
+        }
+
+        List<String> lidos = new ArrayList<>();
+        RelatorioErrosParse relatorio = new RelatorioErrosParse();
+        try (InputStream entrada = Files.newInputStream(Path.of(arquivo))) {
+            new ParserBlocos(new VarreduraEscalar(), Charset.defaultCharset())
+                .ler(entrada, log -> lidos.add(log.toString()), relatorio);
+        }
+
+        // A varredura padrão (vetorial se disponível) pelo CSVReader
+        List<String> lidosPadrao = new ArrayList<>();
+        RelatorioErrosParse relatorioPadrao = new RelatorioErrosParse();
+        CSVReader.lerLogs(arquivo, log -> lidosPadrao.add(log.toString()), relatorioPadrao);
+
+        boolean iguais = esperado.size() == 40_003 && lidos.equals(esperado) && lidosPadrao.equals(esperado) &&
+                         relatorio.toString().equals(relatorioEsperado.toString()) &&
+                         relatorioPadrao.toString().equals(relatorioEsperado.toString()) &&
+                         relatorio.getTotalRejeitadas() == 3;
+
+        verificar("Parser de blocos deve ler como o parser de linhas (" +
+                  VarreduraDelimitadores.padrao().nome() + ")",
+                 varredura && iguais,
+                 varredura + " / " + esperado.size() + "/" + lidos.size() + "/" + lidosPadrao.size() +
+                 " / " + relatorio.resumo());
+    }
+
+    // ===== FORMATO COLUNAR =====
+
+    private static void testarFormatoColunar() throws IOException {
+        System.out.println("🧪 Teste 14: Formato Colunar no Lugar do CSV");
+
+        // Mais de um bloco, com acentos
+        String csv = criarArquivoTeste("teste14.csv", gerarLogs(150_000, 14));
+        String colunar = Path.of(csv).resolveSibling("teste14" + FormatoColunar.EXTENSAO).toString();
+        long gravadas = FormatoColunar.converter(csv, colunar);
+
+        List<String> esperado = new ArrayList<>();
+        for (LogEntry log : CSVReader.lerTodosOsLogs(csv)) {
+            esperado.add(log.toString());
+        }
+        List<String> lidos = new ArrayList<>();
+        for (LogEntry log : CSVReader.lerTodosOsLogs(colunar)) {
+            lidos.add(log.toString());
+        }
+
+        boolean mesmosLogs = gravadas == 150_000 && lidos.equals(esperado) &&
+                             FormatoColunar.ehColunar(Path.of(colunar)) && !FormatoColunar.ehColunar(Path.of(csv)) &&
+                             Files.size(Path.of(colunar)) < Files.size(Path.of(csv));
+
+        // Os Desafios aceitam o arquivo colunar no lugar do CSV
+        boolean mesmosDesafios =
+            solucao.desafio1_encontrarSessoesInvalidas(colunar).equals(solucao.desafio1_encontrarSessoesInvalidas(csv)) &&
+            solucao.desafio2_reconstruirLinhaDoTempo(colunar, "sessão-7")
+                   .equals(solucao.desafio2_reconstruirLinhaDoTempo(csv, "sessão-7")) &&
+            severidades(solucao.desafio3_priorizarAlertas(colunar, 50))
+                   .equals(severidades(solucao.desafio3_priorizarAlertas(csv, 50))) &&
+            solucao.desafio4_encontrarPicosDeTransferencia(colunar)
+                   .equals(solucao.desafio4_encontrarPicosDeTransferencia(csv)) &&
+            solucao.desafio5_rastrearContaminacao(colunar, "/dados/r1", "/dados/r2")
+                   .equals(solucao.desafio5_rastrearContaminacao(csv, "/dados/r1", "/dados/r2"));
+
+        // Arquivo truncado deve falhar em vez de devolver logs parciais
+        Path truncado = Path.of(colunar).resolveSibling("truncado" + FormatoColunar.EXTENSAO);
+        byte[] bytes = Files.readAllBytes(Path.of(colunar));
+        Files.write(truncado, Arrays.copyOf(bytes, bytes.length / 2));
+        boolean truncadoFalha = false;
+        try {
+            CSVReader.lerTodosOsLogs(truncado.toString());
+        } catch (IOException e) {
+            truncadoFalha = true;
+        }
+
+        // Conversão que falha no meio (gzip truncado) não deixa arquivo nem temporário
+        Path diretorio = Files.createTempDirectory("forensic-tests");
+        Path gzip = diretorio.resolve("truncado.csv.gz");
+        byte[] comprimido = comprimir(gerarLogs(50_000, 14));
+        Files.write(gzip, Arrays.copyOf(comprimido, comprimido.length / 2));
+        Path convertido = diretorio.resolve("truncado" + FormatoColunar.EXTENSAO);
+        boolean conversaoFalha = false;
+        try {
+            FormatoColunar.converter(gzip.toString(), convertido.toString());
+        } catch (IOException e) {
+            conversaoFalha = true;
+        }
+        long arquivosRestantes;
+        try (Stream<Path> conteudo = Files.list(diretorio)) {
+            arquivosRestantes = conteudo.count();
+        }
+        conversaoFalha &= !Files.exists(convertido) && arquivosRestantes == 1;
+
+        // Total de linhas do marcador de fim e ids do dicionário são conferidos
+        Path pequeno = diretorio.resolve("pequeno" + FormatoColunar.EXTENSAO);
+        FormatoColunar.escrever(Arrays.asList(new LogEntry(1, "u", "s", "LOGIN", "/r", 1, 0),
+                                              new LogEntry(2, "u", "s", "LOGOUT", "/r", 1, 0)), pequeno);
+        byte[] original = Files.readAllBytes(pequeno);
+        byte[] totalErrado = original.clone();
+        totalErrado[totalErrado.length - 1]++;
+        byte[] idErrado = original.clone();
+        int bytesDicionario = ByteBuffer.wrap(original).getInt(8 + 24);
+        int usuarios = 8 + 32 + bytesDicionario + 2 * (2 * Long.BYTES) + 2 * Integer.BYTES;
+        ByteBuffer.wrap(idErrado).putInt(usuarios, 1_000);
+        boolean corrompidosFalham = falhaAoLer(pequeno, totalErrado) && falhaAoLer(pequeno, idErrado);
+
+        // Carga (informativa: tempo depende da máquina)
+        long inicio = System.nanoTime();
+        CSVReader.lerTodosOsLogs(csv);
+        long tempoCsv = System.nanoTime() - inicio;
+        inicio = System.nanoTime();
+        CSVReader.lerTodosOsLogs(colunar);
+        long tempoColunar = System.nanoTime() - inicio;
+        System.out.printf("   Carga: CSV %d ms, colunar %d ms%n", tempoCsv / 1_000_000, tempoColunar / 1_000_000);
+
+        verificar("Arquivo colunar deve ser lido como o CSV de origem",
+                 mesmosLogs && mesmosDesafios && truncadoFalha && conversaoFalha && corrompidosFalham,
+                 mesmosLogs + "/" + mesmosDesafios + "/" + truncadoFalha + "/" + conversaoFalha +
+                 "/" + corrompidosFalham);
+    }
+
+    /**
+     * Grava o conteúdo no arquivo e verifica que a leitura lança IOException
+     */
+    private static boolean falhaAoLer(Path arquivo, byte[] conteudo) throws IOException {
+        Files.write(arquivo, conteudo);
+        try {
+            FormatoColunar.ler(arquivo, log -> { });
+            return false;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private static void testarIntervaloColunar() throws IOException {
+        System.out.println("🧪 Teste 15: Intervalo de Tempo com Descarte de Blocos");
+
+        String csv = criarArquivoTeste("teste15.csv", gerarLogs(5 * FormatoColunar.LINHAS_POR_BLOCO, 15));
+        String colunar = Path.of(csv).resolveSibling("teste15" + FormatoColunar.EXTENSAO).toString();
+        FormatoColunar.converter(csv, colunar);
+
+        // Timestamps 1000.. em ordem: o intervalo cai dentro do terceiro bloco
+        long inicio = 1_000 + 2L * FormatoColunar.LINHAS_POR_BLOCO + 10;
+        long fim = inicio + 500;
+
+        List<String> esperado = new ArrayList<>();
+        CSVReader.lerLogsNoIntervalo(csv, inicio, fim, log -> esperado.add(log.toString()));
+        List<String> lidos = new ArrayList<>();
+        CSVReader.lerLogsNoIntervalo(colunar, inicio, fim, log -> lidos.add(log.toString()));
+        int pulados = FormatoColunar.ler(Path.of(colunar), inicio, fim, log -> { });
+
+        verificar("Leitura por intervalo deve pular os blocos fora dele",
+                 esperado.size() == 501 && lidos.equals(esperado) && pulados == 4,
+                 esperado.size() + "/" + lidos.size() + " / pulados: " + pulados);
+    }
+
+    // ===== MÉTODOS AUXILIARES =====
+
+    /**
+     * Gera um CSV com usuários, sessões e recursos repetidos (incluindo acentos)
+     */
+    private static String gerarLogs(int linhas, long semente) {
+        Random random = new Random(semente);
+        StringBuilder sb = new StringBuilder(CABECALHO);
+        for (int i = 0; i < linhas; i++) {
+            sb.append(1_000 + i).append(",usuário-").append(random.nextInt(40))
+              .append(",sessão-").append(random.nextInt(300))
+              .append(',').append(ACOES[random.nextInt(ACOES.length)])
+              .append(",/dados/r").append(random.nextInt(60))
+              .append(',').append(1 + random.nextInt(10))
+              .append(',').append(random.nextInt(1_000_000)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Cópias ordenadas (OrdenacaoExterna.garantirOrdem) no diretório temporário
+     */
+    private static int copiasOrdenadas() throws IOException {
+        int copias = 0;
+        try (DirectoryStream<Path> temporarios = Files.newDirectoryStream(
+                Path.of(System.getProperty("java.io.tmpdir")), "forense-ordenado*.csv")) {
+            for (Path ignorado : temporarios) {
+                copias++;
+            }
+        }
+        return copias;
+    }
+
+    private static String criarArquivoGzip(String nome, String conteudo) throws IOException {
+        Path arquivo = Files.createTempDirectory("forensic-tests").resolve(nome);
+        Files.write(arquivo, comprimir(conteudo));
+        return arquivo.toString();
+    }
+
+    private static byte[] comprimir(String conteudo) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(conteudo.getBytes(Charset.defaultCharset()));
+        }
+        return saida.toByteArray();
+    }
+
+    private static List<Integer> severidades(List<Alerta> alertas) {
+        List<Integer> resultado = new ArrayList<>();
+        for (Alerta alerta : alertas) {
+            resultado.add(alerta.getSeverityLevel());
+        }
+        return resultado;
+    }
+
+    private static String criarArquivoTeste(String nome, String conteudo) throws IOException {
+        Path tempDir = Files.createTempDirectory("forensic-tests");
+        Path arquivo = tempDir.resolve(nome);
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(arquivo.toFile()))) {
+            writer.write(conteudo);
+        }
+
+        return arquivo.toString();
+    }
+
+    private static void verificar(String descricao, boolean condicao, Object resultado) {
+        if (condicao) {
+            System.out.println("   ✅ PASSOU: " + descricao);
+            testesPassados++;
+        } else {
+            System.out.println("   ❌ FALHOU: " + descricao);
+            System.out.println("   Resultado: " + resultado);
+            testesFalhados++;
+        }
+        System.out.println();
+    }
+
+    private static void imprimirResumo() {
+        System.out.println("\n╔════════════════════════════════════════════════════════════╗");
+        System.out.println("║                     RESUMO DOS TESTES                      ║");
+        System.out.println("╚════════════════════════════════════════════════════════════╝");
+        System.out.println();
+        System.out.println("Total de testes: " + (testesPassados + testesFalhados));
+        System.out.println("✅ Passados: " + testesPassados);
+        System.out.println("❌ Falhados: " + testesFalhados);
+        System.out.println();
+
+        if (testesFalhados == 0) {
+            System.out.println("🎉 TODOS OS TESTES PASSARAM! Implementação correta.");
+        } else {
+            System.out.println("⚠️  Alguns testes falharam. Revise a implementação.");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package br.edu.icev.aed.forense.util;
+
+/**
+ * Localiza os delimitadores do CSV (',', '\n' e '"') em um trecho de bytes.
+ *
+ * É o laço mais interno da leitura: o ParserBlocos usa as posições para
+ * separar linhas e campos sem olhar byte a byte. Há duas implementações:
+ * - VarreduraEscalar: um byte por iteração (sempre disponível)
+ * - br.edu.icev.aed.forense.simd.VarreduraVetorial: compara 32/64 bytes por
+ *   instrução com a Vector API (módulo incubador jdk.incubator.vector); só
+ *   existe no build com o perfil simd e precisa de
+ *   --add-modules jdk.incubator.vector na execução
+ *
+ * padrao() escolhe a vetorial quando ela está no classpath e o módulo está
+ * carregado; senão, a escalar. Com -Dforense.simd=false a escalar é usada
+ * sempre.
+ */
+public interface VarreduraDelimitadores {
+
+    // Propriedade de sistema que desliga a varredura vetorial
+    String PROPRIEDADE_SIMD = "forense.simd";
+
+    // Implementação vetorial, carregada por reflexão (compilada à parte)
+    String CLASSE_VETORIAL = "br.edu.icev.aed.forense.simd.VarreduraVetorial";
+
+    /**
+     * Escreve em posicoes, em ordem crescente, o índice de cada ',', '\n' e
+     * '"' de dados[inicio, fim).
+     *
+     * @param posicoes Destino; precisa de pelo menos fim - inicio posições
+     * @return Número de delimitadores encontrados
+     */
+    int varrer(byte[] dados, int inicio, int fim, int[] posicoes);
+
+    /**
+     * Nome da implementação (para relatórios e benchmarks)
+     */
+    String nome();
+
+    /**
+     * Implementação mais rápida disponível nesta JVM
+     */
+    static VarreduraDelimitadores padrao() {
+        return Padrao.INSTANCIA;
+    }
+
+    /**
+     * Escolha feita uma vez, na primeira chamada de padrao()
+     */
+    final class Padrao {
+        private static final VarreduraDelimitadores INSTANCIA = escolher();
+
+        private Padrao() {
+        }
+
+        private static VarreduraDelimitadores escolher() {
+            if (!"false".equalsIgnoreCase(System.getProperty(PROPRIEDADE_SIMD))) {
+                try {
+                    return (VarreduraDelimitadores) Class.forName(CLASSE_VETORIAL)
+                                                         .getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    // Sem o perfil simd ou sem o módulo incubador: usar a escalar
+                }
+            }
+            return new VarreduraEscalar();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package br.edu.icev.aed.forense.util;
+
+/**
+ * Varredura de delimitadores byte a byte, usada quando a Vector API não está
+ * disponível.
+ *
+ * Complexidade: O(fim - inicio)
+ */
+public class VarreduraEscalar implements VarreduraDelimitadores {
+
+    @Override
+    public int varrer(byte[] dados, int inicio, int fim, int[] posicoes) {
+        int encontrados = 0;
+        for (int i = inicio; i < fim; i++) {
+            byte b = dados[i];
+            if (b == ',' || b == '\n' || b == '"') {
+                posicoes[encontrados++] = i;
+            }
+        }
+        return encontrados;
+    }
+
+    @Override
+    public String nome() {
+        return "escalar";
+    }
+}
@@ -69,11 +69,12 @@ if [ -d "src/main/java" ]; then
     JAVA_FILES=$(find src/main/java -name "*.java")
 else
     # Estrutura "solta" (como a sua, com .java na raiz)
-    # Ignora build, target e lib
+    # Ignora build, target, lib e simd (Vector API: só com mvn -Psimd)
     JAVA_FILES=$(find . -name "*.java" \
         ! -path "./build/*" \
         ! -path "./target/*" \
-        ! -path "./lib/*")
+        ! -path "./lib/*" \
+        ! -path "./simd/*")
 fi
 
 if [ -z "$JAVA_FILES" ]; then
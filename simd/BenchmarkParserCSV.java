@@ -0,0 +1,145 @@
+package br.edu.icev.aed.forense.simd;
+
+import br.edu.icev.aed.forense.LogEntry;
+import br.edu.icev.aed.forense.util.ParserBlocos;
+import br.edu.icev.aed.forense.util.ParserLogs;
+import br.edu.icev.aed.forense.util.RelatorioErrosParse;
+import br.edu.icev.aed.forense.util.VarreduraEscalar;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH do parse do CSV de logs (esquema de 7 colunas), sempre a
+ * partir dos mesmos bytes em memória:
+ *
+ * - split: a implementação original do CSVReader (BufferedReader.readLine,
+ *   String.split(",") e Long.parseLong)
+ * - parserLogs: BufferedReader.readLine + ParserLogs (sem exceções)
+ * - blocosEscalar / blocosVetorial: ParserBlocos com cada varredura
+ * - varreduraEscalar / varreduraVetorial: só a localização dos delimitadores
+ *
+ * Uso (JDK 21):
+ *   mvn -Psimd package dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java --add-modules jdk.incubator.vector -cp target/classes:$(cat target/cp.txt) \
+ *        br.edu.icev.aed.forense.simd.BenchmarkParserCSV [opções do JMH, ex.: -wi 2 -i 3]
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class BenchmarkParserCSV {
+
+    private static final String[] ACOES = {"LOGIN", "LOGOUT", "FILE_ACCESS", "DATA_TRANSFER"};
+
+    @Param({"100000"})
+    public int linhas;
+
+    private byte[] csv;
+    private int inicioDados;
+    private int[] posicoes;
+    private ParserBlocos blocosEscalar;
+    private ParserBlocos blocosVetorial;
+    private VarreduraEscalar varreduraEscalar;
+    private VarreduraVetorial varreduraVetorial;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder(
+            "TIMESTAMP,USER_ID,SESSION_ID,ACTION_TYPE,TARGET_RESOURCE,SEVERITY_LEVEL,BYTES_TRANSFERRED\n");
+        for (int i = 0; i < linhas; i++) {
+            sb.append(1_700_000_000L + i).append(",usuario-").append(random.nextInt(500))
+              .append(",sessao-").append(random.nextInt(5_000))
+              .append(',').append(ACOES[random.nextInt(ACOES.length)])
+              .append(",/dados/projetos/r").append(random.nextInt(2_000)).append(".dat")
+              .append(',').append(1 + random.nextInt(10))
+              .append(',').append(random.nextInt(10_000_000)).append('\n');
+        }
+        csv = sb.toString().getBytes(StandardCharsets.UTF_8);
+        posicoes = new int[csv.length];
+        inicioDados = sb.indexOf("\n") + 1;
+
+        varreduraEscalar = new VarreduraEscalar();
+        varreduraVetorial = new VarreduraVetorial();
+        blocosEscalar = new ParserBlocos(varreduraEscalar, StandardCharsets.UTF_8);
+        blocosVetorial = new ParserBlocos(varreduraVetorial, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void split(Blackhole bh) throws IOException {
+        try (BufferedReader reader = leitor()) {
+            reader.readLine();
+            String linha;
+            while ((linha = reader.readLine()) != null) {
+                String[] campos = linha.split(",");
+                try {
+                    bh.consume(new LogEntry(Long.parseLong(campos[0].trim()), campos[1].trim(),
+                                            campos[2].trim(), campos[3].trim(), campos[4].trim(),
+                                            Integer.parseInt(campos[5].trim()),
+                                            Long.parseLong(campos[6].trim())));
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    // Linha inválida: ignorada, como na implementação original
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void parserLogs(Blackhole bh) throws IOException {
+        ParserLogs parser = new ParserLogs();
+        try (BufferedReader reader = leitor()) {
+            reader.readLine();
+            String linha;
+            while ((linha = reader.readLine()) != null) {
+                if (parser.parsear(linha) == ParserLogs.OK) {
+                    bh.consume(parser.resultado());
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public long blocosEscalar(Blackhole bh) {
+        return blocosEscalar.parsear(csv, inicioDados, csv.length, 0, 0, bh::consume, new RelatorioErrosParse());
+    }
+
+    @Benchmark
+    public long blocosVetorial(Blackhole bh) {
+        return blocosVetorial.parsear(csv, inicioDados, csv.length, 0, 0, bh::consume, new RelatorioErrosParse());
+    }
+
+    @Benchmark
+    public int varreduraEscalar() {
+        return varreduraEscalar.varrer(csv, 0, csv.length, posicoes);
+    }
+
+    @Benchmark
+    public int varreduraVetorial() {
+        return varreduraVetorial.varrer(csv, 0, csv.length, posicoes);
+    }
+
+    private BufferedReader leitor() {
+        return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(csv), StandardCharsets.UTF_8));
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder().parent(new CommandLineOptions(args))
+                                       .include(BenchmarkParserCSV.class.getSimpleName())
+                                       .build()).run();
+    }
+}
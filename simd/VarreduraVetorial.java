@@ -0,0 +1,71 @@
+package br.edu.icev.aed.forense.simd;
+
+import br.edu.icev.aed.forense.util.VarreduraDelimitadores;
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Varredura de delimitadores com a Vector API (JDK 21, módulo incubador).
+ *
+ * Carrega ESPECIE.length() bytes por vez (32 com AVX2, 64 com AVX-512),
+ * compara o vetor com ',', '\n' e '"' e transforma a máscara resultante em um
+ * long de bits; cada bit ligado é um delimitador. VectorMask.toLong só
+ * representa até 64 lanes, então em processadores com vetores maiores (SVE
+ * de 1024 ou 2048 bits) a espécie é limitada a 512 bits. Em CSV de logs há em média
+ * um delimitador a cada ~8 bytes, então a maior parte do trabalho é a
+ * comparação, feita em uma instrução por vetor. O resto do trecho (menos que
+ * um vetor) é varrido byte a byte.
+ *
+ * Só é compilada no perfil simd (mvn -Psimd package) e só é usada com
+ * --add-modules jdk.incubator.vector; VarreduraDelimitadores.padrao() a
+ * carrega por reflexão e cai na VarreduraEscalar se ela não estiver
+ * disponível.
+ *
+ * Complexidade: O(fim - inicio), com ESPECIE.length() bytes por iteração
+ */
+public class VarreduraVetorial implements VarreduraDelimitadores {
+
+    // Máximo de lanes cuja máscara cabe em um long
+    private static final int MAXIMO_LANES = Long.SIZE;
+
+    // Maior vetor que o processador executa nativamente, até 64 bytes
+    private static final VectorSpecies<Byte> ESPECIE =
+            ByteVector.SPECIES_PREFERRED.length() <= MAXIMO_LANES ? ByteVector.SPECIES_PREFERRED
+                                                                 : ByteVector.SPECIES_512;
+
+    @Override
+    public int varrer(byte[] dados, int inicio, int fim, int[] posicoes) {
+        int encontrados = 0;
+        int passo = ESPECIE.length();
+        int limite = inicio + ESPECIE.loopBound(fim - inicio);
+
+        int i = inicio;
+        for (; i < limite; i += passo) {
+            ByteVector vetor = ByteVector.fromArray(ESPECIE, dados, i);
+            VectorMask<Byte> delimitadores = vetor.compare(VectorOperators.EQ, (byte) ',')
+                    .or(vetor.compare(VectorOperators.EQ, (byte) '\n'))
+                    .or(vetor.compare(VectorOperators.EQ, (byte) '"'));
+
+            long bits = delimitadores.toLong();
+            while (bits != 0) {
+                posicoes[encontrados++] = i + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+
+        for (; i < fim; i++) {
+            byte b = dados[i];
+            if (b == ',' || b == '\n' || b == '"') {
+                posicoes[encontrados++] = i;
+            }
+        }
+        return encontrados;
+    }
+
+    @Override
+    public String nome() {
+        return "vetorial (" + ESPECIE.vectorBitSize() + " bits)";
+    }
+}